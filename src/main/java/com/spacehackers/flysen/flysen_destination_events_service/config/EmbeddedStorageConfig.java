@@ -0,0 +1,25 @@
+package com.spacehackers.flysen.flysen_destination_events_service.config;
+
+import com.google.cloud.storage.Storage;
+import com.google.cloud.storage.StorageOptions;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Wiring for running without a Google project. Documents live in the embedded
+ * store; Cloud Storage is reached anonymously, so media endpoints only work
+ * against publicly readable buckets.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "app.storage.backend", havingValue = "embedded")
+public class EmbeddedStorageConfig {
+
+    @Bean
+    public Storage storage() {
+        log.warn("Embedded storage backend active, Cloud Storage is accessed without credentials");
+        return StorageOptions.getUnauthenticatedInstance().getService();
+    }
+}
@@ -1,11 +1,28 @@
 package com.spacehackers.flysen.flysen_destination_events_service.config;
 
 import com.google.maps.GeoApiContext;
+import com.spacehackers.flysen.flysen_destination_events_service.limits.PriorityRequestQueue;
+import com.spacehackers.flysen.flysen_destination_events_service.limits.RequestHedger;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 @Configuration
@@ -14,19 +31,129 @@ public class ExternalApiConfig {
     @Value("${google.places.api-key}")
     private String googlePlacesApiKey;
 
+    @Value("${app.http-client.connect-timeout-ms:1000}")
+    private long connectTimeoutMs;
+
+    @Value("${app.http-client.read-timeout-ms:2000}")
+    private long readTimeoutMs;
+
+    @Value("${app.http-client.pool.max-total:50}")
+    private int maxTotalConnections;
+
+    @Value("${app.http-client.pool.max-per-route:20}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${app.http-client.pool.acquire-timeout-ms:500}")
+    private long acquireTimeoutMs;
+
+    @Value("${app.http-client.pool.idle-timeout-seconds:30}")
+    private long idleTimeoutSeconds;
+
+    @Value("${app.http-client.pool.time-to-live-seconds:300}")
+    private long timeToLiveSeconds;
+
+    @Value("${app.hedging.weather.enabled:true}")
+    private boolean weatherHedgingEnabled;
+
+    @Value("${app.hedging.weather.budget-percent:10}")
+    private int weatherHedgingBudgetPercent;
+
+    @Value("${app.hedging.weather.min-delay-ms:50}")
+    private long weatherHedgingMinDelayMs;
+
+    @Value("${app.hedging.weather.max-delay-ms:1000}")
+    private long weatherHedgingMaxDelayMs;
+
+    @Value("${app.hedging.weather.max-threads:16}")
+    private int weatherHedgingMaxThreads;
+
+    @Value("${google.places.timeout-seconds:3}")
+    private long placesTimeoutSeconds;
+
+    @Value("${google.places.queue.rate-per-second:3}")
+    private double placesRatePerSecond;
+
+    @Value("${google.places.queue.max-queued:500}")
+    private int placesMaxQueued;
+
+    @Value("${google.places.queue.interactive-deadline-ms:2000}")
+    private long placesInteractiveDeadlineMs;
+
+    @Value("${google.places.queue.background-deadline-seconds:600}")
+    private long placesBackgroundDeadlineSeconds;
+
+    /**
+     * Keep-alive connection pool shared by every RestTemplate call. Connections are
+     * revalidated after a short idle period and recycled after their time to live,
+     * so DNS changes are picked up without paying TCP and TLS setup per request.
+     */
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager httpConnectionManager() {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotalConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .setTimeToLive(TimeValue.ofSeconds(timeToLiveSeconds))
+                        .build())
+                .build();
+    }
+
+    // Content compression is on by default: requests send Accept-Encoding and gzip
+    // or deflate bodies are decoded transparently
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient httpClient(PoolingHttpClientConnectionManager httpConnectionManager) {
+        return HttpClients.custom()
+                .setConnectionManager(httpConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(acquireTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(idleTimeoutSeconds))
+                .build();
+    }
+
+    // Socket timeouts end calls the weather-api time limiter has already given up on,
+    // so abandoned requests do not keep bulkhead threads busy
+    @Bean
+    public RestTemplate restTemplate(RestTemplateBuilder builder, CloseableHttpClient httpClient) {
+        return builder
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(httpClient))
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public RequestHedger weatherRequestHedger(MeterRegistry meterRegistry) {
+        return new RequestHedger("weather-api", weatherHedgingEnabled, weatherHedgingBudgetPercent,
+                weatherHedgingMinDelayMs, weatherHedgingMaxDelayMs, weatherHedgingMaxThreads, meterRegistry);
+    }
+
+    @Bean(destroyMethod = "close")
+    public PriorityRequestQueue placesRequestQueue(MeterRegistry meterRegistry) {
+        return new PriorityRequestQueue("places-api", placesRatePerSecond, placesMaxQueued, Map.of(
+                PriorityRequestQueue.Priority.INTERACTIVE, Duration.ofMillis(placesInteractiveDeadlineMs),
+                PriorityRequestQueue.Priority.BACKGROUND, Duration.ofSeconds(placesBackgroundDeadlineSeconds)),
+                meterRegistry);
+    }
+
+    // Publishes httpcomponents.httpclient.pool.* gauges
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public MeterBinder httpConnectionPoolMetrics(PoolingHttpClientConnectionManager httpConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(httpConnectionManager, "rest-template");
     }
 
     @Bean
     public GeoApiContext geoApiContext() {
         return new GeoApiContext.Builder()
                 .apiKey(googlePlacesApiKey)
-                .queryRateLimit(3)
-                .connectTimeout(5, TimeUnit.SECONDS)
-                .readTimeout(5, TimeUnit.SECONDS)
-                .writeTimeout(5, TimeUnit.SECONDS)
+                // Backstop only: calls are already paced by placesRequestQueue
+                .queryRateLimit((int) Math.ceil(placesRatePerSecond))
+                .connectTimeout(placesTimeoutSeconds, TimeUnit.SECONDS)
+                .readTimeout(placesTimeoutSeconds, TimeUnit.SECONDS)
+                .writeTimeout(placesTimeoutSeconds, TimeUnit.SECONDS)
                 .build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.spacehackers.flysen.flysen_destination_events_service.config;
+
+import com.spacehackers.flysen.flysen_destination_events_service.metrics.Endpoints;
+import io.github.resilience4j.core.ContextPropagator;
+import org.slf4j.MDC;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Carries the caller's endpoint and logging context onto Resilience4j bulkhead
+ * threads, so external API calls made there are still attributed to the endpoint
+ * that caused them. Only these values are copied, never the request itself, which
+ * may be recycled by the container while the call is still running.
+ * Registered through {@code contextPropagators} in application.yml.
+ */
+public class RequestContextPropagator implements ContextPropagator<RequestContextPropagator.CallerContext> {
+
+    public record CallerContext(String endpoint, Map<String, String> mdc) {
+    }
+
+    @Override
+    public Supplier<Optional<CallerContext>> retrieve() {
+        return () -> Optional.of(new CallerContext(Endpoints.current(), MDC.getCopyOfContextMap()));
+    }
+
+    @Override
+    public Consumer<Optional<CallerContext>> copy() {
+        return context -> context.ifPresent(caller -> {
+            Endpoints.propagate(caller.endpoint());
+            if (caller.mdc() != null) {
+                MDC.setContextMap(caller.mdc());
+            }
+        });
+    }
+
+    @Override
+    public Consumer<Optional<CallerContext>> clear() {
+        return context -> {
+            Endpoints.clearPropagated();
+            MDC.clear();
+        };
+    }
+}
@@ -0,0 +1,60 @@
+package com.spacehackers.flysen.flysen_destination_events_service.config;
+
+import com.spacehackers.flysen.flysen_destination_events_service.dtos.ApiResponse;
+import com.spacehackers.flysen.flysen_destination_events_service.services.SnapshotStore;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Labels responses built from a {@link SnapshotStore} snapshot: the body gets
+ * {@code stale: true} and the snapshot age, and the headers keep clients and
+ * proxies from caching or revalidating it as if it were current.
+ */
+@RestControllerAdvice
+public class StaleResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)
+                || !(servletRequest.getServletRequest().getAttribute(SnapshotStore.STALE_SINCE_ATTRIBUTE)
+                        instanceof Instant capturedAt)) {
+            return body;
+        }
+
+        long ageSeconds = Math.max(0, Duration.between(capturedAt, Instant.now()).getSeconds());
+        if (response instanceof ServletServerHttpResponse servletResponse) {
+            // Set on the servlet response directly to replace headers the controller already wrote,
+            // such as the ETag of the current collection version, which must never confirm a snapshot
+            HttpServletResponse headers = servletResponse.getServletResponse();
+            headers.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noStore().getHeaderValue());
+            headers.setHeader(HttpHeaders.AGE, String.valueOf(ageSeconds));
+            headers.setHeader(HttpHeaders.ETAG, "W/\"stale-" + capturedAt.toEpochMilli() + "\"");
+        }
+
+        if (body instanceof ApiResponse<?> apiResponse) {
+            apiResponse.setStale(true);
+            apiResponse.setStaleAgeSeconds(ageSeconds);
+        }
+        return body;
+    }
+}
@@ -0,0 +1,186 @@
+package com.spacehackers.flysen.flysen_destination_events_service.controllers;
+
+import com.spacehackers.flysen.flysen_destination_events_service.dtos.ActivityAvailabilityDTO;
+import com.spacehackers.flysen.flysen_destination_events_service.dtos.ActivityDTO;
+import com.spacehackers.flysen.flysen_destination_events_service.dtos.ApiResponse;
+import com.spacehackers.flysen.flysen_destination_events_service.index.ActivityAvailabilityIndex;
+import com.spacehackers.flysen.flysen_destination_events_service.models.Activity;
+import com.spacehackers.flysen.flysen_destination_events_service.repositories.ActivityRepository;
+import com.spacehackers.flysen.flysen_destination_events_service.services.ActivityService;
+import com.spacehackers.flysen.flysen_destination_events_service.services.CollectionVersionService;
+import com.spacehackers.flysen.flysen_destination_events_service.util.ActivityMapper;
+import com.spacehackers.flysen.flysen_destination_events_service.util.ETags;
+import com.spacehackers.flysen.flysen_destination_events_service.util.ModelMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Slf4j
+@RestController
+@RequestMapping("/activities")
+@RequiredArgsConstructor
+@Tag(name = "Activities", description = "Activity management and availability APIs")
+public class ActivityController {
+
+    private final ActivityService activityService;
+    private final CollectionVersionService collectionVersionService;
+
+    @PostMapping
+    @Operation(summary = "Create a new activity")
+    public ResponseEntity<ApiResponse<ActivityDTO>> createActivity(@Valid @RequestBody ActivityDTO activityDTO) {
+        log.info("Creating new activity: {}", activityDTO.getName());
+
+        Activity activity = ActivityMapper.toModel(activityDTO);
+        String id = activityService.createActivity(activity);
+
+        Activity created = activityService.getActivityById(id).orElse(activity);
+        ActivityDTO responseDTO = ActivityMapper.toDTO(created);
+
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.<ActivityDTO>builder()
+                        .success(true)
+                        .message("Activity created successfully")
+                        .data(responseDTO)
+                        .build());
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get activity by ID")
+    public ResponseEntity<ApiResponse<ActivityDTO>> getActivity(
+            @PathVariable String id,
+            WebRequest webRequest) {
+        log.info("Fetching activity with ID: {}", id);
+        Optional<Activity> activity = activityService.getActivityById(id);
+        if (activity.isPresent()
+                && webRequest.checkNotModified(ETags.forDocument(id, activity.get().getUpdatedAt(), ETags.representation(webRequest)))) {
+            return null;
+        }
+
+        return activity
+                .map(found -> ResponseEntity.ok(
+                        ApiResponse.<ActivityDTO>builder()
+                                .success(true)
+                                .message("Activity retrieved successfully")
+                                .data(ActivityMapper.toDTO(found))
+                                .build()))
+                .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(ApiResponse.<ActivityDTO>builder()
+                                .success(false)
+                                .message("Activity not found")
+                                .build()));
+    }
+
+    @GetMapping("/destination/{destinationId}")
+    @Operation(summary = "Get activities by destination")
+    public ResponseEntity<ApiResponse<List<ActivityDTO>>> getActivitiesByDestination(
+            @PathVariable String destinationId,
+            WebRequest webRequest) {
+        log.info("Fetching activities for destination: {}", destinationId);
+        if (notModified(webRequest, "destination", destinationId)) {
+            return null;
+        }
+        List<Activity> activities = activityService.getActivitiesByDestination(destinationId);
+        List<ActivityDTO> dtos = ModelMapper.toDTOs(activities, ActivityMapper::toDTO);
+
+        return ResponseEntity.ok(
+                ApiResponse.<List<ActivityDTO>>builder()
+                        .success(true)
+                        .message("Activities retrieved successfully")
+                        .data(dtos)
+                        .build());
+    }
+
+    @GetMapping("/destination/{destinationId}/available")
+    @Operation(summary = "Get activities available on a date and time window, within budget and group size")
+    public ResponseEntity<ApiResponse<ActivityAvailabilityDTO>> getAvailableActivities(
+            @PathVariable String destinationId,
+            @RequestParam String date,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) Integer groupSize,
+            @RequestParam(required = false) List<String> type,
+            @RequestParam(defaultValue = "50") int limit) {
+        log.debug("Finding activities at destination {} available on {}", destinationId, date);
+        ActivityAvailabilityIndex.Query query;
+        try {
+            query = new ActivityAvailabilityIndex.Query(
+                    LocalDate.parse(date),
+                    from != null ? LocalTime.parse(from) : null,
+                    to != null ? LocalTime.parse(to) : null,
+                    maxPrice,
+                    groupSize,
+                    type != null ? type.stream()
+                            .map(value -> Activity.ActivityType.valueOf(value.toUpperCase(Locale.ROOT)))
+                            .collect(Collectors.toSet()) : Set.of(),
+                    Math.max(0, Math.min(limit, 200)));
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Invalid date, from or to: " + e.getMessage(), e);
+        }
+        if (query.from() != null && query.to() != null && !query.to().isAfter(query.from())) {
+            throw new IllegalArgumentException("to must be after from");
+        }
+        ActivityAvailabilityIndex.Result result = activityService.findAvailable(destinationId, query);
+
+        return ResponseEntity.ok(
+                ApiResponse.<ActivityAvailabilityDTO>builder()
+                        .success(true)
+                        .message("Available activities retrieved successfully")
+                        .data(ActivityAvailabilityDTO.builder()
+                                .date(query.date().toString())
+                                .total(result.total())
+                                .activities(ModelMapper.toDTOs(result.matches(), ActivityMapper::toAvailableDTO))
+                                .build())
+                        .build());
+    }
+
+    @PutMapping("/{id}")
+    @Operation(summary = "Update activity")
+    public ResponseEntity<ApiResponse<Void>> updateActivity(
+            @PathVariable String id,
+            @Valid @RequestBody ActivityDTO activityDTO) {
+        log.info("Updating activity with ID: {}", id);
+        Activity activity = ActivityMapper.toModel(activityDTO);
+        activityService.updateActivity(id, activity);
+
+        return ResponseEntity.ok(
+                ApiResponse.<Void>builder()
+                        .success(true)
+                        .message("Activity updated successfully")
+                        .build());
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Delete activity")
+    public ResponseEntity<ApiResponse<Void>> deleteActivity(@PathVariable String id) {
+        log.info("Deleting activity with ID: {}", id);
+        activityService.deleteActivity(id);
+
+        return ResponseEntity.ok(
+                ApiResponse.<Void>builder()
+                        .success(true)
+                        .message("Activity deleted successfully")
+                        .build());
+    }
+
+    private boolean notModified(WebRequest webRequest, Object... params) {
+        return collectionVersionService.listETag(ActivityRepository.COLLECTION_NAME, ETags.representation(webRequest), params)
+                .map(webRequest::checkNotModified)
+                .orElse(false);
+    }
+}
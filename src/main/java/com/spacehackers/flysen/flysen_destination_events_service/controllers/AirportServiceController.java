@@ -2,9 +2,20 @@ package com.spacehackers.flysen.flysen_destination_events_service.controllers;
 
 import com.spacehackers.flysen.flysen_destination_events_service.dtos.ApiResponse;
 import com.spacehackers.flysen.flysen_destination_events_service.dtos.AirportServiceDTO;
+import com.spacehackers.flysen.flysen_destination_events_service.dtos.NearbyAirportServiceDTO;
+import com.spacehackers.flysen.flysen_destination_events_service.dtos.ProductSearchDTO;
+import com.spacehackers.flysen.flysen_destination_events_service.dtos.TerminalGraphDTO;
+import com.spacehackers.flysen.flysen_destination_events_service.index.ProductIndex;
+import com.spacehackers.flysen.flysen_destination_events_service.index.WalkingDistances;
 import com.spacehackers.flysen.flysen_destination_events_service.models.AirportService;
+import com.spacehackers.flysen.flysen_destination_events_service.models.TerminalGraph;
+import com.spacehackers.flysen.flysen_destination_events_service.repositories.AirportServiceRepository;
+import com.spacehackers.flysen.flysen_destination_events_service.services.CollectionVersionService;
 import com.spacehackers.flysen.flysen_destination_events_service.services.AirportServiceService;
+import com.spacehackers.flysen.flysen_destination_events_service.util.ETags;
 import com.spacehackers.flysen.flysen_destination_events_service.util.AirportServiceMapper;
+import com.spacehackers.flysen.flysen_destination_events_service.util.CurrencyRates;
+import com.spacehackers.flysen.flysen_destination_events_service.util.ModelMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -13,9 +24,15 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Optional;
 
 @Slf4j
 @RestController
@@ -25,6 +42,7 @@ import java.util.stream.Collectors;
 public class AirportServiceController {
 
     private final AirportServiceService airportServiceService;
+    private final CollectionVersionService collectionVersionService;
 
     @PostMapping
     @Operation(summary = "Create a new airport service")
@@ -48,14 +66,22 @@ public class AirportServiceController {
 
     @GetMapping("/{id}")
     @Operation(summary = "Get airport service by ID")
-    public ResponseEntity<ApiResponse<AirportServiceDTO>> getAirportService(@PathVariable String id) {
+    public ResponseEntity<ApiResponse<AirportServiceDTO>> getAirportService(
+            @PathVariable String id,
+            WebRequest webRequest) {
         log.info("Fetching airport service with ID: {}", id);
-        return airportServiceService.getAirportServiceById(id)
-                .map(service -> ResponseEntity.ok(
+        Optional<AirportService> service = airportServiceService.getAirportServiceById(id);
+        if (service.isPresent()
+                && webRequest.checkNotModified(ETags.forDocument(id, service.get().getUpdatedAt(), ETags.representation(webRequest)))) {
+            return null;
+        }
+
+        return service
+                .map(found -> ResponseEntity.ok(
                         ApiResponse.<AirportServiceDTO>builder()
                                 .success(true)
                                 .message("Airport service retrieved successfully")
-                                .data(AirportServiceMapper.toDTO(service))
+                                .data(AirportServiceMapper.toDTO(found))
                                 .build()))
                 .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body(ApiResponse.<AirportServiceDTO>builder()
@@ -68,12 +94,14 @@ public class AirportServiceController {
     @Operation(summary = "Get all airport services with pagination")
     public ResponseEntity<ApiResponse<List<AirportServiceDTO>>> getAllAirportServices(
             @RequestParam(defaultValue = "20") int limit,
-            @RequestParam(required = false) String lastDocumentId) {
+            @RequestParam(required = false) String lastDocumentId,
+            WebRequest webRequest) {
         log.info("Fetching airport services with limit: {}", limit);
+        if (notModified(webRequest, "all", limit, lastDocumentId)) {
+            return null;
+        }
         List<AirportService> services = airportServiceService.getAllAirportServices(limit, lastDocumentId);
-        List<AirportServiceDTO> dtos = services.stream()
-                .map(AirportServiceMapper::toDTO)
-                .collect(Collectors.toList());
+        List<AirportServiceDTO> dtos = ModelMapper.toDTOs(services, AirportServiceMapper::toDTO);
 
         return ResponseEntity.ok(
                 ApiResponse.<List<AirportServiceDTO>>builder()
@@ -86,12 +114,18 @@ public class AirportServiceController {
     @GetMapping("/airport/{airportId}")
     @Operation(summary = "Get all services for a specific airport")
     public ResponseEntity<ApiResponse<List<AirportServiceDTO>>> getServicesByAirport(
-            @PathVariable String airportId) {
+            @PathVariable String airportId,
+            @RequestParam(required = false) String openAt,
+            WebRequest webRequest) {
         log.info("Fetching services for airport: {}", airportId);
-        List<AirportService> services = airportServiceService.getServicesByAirport(airportId);
-        List<AirportServiceDTO> dtos = services.stream()
-                .map(AirportServiceMapper::toDTO)
-                .collect(Collectors.toList());
+        Instant openInstant = parseOpenAt(openAt);
+        if (notModified(webRequest, "airport", airportId, openInstant)) {
+            return null;
+        }
+        List<AirportService> services = openInstant != null
+                ? airportServiceService.getServicesOpenAt(airportId, openInstant, null, null)
+                : airportServiceService.getServicesByAirport(airportId);
+        List<AirportServiceDTO> dtos = ModelMapper.toDTOs(services, AirportServiceMapper::toDTO);
 
         return ResponseEntity.ok(
                 ApiResponse.<List<AirportServiceDTO>>builder()
@@ -104,12 +138,14 @@ public class AirportServiceController {
     @GetMapping("/airport-code/{airportCode}")
     @Operation(summary = "Get all services for an airport by airport code")
     public ResponseEntity<ApiResponse<List<AirportServiceDTO>>> getServicesByAirportCode(
-            @PathVariable String airportCode) {
+            @PathVariable String airportCode,
+            WebRequest webRequest) {
         log.info("Fetching services for airport code: {}", airportCode);
+        if (notModified(webRequest, "airport-code", airportCode)) {
+            return null;
+        }
         List<AirportService> services = airportServiceService.getServicesByAirportCode(airportCode);
-        List<AirportServiceDTO> dtos = services.stream()
-                .map(AirportServiceMapper::toDTO)
-                .collect(Collectors.toList());
+        List<AirportServiceDTO> dtos = ModelMapper.toDTOs(services, AirportServiceMapper::toDTO);
 
         return ResponseEntity.ok(
                 ApiResponse.<List<AirportServiceDTO>>builder()
@@ -123,13 +159,19 @@ public class AirportServiceController {
     @Operation(summary = "Get services by category for a specific airport")
     public ResponseEntity<ApiResponse<List<AirportServiceDTO>>> getServicesByCategory(
             @PathVariable String airportId,
-            @PathVariable String category) {
+            @PathVariable String category,
+            @RequestParam(required = false) String openAt,
+            WebRequest webRequest) {
         log.info("Fetching services for airport {} with category: {}", airportId, category);
+        Instant openInstant = parseOpenAt(openAt);
+        if (notModified(webRequest, "category", airportId, category, openInstant)) {
+            return null;
+        }
         AirportService.ServiceCategory serviceCategory = AirportService.ServiceCategory.valueOf(category);
-        List<AirportService> services = airportServiceService.getServicesByCategory(airportId, serviceCategory);
-        List<AirportServiceDTO> dtos = services.stream()
-                .map(AirportServiceMapper::toDTO)
-                .collect(Collectors.toList());
+        List<AirportService> services = openInstant != null
+                ? airportServiceService.getServicesOpenAt(airportId, openInstant, serviceCategory, null)
+                : airportServiceService.getServicesByCategory(airportId, serviceCategory);
+        List<AirportServiceDTO> dtos = ModelMapper.toDTOs(services, AirportServiceMapper::toDTO);
 
         return ResponseEntity.ok(
                 ApiResponse.<List<AirportServiceDTO>>builder()
@@ -143,12 +185,14 @@ public class AirportServiceController {
     @Operation(summary = "Get top-rated services for a specific airport")
     public ResponseEntity<ApiResponse<List<AirportServiceDTO>>> getTopRatedServices(
             @PathVariable String airportId,
-            @RequestParam(defaultValue = "10") int limit) {
+            @RequestParam(defaultValue = "10") int limit,
+            WebRequest webRequest) {
         log.info("Fetching top {} rated services for airport: {}", limit, airportId);
+        if (notModified(webRequest, "top-rated", airportId, limit)) {
+            return null;
+        }
         List<AirportService> services = airportServiceService.getTopRatedServices(airportId, limit);
-        List<AirportServiceDTO> dtos = services.stream()
-                .map(AirportServiceMapper::toDTO)
-                .collect(Collectors.toList());
+        List<AirportServiceDTO> dtos = ModelMapper.toDTOs(services, AirportServiceMapper::toDTO);
 
         return ResponseEntity.ok(
                 ApiResponse.<List<AirportServiceDTO>>builder()
@@ -162,12 +206,18 @@ public class AirportServiceController {
     @Operation(summary = "Get services by terminal")
     public ResponseEntity<ApiResponse<List<AirportServiceDTO>>> getServicesByTerminal(
             @PathVariable String airportId,
-            @PathVariable String terminal) {
+            @PathVariable String terminal,
+            @RequestParam(required = false) String openAt,
+            WebRequest webRequest) {
         log.info("Fetching services for airport {} terminal: {}", airportId, terminal);
-        List<AirportService> services = airportServiceService.getServicesByTerminal(airportId, terminal);
-        List<AirportServiceDTO> dtos = services.stream()
-                .map(AirportServiceMapper::toDTO)
-                .collect(Collectors.toList());
+        Instant openInstant = parseOpenAt(openAt);
+        if (notModified(webRequest, "terminal", airportId, terminal, openInstant)) {
+            return null;
+        }
+        List<AirportService> services = openInstant != null
+                ? airportServiceService.getServicesOpenAt(airportId, openInstant, null, terminal)
+                : airportServiceService.getServicesByTerminal(airportId, terminal);
+        List<AirportServiceDTO> dtos = ModelMapper.toDTOs(services, AirportServiceMapper::toDTO);
 
         return ResponseEntity.ok(
                 ApiResponse.<List<AirportServiceDTO>>builder()
@@ -181,12 +231,14 @@ public class AirportServiceController {
     @Operation(summary = "Search services at an airport")
     public ResponseEntity<ApiResponse<List<AirportServiceDTO>>> searchServices(
             @PathVariable String airportId,
-            @RequestParam String query) {
+            @RequestParam String query,
+            WebRequest webRequest) {
         log.info("Searching services at airport {} with query: {}", airportId, query);
+        if (notModified(webRequest, "search", airportId, query)) {
+            return null;
+        }
         List<AirportService> services = airportServiceService.searchServices(airportId, query);
-        List<AirportServiceDTO> dtos = services.stream()
-                .map(AirportServiceMapper::toDTO)
-                .collect(Collectors.toList());
+        List<AirportServiceDTO> dtos = ModelMapper.toDTOs(services, AirportServiceMapper::toDTO);
 
         return ResponseEntity.ok(
                 ApiResponse.<List<AirportServiceDTO>>builder()
@@ -196,6 +248,121 @@ public class AirportServiceController {
                         .build());
     }
 
+    @GetMapping("/airport/{airportId}/nearest")
+    @Operation(summary = "Get the open services closest to a gate by walking time")
+    public ResponseEntity<ApiResponse<List<NearbyAirportServiceDTO>>> getNearestServices(
+            @PathVariable String airportId,
+            @RequestParam String gate,
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = "now") String openAt,
+            @RequestParam(defaultValue = "5") int limit) {
+        log.debug("Fetching services of airport {} nearest to {}", airportId, gate);
+        AirportService.ServiceCategory serviceCategory = category != null
+                ? AirportService.ServiceCategory.valueOf(category) : null;
+        Optional<List<WalkingDistances.Nearby>> nearest = airportServiceService.getNearestOpenServices(
+                airportId, gate, parseOpenAt(openAt), serviceCategory, Math.max(0, Math.min(limit, 50)));
+
+        return nearest
+                .map(found -> ResponseEntity.ok(
+                        ApiResponse.<List<NearbyAirportServiceDTO>>builder()
+                                .success(true)
+                                .message("Nearest services retrieved successfully")
+                                .data(ModelMapper.toDTOs(found, AirportServiceMapper::toNearbyDTO))
+                                .build()))
+                .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(ApiResponse.<List<NearbyAirportServiceDTO>>builder()
+                                .success(false)
+                                .message("Gate not found in the airport's terminal graph")
+                                .build()));
+    }
+
+    @GetMapping("/airport/{airportId}/products")
+    @Operation(summary = "Search the products of every service of an airport")
+    public ResponseEntity<ApiResponse<ProductSearchDTO>> searchProducts(
+            @PathVariable String airportId,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) String currency,
+            @RequestParam(required = false) Boolean inStock,
+            @RequestParam(defaultValue = "price_asc") String sort,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "20") int limit) {
+        log.debug("Searching products of airport {} for: {}", airportId, q);
+        CurrencyRates rates = airportServiceService.getCurrencyRates();
+        String priceCurrency = currency != null ? currency.toUpperCase(Locale.ROOT) : rates.getBaseCurrency();
+        if (!rates.supports(priceCurrency)) {
+            throw new IllegalArgumentException("No exchange rate for currency " + priceCurrency);
+        }
+        if (minPrice != null && maxPrice != null && minPrice > maxPrice) {
+            throw new IllegalArgumentException("minPrice must not exceed maxPrice");
+        }
+        ProductIndex.Query query = new ProductIndex.Query(
+                q,
+                minPrice != null ? rates.toBase(minPrice, priceCurrency).getAsDouble() : null,
+                maxPrice != null ? rates.toBase(maxPrice, priceCurrency).getAsDouble() : null,
+                inStock,
+                ProductIndex.Sort.valueOf(sort.toUpperCase(Locale.ROOT)),
+                Math.max(0, offset),
+                Math.max(0, Math.min(limit, 100)));
+        ProductIndex.Result result = airportServiceService.searchProducts(airportId, query);
+
+        return ResponseEntity.ok(
+                ApiResponse.<ProductSearchDTO>builder()
+                        .success(true)
+                        .message("Products retrieved successfully")
+                        .data(ProductSearchDTO.builder()
+                                .total(result.total())
+                                .currency(priceCurrency)
+                                .products(ModelMapper.toDTOs(result.hits(),
+                                        hit -> AirportServiceMapper.toProductHitDTO(hit, rates, priceCurrency)))
+                                .build())
+                        .build());
+    }
+
+    @GetMapping("/airport/{airportId}/terminal-graph")
+    @Operation(summary = "Get the walking graph of an airport's gates and terminals")
+    public ResponseEntity<ApiResponse<TerminalGraphDTO>> getTerminalGraph(
+            @PathVariable String airportId,
+            WebRequest webRequest) {
+        log.info("Fetching terminal graph of airport: {}", airportId);
+        Optional<TerminalGraph> graph = airportServiceService.getTerminalGraph(airportId);
+        if (graph.isPresent()
+                && webRequest.checkNotModified(ETags.forDocument(airportId, graph.get().getUpdatedAt(), ETags.representation(webRequest)))) {
+            return null;
+        }
+
+        return graph
+                .map(found -> ResponseEntity.ok(
+                        ApiResponse.<TerminalGraphDTO>builder()
+                                .success(true)
+                                .message("Terminal graph retrieved successfully")
+                                .data(AirportServiceMapper.toTerminalGraphDTO(found))
+                                .build()))
+                .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(ApiResponse.<TerminalGraphDTO>builder()
+                                .success(false)
+                                .message("Terminal graph not found")
+                                .build()));
+    }
+
+    @PutMapping("/airport/{airportId}/terminal-graph")
+    @Operation(summary = "Replace the walking graph of an airport's gates and terminals")
+    public ResponseEntity<ApiResponse<Void>> saveTerminalGraph(
+            @PathVariable String airportId,
+            @Valid @RequestBody TerminalGraphDTO graphDTO) {
+        log.info("Saving terminal graph of airport: {}", airportId);
+        TerminalGraph graph = AirportServiceMapper.toTerminalGraphModel(graphDTO);
+        airportServiceService.validateTerminalGraph(graph);
+        airportServiceService.saveTerminalGraph(airportId, graph);
+
+        return ResponseEntity.ok(
+                ApiResponse.<Void>builder()
+                        .success(true)
+                        .message("Terminal graph saved successfully")
+                        .build());
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Update airport service")
     public ResponseEntity<ApiResponse<Void>> updateAirportService(
@@ -273,4 +440,26 @@ public class AirportServiceController {
                         .message("Product removed successfully")
                         .build());
     }
+
+    /**
+     * Accepts {@code now} or an ISO 8601 timestamp with offset, truncated to the
+     * minute so that ETags stay stable within it.
+     */
+    private static Instant parseOpenAt(String openAt) {
+        if (openAt == null || openAt.isBlank()) {
+            return null;
+        }
+        try {
+            Instant instant = "now".equalsIgnoreCase(openAt) ? Instant.now() : OffsetDateTime.parse(openAt).toInstant();
+            return instant.truncatedTo(ChronoUnit.MINUTES);
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Invalid openAt, expected 'now' or an ISO 8601 timestamp: " + openAt, e);
+        }
+    }
+
+    private boolean notModified(WebRequest webRequest, Object... params) {
+        return collectionVersionService.listETag(AirportServiceRepository.COLLECTION_NAME, ETags.representation(webRequest), params)
+                .map(webRequest::checkNotModified)
+                .orElse(false);
+    }
 }
\ No newline at end of file
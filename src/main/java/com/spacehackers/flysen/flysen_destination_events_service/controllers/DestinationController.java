@@ -1,21 +1,33 @@
 package com.spacehackers.flysen.flysen_destination_events_service.controllers;
 
+import com.google.maps.model.PlaceType;
 import com.spacehackers.flysen.flysen_destination_events_service.dtos.ApiResponse;
 import com.spacehackers.flysen.flysen_destination_events_service.dtos.DestinationDTO;
+import com.spacehackers.flysen.flysen_destination_events_service.dtos.TouristAttractionDTO;
 import com.spacehackers.flysen.flysen_destination_events_service.models.Destination;
+import com.spacehackers.flysen.flysen_destination_events_service.models.TouristAttraction;
+import com.spacehackers.flysen.flysen_destination_events_service.repositories.DestinationRepository;
+import com.spacehackers.flysen.flysen_destination_events_service.services.CollectionVersionService;
 import com.spacehackers.flysen.flysen_destination_events_service.services.DestinationService;
+import com.spacehackers.flysen.flysen_destination_events_service.util.ETags;
 import com.spacehackers.flysen.flysen_destination_events_service.util.ModelMapper;
+import com.spacehackers.flysen.flysen_destination_events_service.util.PlaceAttractionMapper;
+import com.spacehackers.flysen.flysen_destination_events_service.util.TouristAttractionMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.Instant;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Optional;
 
 @Slf4j
 @RestController
@@ -24,7 +36,14 @@ import java.util.stream.Collectors;
 @Tag(name = "Destinations", description = "Destination management APIs")
 public class DestinationController {
 
+    // The Places nearby search accepts up to 50 km
+    private static final int MAX_NEARBY_RADIUS_METERS = 50_000;
+
     private final DestinationService destinationService;
+    private final CollectionVersionService collectionVersionService;
+
+    @Value("${app.destination.weather-refresh-seconds:600}")
+    private long weatherRefreshSeconds;
 
     @PostMapping
     @Operation(summary = "Create a new destination")
@@ -39,7 +58,7 @@ public class DestinationController {
 
         // Get the created destination and convert back to DTO
         Destination created = destinationService.getDestinationById(id).orElse(destination);
-        DestinationDTO responseDTO = ModelMapper.toDTO(created);
+        DestinationDTO responseDTO = ModelMapper.toDTO(destinationService.withCurrentWeather(created));
 
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(ApiResponse.<DestinationDTO>builder()
@@ -51,14 +70,23 @@ public class DestinationController {
 
     @GetMapping("/{id}")
     @Operation(summary = "Get destination by ID")
-    public ResponseEntity<ApiResponse<DestinationDTO>> getDestination(@PathVariable String id) {
+    public ResponseEntity<ApiResponse<DestinationDTO>> getDestination(
+            @PathVariable String id,
+            WebRequest webRequest) {
         log.info("Fetching destination with ID: {}", id);
-        return destinationService.getDestinationById(id)
-                .map(destination -> ResponseEntity.ok(
+        Optional<Destination> destination = destinationService.getDestinationById(id);
+        if (destination.isPresent()
+                && webRequest.checkNotModified(ETags.forDocument(id, destination.get().getUpdatedAt(),
+                        weatherWindow(), ETags.representation(webRequest)))) {
+            return null;
+        }
+
+        return destination
+                .map(found -> ResponseEntity.ok(
                         ApiResponse.<DestinationDTO>builder()
                                 .success(true)
                                 .message("Destination retrieved successfully")
-                                .data(ModelMapper.toDTO(destination))
+                                .data(ModelMapper.toDTO(destinationService.withCurrentWeather(found)))
                                 .build()))
                 .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body(ApiResponse.<DestinationDTO>builder()
@@ -67,16 +95,67 @@ public class DestinationController {
                                 .build()));
     }
 
+    @GetMapping("/{id}/nearby-places")
+    @Operation(summary = "Look up places of a type around a destination on Google Places")
+    public ResponseEntity<ApiResponse<List<TouristAttractionDTO>>> getNearbyPlaces(
+            @PathVariable String id,
+            @RequestParam(defaultValue = "tourist_attraction") String type,
+            @RequestParam(defaultValue = "2000") int radius) {
+        log.info("Fetching {} places near destination {}", type, id);
+        if (radius < 1 || radius > MAX_NEARBY_RADIUS_METERS) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.<List<TouristAttractionDTO>>builder()
+                            .success(false)
+                            .message("Radius must be between 1 and " + MAX_NEARBY_RADIUS_METERS + " meters")
+                            .build());
+        }
+        if (!isPlaceType(type)) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.<List<TouristAttractionDTO>>builder()
+                            .success(false)
+                            .message("Unknown place type: " + type)
+                            .build());
+        }
+
+        return destinationService.getDestinationById(id)
+                .map(destination -> ResponseEntity.ok(
+                        ApiResponse.<List<TouristAttractionDTO>>builder()
+                                .success(true)
+                                .message("Nearby places retrieved successfully")
+                                .data(destinationService.getNearbyPlaces(destination, type, radius).stream()
+                                        .map(place -> TouristAttractionMapper.toDTO(PlaceAttractionMapper.applyPlace(
+                                                TouristAttraction.builder().destinationId(id).build(), place)))
+                                        .toList())
+                                .build()))
+                .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(ApiResponse.<List<TouristAttractionDTO>>builder()
+                                .success(false)
+                                .message("Destination not found")
+                                .build()));
+    }
+
+    // Checked here so a bad type never reaches the Places bulkhead and circuit breaker
+    private static boolean isPlaceType(String type) {
+        try {
+            PlaceType.valueOf(type.toUpperCase(Locale.ROOT));
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
     @GetMapping
     @Operation(summary = "Get all destinations with pagination")
     public ResponseEntity<ApiResponse<List<DestinationDTO>>> getAllDestinations(
             @RequestParam(defaultValue = "20") int limit,
-            @RequestParam(required = false) String lastDocumentId) {
+            @RequestParam(required = false) String lastDocumentId,
+            WebRequest webRequest) {
         log.info("Fetching destinations with limit: {}", limit);
+        if (notModified(webRequest, "all", limit, lastDocumentId)) {
+            return null;
+        }
         List<Destination> destinations = destinationService.getAllDestinations(limit, lastDocumentId);
-        List<DestinationDTO> dtos = destinations.stream()
-                .map(ModelMapper::toDTO)
-                .collect(Collectors.toList());
+        List<DestinationDTO> dtos = ModelMapper.toDTOs(destinations, ModelMapper::toDTO);
 
         return ResponseEntity.ok(
                 ApiResponse.<List<DestinationDTO>>builder()
@@ -88,12 +167,15 @@ public class DestinationController {
 
     @GetMapping("/region/{region}")
     @Operation(summary = "Get destinations by region")
-    public ResponseEntity<ApiResponse<List<DestinationDTO>>> getDestinationsByRegion(@PathVariable String region) {
+    public ResponseEntity<ApiResponse<List<DestinationDTO>>> getDestinationsByRegion(
+            @PathVariable String region,
+            WebRequest webRequest) {
         log.info("Fetching destinations for region: {}", region);
+        if (notModified(webRequest, "region", region)) {
+            return null;
+        }
         List<Destination> destinations = destinationService.getDestinationsByRegion(region);
-        List<DestinationDTO> dtos = destinations.stream()
-                .map(ModelMapper::toDTO)
-                .collect(Collectors.toList());
+        List<DestinationDTO> dtos = ModelMapper.toDTOs(destinations, ModelMapper::toDTO);
 
         return ResponseEntity.ok(
                 ApiResponse.<List<DestinationDTO>>builder()
@@ -106,12 +188,14 @@ public class DestinationController {
     @GetMapping("/popular")
     @Operation(summary = "Get popular destinations")
     public ResponseEntity<ApiResponse<List<DestinationDTO>>> getPopularDestinations(
-            @RequestParam(defaultValue = "10") int limit) {
+            @RequestParam(defaultValue = "10") int limit,
+            WebRequest webRequest) {
         log.info("Fetching popular destinations with limit: {}", limit);
+        if (notModified(webRequest, "popular", limit)) {
+            return null;
+        }
         List<Destination> destinations = destinationService.getPopularDestinations(limit);
-        List<DestinationDTO> dtos = destinations.stream()
-                .map(ModelMapper::toDTO)
-                .collect(Collectors.toList());
+        List<DestinationDTO> dtos = ModelMapper.toDTOs(destinations, ModelMapper::toDTO);
 
         return ResponseEntity.ok(
                 ApiResponse.<List<DestinationDTO>>builder()
@@ -124,12 +208,14 @@ public class DestinationController {
     @GetMapping("/search")
     @Operation(summary = "Search destinations")
     public ResponseEntity<ApiResponse<List<DestinationDTO>>> searchDestinations(
-            @RequestParam String query) {
+            @RequestParam String query,
+            WebRequest webRequest) {
         log.info("Searching destinations with query: {}", query);
+        if (notModified(webRequest, "search", query)) {
+            return null;
+        }
         List<Destination> destinations = destinationService.searchDestinations(query);
-        List<DestinationDTO> dtos = destinations.stream()
-                .map(ModelMapper::toDTO)
-                .collect(Collectors.toList());
+        List<DestinationDTO> dtos = ModelMapper.toDTOs(destinations, ModelMapper::toDTO);
 
         return ResponseEntity.ok(
                 ApiResponse.<List<DestinationDTO>>builder()
@@ -167,4 +253,15 @@ public class DestinationController {
                         .message("Destination deleted successfully")
                         .build());
     }
+
+    private boolean notModified(WebRequest webRequest, Object... params) {
+        return collectionVersionService.listETag(DestinationRepository.COLLECTION_NAME, ETags.representation(webRequest), params)
+                .map(webRequest::checkNotModified)
+                .orElse(false);
+    }
+
+    // Weather is refreshed on every read, so it is folded into the ETag per refresh window
+    private long weatherWindow() {
+        return Instant.now().getEpochSecond() / weatherRefreshSeconds;
+    }
 }
\ No newline at end of file
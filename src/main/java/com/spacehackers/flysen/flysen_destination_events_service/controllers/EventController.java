@@ -3,7 +3,11 @@ package com.spacehackers.flysen.flysen_destination_events_service.controllers;
 import com.spacehackers.flysen.flysen_destination_events_service.dtos.ApiResponse;
 import com.spacehackers.flysen.flysen_destination_events_service.dtos.EventDTO;
 import com.spacehackers.flysen.flysen_destination_events_service.models.Event;
+import com.spacehackers.flysen.flysen_destination_events_service.repositories.EventRepository;
+import com.spacehackers.flysen.flysen_destination_events_service.services.CollectionVersionService;
 import com.spacehackers.flysen.flysen_destination_events_service.services.EventService;
+import com.spacehackers.flysen.flysen_destination_events_service.services.EventStatsService;
+import com.spacehackers.flysen.flysen_destination_events_service.util.ETags;
 import com.spacehackers.flysen.flysen_destination_events_service.util.ModelMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -13,9 +17,11 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.Instant;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 @Slf4j
 @RestController
@@ -25,6 +31,8 @@ import java.util.stream.Collectors;
 public class EventController {
 
     private final EventService eventService;
+    private final EventStatsService eventStatsService;
+    private final CollectionVersionService collectionVersionService;
 
     @PostMapping
     @Operation(summary = "Create a new event")
@@ -51,14 +59,24 @@ public class EventController {
 
     @GetMapping("/{id}")
     @Operation(summary = "Get event by ID")
-    public ResponseEntity<ApiResponse<EventDTO>> getEvent(@PathVariable String id) {
+    public ResponseEntity<ApiResponse<EventDTO>> getEvent(
+            @PathVariable String id,
+            WebRequest webRequest) {
         log.info("Fetching event with ID: {}", id);
-        return eventService.getEventById(id)
-                .map(event -> ResponseEntity.ok(
+        Optional<Event> event = eventService.getEventById(id).map(eventStatsService::withCurrentStats);
+        // The counters change without touching the document, so they are part of the tag
+        if (event.isPresent() && webRequest.checkNotModified(
+                ETags.forDocument(id, event.get().getUpdatedAt(), event.get().getStats(),
+                        ETags.representation(webRequest)))) {
+            return null;
+        }
+
+        return event
+                .map(found -> ResponseEntity.ok(
                         ApiResponse.<EventDTO>builder()
                                 .success(true)
                                 .message("Event retrieved successfully")
-                                .data(ModelMapper.toDTO(event))
+                                .data(ModelMapper.toDTO(found))
                                 .build()))
                 .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body(ApiResponse.<EventDTO>builder()
@@ -71,12 +89,14 @@ public class EventController {
     @Operation(summary = "Get all events with pagination")
     public ResponseEntity<ApiResponse<List<EventDTO>>> getAllEvents(
             @RequestParam(defaultValue = "20") int limit,
-            @RequestParam(required = false) String lastDocumentId) {
+            @RequestParam(required = false) String lastDocumentId,
+            WebRequest webRequest) {
         log.info("Fetching events with limit: {}", limit);
+        if (notModified(webRequest, "all", limit, lastDocumentId)) {
+            return null;
+        }
         List<Event> events = eventService.getAllEvents(limit, lastDocumentId);
-        List<EventDTO> dtos = events.stream()
-                .map(ModelMapper::toDTO)
-                .collect(Collectors.toList());
+        List<EventDTO> dtos = ModelMapper.toDTOs(events, ModelMapper::toDTO);
 
         return ResponseEntity.ok(
                 ApiResponse.<List<EventDTO>>builder()
@@ -88,12 +108,15 @@ public class EventController {
 
     @GetMapping("/destination/{destinationId}")
     @Operation(summary = "Get events by destination")
-    public ResponseEntity<ApiResponse<List<EventDTO>>> getEventsByDestination(@PathVariable String destinationId) {
+    public ResponseEntity<ApiResponse<List<EventDTO>>> getEventsByDestination(
+            @PathVariable String destinationId,
+            WebRequest webRequest) {
         log.info("Fetching events for destination: {}", destinationId);
+        if (notModified(webRequest, "destination", destinationId)) {
+            return null;
+        }
         List<Event> events = eventService.getEventsByDestination(destinationId);
-        List<EventDTO> dtos = events.stream()
-                .map(ModelMapper::toDTO)
-                .collect(Collectors.toList());
+        List<EventDTO> dtos = ModelMapper.toDTOs(events, ModelMapper::toDTO);
 
         return ResponseEntity.ok(
                 ApiResponse.<List<EventDTO>>builder()
@@ -107,12 +130,14 @@ public class EventController {
     @Operation(summary = "Get upcoming events")
     public ResponseEntity<ApiResponse<List<EventDTO>>> getUpcomingEvents(
             @RequestParam(defaultValue = "90") int days,
-            @RequestParam(defaultValue = "20") int limit) {
+            @RequestParam(defaultValue = "20") int limit,
+            WebRequest webRequest) {
         log.info("Fetching upcoming events for next {} days", days);
+        if (notModified(webRequest, "upcoming", days, limit, Instant.now().getEpochSecond() / 60)) {
+            return null;
+        }
         List<Event> events = eventService.getUpcomingEvents(days, limit);
-        List<EventDTO> dtos = events.stream()
-                .map(ModelMapper::toDTO)
-                .collect(Collectors.toList());
+        List<EventDTO> dtos = ModelMapper.toDTOs(events, ModelMapper::toDTO);
 
         return ResponseEntity.ok(
                 ApiResponse.<List<EventDTO>>builder()
@@ -125,12 +150,14 @@ public class EventController {
     @GetMapping("/featured")
     @Operation(summary = "Get featured events")
     public ResponseEntity<ApiResponse<List<EventDTO>>> getFeaturedEvents(
-            @RequestParam(defaultValue = "10") int limit) {
+            @RequestParam(defaultValue = "10") int limit,
+            WebRequest webRequest) {
         log.info("Fetching featured events with limit: {}", limit);
+        if (notModified(webRequest, "featured", limit)) {
+            return null;
+        }
         List<Event> events = eventService.getFeaturedEvents(limit);
-        List<EventDTO> dtos = events.stream()
-                .map(ModelMapper::toDTO)
-                .collect(Collectors.toList());
+        List<EventDTO> dtos = ModelMapper.toDTOs(events, ModelMapper::toDTO);
 
         return ResponseEntity.ok(
                 ApiResponse.<List<EventDTO>>builder()
@@ -142,13 +169,16 @@ public class EventController {
 
     @GetMapping("/type/{type}")
     @Operation(summary = "Get events by type")
-    public ResponseEntity<ApiResponse<List<EventDTO>>> getEventsByType(@PathVariable String type) {
+    public ResponseEntity<ApiResponse<List<EventDTO>>> getEventsByType(
+            @PathVariable String type,
+            WebRequest webRequest) {
         log.info("Fetching events of type: {}", type);
+        if (notModified(webRequest, "type", type)) {
+            return null;
+        }
         Event.EventType eventType = Event.EventType.valueOf(type);
         List<Event> events = eventService.getEventsByType(eventType);
-        List<EventDTO> dtos = events.stream()
-                .map(ModelMapper::toDTO)
-                .collect(Collectors.toList());
+        List<EventDTO> dtos = ModelMapper.toDTOs(events, ModelMapper::toDTO);
 
         return ResponseEntity.ok(
                 ApiResponse.<List<EventDTO>>builder()
@@ -174,6 +204,43 @@ public class EventController {
                         .build());
     }
 
+    @PostMapping("/{id}/views")
+    @Operation(summary = "Count a view of an event")
+    public ResponseEntity<ApiResponse<Void>> recordView(@PathVariable String id) {
+        // Viewers have usually just fetched the event, so this rarely reads it
+        if (!eventStatsService.isKnownEvent(id)) {
+            if (eventService.getEventById(id).isEmpty()) {
+                return eventNotFound();
+            }
+            eventStatsService.markKnownEvent(id);
+        }
+        eventStatsService.recordView(id);
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.<Void>builder()
+                        .success(true)
+                        .message("View recorded")
+                        .build());
+    }
+
+    @PostMapping("/{id}/reviews")
+    @Operation(summary = "Count a review of an event, rated from 1 to 5")
+    public ResponseEntity<ApiResponse<Void>> recordReview(
+            @PathVariable String id,
+            @RequestParam int rating) {
+        log.info("Recording review of event {} rated {}", id, rating);
+        if (eventService.getEventById(id).isEmpty()) {
+            return eventNotFound();
+        }
+        eventStatsService.recordReview(id, rating);
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.<Void>builder()
+                        .success(true)
+                        .message("Review recorded")
+                        .build());
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete event")
     public ResponseEntity<ApiResponse<Void>> deleteEvent(@PathVariable String id) {
@@ -186,4 +253,18 @@ public class EventController {
                         .message("Event deleted successfully")
                         .build());
     }
+
+    private static <T> ResponseEntity<ApiResponse<T>> eventNotFound() {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(ApiResponse.<T>builder()
+                        .success(false)
+                        .message("Event not found")
+                        .build());
+    }
+
+    private boolean notModified(WebRequest webRequest, Object... params) {
+        return collectionVersionService.listETag(EventRepository.COLLECTION_NAME, ETags.representation(webRequest), params)
+                .map(webRequest::checkNotModified)
+                .orElse(false);
+    }
 }
\ No newline at end of file
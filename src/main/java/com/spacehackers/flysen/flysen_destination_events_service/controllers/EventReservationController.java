@@ -0,0 +1,124 @@
+package com.spacehackers.flysen.flysen_destination_events_service.controllers;
+
+import com.spacehackers.flysen.flysen_destination_events_service.dtos.ApiResponse;
+import com.spacehackers.flysen.flysen_destination_events_service.dtos.EventReservationDTO;
+import com.spacehackers.flysen.flysen_destination_events_service.models.Event;
+import com.spacehackers.flysen.flysen_destination_events_service.models.EventReservation.ReservationStatus;
+import com.spacehackers.flysen.flysen_destination_events_service.repositories.EventReservationRepository.Transition;
+import com.spacehackers.flysen.flysen_destination_events_service.services.EventReservationService;
+import com.spacehackers.flysen.flysen_destination_events_service.services.EventService;
+import com.spacehackers.flysen.flysen_destination_events_service.util.ModelMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Optional;
+
+@Slf4j
+@RestController
+@RequestMapping("/events/{eventId}/reservations")
+@RequiredArgsConstructor
+@Tag(name = "Event Reservations", description = "Seat reservation APIs")
+public class EventReservationController {
+
+    private final EventService eventService;
+    private final EventReservationService reservationService;
+
+    @PostMapping
+    @Operation(summary = "Hold seats of an event until the hold expires")
+    public ResponseEntity<ApiResponse<EventReservationDTO>> hold(
+            @PathVariable String eventId,
+            @RequestParam(defaultValue = "1") int seats) {
+        reservationService.validateSeats(seats);
+        Optional<Event> event = eventService.getEventById(eventId);
+        if (event.isEmpty()) {
+            return notFound("Event not found");
+        }
+        if (!event.get().isActive() || event.get().getStatus() == Event.EventStatus.CANCELLED
+                || event.get().getStatus() == Event.EventStatus.COMPLETED) {
+            return conflict("Event is not open for reservations");
+        }
+
+        return reservationService.hold(event.get(), seats)
+                .map(reservation -> ResponseEntity.status(HttpStatus.CREATED)
+                        .body(ApiResponse.<EventReservationDTO>builder()
+                                .success(true)
+                                .message("Seats held")
+                                .data(ModelMapper.toDTO(reservation))
+                                .build()))
+                .orElseGet(() -> conflict("Not enough seats available"));
+    }
+
+    @GetMapping("/{reservationId}")
+    @Operation(summary = "Get a reservation")
+    public ResponseEntity<ApiResponse<EventReservationDTO>> getReservation(
+            @PathVariable String eventId,
+            @PathVariable String reservationId) {
+        return reservationService.getReservation(eventId, reservationId)
+                .map(reservation -> ResponseEntity.ok(
+                        ApiResponse.<EventReservationDTO>builder()
+                                .success(true)
+                                .message("Reservation retrieved successfully")
+                                .data(ModelMapper.toDTO(reservation))
+                                .build()))
+                .orElseGet(() -> notFound("Reservation not found"));
+    }
+
+    @PostMapping("/{reservationId}/confirm")
+    @Operation(summary = "Confirm held seats as booked")
+    public ResponseEntity<ApiResponse<EventReservationDTO>> confirm(
+            @PathVariable String eventId,
+            @PathVariable String reservationId) {
+        log.info("Confirming reservation {} of event {}", reservationId, eventId);
+        return respond(reservationService.confirm(eventId, reservationId),
+                ReservationStatus.CONFIRMED, "Reservation confirmed");
+    }
+
+    @PostMapping("/{reservationId}/release")
+    @Operation(summary = "Give back held seats")
+    public ResponseEntity<ApiResponse<EventReservationDTO>> release(
+            @PathVariable String eventId,
+            @PathVariable String reservationId) {
+        log.info("Releasing reservation {} of event {}", reservationId, eventId);
+        return respond(reservationService.release(eventId, reservationId),
+                ReservationStatus.RELEASED, "Reservation released");
+    }
+
+    // Repeating a change that was already made succeeds; any other state conflicts
+    private static ResponseEntity<ApiResponse<EventReservationDTO>> respond(
+            Optional<Transition> transition, ReservationStatus target, String message) {
+        if (transition.isEmpty()) {
+            return notFound("Reservation not found");
+        }
+        ReservationStatus status = transition.get().reservation().getStatus();
+        boolean done = transition.get().applied() || status == target;
+        return ResponseEntity.status(done ? HttpStatus.OK : HttpStatus.CONFLICT)
+                .body(ApiResponse.<EventReservationDTO>builder()
+                        .success(done)
+                        .message(done ? message
+                                : status == ReservationStatus.HELD ? "Reservation has expired"
+                                : "Reservation is " + status.name().toLowerCase())
+                        .data(ModelMapper.toDTO(transition.get().reservation()))
+                        .build());
+    }
+
+    private static ResponseEntity<ApiResponse<EventReservationDTO>> notFound(String message) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(ApiResponse.<EventReservationDTO>builder()
+                        .success(false)
+                        .message(message)
+                        .build());
+    }
+
+    private static ResponseEntity<ApiResponse<EventReservationDTO>> conflict(String message) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ApiResponse.<EventReservationDTO>builder()
+                        .success(false)
+                        .message(message)
+                        .build());
+    }
+}
@@ -4,6 +4,10 @@ import com.google.cloud.storage.Blob;
 import com.google.cloud.storage.BlobInfo;
 import com.google.cloud.storage.Storage;
 import com.spacehackers.flysen.flysen_destination_events_service.dtos.ApiResponse;
+import com.spacehackers.flysen.flysen_destination_events_service.dtos.SignedUploadDTO;
+import com.spacehackers.flysen.flysen_destination_events_service.dtos.UploadCompletionDTO;
+import com.spacehackers.flysen.flysen_destination_events_service.services.MediaCacheService;
+import com.spacehackers.flysen.flysen_destination_events_service.services.MediaUploadService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -28,6 +32,8 @@ import java.util.UUID;
 public class ImageUploadController {
 
     private final Storage storage;
+    private final MediaUploadService mediaUploadService;
+    private final MediaCacheService mediaCacheService;
 
     @Value("${firebase.storage-bucket}")
     private String bucketName;
@@ -124,6 +130,60 @@ public class ImageUploadController {
         }
     }
 
+    @PostMapping("/signed-uploads/destination-images")
+    @Operation(summary = "Get a signed URL to upload a destination image directly to storage")
+    public ResponseEntity<ApiResponse<SignedUploadDTO>> createDestinationImageUpload(
+            @RequestParam("destinationId") String destinationId,
+            @RequestParam("contentType") String contentType,
+            @RequestParam(value = "fileName", required = false) String fileName) {
+        log.info("Issuing signed upload URL for destination: {}", destinationId);
+        SignedUploadDTO upload = mediaUploadService.createSignedUpload(
+                MediaUploadService.DESTINATIONS_FOLDER, destinationId, contentType, fileName);
+
+        return ResponseEntity.ok(
+                ApiResponse.<SignedUploadDTO>builder()
+                        .success(true)
+                        .message("Signed upload URL issued successfully")
+                        .data(upload)
+                        .build());
+    }
+
+    @PostMapping("/signed-uploads/event-images")
+    @Operation(summary = "Get a signed URL to upload an event image directly to storage")
+    public ResponseEntity<ApiResponse<SignedUploadDTO>> createEventImageUpload(
+            @RequestParam("eventId") String eventId,
+            @RequestParam("contentType") String contentType,
+            @RequestParam(value = "fileName", required = false) String fileName) {
+        log.info("Issuing signed upload URL for event: {}", eventId);
+        SignedUploadDTO upload = mediaUploadService.createSignedUpload(
+                MediaUploadService.EVENTS_FOLDER, eventId, contentType, fileName);
+
+        return ResponseEntity.ok(
+                ApiResponse.<SignedUploadDTO>builder()
+                        .success(true)
+                        .message("Signed upload URL issued successfully")
+                        .data(upload)
+                        .build());
+    }
+
+    @PostMapping("/signed-uploads/complete")
+    @Operation(summary = "Validate and register an image uploaded through a signed URL")
+    public ResponseEntity<ApiResponse<String>> completeSignedUpload(@RequestBody UploadCompletionDTO completion) {
+        log.info("Completing signed upload for object: {}", completion.getObjectName());
+        return mediaUploadService.completeUpload(completion.getObjectName())
+                .map(imageUrl -> ResponseEntity.ok(
+                        ApiResponse.<String>builder()
+                                .success(true)
+                                .message("Image registered successfully")
+                                .data(imageUrl)
+                                .build()))
+                .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(ApiResponse.<String>builder()
+                                .success(false)
+                                .message("Destination or event not found")
+                                .build()));
+    }
+
     @DeleteMapping("/delete")
     @Operation(summary = "Delete an image from storage")
     public ResponseEntity<ApiResponse<Void>> deleteImage(@RequestParam("imageUrl") String imageUrl) {
@@ -133,6 +193,7 @@ public class ImageUploadController {
             
             if (blobName != null) {
                 storage.delete(bucketName, blobName);
+                mediaCacheService.evict(blobName);
                 
                 return ResponseEntity.ok(
                         ApiResponse.<Void>builder()
@@ -184,16 +245,14 @@ public class ImageUploadController {
         // Optionally make it public
         // blob.createAcl(Acl.of(Acl.User.ofAllUsers(), Acl.Role.READER));
 
-        // Return Firebase public URL
-        String encodedPath = java.net.URLEncoder.encode(blobName, java.nio.charset.StandardCharsets.UTF_8);
-        return String.format(
-                "https://firebasestorage.googleapis.com/v0/b/%s/o/%s?alt=media",
-                bucketName,
-                encodedPath
-        );
+        return mediaUploadService.publicUrl(blobName);
     }
 
     private String extractBlobNameFromUrl(String imageUrl) {
+        String proxied = mediaUploadService.proxiedObjectName(imageUrl);
+        if (proxied != null) {
+            return proxied;
+        }
         // Extract blob name from Firebase Storage URL
         // Format: https://storage.googleapis.com/bucket-name/path/to/file.jpg
         if (imageUrl != null && imageUrl.contains(bucketName)) {
@@ -0,0 +1,182 @@
+package com.spacehackers.flysen.flysen_destination_events_service.controllers;
+
+import com.spacehackers.flysen.flysen_destination_events_service.services.MediaCacheService;
+import com.spacehackers.flysen.flysen_destination_events_service.services.MediaUploadService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Optional;
+
+@Slf4j
+@RestController
+@RequestMapping("/media")
+@RequiredArgsConstructor
+@Tag(name = "Media", description = "Media upload and management APIs")
+public class MediaProxyController {
+
+    // Request attributes of Tomcat's sendfile support, see org.apache.coyote.Constants
+    static final String SENDFILE_SUPPORTED_ATTR = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
+    private final MediaCacheService mediaCacheService;
+
+    @Value("${app.media.cache.max-age-seconds:86400}")
+    private long maxAgeSeconds;
+
+    @GetMapping("/{*path}")
+    @Operation(summary = "Serve a stored image through the local media cache")
+    public void getMedia(@PathVariable String path,
+                         HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        String objectName = path.startsWith("/") ? path.substring(1) : path;
+        // Only uploaded images are served, not whatever else the bucket holds
+        if (!MediaUploadService.isUploadedImage(objectName)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, "Media not found");
+            return;
+        }
+
+        Optional<MediaCacheService.MediaHandle> handle = mediaCacheService.open(objectName);
+        if (handle.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, "Media not found");
+            return;
+        }
+
+        try (MediaCacheService.MediaHandle media = handle.get()) {
+            MediaCacheService.CachedMedia cached = media.media();
+            long size = cached.size();
+
+            response.setHeader(HttpHeaders.ETAG, cached.etag());
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=" + maxAgeSeconds);
+
+            if (matchesEtag(request.getHeader(HttpHeaders.IF_NONE_MATCH), cached.etag())) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return;
+            }
+
+            long start = 0;
+            long length = size;
+            String range = request.getHeader(HttpHeaders.RANGE);
+            String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+            if (range != null && (ifRange == null || ifRange.equals(cached.etag()))) {
+                long[] bounds = parseRange(range, size);
+                if (bounds == null) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                    response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                if (bounds.length == 2) {
+                    start = bounds[0];
+                    length = bounds[1] - bounds[0] + 1;
+                    response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                    response.setHeader(HttpHeaders.CONTENT_RANGE,
+                            "bytes " + bounds[0] + "-" + bounds[1] + "/" + size);
+                }
+            }
+
+            response.setContentType(cached.contentType());
+            response.setContentLengthLong(length);
+            if ("HEAD".equals(request.getMethod())) {
+                return;
+            }
+
+            if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED_ATTR))) {
+                // Tomcat sends the file from the kernel once the servlet returns
+                request.setAttribute(SENDFILE_FILENAME_ATTR, cached.file().toAbsolutePath().toString());
+                request.setAttribute(SENDFILE_START_ATTR, start);
+                request.setAttribute(SENDFILE_END_ATTR, start + length);
+                return;
+            }
+            transfer(media.channel(), start, length, response);
+        }
+    }
+
+    // Copies through the response stream where sendfile is unavailable, e.g. over TLS
+    private static void transfer(FileChannel channel, long position, long count,
+                                 HttpServletResponse response) throws IOException {
+        WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+        long remaining = count;
+        while (remaining > 0) {
+            long written = channel.transferTo(position, remaining, out);
+            if (written <= 0) {
+                break;
+            }
+            position += written;
+            remaining -= written;
+        }
+    }
+
+    /**
+     * Parses a single "bytes=" range.
+     *
+     * @return {start, end} inclusive, an empty array to ignore the header and
+     * serve the full body, or null if the range cannot be satisfied
+     */
+    private static long[] parseRange(String header, long size) {
+        if (!header.startsWith("bytes=") || header.contains(",")) {
+            return new long[0];
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return new long[0];
+        }
+
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                // Suffix range: the last N bytes
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) {
+                    return null;
+                }
+                start = Math.max(0, size - suffix);
+                end = size - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? size - 1 : Math.min(Long.parseLong(last), size - 1);
+            }
+            if (start >= size || start > end) {
+                return null;
+            }
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+
+    private static boolean matchesEtag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,185 @@
+package com.spacehackers.flysen.flysen_destination_events_service.controllers;
+
+import com.spacehackers.flysen.flysen_destination_events_service.dtos.ApiResponse;
+import com.spacehackers.flysen.flysen_destination_events_service.dtos.AttractionSearchDTO;
+import com.spacehackers.flysen.flysen_destination_events_service.dtos.IngestionRunDTO;
+import com.spacehackers.flysen.flysen_destination_events_service.dtos.TouristAttractionDTO;
+import com.spacehackers.flysen.flysen_destination_events_service.index.AttractionFacetIndex;
+import com.spacehackers.flysen.flysen_destination_events_service.models.TouristAttraction;
+import com.spacehackers.flysen.flysen_destination_events_service.repositories.TouristAttractionRepository;
+import com.spacehackers.flysen.flysen_destination_events_service.services.AttractionIngestionService;
+import com.spacehackers.flysen.flysen_destination_events_service.services.AttractionSearchService;
+import com.spacehackers.flysen.flysen_destination_events_service.services.CollectionVersionService;
+import com.spacehackers.flysen.flysen_destination_events_service.services.TouristAttractionService;
+import com.spacehackers.flysen.flysen_destination_events_service.util.ETags;
+import com.spacehackers.flysen.flysen_destination_events_service.util.ModelMapper;
+import com.spacehackers.flysen.flysen_destination_events_service.util.TouristAttractionMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Slf4j
+@RestController
+@RequestMapping("/tourist-attractions")
+@RequiredArgsConstructor
+@Tag(name = "Tourist Attractions", description = "Tourist attractions discovered around destinations")
+public class TouristAttractionController {
+
+    private final TouristAttractionService touristAttractionService;
+    private final AttractionSearchService attractionSearchService;
+    private final AttractionIngestionService attractionIngestionService;
+    private final CollectionVersionService collectionVersionService;
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get tourist attraction by ID")
+    public ResponseEntity<ApiResponse<TouristAttractionDTO>> getAttraction(
+            @PathVariable String id,
+            WebRequest webRequest) {
+        log.info("Fetching tourist attraction with ID: {}", id);
+        Optional<TouristAttraction> attraction = touristAttractionService.getAttractionById(id);
+        if (attraction.isPresent()
+                && webRequest.checkNotModified(ETags.forDocument(id, attraction.get().getUpdatedAt(), ETags.representation(webRequest)))) {
+            return null;
+        }
+
+        return attraction
+                .map(found -> ResponseEntity.ok(
+                        ApiResponse.<TouristAttractionDTO>builder()
+                                .success(true)
+                                .message("Tourist attraction retrieved successfully")
+                                .data(TouristAttractionMapper.toDTO(found))
+                                .build()))
+                .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(ApiResponse.<TouristAttractionDTO>builder()
+                                .success(false)
+                                .message("Tourist attraction not found")
+                                .build()));
+    }
+
+    @GetMapping("/destination/{destinationId}")
+    @Operation(summary = "Get tourist attractions around a destination")
+    public ResponseEntity<ApiResponse<List<TouristAttractionDTO>>> getAttractionsByDestination(
+            @PathVariable String destinationId,
+            WebRequest webRequest) {
+        log.info("Fetching tourist attractions for destination: {}", destinationId);
+        if (notModified(webRequest, "destination", destinationId)) {
+            return null;
+        }
+        List<TouristAttraction> attractions = touristAttractionService.getAttractionsByDestination(destinationId);
+        List<TouristAttractionDTO> dtos = ModelMapper.toDTOs(attractions, TouristAttractionMapper::toDTO);
+
+        return ResponseEntity.ok(
+                ApiResponse.<List<TouristAttractionDTO>>builder()
+                        .success(true)
+                        .message("Tourist attractions retrieved successfully")
+                        .data(dtos)
+                        .build());
+    }
+
+    @GetMapping("/destination/{destinationId}/search")
+    @Operation(summary = "Filter tourist attractions around a destination by facets, with facet counts")
+    public ResponseEntity<ApiResponse<AttractionSearchDTO>> searchAttractions(
+            @PathVariable String destinationId,
+            @RequestParam(required = false) List<String> type,
+            @RequestParam(required = false) List<String> tag,
+            @RequestParam(required = false) Boolean wheelchairAccessible,
+            @RequestParam(required = false) Boolean childFriendly,
+            @RequestParam(required = false) String openAt,
+            @RequestParam(defaultValue = "false") boolean openNow,
+            @RequestParam(defaultValue = "UTC") String timeZone,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "20") int limit) {
+        log.info("Searching tourist attractions for destination: {}", destinationId);
+        AttractionFacetIndex.Query query = new AttractionFacetIndex.Query(
+                type != null ? type.stream()
+                        .map(value -> TouristAttraction.AttractionType.valueOf(value.toUpperCase(Locale.ROOT)))
+                        .collect(Collectors.toSet()) : Set.of(),
+                tag != null ? Set.copyOf(tag) : Set.of(),
+                wheelchairAccessible,
+                childFriendly,
+                openingTime(openAt, openNow, timeZone),
+                Math.max(0, offset),
+                Math.max(0, Math.min(limit, 100)));
+        AttractionFacetIndex.Result result = attractionSearchService.search(destinationId, query);
+
+        return ResponseEntity.ok(
+                ApiResponse.<AttractionSearchDTO>builder()
+                        .success(true)
+                        .message("Tourist attractions retrieved successfully")
+                        .data(AttractionSearchDTO.builder()
+                                .total(result.total())
+                                .attractions(ModelMapper.toDTOs(result.attractions(), TouristAttractionMapper::toDTO))
+                                .facets(result.facets())
+                                .build())
+                        .build());
+    }
+
+    @PostMapping("/ingestion")
+    @Operation(summary = "Start ingesting tourist attractions from Google Places")
+    public ResponseEntity<ApiResponse<IngestionRunDTO>> startIngestion(
+            @RequestParam(defaultValue = "true") boolean resume) {
+        log.info("Starting tourist attraction ingestion (resume: {})", resume);
+        return attractionIngestionService.start(resume)
+                .map(run -> ResponseEntity.status(HttpStatus.ACCEPTED)
+                        .body(ApiResponse.<IngestionRunDTO>builder()
+                                .success(true)
+                                .message("Ingestion started")
+                                .data(run)
+                                .build()))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(ApiResponse.<IngestionRunDTO>builder()
+                                .success(false)
+                                .message("An ingestion run is already in progress on this or another instance")
+                                .data(attractionIngestionService.getStatus().orElse(null))
+                                .build()));
+    }
+
+    @GetMapping("/ingestion")
+    @Operation(summary = "Get the status of the latest ingestion run")
+    public ResponseEntity<ApiResponse<IngestionRunDTO>> getIngestionStatus() {
+        return attractionIngestionService.getStatus()
+                .map(run -> ResponseEntity.ok(
+                        ApiResponse.<IngestionRunDTO>builder()
+                                .success(true)
+                                .message("Ingestion status retrieved successfully")
+                                .data(run)
+                                .build()))
+                .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(ApiResponse.<IngestionRunDTO>builder()
+                                .success(false)
+                                .message("No ingestion has run since startup")
+                                .build()));
+    }
+
+    // Destinations carry no time zone, so "now" is taken in the zone the client names
+    private static LocalDateTime openingTime(String openAt, boolean openNow, String timeZone) {
+        try {
+            if (openAt != null && !openAt.isBlank()) {
+                return LocalDateTime.parse(openAt);
+            }
+            return openNow ? LocalDateTime.now(ZoneId.of(timeZone)) : null;
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Invalid openAt or timeZone: " + e.getMessage(), e);
+        }
+    }
+
+    private boolean notModified(WebRequest webRequest, Object... params) {
+        return collectionVersionService.listETag(TouristAttractionRepository.COLLECTION_NAME, ETags.representation(webRequest), params)
+                .map(webRequest::checkNotModified)
+                .orElse(false);
+    }
+}
@@ -0,0 +1,46 @@
+package com.spacehackers.flysen.flysen_destination_events_service.diagnostics;
+
+import com.spacehackers.flysen.flysen_destination_events_service.metrics.Endpoints;
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One call to a third-party API such as the weather or Google Places API.
+ */
+@Name("com.spacehackers.flysen.ExternalApiCall")
+@Label("External API Call")
+@Category({"Flysen", "External APIs"})
+@StackTrace(false)
+public class ExternalApiCallEvent extends jdk.jfr.Event {
+
+    @Label("API")
+    public String api;
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Success")
+    public boolean success;
+
+    @Label("Endpoint")
+    public String endpoint;
+
+    public static ExternalApiCallEvent start(String api, String operation) {
+        ExternalApiCallEvent event = new ExternalApiCallEvent();
+        event.api = api;
+        event.operation = operation;
+        event.begin();
+        return event;
+    }
+
+    public void finish(boolean success) {
+        end();
+        if (shouldCommit()) {
+            this.success = success;
+            this.endpoint = Endpoints.current();
+            commit();
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.spacehackers.flysen.flysen_destination_events_service.diagnostics;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Controls Java Flight Recorder recordings at {@code /actuator/jfr}:
+ * <ul>
+ *     <li>{@code GET /jfr} lists recordings</li>
+ *     <li>{@code POST /jfr} starts one, with optional {@code settings} ("default" or "profile"),
+ *     {@code maxAgeSeconds} and {@code durationSeconds}</li>
+ *     <li>{@code POST /jfr/{id}} stops it</li>
+ *     <li>{@code GET /jfr/{id}} downloads it as a .jfr file; a running recording is snapshotted</li>
+ *     <li>{@code DELETE /jfr/{id}} discards it</li>
+ * </ul>
+ * The service's own events are always enabled, on top of the chosen JDK settings.
+ * Events that capture the process environment, system properties or JVM arguments
+ * are always disabled, as they carry API keys and credentials. For the same reason
+ * only recordings started here can be listed, downloaded, stopped or discarded.
+ */
+@Slf4j
+@Component
+@WebEndpoint(id = "jfr")
+public class JfrRecordingEndpoint {
+
+    private static final List<Class<? extends jdk.jfr.Event>> EVENT_TYPES = List.of(
+            RepositoryQueryEvent.class, ExternalApiCallEvent.class, ModelMappingEvent.class);
+
+    // JDK events whose fields hold environment variables, system properties or command-line flags
+    private static final List<String> SECRET_BEARING_EVENTS = List.of(
+            "jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty", "jdk.JVMInformation");
+
+    private final Set<Long> startedHere = ConcurrentHashMap.newKeySet();
+
+    public record RecordingDescriptor(long id, String name, String state, Long durationSeconds, long sizeBytes) {
+    }
+
+    @ReadOperation
+    public List<RecordingDescriptor> recordings() {
+        return FlightRecorder.getFlightRecorder().getRecordings().stream()
+                .filter(recording -> startedHere.contains(recording.getId()))
+                .map(JfrRecordingEndpoint::describe)
+                .toList();
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<RecordingDescriptor> start(@Nullable String settings,
+                                                          @Nullable Long maxAgeSeconds,
+                                                          @Nullable Long durationSeconds) {
+        String configurationName = settings != null ? settings : "default";
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(configurationName);
+        } catch (IOException | ParseException e) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+
+        Recording recording = new Recording(configuration);
+        recording.setName("flysen-" + configurationName);
+        recording.setToDisk(true);
+        recording.setMaxAge(Duration.ofSeconds(maxAgeSeconds != null ? maxAgeSeconds : 900));
+        if (durationSeconds != null) {
+            recording.setDuration(Duration.ofSeconds(durationSeconds));
+        }
+        EVENT_TYPES.forEach(type -> recording.enable(type).withoutThreshold());
+        SECRET_BEARING_EVENTS.forEach(recording::disable);
+        startedHere.add(recording.getId());
+        recording.start();
+
+        log.info("Started JFR recording {} with {} settings", recording.getId(), configurationName);
+        return new WebEndpointResponse<>(describe(recording));
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<RecordingDescriptor> stop(@Selector long id) {
+        Optional<Recording> recording = find(id);
+        if (recording.isEmpty()) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        if (recording.get().getState() == RecordingState.RUNNING) {
+            recording.get().stop();
+            log.info("Stopped JFR recording {}", id);
+        }
+        return new WebEndpointResponse<>(describe(recording.get()));
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> download(@Selector long id) throws IOException {
+        Optional<Recording> recording = find(id);
+        if (recording.isEmpty() || recording.get().getState() == RecordingState.NEW) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+
+        Path file = Files.createTempFile("flysen-" + id + "-", ".jfr");
+        if (recording.get().getState() == RecordingState.RUNNING) {
+            try (Recording snapshot = recording.get().copy(true)) {
+                snapshot.dump(file);
+            }
+        } else {
+            recording.get().dump(file);
+        }
+        // The dump is removed as soon as the response has been streamed
+        long size = Files.size(file);
+        return new WebEndpointResponse<>(new InputStreamResource(
+                Files.newInputStream(file, StandardOpenOption.DELETE_ON_CLOSE)) {
+            @Override
+            public String getFilename() {
+                return file.getFileName().toString();
+            }
+
+            @Override
+            public long contentLength() {
+                return size;
+            }
+        });
+    }
+
+    @DeleteOperation
+    public WebEndpointResponse<Void> close(@Selector long id) {
+        Optional<Recording> recording = find(id);
+        if (recording.isEmpty()) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        recording.get().close();
+        startedHere.remove(id);
+        return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NO_CONTENT);
+    }
+
+    private Optional<Recording> find(long id) {
+        if (!startedHere.contains(id)) {
+            return Optional.empty();
+        }
+        return FlightRecorder.getFlightRecorder().getRecordings().stream()
+                .filter(recording -> recording.getId() == id)
+                .findFirst();
+    }
+
+    private static RecordingDescriptor describe(Recording recording) {
+        Duration duration = recording.getDuration();
+        return new RecordingDescriptor(recording.getId(), recording.getName(), recording.getState().name(),
+                duration != null ? duration.getSeconds() : null, recording.getSize());
+    }
+}
@@ -0,0 +1,25 @@
+package com.spacehackers.flysen.flysen_destination_events_service.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Conversion of a batch of models to DTOs.
+ */
+@Name("com.spacehackers.flysen.ModelMapping")
+@Label("Model Mapping")
+@Category({"Flysen", "Mapping"})
+@StackTrace(false)
+public class ModelMappingEvent extends jdk.jfr.Event {
+
+    @Label("Source Type")
+    public String sourceType;
+
+    @Label("Count")
+    public int count;
+
+    @Label("Endpoint")
+    public String endpoint;
+}
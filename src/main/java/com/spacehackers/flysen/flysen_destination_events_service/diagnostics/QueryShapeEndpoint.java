@@ -0,0 +1,37 @@
+package com.spacehackers.flysen.flysen_destination_events_service.diagnostics;
+
+import com.spacehackers.flysen.flysen_destination_events_service.metrics.QueryShapeAnalyzer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Top-N report of repository query shapes at {@code /actuator/queryshapes}.
+ * {@code ?sort=total|max|mean|documents&limit=N}; DELETE clears the statistics.
+ */
+@Component
+@RequiredArgsConstructor
+@Endpoint(id = "queryshapes")
+public class QueryShapeEndpoint {
+
+    private final QueryShapeAnalyzer queryShapeAnalyzer;
+
+    @Value("${app.query-analysis.top-n:20}")
+    private int defaultLimit;
+
+    @ReadOperation
+    public List<QueryShapeAnalyzer.ShapeReport> shapes(@Nullable String sort, @Nullable Integer limit) {
+        return queryShapeAnalyzer.report(sort, limit != null ? limit : defaultLimit);
+    }
+
+    @DeleteOperation
+    public void reset() {
+        queryShapeAnalyzer.reset();
+    }
+}
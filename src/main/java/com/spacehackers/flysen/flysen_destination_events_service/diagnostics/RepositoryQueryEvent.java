@@ -0,0 +1,31 @@
+package com.spacehackers.flysen.flysen_destination_events_service.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One query against the document store: which collection, the shape of its
+ * filters and ordering, and how many documents came back.
+ */
+@Name("com.spacehackers.flysen.RepositoryQuery")
+@Label("Repository Query")
+@Category({"Flysen", "Storage"})
+@StackTrace(false)
+public class RepositoryQueryEvent extends jdk.jfr.Event {
+
+    @Label("Collection")
+    public String collection;
+
+    @Label("Filters")
+    @Description("Filter fields, ordering and limit, without the filter values")
+    public String filters;
+
+    @Label("Documents Returned")
+    public int documentsReturned;
+
+    @Label("Endpoint")
+    public String endpoint;
+}
@@ -0,0 +1,29 @@
+package com.spacehackers.flysen.flysen_destination_events_service.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityAvailabilityDTO {
+
+    private String date;  // ISO 8601 date the availability was computed for
+    private int total;    // matches before the limit
+    private List<AvailableActivityDTO> activities;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AvailableActivityDTO {
+        private ActivityDTO activity;
+        private String earliestStart;  // HH:mm, first start that fits the requested window
+        private String latestStart;    // HH:mm, last start that still finishes inside it
+    }
+}
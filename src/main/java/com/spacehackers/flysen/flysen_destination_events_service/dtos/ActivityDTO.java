@@ -0,0 +1,51 @@
+package com.spacehackers.flysen.flysen_destination_events_service.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityDTO {
+
+    private String id;
+    private String name;
+    private String destinationId;
+    private String type;  // ActivityType as String
+    private String description;
+    private Integer duration; // in minutes
+    private Double price;
+    private List<String> images;
+    private boolean bookingRequired;
+
+    // Location
+    private Double latitude;
+    private Double longitude;
+    private String meetingPoint;
+
+    // Requirements
+    private String difficulty;
+    private Integer minAge;
+    private Integer maxGroupSize;
+    private List<String> requiredEquipment;
+    private List<String> includedItems;
+
+    // Availability
+    private List<String> availableDays;
+    private String startTime;  // HH:mm
+    private String endTime;    // HH:mm
+
+    // Rating
+    private Double rating;
+    private Integer reviewsCount;
+
+    // Metadata
+    private String createdAt;  // ISO 8601 format
+    private String updatedAt;  // ISO 8601 format
+    private boolean active;
+}
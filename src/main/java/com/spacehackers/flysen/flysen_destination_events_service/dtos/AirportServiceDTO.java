@@ -22,6 +22,7 @@ public class AirportServiceDTO {
     private String description;
     private String locationMap;
     private Map<String, OpeningHoursDTO> openingHours;
+    private String timeZone;  // IANA zone, e.g. "Europe/Madrid"
     private ContactInfoDTO contactInfo;
     private List<String> images;
     private String logo;
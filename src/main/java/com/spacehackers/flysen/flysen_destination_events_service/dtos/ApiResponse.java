@@ -1,5 +1,6 @@
 package com.spacehackers.flysen.flysen_destination_events_service.dtos;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -24,6 +25,13 @@ public class ApiResponse<T> {
     private LocalDateTime timestamp = LocalDateTime.now();
     
     private String error;
+
+    // Set when the data comes from a last-known-good snapshot because the store is unavailable
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean stale;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long staleAgeSeconds;
     
     public static <T> ApiResponse<T> success(T data, String message) {
         return ApiResponse.<T>builder()
@@ -0,0 +1,20 @@
+package com.spacehackers.flysen.flysen_destination_events_service.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttractionSearchDTO {
+
+    private int total;  // matches before offset and limit
+    private List<TouristAttractionDTO> attractions;
+    private Map<String, Map<String, Integer>> facets;  // facet -> value -> matching attractions
+}
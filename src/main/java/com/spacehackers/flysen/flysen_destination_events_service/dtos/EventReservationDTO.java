@@ -0,0 +1,21 @@
+package com.spacehackers.flysen.flysen_destination_events_service.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventReservationDTO {
+
+    private String id;
+    private String eventId;
+    private int seats;
+    private String status;  // HELD, CONFIRMED, RELEASED or EXPIRED
+    private String expiresAt;  // ISO 8601 format
+    private String createdAt;
+    private String updatedAt;
+}
@@ -0,0 +1,28 @@
+package com.spacehackers.flysen.flysen_destination_events_service.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IngestionRunDTO {
+
+    private String pipeline;
+    private String state;               // RUNNING, COMPLETED or FAILED
+    private String resumedAfter;        // destination ID the run resumed after, if any
+    private String startedAt;           // ISO 8601 format
+    private String finishedAt;          // ISO 8601 format
+    private int destinationsProcessed;
+    private int destinationsSkipped;    // no coordinates
+    private int destinationsFailed;
+    private int placesFound;
+    private int duplicates;             // same place under another ID, or owned by another destination
+    private int created;
+    private int updated;
+    private int unchanged;
+    private String error;
+}
@@ -0,0 +1,16 @@
+package com.spacehackers.flysen.flysen_destination_events_service.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyAirportServiceDTO {
+
+    private AirportServiceDTO service;
+    private int walkingSeconds;  // shortest walk from the requested gate
+}
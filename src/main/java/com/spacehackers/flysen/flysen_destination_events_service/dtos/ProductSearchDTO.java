@@ -0,0 +1,32 @@
+package com.spacehackers.flysen.flysen_destination_events_service.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSearchDTO {
+
+    private int total;        // matches before offset and limit
+    private String currency;  // currency of every converted price below
+    private List<ProductHitDTO> products;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ProductHitDTO {
+        private String serviceId;
+        private String serviceName;
+        private String terminal;
+        private String gate;
+        private AirportServiceDTO.AirportServiceProductDTO product;
+        private Double convertedPrice;  // null when the product's currency has no rate
+    }
+}
@@ -0,0 +1,22 @@
+package com.spacehackers.flysen.flysen_destination_events_service.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SignedUploadDTO {
+
+    private String objectName;
+    private String uploadUrl;
+    private String httpMethod;
+    private Map<String, String> requiredHeaders; // Must be sent as-is with the upload request
+    private Long maxSizeBytes;
+    private String expiresAt;  // ISO 8601 format
+}
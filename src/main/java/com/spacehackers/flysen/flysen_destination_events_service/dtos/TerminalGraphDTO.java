@@ -0,0 +1,30 @@
+package com.spacehackers.flysen.flysen_destination_events_service.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TerminalGraphDTO {
+
+    private String airportId;
+    private List<WalkwayDTO> walkways;
+    private String updatedAt;  // ISO 8601 format
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class WalkwayDTO {
+        private String from;      // gate or terminal, as named on airport services
+        private String to;
+        private Integer seconds;  // walking time
+        private boolean oneWay;
+    }
+}
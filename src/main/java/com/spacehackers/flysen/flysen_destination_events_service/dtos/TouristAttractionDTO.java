@@ -0,0 +1,53 @@
+package com.spacehackers.flysen.flysen_destination_events_service.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TouristAttractionDTO {
+
+    private String id;
+    private String destinationId;
+    private String name;
+    private String type;
+    private String description;
+    private List<String> images;
+    private Double entranceFee;
+    private Map<String, OpeningHoursDTO> openingHours;
+    private Double latitude;
+    private Double longitude;
+    private String address;
+    private Double rating;
+    private Integer reviewsCount;
+    private List<String> amenities;
+    private String website;
+    private String phoneNumber;
+    private Integer estimatedDuration;
+    private String accessibilityInfo;
+    private List<String> tags;
+    private boolean wheelchairAccessible;
+    private boolean childFriendly;
+    private String placeId;
+    private String lastSyncedAt;  // ISO 8601 format
+    private String createdAt;     // ISO 8601 format
+    private String updatedAt;     // ISO 8601 format
+    private boolean active;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class OpeningHoursDTO {
+        private String openTime;
+        private String closeTime;
+        private boolean closed;
+    }
+}
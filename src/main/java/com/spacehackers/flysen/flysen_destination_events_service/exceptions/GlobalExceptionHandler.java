@@ -1,6 +1,7 @@
 package com.spacehackers.flysen.flysen_destination_events_service.exceptions;
 
 import com.spacehackers.flysen.flysen_destination_events_service.dtos.ApiResponse;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -8,9 +9,12 @@ import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.resource.NoResourceFoundException;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
 
 @Slf4j
 @RestControllerAdvice
@@ -38,6 +42,28 @@ public class GlobalExceptionHandler {
                         .build());
     }
 
+    // Work that timed out or found no room to run; the concurrency limiter counts these as overload
+    @ExceptionHandler({TimeoutException.class, BulkheadFullException.class, RejectedExecutionException.class})
+    public ResponseEntity<ApiResponse<Void>> handleOverloadException(Exception ex) {
+        log.warn("Request dropped: {}", ex.toString());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(ApiResponse.<Void>builder()
+                        .success(false)
+                        .message("Service temporarily unavailable. Please try again later.")
+                        .error(ex.getMessage())
+                        .build());
+    }
+
+    // Unmapped paths, including actuator endpoints asked for on the API port
+    @ExceptionHandler(NoResourceFoundException.class)
+    public ResponseEntity<ApiResponse<Void>> handleNoResourceFoundException(NoResourceFoundException ex) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(ApiResponse.<Void>builder()
+                        .success(false)
+                        .message("Not found")
+                        .build());
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiResponse<Map<String, String>>> handleValidationExceptions(
             MethodArgumentNotValidException ex) {
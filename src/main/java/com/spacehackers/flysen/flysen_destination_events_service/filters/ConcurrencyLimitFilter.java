@@ -0,0 +1,169 @@
+package com.spacehackers.flysen.flysen_destination_events_service.filters;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spacehackers.flysen.flysen_destination_events_service.dtos.ApiResponse;
+import com.spacehackers.flysen.flysen_destination_events_service.limits.GradientLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Sheds load before it reaches the controllers. Each route group has its own
+ * {@link GradientLimiter}; requests over the current limit get 503 with
+ * {@code Retry-After} right away instead of waiting in Tomcat's queue.
+ * Runs after the response cache, so cache hits are never rejected.
+ * <p>
+ * Limits start at the size of Tomcat's thread pool unless configured, so a fresh
+ * instance admits what it can serve while the latency baseline is learned. Only
+ * timeouts and dropped requests, answered with 503 or 504, count as overload; other
+ * errors say nothing about capacity.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@Order(Ordered.HIGHEST_PRECEDENCE + 30)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    public enum RouteGroup { READS, WRITES, MEDIA }
+
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.concurrency-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.concurrency-limit.retry-after-seconds:1}")
+    private int retryAfterSeconds;
+
+    @Value("${app.concurrency-limit.rtt-tolerance:1.5}")
+    private double rttTolerance;
+
+    @Value("${server.tomcat.threads.max:200}")
+    private int tomcatMaxThreads;
+
+    // 0 starts a group at the Tomcat thread pool size
+    @Value("${app.concurrency-limit.reads.initial-limit:0}")
+    private int readsInitialLimit;
+
+    @Value("${app.concurrency-limit.reads.min-limit:10}")
+    private int readsMinLimit;
+
+    @Value("${app.concurrency-limit.reads.max-limit:400}")
+    private int readsMaxLimit;
+
+    @Value("${app.concurrency-limit.writes.initial-limit:0}")
+    private int writesInitialLimit;
+
+    @Value("${app.concurrency-limit.writes.min-limit:5}")
+    private int writesMinLimit;
+
+    @Value("${app.concurrency-limit.writes.max-limit:100}")
+    private int writesMaxLimit;
+
+    @Value("${app.concurrency-limit.media.initial-limit:0}")
+    private int mediaInitialLimit;
+
+    @Value("${app.concurrency-limit.media.min-limit:10}")
+    private int mediaMinLimit;
+
+    @Value("${app.concurrency-limit.media.max-limit:200}")
+    private int mediaMaxLimit;
+
+    private final Map<RouteGroup, GradientLimiter> limiters = new EnumMap<>(RouteGroup.class);
+    private final Map<RouteGroup, Counter> rejections = new EnumMap<>(RouteGroup.class);
+
+    @PostConstruct
+    public void init() {
+        limiters.put(RouteGroup.READS,
+                new GradientLimiter(initialLimit(readsInitialLimit), readsMinLimit, readsMaxLimit, rttTolerance));
+        limiters.put(RouteGroup.WRITES,
+                new GradientLimiter(initialLimit(writesInitialLimit), writesMinLimit, writesMaxLimit, rttTolerance));
+        limiters.put(RouteGroup.MEDIA,
+                new GradientLimiter(initialLimit(mediaInitialLimit), mediaMinLimit, mediaMaxLimit, rttTolerance));
+
+        limiters.forEach((group, limiter) -> {
+            String tag = group.name().toLowerCase();
+            Gauge.builder("concurrency.limit", limiter, GradientLimiter::getLimit)
+                    .description("Current adaptive concurrency limit")
+                    .tag("group", tag)
+                    .register(meterRegistry);
+            Gauge.builder("concurrency.in-flight", limiter, GradientLimiter::getInFlight)
+                    .description("Requests currently admitted")
+                    .tag("group", tag)
+                    .register(meterRegistry);
+            rejections.put(group, Counter.builder("concurrency.rejected")
+                    .description("Requests shed with 503")
+                    .tag("group", tag)
+                    .register(meterRegistry));
+        });
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || request.getServletPath().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RouteGroup group = routeGroup(request);
+        GradientLimiter limiter = limiters.get(group);
+        if (!limiter.tryAcquire()) {
+            rejections.get(group).increment();
+            log.debug("Shedding {} {} at {} limit {}", request.getMethod(), request.getServletPath(),
+                    group, limiter.getLimit());
+            reject(response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean dropped = false;
+        try {
+            filterChain.doFilter(request, response);
+            dropped = response.getStatus() == HttpServletResponse.SC_SERVICE_UNAVAILABLE
+                    || response.getStatus() == HttpServletResponse.SC_GATEWAY_TIMEOUT;
+        } finally {
+            limiter.release(System.nanoTime() - start, dropped);
+        }
+    }
+
+    private int initialLimit(int configured) {
+        return configured > 0 ? configured : tomcatMaxThreads;
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                ApiResponse.<Void>error("Service overloaded, retry later", "Concurrency limit reached"));
+    }
+
+    static RouteGroup routeGroup(HttpServletRequest request) {
+        if (request.getServletPath().startsWith("/media")) {
+            return RouteGroup.MEDIA;
+        }
+        String method = request.getMethod();
+        return "GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method)
+                ? RouteGroup.READS
+                : RouteGroup.WRITES;
+    }
+}
@@ -0,0 +1,132 @@
+package com.spacehackers.flysen.flysen_destination_events_service.filters;
+
+import com.spacehackers.flysen.flysen_destination_events_service.repositories.DestinationRepository;
+import com.spacehackers.flysen.flysen_destination_events_service.repositories.EventRepository;
+import com.spacehackers.flysen.flysen_destination_events_service.services.ResponseCacheService;
+import com.spacehackers.flysen.flysen_destination_events_service.services.SnapshotStore;
+import com.spacehackers.flysen.flysen_destination_events_service.util.ETags;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Serves the hot list endpoints from pre-serialized, gzip-compressed bodies.
+ * On a hit the Firestore query, DTO mapping and JSON encoding are all skipped
+ * and the stored bytes are written straight to the servlet output stream.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class ResponseCacheFilter extends OncePerRequestFilter {
+
+    // Cached path -> collection whose writes invalidate it
+    private static final Map<String, String> CACHED_PATHS = Map.of(
+            "/destinations/popular", DestinationRepository.COLLECTION_NAME,
+            "/events/featured", EventRepository.COLLECTION_NAME,
+            "/events/upcoming", EventRepository.COLLECTION_NAME);
+
+    private final ResponseCacheService responseCacheService;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod()) || !CACHED_PATHS.containsKey(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Optional<MediaType> format = ETags.negotiatedFormat(request.getHeader(HttpHeaders.ACCEPT));
+        if (format.isEmpty()) {
+            // Left to the handler to answer 406 or 400
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String key = cacheKey(request, format.get());
+        ResponseCacheService.CachedResponse cached = responseCacheService.get(key).orElse(null);
+        if (cached != null) {
+            // No handler runs on a hit; the cached paths are literal, so they are their own pattern
+            request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, request.getServletPath());
+            write(cached, request, response);
+            return;
+        }
+
+        String collection = CACHED_PATHS.get(request.getServletPath());
+        long version = responseCacheService.version(collection);
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, wrapper);
+
+        // Stale snapshots are served only while the store is down and must not outlive that
+        if (wrapper.getStatus() != HttpServletResponse.SC_OK || wrapper.getContentType() == null
+                || request.getAttribute(SnapshotStore.STALE_SINCE_ATTRIBUTE) != null) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+
+        cached = responseCacheService.put(key, collection, version,
+                wrapper.getContentAsByteArray(), wrapper.getContentType(), wrapper.getHeader(HttpHeaders.ETAG));
+        write(cached, request, response);
+    }
+
+    private void write(ResponseCacheService.CachedResponse cached, HttpServletRequest request,
+                       HttpServletResponse response) throws IOException {
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING);
+        if (cached.etag() != null) {
+            response.setHeader(HttpHeaders.ETAG, cached.etag());
+            String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+            if (ifNoneMatch != null && ifNoneMatch.contains(cached.etag())) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return;
+            }
+        }
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(cached.contentType());
+        if (acceptsGzip(request)) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            response.setContentLength(cached.gzippedBody().length);
+            response.getOutputStream().write(cached.gzippedBody());
+        } else {
+            response.setContentLength(cached.length());
+            try (InputStream body = new GZIPInputStream(new ByteArrayInputStream(cached.gzippedBody()))) {
+                body.transferTo(response.getOutputStream());
+            }
+        }
+    }
+
+    private static String cacheKey(HttpServletRequest request, MediaType format) {
+        // Parameters are sorted so equivalent query strings share an entry, and Accept headers
+        // selecting the same format share one too
+        StringBuilder key = new StringBuilder(request.getServletPath()).append('?');
+        new TreeMap<>(request.getParameterMap()).forEach((name, values) ->
+                key.append(name).append('=').append(String.join(",", values)).append('&'));
+        return key.append('|').append(format).toString();
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null
+                && acceptEncoding.contains("gzip")
+                && !acceptEncoding.replace(" ", "").contains("gzip;q=0");
+    }
+}
@@ -0,0 +1,260 @@
+package com.spacehackers.flysen.flysen_destination_events_service.index;
+
+import com.spacehackers.flysen.flysen_destination_events_service.models.Activity;
+import com.spacehackers.flysen.flysen_destination_events_service.models.Activity.ActivityType;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Immutable availability index of one destination's activities, answering
+ * "available on date D between T1 and T2, under price P, for a group of G".
+ * <p>
+ * Every filter is a precomputed bitmap over activity ordinals: one per weekday,
+ * one per half-hour slot of the day (activities running at some point in it),
+ * one per group-size threshold and one per type. Ordinals are assigned in price
+ * order, so the price filter is a prefix of the ordinal range and results come
+ * out cheapest first. Intersecting the bitmaps leaves only activities that run
+ * during the window; these are then checked exactly against their hours and
+ * duration, which also yields the range of start times that fit.
+ * <p>
+ * Hours that end at or before they start run past midnight; the part after
+ * midnight counts towards the following day.
+ */
+public class ActivityAvailabilityIndex {
+
+    private static final int SLOT_MINUTES = 30;
+    private static final int SLOTS = WeeklyHours.MINUTES_PER_DAY / SLOT_MINUTES;
+    private static final int[] GROUP_THRESHOLDS = {1, 2, 3, 4, 6, 8, 10, 12, 15, 20, 30, 50, 100};
+
+    private static final Comparator<Activity> PRICE_ORDER = Comparator
+            .comparing((Activity activity) -> activity.getPrice() != null ? activity.getPrice() : 0.0)
+            .thenComparing(activity -> activity.getRating() != null ? -activity.getRating() : 0.0)
+            .thenComparing(Activity::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final List<Activity> activities;
+    private final double[] prices;
+    private final int[] maxGroupSizes;
+    private final int[] durations;
+    private final int[] startMinutes;
+    private final int[] endMinutes;  // beyond MINUTES_PER_DAY for sessions running past midnight
+
+    // Activities with a session starting on the weekday, and with one spilling over from the day before
+    private final BitSet[] startsOn = new BitSet[7];
+    private final BitSet[] spillsInto = new BitSet[7];
+    // Activities running at some point in each slot, from sessions starting that day and from spill-overs
+    private final BitSet[] runningSameDay = new BitSet[SLOTS];
+    private final BitSet[] runningSpilled = new BitSet[SLOTS];
+    private final BitSet[] groupAtLeast = new BitSet[GROUP_THRESHOLDS.length];
+    private final Map<ActivityType, BitSet> byType = new EnumMap<>(ActivityType.class);
+
+    public record Query(LocalDate date, LocalTime from, LocalTime to, Double maxPrice, Integer groupSize,
+                        Set<ActivityType> types, int limit) {
+    }
+
+    /**
+     * An activity that fits the window, and the earliest and latest start that let
+     * it finish inside it.
+     */
+    public record Match(Activity activity, LocalTime earliestStart, LocalTime latestStart) {
+    }
+
+    public record Result(int total, List<Match> matches) {
+    }
+
+    /**
+     * Indexes the active activities among those given.
+     */
+    public ActivityAvailabilityIndex(List<Activity> activities) {
+        this.activities = activities.stream()
+                .filter(Activity::isActive)
+                .sorted(PRICE_ORDER)
+                .toList();
+        int size = this.activities.size();
+        this.prices = new double[size];
+        this.maxGroupSizes = new int[size];
+        this.durations = new int[size];
+        this.startMinutes = new int[size];
+        this.endMinutes = new int[size];
+        fill(startsOn);
+        fill(spillsInto);
+        fill(runningSameDay);
+        fill(runningSpilled);
+        fill(groupAtLeast);
+
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            Activity activity = this.activities.get(ordinal);
+            prices[ordinal] = activity.getPrice() != null ? activity.getPrice() : 0.0;
+            maxGroupSizes[ordinal] = activity.getMaxGroupSize() != null && activity.getMaxGroupSize() > 0
+                    ? activity.getMaxGroupSize() : Integer.MAX_VALUE;
+            durations[ordinal] = activity.getDuration() != null ? Math.max(0, activity.getDuration()) : 0;
+
+            int start = WeeklyHours.parseMinuteOfDay(activity.getStartTime()).orElse(0);
+            int end = WeeklyHours.parseMinuteOfDay(activity.getEndTime()).orElse(WeeklyHours.MINUTES_PER_DAY);
+            startMinutes[ordinal] = start;
+            endMinutes[ordinal] = end > start ? end : end + WeeklyHours.MINUTES_PER_DAY;
+
+            for (DayOfWeek day : availableDays(activity)) {
+                startsOn[day.ordinal()].set(ordinal);
+                if (endMinutes[ordinal] > WeeklyHours.MINUTES_PER_DAY) {
+                    spillsInto[day.plus(1).ordinal()].set(ordinal);
+                }
+            }
+            markSlots(runningSameDay, ordinal, start, Math.min(endMinutes[ordinal], WeeklyHours.MINUTES_PER_DAY));
+            markSlots(runningSpilled, ordinal, 0, endMinutes[ordinal] - WeeklyHours.MINUTES_PER_DAY);
+
+            for (int i = 0; i < GROUP_THRESHOLDS.length; i++) {
+                if (maxGroupSizes[ordinal] >= GROUP_THRESHOLDS[i]) {
+                    groupAtLeast[i].set(ordinal);
+                }
+            }
+            if (activity.getType() != null) {
+                byType.computeIfAbsent(activity.getType(), type -> new BitSet()).set(ordinal);
+            }
+        }
+    }
+
+    public int size() {
+        return activities.size();
+    }
+
+    public Result query(Query query) {
+        int from = query.from() != null ? minuteOfDay(query.from()) : 0;
+        int to = query.to() != null ? minuteOfDay(query.to()) : WeeklyHours.MINUTES_PER_DAY;
+        if (to <= from) {
+            to = WeeklyHours.MINUTES_PER_DAY;
+        }
+
+        // Filters shared by both kinds of session
+        BitSet filter = new BitSet();
+        filter.set(0, query.maxPrice() != null ? countAtMost(query.maxPrice()) : activities.size());
+        if (query.groupSize() != null && query.groupSize() > 1) {
+            filter.and(groupAtLeast[thresholdIndex(query.groupSize())]);
+        }
+        if (query.types() != null && !query.types().isEmpty()) {
+            BitSet typed = new BitSet();
+            for (ActivityType type : query.types()) {
+                BitSet ofType = byType.get(type);
+                if (ofType != null) {
+                    typed.or(ofType);
+                }
+            }
+            filter.and(typed);
+        }
+
+        int day = query.date().getDayOfWeek().ordinal();
+        BitSet sameDay = running(runningSameDay, from, to);
+        sameDay.and(startsOn[day]);
+        sameDay.and(filter);
+        BitSet spilled = running(runningSpilled, from, to);
+        spilled.and(spillsInto[day]);
+        spilled.and(filter);
+        BitSet candidates = (BitSet) sameDay.clone();
+        candidates.or(spilled);
+
+        List<Match> matches = new ArrayList<>();
+        int total = 0;
+        for (int ordinal = candidates.nextSetBit(0); ordinal >= 0; ordinal = candidates.nextSetBit(ordinal + 1)) {
+            if (query.groupSize() != null && maxGroupSizes[ordinal] < query.groupSize()) {
+                continue;
+            }
+            // The same-day session first: it ends later, so it usually offers the wider range
+            Match match = sameDay.get(ordinal)
+                    ? fit(ordinal, startMinutes[ordinal], Math.min(endMinutes[ordinal], WeeklyHours.MINUTES_PER_DAY),
+                    from, to)
+                    : null;
+            if (match == null && spilled.get(ordinal)) {
+                match = fit(ordinal, 0, endMinutes[ordinal] - WeeklyHours.MINUTES_PER_DAY, from, to);
+            }
+            if (match != null) {
+                total++;
+                if (matches.size() < query.limit()) {
+                    matches.add(match);
+                }
+            }
+        }
+        return new Result(total, matches);
+    }
+
+    private Match fit(int ordinal, int sessionStart, int sessionEnd, int from, int to) {
+        int earliest = Math.max(sessionStart, from);
+        int end = Math.min(sessionEnd, to);
+        if (end - earliest < Math.max(durations[ordinal], 1)) {
+            return null;
+        }
+        return new Match(activities.get(ordinal), toTime(earliest), toTime(end - durations[ordinal]));
+    }
+
+    // Activities running at some point of [from, to)
+    private static BitSet running(BitSet[] slots, int from, int to) {
+        BitSet running = new BitSet();
+        for (int slot = from / SLOT_MINUTES; slot < SLOTS && slot * SLOT_MINUTES < to; slot++) {
+            running.or(slots[slot]);
+        }
+        return running;
+    }
+
+    private static void markSlots(BitSet[] slots, int ordinal, int start, int end) {
+        for (int slot = start / SLOT_MINUTES; slot < SLOTS && slot * SLOT_MINUTES < end; slot++) {
+            slots[slot].set(ordinal);
+        }
+    }
+
+    // Number of activities priced at most maxPrice, which are the first ordinals
+    private int countAtMost(double maxPrice) {
+        int low = 0;
+        int high = prices.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (prices[mid] <= maxPrice) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // The largest threshold not above the group size; its bitmap is a superset of the exact answer
+    private static int thresholdIndex(int groupSize) {
+        int index = Arrays.binarySearch(GROUP_THRESHOLDS, groupSize);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    // Days the activity runs on; none listed means every day
+    private static List<DayOfWeek> availableDays(Activity activity) {
+        if (activity.getAvailableDays() == null || activity.getAvailableDays().isEmpty()) {
+            return List.of(DayOfWeek.values());
+        }
+        return activity.getAvailableDays().stream()
+                .map(WeeklyHours::parseDay)
+                .flatMap(Optional::stream)
+                .distinct()
+                .toList();
+    }
+
+    private static int minuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    private static LocalTime toTime(int minuteOfDay) {
+        return minuteOfDay >= WeeklyHours.MINUTES_PER_DAY ? LocalTime.MAX.withSecond(0).withNano(0)
+                : LocalTime.of(minuteOfDay / 60, minuteOfDay % 60);
+    }
+
+    private static void fill(BitSet[] bitSets) {
+        for (int i = 0; i < bitSets.length; i++) {
+            bitSets[i] = new BitSet();
+        }
+    }
+}
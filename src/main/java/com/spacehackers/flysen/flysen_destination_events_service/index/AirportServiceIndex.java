@@ -0,0 +1,125 @@
+package com.spacehackers.flysen.flysen_destination_events_service.index;
+
+import com.spacehackers.flysen.flysen_destination_events_service.models.AirportService;
+import com.spacehackers.flysen.flysen_destination_events_service.models.AirportService.ServiceCategory;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable index of one airport's services. Opening hours are parsed once into
+ * minute-of-week intervals held in an {@link OpenHoursBitmap}, so "open at" is
+ * answered without touching the stored {@code HH:mm} strings; category and
+ * terminal are bitmaps over the same ordinals.
+ * <p>
+ * Hours are local to each service's {@code timeZone}, falling back to the
+ * default zone. A query instant is converted once per zone present.
+ */
+public class AirportServiceIndex {
+
+    // Same order as the category leaderboards: highest score first
+    private static final Comparator<AirportService> SCORE_ORDER = Comparator
+            .comparing(AirportService::getScore, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(AirportService::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final List<AirportService> services;
+    private final OpenHoursBitmap openHours;
+    private final Map<ZoneId, BitSet> byZone = new HashMap<>();
+    private final Map<ServiceCategory, BitSet> byCategory = new EnumMap<>(ServiceCategory.class);
+    private final Map<String, BitSet> byTerminal = new HashMap<>();
+    private final Map<String, Integer> ordinalsById = new HashMap<>();
+
+    /**
+     * Indexes the active services among those given.
+     */
+    public AirportServiceIndex(List<AirportService> services, ZoneId defaultZone) {
+        this.services = services.stream()
+                .filter(AirportService::isActive)
+                .sorted(SCORE_ORDER)
+                .toList();
+
+        List<List<int[]>> hours = new ArrayList<>(this.services.size());
+        for (int ordinal = 0; ordinal < this.services.size(); ordinal++) {
+            AirportService service = this.services.get(ordinal);
+            ordinalsById.put(service.getId(), ordinal);
+            byZone.computeIfAbsent(zoneOf(service, defaultZone), zone -> new BitSet()).set(ordinal);
+            if (service.getCategory() != null) {
+                byCategory.computeIfAbsent(service.getCategory(), category -> new BitSet()).set(ordinal);
+            }
+            if (service.getTerminal() != null) {
+                byTerminal.computeIfAbsent(service.getTerminal(), terminal -> new BitSet()).set(ordinal);
+            }
+            hours.add(WeeklyHours.intervals(service.getOpeningHours(), day -> new WeeklyHours.Day(
+                    day.getOpenTime(), day.getCloseTime(), day.isClosed(), day.isOpen24Hours())).orElse(null));
+        }
+        this.openHours = new OpenHoursBitmap(hours);
+    }
+
+    public int size() {
+        return services.size();
+    }
+
+    public AirportService get(int ordinal) {
+        return services.get(ordinal);
+    }
+
+    public Integer ordinalOf(String serviceId) {
+        return ordinalsById.get(serviceId);
+    }
+
+    /**
+     * Services matching every given filter; null filters match everything. Services
+     * with unknown opening hours never match {@code openAt}.
+     */
+    public BitSet select(Instant openAt, ServiceCategory category, String terminal) {
+        BitSet selected = new BitSet();
+        selected.set(0, services.size());
+        if (category != null) {
+            selected.and(byCategory.getOrDefault(category, new BitSet()));
+        }
+        if (terminal != null) {
+            selected.and(byTerminal.getOrDefault(terminal, new BitSet()));
+        }
+        if (openAt != null && !selected.isEmpty()) {
+            BitSet open = new BitSet();
+            byZone.forEach((zone, inZone) -> {
+                BitSet openInZone = openHours.openAt(WeeklyHours.minuteOfWeek(LocalDateTime.ofInstant(openAt, zone)));
+                openInZone.and(inZone);
+                open.or(openInZone);
+            });
+            selected.and(open);
+        }
+        return selected;
+    }
+
+    /**
+     * The selected services, highest score first.
+     */
+    public List<AirportService> list(BitSet selected) {
+        List<AirportService> list = new ArrayList<>(selected.cardinality());
+        for (int ordinal = selected.nextSetBit(0); ordinal >= 0; ordinal = selected.nextSetBit(ordinal + 1)) {
+            list.add(services.get(ordinal));
+        }
+        return list;
+    }
+
+    private static ZoneId zoneOf(AirportService service, ZoneId defaultZone) {
+        if (service.getTimeZone() == null || service.getTimeZone().isBlank()) {
+            return defaultZone;
+        }
+        try {
+            return ZoneId.of(service.getTimeZone());
+        } catch (DateTimeException e) {
+            return defaultZone;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.spacehackers.flysen.flysen_destination_events_service.index;
+
+import com.spacehackers.flysen.flysen_destination_events_service.models.TouristAttraction;
+import com.spacehackers.flysen.flysen_destination_events_service.models.TouristAttraction.AttractionType;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable in-memory index of one destination's attractions, answering any
+ * combination of facet filters by intersecting bitmaps over attraction ordinals.
+ * <p>
+ * Ordinals follow ranking order (rating, then review count), so walking the final
+ * bitmap yields results already sorted and the first page needs no sort. Facet
+ * counts are computed from the same bitmaps: type counts ignore the type filter,
+ * so clients can offer the other types as alternatives, while tag and boolean
+ * counts are taken within the current result.
+ */
+public class AttractionFacetIndex {
+
+    public static final String FACET_TYPE = "type";
+    public static final String FACET_TAG = "tag";
+    public static final String FACET_WHEELCHAIR_ACCESSIBLE = "wheelchairAccessible";
+    public static final String FACET_CHILD_FRIENDLY = "childFriendly";
+
+    private static final int MAX_TAG_FACETS = 20;
+
+    private static final Comparator<TouristAttraction> RANKING = Comparator
+            .comparing((TouristAttraction attraction) -> attraction.getRating() != null ? attraction.getRating() : 0.0)
+            .thenComparing(attraction -> attraction.getReviewsCount() != null ? attraction.getReviewsCount() : 0)
+            .reversed()
+            .thenComparing(TouristAttraction::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final List<TouristAttraction> attractions;
+    private final BitSet all = new BitSet();
+    private final BitSet wheelchairAccessible = new BitSet();
+    private final BitSet childFriendly = new BitSet();
+    private final Map<AttractionType, BitSet> byType = new EnumMap<>(AttractionType.class);
+    private final Map<String, BitSet> byTag = new HashMap<>();
+    private final OpenHoursBitmap openHours;
+
+    /**
+     * Filters of a query; null or empty fields do not filter. Types are alternatives,
+     * tags must all be present.
+     */
+    public record Query(Set<AttractionType> types, Set<String> tags, Boolean wheelchairAccessible,
+                        Boolean childFriendly, LocalDateTime openAt, int offset, int limit) {
+    }
+
+    public record Result(int total, List<TouristAttraction> attractions, Map<String, Map<String, Integer>> facets) {
+    }
+
+    /**
+     * Indexes the active attractions among those given.
+     */
+    public AttractionFacetIndex(List<TouristAttraction> attractions) {
+        this.attractions = attractions.stream()
+                .filter(TouristAttraction::isActive)
+                .sorted(RANKING)
+                .toList();
+
+        List<List<int[]>> hours = new ArrayList<>(this.attractions.size());
+        for (int ordinal = 0; ordinal < this.attractions.size(); ordinal++) {
+            TouristAttraction attraction = this.attractions.get(ordinal);
+            all.set(ordinal);
+            if (attraction.isWheelchairAccessible()) {
+                wheelchairAccessible.set(ordinal);
+            }
+            if (attraction.isChildFriendly()) {
+                childFriendly.set(ordinal);
+            }
+            if (attraction.getType() != null) {
+                byType.computeIfAbsent(attraction.getType(), type -> new BitSet()).set(ordinal);
+            }
+            if (attraction.getTags() != null) {
+                for (String tag : attraction.getTags()) {
+                    if (tag != null && !tag.isBlank()) {
+                        byTag.computeIfAbsent(normalizeTag(tag), key -> new BitSet()).set(ordinal);
+                    }
+                }
+            }
+            hours.add(WeeklyHours.intervals(attraction.getOpeningHours(), day -> new WeeklyHours.Day(
+                    day.getOpenTime(), day.getCloseTime(), day.isClosed(), false)).orElse(null));
+        }
+        this.openHours = new OpenHoursBitmap(hours);
+    }
+
+    public int size() {
+        return attractions.size();
+    }
+
+    public Result query(Query query) {
+        // Everything but the type filter, which type counts are taken against
+        BitSet withoutType = (BitSet) all.clone();
+        if (Boolean.TRUE.equals(query.wheelchairAccessible())) {
+            withoutType.and(wheelchairAccessible);
+        } else if (Boolean.FALSE.equals(query.wheelchairAccessible())) {
+            withoutType.andNot(wheelchairAccessible);
+        }
+        if (Boolean.TRUE.equals(query.childFriendly())) {
+            withoutType.and(childFriendly);
+        } else if (Boolean.FALSE.equals(query.childFriendly())) {
+            withoutType.andNot(childFriendly);
+        }
+        if (query.tags() != null) {
+            for (String tag : query.tags()) {
+                BitSet tagged = byTag.get(normalizeTag(tag));
+                if (tagged == null) {
+                    withoutType.clear();
+                    break;
+                }
+                withoutType.and(tagged);
+            }
+        }
+        if (query.openAt() != null && !withoutType.isEmpty()) {
+            withoutType.and(openHours.openAt(WeeklyHours.minuteOfWeek(query.openAt())));
+        }
+
+        BitSet result = withoutType;
+        if (query.types() != null && !query.types().isEmpty()) {
+            result = new BitSet();
+            for (AttractionType type : query.types()) {
+                BitSet typed = byType.get(type);
+                if (typed != null) {
+                    result.or(typed);
+                }
+            }
+            result.and(withoutType);
+        }
+
+        List<TouristAttraction> page = new ArrayList<>(Math.min(query.limit(), result.cardinality()));
+        int skipped = 0;
+        for (int ordinal = result.nextSetBit(0); ordinal >= 0 && page.size() < query.limit();
+             ordinal = result.nextSetBit(ordinal + 1)) {
+            if (skipped++ >= query.offset()) {
+                page.add(attractions.get(ordinal));
+            }
+        }
+        return new Result(result.cardinality(), page, facets(withoutType, result));
+    }
+
+    private Map<String, Map<String, Integer>> facets(BitSet withoutType, BitSet result) {
+        Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+
+        Map<String, Integer> types = new LinkedHashMap<>();
+        byType.forEach((type, typed) -> putCount(types, type.name(), typed, withoutType));
+        facets.put(FACET_TYPE, types);
+
+        Map<String, Integer> tags = new LinkedHashMap<>();
+        byTag.entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey(), intersectionSize(entry.getValue(), result)))
+                .filter(entry -> entry.getValue() > 0)
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(MAX_TAG_FACETS)
+                .forEach(entry -> tags.put(entry.getKey(), entry.getValue()));
+        facets.put(FACET_TAG, tags);
+
+        Map<String, Integer> accessible = new LinkedHashMap<>();
+        putCount(accessible, "true", wheelchairAccessible, result);
+        facets.put(FACET_WHEELCHAIR_ACCESSIBLE, accessible);
+
+        Map<String, Integer> children = new LinkedHashMap<>();
+        putCount(children, "true", childFriendly, result);
+        facets.put(FACET_CHILD_FRIENDLY, children);
+        return facets;
+    }
+
+    private static void putCount(Map<String, Integer> counts, String value, BitSet facet, BitSet within) {
+        int count = intersectionSize(facet, within);
+        if (count > 0) {
+            counts.put(value, count);
+        }
+    }
+
+    private static int intersectionSize(BitSet a, BitSet b) {
+        BitSet intersection = (BitSet) a.clone();
+        intersection.and(b);
+        return intersection.cardinality();
+    }
+
+    public static String normalizeTag(String tag) {
+        return tag.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,128 @@
+package com.spacehackers.flysen.flysen_destination_events_service.index;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Holds in-memory indexes keyed by the document group they cover (a destination,
+ * an airport...), building them on first use.
+ * <p>
+ * An index is rebuilt once its TTL passes or as soon as it is invalidated by a
+ * write on this instance. Indexes that support it may instead be changed in place
+ * through {@link #update}. Indexes behind responses with an ETag are also rebuilt
+ * when the version the ETag is built from moves, which catches writes made by
+ * other instances. Expired indexes are kept until space is needed, so a
+ * circuit-breaker fallback can still answer from {@link #lastBuilt}.
+ */
+public class IndexCache<I> {
+
+    // Built by a query that does not check versions
+    private static final long ANY_VERSION = Long.MIN_VALUE;
+
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final Map<String, Built<I>> indexes = new ConcurrentHashMap<>();
+    private final Timer builds;
+    private final Timer queries;
+
+    public record Built<I>(I index, long version, Instant builtAt, long expiresAtNanos) {
+
+        boolean isExpired() {
+            return System.nanoTime() - expiresAtNanos > 0;
+        }
+    }
+
+    public IndexCache(String name, long ttlSeconds, int maxEntries, MeterRegistry meterRegistry) {
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+        this.maxEntries = maxEntries;
+        this.builds = Timer.builder("index.build")
+                .description("Time to load the documents of an index and build it")
+                .tag("name", name)
+                .register(meterRegistry);
+        this.queries = Timer.builder("index.query")
+                .description("Time to answer a query from a built index")
+                .tag("name", name)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        meterRegistry.gauge("index.cached", Tags.of("name", name),
+                indexes, Map::size);
+    }
+
+    /**
+     * Answers a query from the index for the key, building the index first if it is
+     * missing or expired. Concurrent misses may build it twice; the last one is kept.
+     */
+    public <R> R query(String key, Supplier<I> build, Function<I, R> query) {
+        return query(key, ANY_VERSION, build, query);
+    }
+
+    /**
+     * Like {@link #query(String, Supplier, Function)}, but also rebuilds the index
+     * when it was built at another version of its documents. The version must be
+     * read before the documents are loaded, so the index is never older than it.
+     */
+    public <R> R query(String key, long version, Supplier<I> build, Function<I, R> query) {
+        Built<I> built = indexes.get(key);
+        I index;
+        if (built != null && !built.isExpired() && (version == ANY_VERSION || built.version() == version)) {
+            index = built.index();
+        } else {
+            index = builds.record(build);
+            put(key, version, index);
+        }
+        I target = index;
+        return queries.record(() -> query.apply(target));
+    }
+
+    /**
+     * The last index built for the key, expired or not.
+     */
+    public Optional<Built<I>> lastBuilt(String key) {
+        return Optional.ofNullable(indexes.get(key));
+    }
+
+    /**
+     * Applies a write to the cached index for the key, if there is one; otherwise
+     * the next query builds the index with the write included.
+     */
+    public void update(String key, Consumer<I> change) {
+        Built<I> built = indexes.get(key);
+        if (built != null) {
+            change.accept(built.index());
+        }
+    }
+
+    /**
+     * Applies a write to every cached index, for writes whose key is not known.
+     */
+    public void updateAll(BiConsumer<String, I> change) {
+        indexes.forEach((key, built) -> change.accept(key, built.index()));
+    }
+
+    public void invalidate(String key) {
+        indexes.remove(key);
+    }
+
+    public void invalidateAll() {
+        indexes.clear();
+    }
+
+    private void put(String key, long version, I index) {
+        if (indexes.size() >= maxEntries) {
+            indexes.values().removeIf(Built::isExpired);
+        }
+        if (indexes.size() < maxEntries || indexes.containsKey(key)) {
+            indexes.put(key, new Built<>(index, version, Instant.now(), System.nanoTime() + ttlNanos));
+        }
+    }
+}
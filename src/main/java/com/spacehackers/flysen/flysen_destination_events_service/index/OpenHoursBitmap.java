@@ -0,0 +1,86 @@
+package com.spacehackers.flysen.flysen_destination_events_service.index;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Answers "which documents are open at minute m of the week" with bitmaps over
+ * document ordinals.
+ * <p>
+ * The week is cut into fixed slots. Per slot, one bitmap holds the documents open
+ * for the whole slot and another the few whose hours start or end inside it; only
+ * the latter are checked against their exact intervals at query time.
+ */
+public class OpenHoursBitmap {
+
+    private static final int SLOT_MINUTES = 15;
+    private static final int SLOTS = WeeklyHours.MINUTES_PER_WEEK / SLOT_MINUTES;
+
+    private final BitSet[] fullSlots = new BitSet[SLOTS];
+    private final BitSet[] partialSlots = new BitSet[SLOTS];
+    private final int[][][] intervalsByOrdinal;
+    private final BitSet known = new BitSet();
+
+    /**
+     * @param intervalsByOrdinal minute-of-week intervals per document ordinal, null where the hours are unknown
+     */
+    public OpenHoursBitmap(List<List<int[]>> intervalsByOrdinal) {
+        this.intervalsByOrdinal = new int[intervalsByOrdinal.size()][][];
+        for (int ordinal = 0; ordinal < intervalsByOrdinal.size(); ordinal++) {
+            List<int[]> intervals = intervalsByOrdinal.get(ordinal);
+            if (intervals == null) {
+                continue;
+            }
+            known.set(ordinal);
+            this.intervalsByOrdinal[ordinal] = intervals.toArray(new int[0][]);
+            for (int[] interval : intervals) {
+                add(ordinal, interval[0], interval[1]);
+            }
+        }
+    }
+
+    /**
+     * Documents open at the given minute of the week. Documents with unknown hours never match.
+     */
+    public BitSet openAt(int minuteOfWeek) {
+        int slot = Math.floorMod(minuteOfWeek, WeeklyHours.MINUTES_PER_WEEK) / SLOT_MINUTES;
+        BitSet open = fullSlots[slot] != null ? (BitSet) fullSlots[slot].clone() : new BitSet();
+        BitSet partial = partialSlots[slot];
+        if (partial != null) {
+            for (int ordinal = partial.nextSetBit(0); ordinal >= 0; ordinal = partial.nextSetBit(ordinal + 1)) {
+                if (isOpen(ordinal, minuteOfWeek)) {
+                    open.set(ordinal);
+                }
+            }
+        }
+        return open;
+    }
+
+    /**
+     * Documents whose opening hours are known, open or not.
+     */
+    public BitSet known() {
+        return (BitSet) known.clone();
+    }
+
+    private boolean isOpen(int ordinal, int minuteOfWeek) {
+        for (int[] interval : intervalsByOrdinal[ordinal]) {
+            if (minuteOfWeek >= interval[0] && minuteOfWeek < interval[1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void add(int ordinal, int start, int end) {
+        for (int slot = start / SLOT_MINUTES; slot < SLOTS && slot * SLOT_MINUTES < end; slot++) {
+            int slotStart = slot * SLOT_MINUTES;
+            boolean covered = start <= slotStart && end >= slotStart + SLOT_MINUTES;
+            BitSet[] slots = covered ? fullSlots : partialSlots;
+            if (slots[slot] == null) {
+                slots[slot] = new BitSet();
+            }
+            slots[slot].set(ordinal);
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.spacehackers.flysen.flysen_destination_events_service.index;
+
+import com.spacehackers.flysen.flysen_destination_events_service.models.AirportService;
+import com.spacehackers.flysen.flysen_destination_events_service.models.AirportService.AirportServiceProduct;
+import com.spacehackers.flysen.flysen_destination_events_service.util.CurrencyRates;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.OptionalDouble;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Search index over the products of every service of one airport: words of the
+ * name and tags, in-stock flag and price converted into the base currency.
+ * <p>
+ * Unlike the other indexes it is updated in place, a whole service at a time,
+ * whenever one of its products is written. Words are kept in a sorted map so a
+ * query word matches every indexed word it is a prefix of, and prices in a sorted
+ * map so a price range is a sub-map read in either order. Products in a currency
+ * without a rate have no price: they never match a price range and sort last.
+ */
+public class ProductIndex {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    public enum Sort {PRICE_ASC, PRICE_DESC}
+
+    /**
+     * Prices are in the base currency.
+     */
+    public record Query(String text, Double minPrice, Double maxPrice, Boolean inStock, Sort sort,
+                        int offset, int limit) {
+    }
+
+    /**
+     * A product and its service; {@code basePrice} is null when it cannot be converted.
+     */
+    public record Hit(String key, AirportService service, AirportServiceProduct product, Double basePrice) {
+    }
+
+    public record Result(int total, List<Hit> hits) {
+    }
+
+    // Same orders as the price map: unpriced last either way, then by key
+    private static final Comparator<Hit> PRICE_ASCENDING = Comparator
+            .comparing(Hit::basePrice, Comparator.nullsLast(Comparator.<Double>naturalOrder()))
+            .thenComparing(Hit::key);
+    private static final Comparator<Hit> PRICE_DESCENDING = Comparator
+            .comparing(Hit::basePrice, Comparator.nullsLast(Comparator.<Double>reverseOrder()))
+            .thenComparing(Hit::key);
+
+    private final CurrencyRates rates;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Hit> hits = new HashMap<>();
+    private final Map<String, List<String>> keysByService = new HashMap<>();
+    private final TreeMap<String, Set<String>> keysByWord = new TreeMap<>();
+    private final TreeMap<Double, TreeMap<String, Hit>> byPrice = new TreeMap<>();
+    private final TreeMap<String, Hit> unpriced = new TreeMap<>();
+
+    public ProductIndex(List<AirportService> services, CurrencyRates rates) {
+        this.rates = rates;
+        services.forEach(this::putService);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return hits.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces everything indexed for the service with its current products, or
+     * removes them if it is no longer active.
+     */
+    public void putService(AirportService service) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(service.getId());
+            if (!service.isActive() || service.getProducts() == null) {
+                return;
+            }
+            List<String> keys = new ArrayList<>();
+            for (AirportServiceProduct product : service.getProducts()) {
+                if (product.getId() == null) {
+                    continue;
+                }
+                String key = service.getId() + "/" + product.getId();
+                OptionalDouble basePrice = product.getPrice() != null
+                        ? rates.toBase(product.getPrice(), product.getCurrency())
+                        : OptionalDouble.empty();
+                Hit hit = new Hit(key, service, product,
+                        basePrice.isPresent() ? basePrice.getAsDouble() : null);
+                hits.put(key, hit);
+                keys.add(key);
+                for (String word : words(product)) {
+                    keysByWord.computeIfAbsent(word, w -> new HashSet<>()).add(key);
+                }
+                if (hit.basePrice() != null) {
+                    byPrice.computeIfAbsent(hit.basePrice(), price -> new TreeMap<>()).put(key, hit);
+                } else {
+                    unpriced.put(key, hit);
+                }
+            }
+            keysByService.put(service.getId(), keys);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeService(String serviceId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(serviceId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Result query(Query query) {
+        lock.readLock().lock();
+        try {
+            List<String> queryWords = tokenize(query.text());
+            boolean priceFiltered = query.minPrice() != null || query.maxPrice() != null;
+            List<Hit> matches = new ArrayList<>();
+            if (query.minPrice() != null && query.maxPrice() != null && query.minPrice() > query.maxPrice()) {
+                return new Result(0, List.of());
+            }
+            if (queryWords.isEmpty()) {
+                // Already in price order
+                NavigableMap<Double, TreeMap<String, Hit>> range = byPrice.subMap(
+                        query.minPrice() != null ? query.minPrice() : Double.NEGATIVE_INFINITY, true,
+                        query.maxPrice() != null ? query.maxPrice() : Double.POSITIVE_INFINITY, true);
+                if (query.sort() == Sort.PRICE_DESC) {
+                    range = range.descendingMap();
+                }
+                for (TreeMap<String, Hit> samePrice : range.values()) {
+                    addMatching(samePrice.values(), query, matches);
+                }
+                if (!priceFiltered) {
+                    addMatching(unpriced.values(), query, matches);
+                }
+            } else {
+                for (String key : keysMatchingAll(queryWords)) {
+                    Hit hit = hits.get(key);
+                    if (inPriceRange(hit, query) && inStock(hit, query)) {
+                        matches.add(hit);
+                    }
+                }
+                matches.sort(query.sort() == Sort.PRICE_DESC ? PRICE_DESCENDING : PRICE_ASCENDING);
+            }
+            int from = Math.min(query.offset(), matches.size());
+            int to = Math.min(from + query.limit(), matches.size());
+            return new Result(matches.size(), List.copyOf(matches.subList(from, to)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Keys of products having, for every query word, some word it is a prefix of
+    private Set<String> keysMatchingAll(List<String> queryWords) {
+        Set<String> result = null;
+        for (String queryWord : queryWords) {
+            Set<String> matching = new HashSet<>();
+            for (Set<String> keys : keysByWord.subMap(queryWord, true, queryWord + Character.MAX_VALUE, true)
+                    .values()) {
+                matching.addAll(keys);
+            }
+            if (result == null) {
+                result = matching;
+            } else {
+                result.retainAll(matching);
+            }
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    private static void addMatching(Collection<Hit> candidates, Query query, List<Hit> matches) {
+        for (Hit hit : candidates) {
+            if (inStock(hit, query)) {
+                matches.add(hit);
+            }
+        }
+    }
+
+    private static boolean inStock(Hit hit, Query query) {
+        return query.inStock() == null || hit.product().isInStock() == query.inStock();
+    }
+
+    private static boolean inPriceRange(Hit hit, Query query) {
+        if (query.minPrice() == null && query.maxPrice() == null) {
+            return true;
+        }
+        return hit.basePrice() != null
+                && (query.minPrice() == null || hit.basePrice() >= query.minPrice())
+                && (query.maxPrice() == null || hit.basePrice() <= query.maxPrice());
+    }
+
+    private void removeLocked(String serviceId) {
+        List<String> keys = keysByService.remove(serviceId);
+        if (keys == null) {
+            return;
+        }
+        for (String key : keys) {
+            Hit hit = hits.remove(key);
+            for (String word : words(hit.product())) {
+                Set<String> withWord = keysByWord.get(word);
+                if (withWord != null && withWord.remove(key) && withWord.isEmpty()) {
+                    keysByWord.remove(word);
+                }
+            }
+            if (hit.basePrice() != null) {
+                TreeMap<String, Hit> samePrice = byPrice.get(hit.basePrice());
+                samePrice.remove(key);
+                if (samePrice.isEmpty()) {
+                    byPrice.remove(hit.basePrice());
+                }
+            } else {
+                unpriced.remove(key);
+            }
+        }
+    }
+
+    private static Set<String> words(AirportServiceProduct product) {
+        Set<String> words = new LinkedHashSet<>(tokenize(product.getName()));
+        if (product.getTags() != null) {
+            product.getTags().forEach(tag -> words.addAll(tokenize(tag)));
+        }
+        return words;
+    }
+
+    // Lower-case words without accents, so "Café" is found by "cafe"
+    private static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        return Arrays.stream(SEPARATORS.split(folded))
+                .filter(word -> !word.isEmpty())
+                .distinct()
+                .toList();
+    }
+}
@@ -0,0 +1,123 @@
+package com.spacehackers.flysen.flysen_destination_events_service.index;
+
+import com.spacehackers.flysen.flysen_destination_events_service.models.AirportService;
+import com.spacehackers.flysen.flysen_destination_events_service.models.AirportService.ServiceCategory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Ranked views of one airport's active services: all of them by rating, and each
+ * category by score. Each ranking is a concurrent skip list, so the top K are the
+ * first K entries, read in O(K) without locking, and a changed service moves in
+ * O(log n).
+ * <p>
+ * Writers are serialized. A reader racing a write may see the changed service at
+ * its old or new rank, or briefly not at all.
+ */
+public class ServiceLeaderboards {
+
+    private record Ranked(String id, Double value, AirportService service) {
+    }
+
+    // Where a service was put, kept so it can be removed even if its object changed since
+    private record Placed(Ranked byRating, ServiceCategory category, Ranked byScore) {
+    }
+
+    // Highest first, unrated last, ties in ID order
+    private static final Comparator<Ranked> RANK_ORDER = Comparator
+            .comparing(Ranked::value, Comparator.nullsLast(Comparator.<Double>reverseOrder()))
+            .thenComparing(Ranked::id);
+
+    private final Map<String, Placed> placed = new ConcurrentHashMap<>();
+    // Services without a rating are left out, as they cannot be top rated
+    private final NavigableSet<Ranked> byRating = new ConcurrentSkipListSet<>(RANK_ORDER);
+    private final Map<ServiceCategory, NavigableSet<Ranked>> byScore = new EnumMap<>(ServiceCategory.class);
+
+    /**
+     * Ranks the active services among those given.
+     */
+    public ServiceLeaderboards(List<AirportService> services) {
+        for (ServiceCategory category : ServiceCategory.values()) {
+            byScore.put(category, new ConcurrentSkipListSet<>(RANK_ORDER));
+        }
+        services.forEach(this::put);
+    }
+
+    public int size() {
+        return placed.size();
+    }
+
+    /**
+     * The best rated services, highest rating first.
+     */
+    public List<AirportService> topRated(int limit) {
+        return first(byRating, limit);
+    }
+
+    /**
+     * Services of the category, highest score first.
+     */
+    public List<AirportService> topInCategory(ServiceCategory category, int limit) {
+        return first(byScore.get(category), limit);
+    }
+
+    /**
+     * Adds the service or moves it to its new ranks; an inactive service is removed.
+     */
+    public synchronized void put(AirportService service) {
+        removeRanks(service.getId());
+        if (!service.isActive()) {
+            return;
+        }
+        Ranked rating = service.getRating() != null
+                ? new Ranked(service.getId(), service.getRating(), service) : null;
+        Ranked score = service.getCategory() != null
+                ? new Ranked(service.getId(), service.getScore(), service) : null;
+        placed.put(service.getId(), new Placed(rating, service.getCategory(), score));
+        if (rating != null) {
+            byRating.add(rating);
+        }
+        if (score != null) {
+            byScore.get(service.getCategory()).add(score);
+        }
+    }
+
+    public synchronized void remove(String serviceId) {
+        removeRanks(serviceId);
+    }
+
+    private void removeRanks(String serviceId) {
+        Placed previous = placed.remove(serviceId);
+        if (previous == null) {
+            return;
+        }
+        if (previous.byRating() != null) {
+            byRating.remove(previous.byRating());
+        }
+        if (previous.byScore() != null) {
+            byScore.get(previous.category()).remove(previous.byScore());
+        }
+    }
+
+    private static List<AirportService> first(NavigableSet<Ranked> ranking, int limit) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        List<AirportService> first = new ArrayList<>(Math.min(limit, 64));
+        for (Ranked ranked : ranking) {
+            first.add(ranked.service());
+            if (first.size() == limit) {
+                break;
+            }
+        }
+        return first;
+    }
+}
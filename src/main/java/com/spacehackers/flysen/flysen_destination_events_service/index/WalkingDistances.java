@@ -0,0 +1,126 @@
+package com.spacehackers.flysen.flysen_destination_events_service.index;
+
+import com.spacehackers.flysen.flysen_destination_events_service.models.AirportService;
+import com.spacehackers.flysen.flysen_destination_events_service.models.TerminalGraph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Shortest walking times between every pair of nodes of an airport's
+ * {@link TerminalGraph}, computed once with a Dijkstra run per node and kept as
+ * one flat {@code int} matrix, so a distance is a single array read.
+ * <p>
+ * A service stands at its gate when the graph has that node, and otherwise at its
+ * terminal; services at neither are never reported.
+ */
+public class WalkingDistances {
+
+    public static final WalkingDistances EMPTY = new WalkingDistances(List.of());
+
+    private static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private final Map<String, Integer> nodes = new HashMap<>();
+    private final int[] seconds;  // row-major: seconds[from * size + to]
+
+    public record Nearby(AirportService service, int walkingSeconds) {
+    }
+
+    /**
+     * Builds the matrix from the graph's walkways, which must already be validated.
+     */
+    public WalkingDistances(List<TerminalGraph.Walkway> walkways) {
+        for (TerminalGraph.Walkway walkway : walkways) {
+            nodes.putIfAbsent(walkway.getFrom(), nodes.size());
+            nodes.putIfAbsent(walkway.getTo(), nodes.size());
+        }
+        int size = nodes.size();
+        List<List<int[]>> edges = new ArrayList<>(size);
+        for (int node = 0; node < size; node++) {
+            edges.add(new ArrayList<>());
+        }
+        for (TerminalGraph.Walkway walkway : walkways) {
+            int from = nodes.get(walkway.getFrom());
+            int to = nodes.get(walkway.getTo());
+            edges.get(from).add(new int[]{to, walkway.getSeconds()});
+            if (!walkway.isOneWay()) {
+                edges.get(to).add(new int[]{from, walkway.getSeconds()});
+            }
+        }
+
+        this.seconds = new int[size * size];
+        Arrays.fill(seconds, UNREACHABLE);
+        for (int source = 0; source < size; source++) {
+            shortestFrom(source, size, edges);
+        }
+    }
+
+    public int nodeCount() {
+        return nodes.size();
+    }
+
+    public boolean hasNode(String node) {
+        return nodes.containsKey(node);
+    }
+
+    /**
+     * The selected services reachable from the node, closest first. Equal walking
+     * times keep the index order, so the higher score comes first.
+     */
+    public List<Nearby> nearest(String from, AirportServiceIndex index, BitSet selected, int limit) {
+        Integer fromNode = nodes.get(from);
+        if (fromNode == null || limit <= 0) {
+            return List.of();
+        }
+        int row = fromNode * nodes.size();
+        // Walking time in the high half and ordinal in the low half, so sorting orders both
+        long[] candidates = new long[selected.cardinality()];
+        int count = 0;
+        for (int ordinal = selected.nextSetBit(0); ordinal >= 0; ordinal = selected.nextSetBit(ordinal + 1)) {
+            Integer node = nodeOf(index.get(ordinal));
+            if (node != null && seconds[row + node] != UNREACHABLE) {
+                candidates[count++] = (long) seconds[row + node] << 32 | ordinal;
+            }
+        }
+        Arrays.sort(candidates, 0, count);
+
+        List<Nearby> nearest = new ArrayList<>(Math.min(count, limit));
+        for (int i = 0; i < count && i < limit; i++) {
+            nearest.add(new Nearby(index.get((int) candidates[i]), (int) (candidates[i] >>> 32)));
+        }
+        return nearest;
+    }
+
+    private Integer nodeOf(AirportService service) {
+        Integer node = service.getGate() != null ? nodes.get(service.getGate()) : null;
+        return node != null || service.getTerminal() == null ? node : nodes.get(service.getTerminal());
+    }
+
+    private void shortestFrom(int source, int size, List<List<int[]>> edges) {
+        int row = source * size;
+        seconds[row + source] = 0;
+        // Distance in the high half and node in the low half
+        PriorityQueue<Long> queue = new PriorityQueue<>();
+        queue.add((long) source);
+        while (!queue.isEmpty()) {
+            long head = queue.poll();
+            int node = (int) head;
+            int distance = (int) (head >>> 32);
+            if (distance > seconds[row + node]) {
+                continue;
+            }
+            for (int[] edge : edges.get(node)) {
+                long next = (long) distance + edge[1];
+                if (next < seconds[row + edge[0]]) {
+                    seconds[row + edge[0]] = (int) next;
+                    queue.add(next << 32 | edge[0]);
+                }
+            }
+        }
+    }
+}
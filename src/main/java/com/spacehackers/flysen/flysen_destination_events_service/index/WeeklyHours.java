@@ -0,0 +1,109 @@
+package com.spacehackers.flysen.flysen_destination_events_service.index;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Converts the per-day opening hours stored on documents ({@code "monday" -> 09:00-17:00})
+ * into half-open minute-of-week intervals, Monday 00:00 being minute 0.
+ */
+public class WeeklyHours {
+
+    public static final int MINUTES_PER_DAY = 24 * 60;
+    public static final int MINUTES_PER_WEEK = 7 * MINUTES_PER_DAY;
+
+    /**
+     * One day's hours as stored on a document.
+     */
+    public record Day(String openTime, String closeTime, boolean closed, boolean open24Hours) {
+    }
+
+    /**
+     * Returns the open intervals of a week, or empty when the hours are unknown.
+     * Days missing from a non-empty map are closed; hours that close at or before
+     * they open run past midnight into the next day.
+     */
+    public static <T> Optional<List<int[]>> intervals(Map<String, T> hours,
+                                                     Function<T, Day> toDay) {
+        if (hours == null || hours.isEmpty()) {
+            return Optional.empty();
+        }
+        List<int[]> intervals = new ArrayList<>();
+        for (Map.Entry<String, T> entry : hours.entrySet()) {
+            Optional<DayOfWeek> dayOfWeek = parseDay(entry.getKey());
+            if (dayOfWeek.isEmpty() || entry.getValue() == null) {
+                continue;
+            }
+            Day day = toDay.apply(entry.getValue());
+            if (day.closed()) {
+                continue;
+            }
+            int dayStart = (dayOfWeek.get().getValue() - 1) * MINUTES_PER_DAY;
+            if (day.open24Hours()) {
+                intervals.add(new int[]{dayStart, dayStart + MINUTES_PER_DAY});
+                continue;
+            }
+            Optional<Integer> open = parseMinuteOfDay(day.openTime());
+            Optional<Integer> close = parseMinuteOfDay(day.closeTime());
+            if (open.isEmpty() || close.isEmpty()) {
+                continue;
+            }
+            int start = dayStart + open.get();
+            int end = dayStart + (close.get() > open.get() ? close.get() : close.get() + MINUTES_PER_DAY);
+            if (end > MINUTES_PER_WEEK) {
+                // Sunday night into Monday morning wraps to the start of the week
+                intervals.add(new int[]{start, MINUTES_PER_WEEK});
+                intervals.add(new int[]{0, end - MINUTES_PER_WEEK});
+            } else {
+                intervals.add(new int[]{start, end});
+            }
+        }
+        return Optional.of(intervals);
+    }
+
+    public static int minuteOfWeek(LocalDateTime time) {
+        return (time.getDayOfWeek().getValue() - 1) * MINUTES_PER_DAY + time.getHour() * 60 + time.getMinute();
+    }
+
+    /**
+     * Accepts full and three-letter day names in any case, e.g. {@code MONDAY} or {@code mon}.
+     */
+    public static Optional<DayOfWeek> parseDay(String key) {
+        String name = key != null ? key.trim().toUpperCase(Locale.ROOT) : "";
+        if (name.length() < 3) {
+            return Optional.empty();
+        }
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if (day.name().startsWith(name)) {
+                return Optional.of(day);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Parses {@code HH:mm} into minutes since midnight; {@code 24:00} is accepted as the end of the day.
+     */
+    public static Optional<Integer> parseMinuteOfDay(String time) {
+        if (time == null || time.isBlank()) {
+            return Optional.empty();
+        }
+        if (time.trim().equals("24:00")) {
+            return Optional.of(MINUTES_PER_DAY);
+        }
+        try {
+            LocalTime parsed = LocalTime.parse(time.trim());
+            return Optional.of(parsed.getHour() * 60 + parsed.getMinute());
+        } catch (DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.spacehackers.flysen.flysen_destination_events_service.limits;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Adaptive concurrency limit in the style of Netflix's gradient limiter.
+ * <p>
+ * Latency is sampled in short windows. The limit grows by roughly its square
+ * root while recent latency stays within {@code tolerance} of the no-load
+ * baseline, shrinks in proportion when latency rises above it, and backs off
+ * multiplicatively when requests fail. Requests beyond the limit are rejected
+ * instead of queueing, so the ones that are admitted keep their latency.
+ */
+public class GradientLimiter {
+
+    private static final long WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+    private static final int MIN_WINDOW_SAMPLES = 10;
+    private static final double SMOOTHING = 0.2;
+    private static final double BACKOFF_RATIO = 0.9;
+    // How far the no-load latency baseline may creep up per window, while traffic
+    // is below the limit and while the limit is saturated
+    private static final double BASELINE_DRIFT = 0.01;
+    private static final double SATURATED_BASELINE_DRIFT = 0.001;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+
+    // Window state, guarded by this
+    private long windowStart = System.nanoTime();
+    private long windowRttSum;
+    private int windowSamples;
+    private int windowMaxInFlight;
+    private boolean windowDropped;
+    private double baselineRtt;
+
+    public GradientLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * @return true if the request may proceed, in which case {@link #release} must be called
+     */
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * @param rttNanos how long the request took
+     * @param dropped  true if it timed out or was dropped, which suggests overload
+     */
+    public void release(long rttNanos, boolean dropped) {
+        int current = inFlight.getAndDecrement();
+        sample(rttNanos, dropped, current);
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void sample(long rttNanos, boolean dropped, int inFlightAtRelease) {
+        windowRttSum += rttNanos;
+        windowSamples++;
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlightAtRelease);
+        windowDropped |= dropped;
+
+        long now = System.nanoTime();
+        if (now - windowStart < WINDOW_NANOS || windowSamples < MIN_WINDOW_SAMPLES) {
+            return;
+        }
+
+        // The baseline follows the fastest windows immediately and only creeps up
+        // slowly, so queueing delay is not mistaken for the new normal. It creeps
+        // faster when traffic is light, since latency then reflects the backend alone.
+        double shortRtt = (double) windowRttSum / windowSamples;
+        boolean saturated = windowMaxInFlight >= limit / 2;
+        double drift = saturated ? SATURATED_BASELINE_DRIFT : BASELINE_DRIFT;
+        baselineRtt = baselineRtt == 0 ? shortRtt : Math.min(shortRtt, baselineRtt * (1 + drift));
+
+        double newLimit;
+        if (windowDropped) {
+            newLimit = limit * BACKOFF_RATIO;
+        } else {
+            double gradient = Math.max(0.5, Math.min(1.0, tolerance * baselineRtt / shortRtt));
+            newLimit = limit * gradient + Math.sqrt(limit);
+            // Only grow when traffic actually came close to the limit
+            if (!saturated) {
+                newLimit = Math.min(newLimit, limit);
+            }
+        }
+        newLimit = limit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+
+        windowStart = now;
+        windowRttSum = 0;
+        windowSamples = 0;
+        windowMaxInFlight = 0;
+        windowDropped = false;
+    }
+}
@@ -0,0 +1,286 @@
+package com.spacehackers.flysen.flysen_destination_events_service.limits;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Paces calls to a rate-limited upstream, dispatching the most urgent first.
+ * <p>
+ * Interactive requests always go ahead of background ones; within a priority,
+ * the earliest deadline goes first. Requests with the same key that are still
+ * waiting share one upstream call, queued under the most urgent priority and
+ * deadline of their callers, so an interactive caller joining a background
+ * request is served as urgently as any other interactive one. A request is
+ * dropped with a {@link RejectedExecutionException} once the last of its
+ * callers' deadlines passes while queued, instead of spending a rate-limit slot
+ * on an answer nobody is waiting for; a caller whose own deadline passes first
+ * is failed alone.
+ * <p>
+ * Background requests cannot crowd interactive ones out of a full queue: an
+ * interactive request arriving at a full queue takes the place of the least
+ * urgent background request, which fails with a {@link RejectedExecutionException}.
+ */
+@Slf4j
+public class PriorityRequestQueue implements AutoCloseable {
+
+    public enum Priority { INTERACTIVE, BACKGROUND }
+
+    private final String name;
+    private final long intervalNanos;
+    private final int maxQueued;
+    private final Map<Priority, Duration> defaultDeadlines;
+    private final Thread dispatcher;
+
+    // Guarded by this
+    private final PriorityQueue<Pending<?>> queue = new PriorityQueue<>();
+    private final Map<String, Pending<?>> pendingByKey = new HashMap<>();
+    private final Map<Priority, Integer> depth = new EnumMap<>(Priority.class);
+    private long sequence;
+    private boolean closed;
+
+    private final Map<Priority, Timer> waitTimers = new EnumMap<>(Priority.class);
+    private final Map<Priority, Counter> expired = new EnumMap<>(Priority.class);
+    private final Map<Priority, Counter> rejected = new EnumMap<>(Priority.class);
+    private final Counter deduplicated;
+
+    public PriorityRequestQueue(String name, double ratePerSecond, int maxQueued,
+                                Map<Priority, Duration> defaultDeadlines, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        this.maxQueued = maxQueued;
+        this.defaultDeadlines = new EnumMap<>(defaultDeadlines);
+
+        for (Priority priority : Priority.values()) {
+            String tag = priority.name().toLowerCase();
+            depth.put(priority, 0);
+            Gauge.builder("request.queue.depth", this, queue -> queue.depth(priority))
+                    .description("Requests waiting for a rate-limit slot")
+                    .tags("name", name, "priority", tag)
+                    .register(meterRegistry);
+            waitTimers.put(priority, Timer.builder("request.queue.wait")
+                    .description("Time from enqueue to dispatch")
+                    .tags("name", name, "priority", tag)
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry));
+            expired.put(priority, dropped(meterRegistry, priority, "deadline"));
+            rejected.put(priority, dropped(meterRegistry, priority, "queue_full"));
+        }
+        this.deduplicated = Counter.builder("request.queue.deduplicated")
+                .description("Requests that joined an identical waiting request")
+                .tag("name", name)
+                .register(meterRegistry);
+
+        this.dispatcher = new Thread(this::dispatchLoop, "queue-" + name);
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    public <T> CompletableFuture<T> submit(String key, Priority priority,
+                                           Supplier<CompletableFuture<T>> call) {
+        return submit(key, priority, defaultDeadlines.get(priority), call);
+    }
+
+    /**
+     * Queues a call, or joins an identical one that is still waiting.
+     *
+     * @param key      identifies equivalent calls; they are made once and share the result
+     * @param deadline how long the caller is willing to wait for the call to start
+     * @param call     started on the dispatcher thread once a slot is free; must not block
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <T> CompletableFuture<T> submit(String key, Priority priority, Duration deadline,
+                                                        Supplier<CompletableFuture<T>> call) {
+        long now = System.nanoTime();
+        long deadlineNanos = now + deadline.toNanos();
+
+        Pending<T> existing = (Pending<T>) pendingByKey.get(key);
+        if (existing != null) {
+            deduplicated.increment();
+            Pending<T> joined = existing;
+            if (priority.ordinal() < existing.priority.ordinal()
+                    || deadlineNanos - existing.orderNanos < 0 || deadlineNanos - existing.deadlineNanos > 0) {
+                // Re-queue under the more urgent priority and deadline, dropping at the most lenient one
+                queue.remove(existing);
+                changeDepth(existing.priority, -1);
+                joined = new Pending<>(key,
+                        priority.ordinal() < existing.priority.ordinal() ? priority : existing.priority,
+                        deadlineNanos - existing.orderNanos < 0 ? deadlineNanos : existing.orderNanos,
+                        deadlineNanos - existing.deadlineNanos > 0 ? deadlineNanos : existing.deadlineNanos,
+                        existing.enqueuedNanos, existing.sequence, call, existing.started, existing.result);
+                enqueue(joined);
+            }
+            return deadlineNanos - joined.deadlineNanos < 0 ? failAfter(joined, priority, deadline) : joined.result;
+        }
+
+        if (closed || queue.size() >= maxQueued && !(priority == Priority.INTERACTIVE && displaceBackground())) {
+            rejected.get(priority).increment();
+            return CompletableFuture.failedFuture(
+                    new RejectedExecutionException(name + " request queue is full"));
+        }
+
+        Pending<T> pending = new Pending<>(key, priority, deadlineNanos, deadlineNanos, now, sequence++, call,
+                new CompletableFuture<>(), new CompletableFuture<>());
+        enqueue(pending);
+        notifyAll();
+        return pending.result;
+    }
+
+    public synchronized int depth(Priority priority) {
+        return depth.get(priority);
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            notifyAll();
+        }
+        dispatcher.interrupt();
+    }
+
+    private void enqueue(Pending<?> pending) {
+        queue.add(pending);
+        pendingByKey.put(pending.key, pending);
+        changeDepth(pending.priority, 1);
+    }
+
+    // The shared result for a caller that stops waiting at its own deadline if the call has not started
+    private <T> CompletableFuture<T> failAfter(Pending<T> pending, Priority priority, Duration deadline) {
+        CompletableFuture<T> result = pending.result.copy();
+        CompletableFuture.delayedExecutor(deadline.toNanos(), TimeUnit.NANOSECONDS).execute(() -> {
+            if (!pending.started.isDone() && result.completeExceptionally(new RejectedExecutionException(
+                    name + " request dropped after its deadline passed in the queue"))) {
+                expired.get(priority).increment();
+            }
+        });
+        return result;
+    }
+
+    // Drops the background request that would be dispatched last, if any
+    private boolean displaceBackground() {
+        Pending<?> last = null;
+        for (Pending<?> pending : queue) {
+            if (pending.priority == Priority.BACKGROUND && (last == null || pending.compareTo(last) > 0)) {
+                last = pending;
+            }
+        }
+        if (last == null) {
+            return false;
+        }
+        queue.remove(last);
+        pendingByKey.remove(last.key);
+        changeDepth(last.priority, -1);
+        rejected.get(last.priority).increment();
+        last.result.completeExceptionally(new RejectedExecutionException(
+                name + " request displaced from the full queue by an interactive request"));
+        return true;
+    }
+
+    private synchronized Pending<?> take() throws InterruptedException {
+        while (!closed) {
+            Pending<?> next = queue.poll();
+            if (next == null) {
+                wait();
+                continue;
+            }
+            pendingByKey.remove(next.key);
+            changeDepth(next.priority, -1);
+
+            if (System.nanoTime() - next.deadlineNanos > 0) {
+                expired.get(next.priority).increment();
+                next.result.completeExceptionally(new RejectedExecutionException(
+                        name + " request dropped after its deadline passed in the queue"));
+                continue;
+            }
+            return next;
+        }
+        throw new InterruptedException();
+    }
+
+    private void dispatchLoop() {
+        long nextSlot = System.nanoTime();
+        try {
+            while (true) {
+                Pending<?> next = take();
+                long now = System.nanoTime();
+                waitTimers.get(next.priority).record(now - next.enqueuedNanos, TimeUnit.NANOSECONDS);
+                dispatch(next);
+
+                // Space dispatches evenly so the client's own limiter never has to block
+                nextSlot = Math.max(nextSlot, now) + intervalNanos;
+                long sleep = nextSlot - System.nanoTime();
+                if (sleep > 0) {
+                    TimeUnit.NANOSECONDS.sleep(sleep);
+                }
+            }
+        } catch (InterruptedException e) {
+            failRemaining();
+        }
+    }
+
+    private <T> void dispatch(Pending<T> pending) {
+        pending.started.complete(null);
+        try {
+            pending.call.get().whenComplete((value, error) -> {
+                if (error != null) {
+                    pending.result.completeExceptionally(error);
+                } else {
+                    pending.result.complete(value);
+                }
+            });
+        } catch (RuntimeException e) {
+            log.warn("{} request {} failed to start: {}", name, pending.key, e.getMessage());
+            pending.result.completeExceptionally(e);
+        }
+    }
+
+    private synchronized void failRemaining() {
+        for (Pending<?> pending : queue) {
+            pending.result.completeExceptionally(new RejectedExecutionException(name + " request queue closed"));
+        }
+        queue.clear();
+        pendingByKey.clear();
+    }
+
+    private void changeDepth(Priority priority, int delta) {
+        depth.merge(priority, delta, Integer::sum);
+    }
+
+    private Counter dropped(MeterRegistry meterRegistry, Priority priority, String reason) {
+        return Counter.builder("request.queue.dropped")
+                .description("Requests dropped without calling upstream")
+                .tags("name", name, "priority", priority.name().toLowerCase(), "reason", reason)
+                .register(meterRegistry);
+    }
+
+    // Ordered by the earliest deadline of its callers, dropped at the latest
+    private record Pending<T>(String key, Priority priority, long orderNanos, long deadlineNanos, long enqueuedNanos,
+                              long sequence, Supplier<CompletableFuture<T>> call, CompletableFuture<Void> started,
+                              CompletableFuture<T> result)
+            implements Comparable<Pending<?>> {
+
+        @Override
+        public int compareTo(Pending<?> other) {
+            if (priority != other.priority) {
+                return priority.compareTo(other.priority);
+            }
+            if (orderNanos != other.orderNanos) {
+                return orderNanos - other.orderNanos < 0 ? -1 : 1;
+            }
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+}
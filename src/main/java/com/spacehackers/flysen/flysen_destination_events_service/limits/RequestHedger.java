@@ -0,0 +1,229 @@
+package com.spacehackers.flysen.flysen_destination_events_service.limits;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Hedges a slow call with a second, identical one and returns whichever succeeds first.
+ * <p>
+ * The hedge fires once the first attempt has been running longer than the recent
+ * p90 latency, clamped to {@code [minDelay, maxDelay]}. Hedges are paid for with
+ * credits: every call earns {@code budgetPercent / 100} of a hedge, up to a small
+ * burst, so hedging never adds more than that share of extra requests even when
+ * the upstream is slow across the board.
+ */
+public class RequestHedger implements AutoCloseable {
+
+    private static final int LATENCY_WINDOW = 256;
+    private static final int MIN_LATENCY_SAMPLES = 20;
+    private static final double HEDGE_QUANTILE = 0.9;
+    // Credits are kept in hundredths of a hedge
+    private static final long HEDGE_COST = 100;
+    private static final long MAX_CREDITS = 10 * HEDGE_COST;
+
+    private final boolean enabled;
+    private final long budgetPercent;
+    private final long minDelayNanos;
+    private final long maxDelayNanos;
+    private final ThreadPoolExecutor executor;
+
+    private final AtomicLong credits = new AtomicLong(MAX_CREDITS);
+    private final long[] latencies = new long[LATENCY_WINDOW];
+    private int latencyCount;
+    private volatile long hedgeDelayNanos;
+
+    private final Counter notHedged;
+    private final Counter primaryWon;
+    private final Counter hedgeWon;
+    private final Counter budgetExhausted;
+    private final Timer latencySaved;
+
+    public RequestHedger(String name, boolean enabled, int budgetPercent, long minDelayMs, long maxDelayMs,
+                         int maxThreads, MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.budgetPercent = budgetPercent;
+        this.minDelayNanos = TimeUnit.MILLISECONDS.toNanos(minDelayMs);
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+        this.hedgeDelayNanos = maxDelayNanos;
+
+        AtomicInteger threadIds = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(0, maxThreads, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "hedge-" + name + "-" + threadIds.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        this.notHedged = calls(meterRegistry, name, "not_hedged");
+        this.primaryWon = calls(meterRegistry, name, "primary_won");
+        this.hedgeWon = calls(meterRegistry, name, "hedge_won");
+        this.budgetExhausted = calls(meterRegistry, name, "budget_exhausted");
+        this.latencySaved = Timer.builder("hedging.latency.saved")
+                .description("How much sooner a winning hedge answered than the attempt it hedged")
+                .tag("name", name)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("hedging.delay", this, hedger -> hedger.hedgeDelayNanos / 1_000_000.0)
+                .description("Current delay before a hedge is sent")
+                .tag("name", name)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs the call, hedging it if it is slow. Fails only when every attempt failed,
+     * with the first attempt's exception.
+     */
+    public <T> T execute(Supplier<T> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        credits.getAndUpdate(current -> Math.min(MAX_CREDITS, current + budgetPercent));
+
+        CompletableFuture<Attempt<T>> primary;
+        try {
+            primary = CompletableFuture.supplyAsync(() -> attempt(call), executor);
+        } catch (RejectedExecutionException e) {
+            // Every hedging thread is busy; run unhedged on the caller
+            notHedged.increment();
+            return call.get();
+        }
+
+        try {
+            Attempt<T> result = primary.get(hedgeDelayNanos, TimeUnit.NANOSECONDS);
+            notHedged.increment();
+            return result.value();
+        } catch (TimeoutException e) {
+            return hedge(call, primary);
+        } catch (ExecutionException e) {
+            notHedged.increment();
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            primary.cancel(false);
+            throw new CompletionException(e);
+        }
+    }
+
+    private <T> T hedge(Supplier<T> call, CompletableFuture<Attempt<T>> primary) {
+        CompletableFuture<Attempt<T>> hedge;
+        if (!tryTakeCredit()) {
+            budgetExhausted.increment();
+            return await(primary);
+        }
+        try {
+            hedge = CompletableFuture.supplyAsync(() -> attempt(call), executor);
+        } catch (RejectedExecutionException e) {
+            credits.addAndGet(HEDGE_COST);
+            budgetExhausted.increment();
+            return await(primary);
+        }
+
+        CompletableFuture<Attempt<T>> winner = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        for (CompletableFuture<Attempt<T>> attempt : Arrays.asList(primary, hedge)) {
+            attempt.whenComplete((result, error) -> {
+                if (error == null) {
+                    winner.complete(result);
+                } else if (failures.incrementAndGet() == 2) {
+                    // Both failed; report the first attempt's error
+                    primary.whenComplete((ignored, primaryError) -> winner.completeExceptionally(primaryError));
+                }
+            });
+        }
+
+        Attempt<T> result;
+        try {
+            result = winner.join();
+        } catch (CompletionException e) {
+            throw unwrap(e.getCause());
+        }
+
+        if (hedge.isDone() && !hedge.isCompletedExceptionally() && hedge.join() == result) {
+            hedgeWon.increment();
+            // The saving is only known once the hedged attempt finishes, if it does
+            primary.thenAccept(slower -> latencySaved.record(
+                    slower.finishedAtNanos() - result.finishedAtNanos(), TimeUnit.NANOSECONDS));
+        } else {
+            primaryWon.increment();
+        }
+        return result.value();
+    }
+
+    private boolean tryTakeCredit() {
+        long current;
+        do {
+            current = credits.get();
+            if (current < HEDGE_COST) {
+                return false;
+            }
+        } while (!credits.compareAndSet(current, current - HEDGE_COST));
+        return true;
+    }
+
+    private <T> Attempt<T> attempt(Supplier<T> call) {
+        long start = System.nanoTime();
+        T value = call.get();
+        long finished = System.nanoTime();
+        recordLatency(finished - start);
+        return new Attempt<>(value, finished);
+    }
+
+    private synchronized void recordLatency(long nanos) {
+        latencies[latencyCount % LATENCY_WINDOW] = nanos;
+        latencyCount++;
+        // Recompute the quantile every few samples rather than sorting on every call
+        if (latencyCount >= MIN_LATENCY_SAMPLES && latencyCount % 8 == 0) {
+            long[] window = Arrays.copyOf(latencies, Math.min(latencyCount, LATENCY_WINDOW));
+            Arrays.sort(window);
+            long quantile = window[(int) Math.ceil(HEDGE_QUANTILE * window.length) - 1];
+            hedgeDelayNanos = Math.max(minDelayNanos, Math.min(maxDelayNanos, quantile));
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private static Counter calls(MeterRegistry meterRegistry, String name, String result) {
+        return Counter.builder("hedging.calls")
+                .description("Hedged calls by which attempt answered")
+                .tag("name", name)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static <T> T await(CompletableFuture<Attempt<T>> attempt) {
+        try {
+            return attempt.join().value();
+        } catch (CompletionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable error) {
+        while (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error instanceof RuntimeException runtime ? runtime : new CompletionException(error);
+    }
+
+    private record Attempt<T>(T value, long finishedAtNanos) {
+    }
+}
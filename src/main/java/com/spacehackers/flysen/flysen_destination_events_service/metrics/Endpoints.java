@@ -0,0 +1,53 @@
+package com.spacehackers.flysen.flysen_destination_events_service.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Resolves the controller endpoint a piece of work belongs to, as a low-cardinality
+ * tag like "GET /destinations/{id}".
+ */
+public final class Endpoints {
+
+    public static final String BACKGROUND = "background";
+    public static final String UNKNOWN = "UNKNOWN";
+
+    // Endpoint a worker thread is doing work for, set by RequestContextPropagator
+    private static final ThreadLocal<String> PROPAGATED = new ThreadLocal<>();
+
+    private Endpoints() {
+    }
+
+    /**
+     * @return the endpoint of the request bound to the current thread or propagated
+     * to it, or {@link #BACKGROUND} outside of a request
+     */
+    public static String current() {
+        String propagated = PROPAGATED.get();
+        if (propagated != null) {
+            return propagated;
+        }
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            return of(attributes.getRequest());
+        }
+        return BACKGROUND;
+    }
+
+    /**
+     * Attributes work on the current thread to {@code endpoint} until {@link #clearPropagated}.
+     */
+    public static void propagate(String endpoint) {
+        PROPAGATED.set(endpoint);
+    }
+
+    public static void clearPropagated() {
+        PROPAGATED.remove();
+    }
+
+    public static String of(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : UNKNOWN);
+    }
+}
@@ -0,0 +1,48 @@
+package com.spacehackers.flysen.flysen_destination_events_service.metrics;
+
+/**
+ * Normalised form of a repository query: what it filters and orders on and how
+ * many documents it may return, without the argument values. Queries that only
+ * differ in their arguments share a shape.
+ *
+ * @param filters  filter fields and operators, e.g. "active ==, region =="
+ * @param order    ordering applied by the store, or null
+ * @param limit    limit applied by the store, or null when the result set is unbounded
+ * @param inMemory sorting or filtering applied by the repository after the query, or null
+ */
+public record QueryShape(String collection, String filters, String order, Integer limit, String inMemory) {
+
+    public boolean isFullScan() {
+        return limit == null;
+    }
+
+    /**
+     * Unbounded queries that are post-processed in memory: the whole match set is
+     * read and billed, even when the caller only keeps part of it.
+     */
+    public boolean isFlagged() {
+        return isFullScan() && inMemory != null;
+    }
+
+    public QueryShape withInMemory(String inMemory) {
+        return new QueryShape(collection, filters, order, limit, inMemory);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder shape = new StringBuilder(collection);
+        if (filters != null && !filters.isEmpty()) {
+            shape.append(" where ").append(filters);
+        }
+        if (order != null) {
+            shape.append(" order by ").append(order);
+        }
+        if (limit != null) {
+            shape.append(" limit ").append(limit);
+        }
+        if (inMemory != null) {
+            shape.append(" then ").append(inMemory).append(" in memory");
+        }
+        return shape.toString();
+    }
+}
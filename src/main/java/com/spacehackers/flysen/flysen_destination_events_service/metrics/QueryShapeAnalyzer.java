@@ -0,0 +1,98 @@
+package com.spacehackers.flysen.flysen_destination_events_service.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregates timings and result sizes of repository queries by {@link QueryShape}
+ * and logs individual queries that are slower or larger than the configured thresholds.
+ */
+@Slf4j
+@Component
+public class QueryShapeAnalyzer {
+
+    @Value("${app.query-analysis.slow-threshold-ms:500}")
+    private long slowThresholdMs;
+
+    @Value("${app.query-analysis.large-result-documents:500}")
+    private int largeResultDocuments;
+
+    @Value("${app.query-analysis.max-shapes:1000}")
+    private int maxShapes;
+
+    private final Map<QueryShape, ShapeStats> shapes = new ConcurrentHashMap<>();
+
+    public record ShapeReport(String shape, String collection, long count, double totalMillis,
+                              double meanMillis, double maxMillis, double meanDocuments, long maxDocuments,
+                              boolean fullScan, String inMemory, boolean flagged) {
+    }
+
+    private static final class ShapeStats {
+        final LongAdder count = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        final LongAdder totalDocuments = new LongAdder();
+        final LongAccumulator maxDocuments = new LongAccumulator(Math::max, 0);
+    }
+
+    public void record(QueryShape shape, long elapsedNanos, int documents) {
+        ShapeStats stats = shapes.get(shape);
+        if (stats == null && shapes.size() < maxShapes) {
+            stats = shapes.computeIfAbsent(shape, key -> new ShapeStats());
+        }
+        if (stats != null) {
+            stats.count.increment();
+            stats.totalNanos.add(elapsedNanos);
+            stats.maxNanos.accumulate(elapsedNanos);
+            stats.totalDocuments.add(documents);
+            stats.maxDocuments.accumulate(documents);
+        }
+
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        if (elapsedMs >= slowThresholdMs || documents >= largeResultDocuments) {
+            log.warn("Slow query: {} ms, {} documents, {}{} [{}]", elapsedMs, documents, shape,
+                    shape.isFlagged() ? " (full scan with in-memory processing)" : "", Endpoints.current());
+        }
+    }
+
+    /**
+     * Returns the top shapes ordered by the given key: "total" time (default),
+     * "max" time, "mean" time or "documents" returned on average.
+     */
+    public List<ShapeReport> report(String sortBy, int limit) {
+        Comparator<ShapeReport> order = switch (sortBy != null ? sortBy : "total") {
+            case "max" -> Comparator.comparingDouble(ShapeReport::maxMillis);
+            case "mean" -> Comparator.comparingDouble(ShapeReport::meanMillis);
+            case "documents" -> Comparator.comparingDouble(ShapeReport::meanDocuments);
+            default -> Comparator.comparingDouble(ShapeReport::totalMillis);
+        };
+        return shapes.entrySet().stream()
+                .map(entry -> toReport(entry.getKey(), entry.getValue()))
+                .filter(report -> report.count() > 0)
+                .sorted(order.reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    public void reset() {
+        shapes.clear();
+    }
+
+    private static ShapeReport toReport(QueryShape shape, ShapeStats stats) {
+        long count = stats.count.sum();
+        double totalMillis = stats.totalNanos.sum() / 1_000_000.0;
+        return new ShapeReport(shape.toString(), shape.collection(), count, totalMillis,
+                count > 0 ? totalMillis / count : 0, stats.maxNanos.get() / 1_000_000.0,
+                count > 0 ? (double) stats.totalDocuments.sum() / count : 0, stats.maxDocuments.get(),
+                shape.isFullScan(), shape.inMemory(), shape.isFlagged());
+    }
+}
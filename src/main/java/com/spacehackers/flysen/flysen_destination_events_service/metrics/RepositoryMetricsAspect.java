@@ -0,0 +1,71 @@
+package com.spacehackers.flysen.flysen_destination_events_service.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every public repository method and records how many documents it read
+ * and wrote, tagged with the endpoint that triggered it. Together these show
+ * which routes drive storage latency and cost.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class RepositoryMetricsAspect {
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(public * com.spacehackers.flysen.flysen_destination_events_service.repositories..*Repository.*(..))")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        StorageUsage.Scope scope = StorageUsage.begin();
+        String outcome = "success";
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            outcome = "error";
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            StorageUsage.end(scope);
+            record(joinPoint, outcome, elapsed, scope);
+        }
+    }
+
+    private void record(ProceedingJoinPoint joinPoint, String outcome, long elapsedNanos,
+                        StorageUsage.Scope scope) {
+        Tags tags = Tags.of(
+                "repository", joinPoint.getSignature().getDeclaringType().getSimpleName(),
+                "method", joinPoint.getSignature().getName(),
+                "endpoint", Endpoints.current());
+
+        Timer.builder("repository.calls")
+                .description("Latency of repository calls")
+                .tags(tags)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+
+        DistributionSummary.builder("repository.documents.read")
+                .description("Documents read per repository call")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(scope.documentsRead());
+
+        DistributionSummary.builder("repository.documents.written")
+                .description("Documents written per repository call")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(scope.documentsWritten());
+    }
+}
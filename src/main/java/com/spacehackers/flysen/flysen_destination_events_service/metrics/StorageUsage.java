@@ -0,0 +1,71 @@
+package com.spacehackers.flysen.flysen_destination_events_service.metrics;
+
+/**
+ * Per-thread tally of the documents a repository call reads and writes.
+ * Repositories report what they touch, and {@link RepositoryMetricsAspect}
+ * opens a scope around each call and records the totals.
+ * <p>
+ * Reporting outside of a scope is a no-op.
+ */
+public final class StorageUsage {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private StorageUsage() {
+    }
+
+    public static void documentsRead(long count) {
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            scope.documentsRead += count;
+        }
+    }
+
+    /**
+     * Reports a query that returned the given number of documents. Firestore
+     * bills at least one read per query, even when nothing matches.
+     */
+    public static void queryRead(int returned) {
+        documentsRead(Math.max(1, returned));
+    }
+
+    public static void documentsWritten(long count) {
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            scope.documentsWritten += count;
+        }
+    }
+
+    static Scope begin() {
+        Scope scope = new Scope(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    static void end(Scope scope) {
+        if (scope.parent != null) {
+            CURRENT.set(scope.parent);
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+    static final class Scope {
+
+        private final Scope parent;
+        private long documentsRead;
+        private long documentsWritten;
+
+        private Scope(Scope parent) {
+            this.parent = parent;
+        }
+
+        long documentsRead() {
+            return documentsRead;
+        }
+
+        long documentsWritten() {
+            return documentsWritten;
+        }
+    }
+}
@@ -23,6 +23,7 @@ public class AirportService {
     private String description;
     private String locationMap;
     private Map<String, OpeningHours> openingHours;
+    private String timeZone; // IANA zone of the airport the opening hours are in, e.g. "Europe/Madrid"
     private ContactInfo contactInfo;
     private List<String> images;
     private String logo;
@@ -0,0 +1,30 @@
+package com.spacehackers.flysen.flysen_destination_events_service.models;
+
+import com.google.cloud.Timestamp;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Seats of an event held for a customer until {@code expiresAt}, then either
+ * confirmed or given back.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventReservation {
+
+    private String id;
+    private String eventId;
+    private int seats;
+    private ReservationStatus status;
+    private Timestamp expiresAt;  // only meaningful while HELD
+    private Timestamp createdAt;
+    private Timestamp updatedAt;
+
+    public enum ReservationStatus {
+        HELD, CONFIRMED, RELEASED, EXPIRED
+    }
+}
@@ -0,0 +1,26 @@
+package com.spacehackers.flysen.flysen_destination_events_service.models;
+
+import com.google.cloud.Timestamp;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One shard of an event's capacity. Instances lease seats from the shards in
+ * blocks and hand them out from memory; {@code seats} is the shard's part of the
+ * seats left when the shards were created, and {@code leased} how many of them
+ * are out.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventSeatShard {
+
+    private String eventId;
+    private int shard;
+    private int seats;
+    private int leased;
+    private Timestamp updatedAt;
+}
@@ -0,0 +1,27 @@
+package com.spacehackers.flysen.flysen_destination_events_service.models;
+
+import com.google.cloud.Timestamp;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One shard of an event's statistics counters. Increments are spread over the
+ * shards so a popular event is not limited by the write rate of one document;
+ * the event's counts are the sum over its shards.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventStatShard {
+
+    private String eventId;
+    private int shard;
+    private long views;
+    private long bookings;
+    private long reviews;
+    private double ratingSum;  // sum of review ratings, for the average
+    private Timestamp updatedAt;
+}
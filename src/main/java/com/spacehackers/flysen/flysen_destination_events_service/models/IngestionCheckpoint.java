@@ -0,0 +1,28 @@
+package com.spacehackers.flysen.flysen_destination_events_service.models;
+
+import com.google.cloud.Timestamp;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Progress of a batch pipeline that walks the destinations in document-ID order.
+ * A run that fails leaves its cursor behind, and the next run resumes after it.
+ * The instance running the pipeline holds a lease on the document, renewed with
+ * every checkpoint, so other instances do not start a run of their own.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IngestionCheckpoint {
+
+    private String pipeline;
+    private String cursor;        // ID of the last destination fully processed
+    private Timestamp startedAt;
+    private Timestamp updatedAt;
+    private Timestamp completedAt; // null while the run is unfinished
+    private String leaseOwner;     // null when no instance is running the pipeline
+    private Timestamp leaseUntil;
+}
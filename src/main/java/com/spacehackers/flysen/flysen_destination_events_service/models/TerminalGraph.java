@@ -0,0 +1,36 @@
+package com.spacehackers.flysen.flysen_destination_events_service.models;
+
+import com.google.cloud.Timestamp;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Walking times between the gates and terminals of one airport, stored under the
+ * airport ID. Nodes are named by the {@code gate} and {@code terminal} values that
+ * airport services use.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TerminalGraph {
+
+    private String airportId;
+    private List<Walkway> walkways;
+    private Timestamp updatedAt;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Walkway {
+        private String from;
+        private String to;
+        private Integer seconds;  // walking time
+        private boolean oneWay;   // e.g. through security; otherwise walkable both ways
+    }
+}
@@ -41,6 +41,11 @@ public class TouristAttraction {
     private boolean wheelchairAccessible;
     private boolean childFriendly;
 
+    // Source, for attractions ingested from Google Places
+    private String placeId;
+    private String sourceFingerprint; // hash of the Places fields the attraction was built from
+    private Timestamp lastSyncedAt;
+
     // Metadata
     private Timestamp createdAt;  // Changed from LocalDateTime
     private Timestamp updatedAt;  // Changed from LocalDateTime
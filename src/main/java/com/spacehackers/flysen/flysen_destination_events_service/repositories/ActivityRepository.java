@@ -0,0 +1,22 @@
+package com.spacehackers.flysen.flysen_destination_events_service.repositories;
+
+import com.spacehackers.flysen.flysen_destination_events_service.models.Activity;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+
+public interface ActivityRepository {
+
+    String COLLECTION_NAME = "activities";
+
+    String create(Activity activity) throws ExecutionException, InterruptedException;
+
+    Optional<Activity> findById(String id) throws ExecutionException, InterruptedException;
+
+    List<Activity> findByDestination(String destinationId) throws ExecutionException, InterruptedException;
+
+    void update(String id, Activity activity) throws ExecutionException, InterruptedException;
+
+    void delete(String id) throws ExecutionException, InterruptedException;
+}
@@ -0,0 +1,13 @@
+package com.spacehackers.flysen.flysen_destination_events_service.repositories;
+
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Keeps a monotonically increasing version per collection. Every write to a
+ * collection increments its version, so list endpoints can derive an ETag
+ * from a single read.
+ */
+public interface CollectionVersionRepository {
+
+    long getVersion(String collection) throws ExecutionException, InterruptedException;
+}
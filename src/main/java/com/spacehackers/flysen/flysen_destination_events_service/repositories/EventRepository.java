@@ -1,157 +1,46 @@
 package com.spacehackers.flysen.flysen_destination_events_service.repositories;
 
-import com.google.api.core.ApiFuture;
 import com.google.cloud.Timestamp;
-import com.google.cloud.firestore.*;
 import com.spacehackers.flysen.flysen_destination_events_service.models.Event;
-import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.stereotype.Repository;
 
-import java.util.*;
+import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.ExecutionException;
-import java.util.stream.Collectors;
 
-@Slf4j
-@Repository
-@RequiredArgsConstructor
-public class EventRepository {
+public interface EventRepository {
 
-    private final Firestore firestore;
-    private static final String COLLECTION_NAME = "events";
+    String COLLECTION_NAME = "events";
 
-    public String create(Event event) throws ExecutionException, InterruptedException {
-        event.setId(UUID.randomUUID().toString());
-        event.setCreatedAt(Timestamp.now());
-        event.setUpdatedAt(Timestamp.now());
-        event.setActive(true);
-        event.setStatus(Event.EventStatus.SCHEDULED);
+    String create(Event event) throws ExecutionException, InterruptedException;
 
-        DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(event.getId());
-        ApiFuture<WriteResult> result = docRef.set(event);
-        result.get();
+    Optional<Event> findById(String id) throws ExecutionException, InterruptedException;
 
-        log.info("Created event with ID: {}", event.getId());
-        return event.getId();
-    }
-
-    public Optional<Event> findById(String id) throws ExecutionException, InterruptedException {
-        DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(id);
-        ApiFuture<DocumentSnapshot> future = docRef.get();
-        DocumentSnapshot document = future.get();
-
-        if (document.exists()) {
-            return Optional.of(document.toObject(Event.class));
-        }
-        return Optional.empty();
-    }
+    List<Event> findAll(int limit, String lastDocumentId) throws ExecutionException, InterruptedException;
 
-    public List<Event> findAll(int limit, String lastDocumentId) throws ExecutionException, InterruptedException {
-        Query query = firestore.collection(COLLECTION_NAME)
-                .whereEqualTo("active", true)
-                .limit(limit);
+    List<Event> findByDestination(String destinationId) throws ExecutionException, InterruptedException;
 
-        // Removed orderBy to avoid needing index
+    List<Event> findUpcoming(Timestamp startDate, Timestamp endDate, int limit)
+            throws ExecutionException, InterruptedException;
 
-        if (lastDocumentId != null && !lastDocumentId.isEmpty()) {
-            DocumentSnapshot lastDoc = firestore.collection(COLLECTION_NAME)
-                    .document(lastDocumentId)
-                    .get()
-                    .get();
-            query = query.startAfter(lastDoc);
-        }
-
-        ApiFuture<QuerySnapshot> future = query.get();
-        List<QueryDocumentSnapshot> documents = future.get().getDocuments();
-
-        return documents.stream()
-                .map(doc -> doc.toObject(Event.class))
-                .collect(Collectors.toList());
-    }
+    List<Event> findFeatured(int limit) throws ExecutionException, InterruptedException;
 
-    public List<Event> findByDestination(String destinationId) throws ExecutionException, InterruptedException {
-        Query query = firestore.collection(COLLECTION_NAME)
-                .whereEqualTo("active", true)
-                .whereEqualTo("destinationId", destinationId);
+    List<Event> findByType(Event.EventType type) throws ExecutionException, InterruptedException;
 
-        // Removed orderBy to avoid needing index
+    void update(String id, Event event) throws ExecutionException, InterruptedException;
 
-        ApiFuture<QuerySnapshot> future = query.get();
-        List<QueryDocumentSnapshot> documents = future.get().getDocuments();
+    /**
+     * Adds {@code delta} to the remaining capacity, starting from the capacity when
+     * it has none, kept between zero and the capacity. Does nothing if the event
+     * does not exist. Leaves the collection version alone.
+     */
+    void adjustRemainingCapacity(String id, int delta) throws ExecutionException, InterruptedException;
 
-        return documents.stream()
-                .map(doc -> doc.toObject(Event.class))
-                .collect(Collectors.toList());
-    }
-
-    public List<Event> findUpcoming(Timestamp startDate, Timestamp endDate, int limit)
-            throws ExecutionException, InterruptedException {
-        Query query = firestore.collection(COLLECTION_NAME)
-                .whereEqualTo("active", true)
-                .whereGreaterThanOrEqualTo("date", startDate)
-                .whereLessThanOrEqualTo("date", endDate)
-                .limit(limit);
-
-        // Removed orderBy to avoid needing composite index
-
-        ApiFuture<QuerySnapshot> future = query.get();
-        List<QueryDocumentSnapshot> documents = future.get().getDocuments();
-
-        return documents.stream()
-                .map(doc -> doc.toObject(Event.class))
-                .sorted(Comparator.comparing(Event::getDate)) // Sort in memory
-                .collect(Collectors.toList());
-    }
-
-    public List<Event> findFeatured(int limit) throws ExecutionException, InterruptedException {
-        Query query = firestore.collection(COLLECTION_NAME)
-                .whereEqualTo("active", true)
-                .whereEqualTo("featured", true)
-                .limit(limit);
-
-        // Removed orderBy to avoid needing index
-
-        ApiFuture<QuerySnapshot> future = query.get();
-        List<QueryDocumentSnapshot> documents = future.get().getDocuments();
-
-        return documents.stream()
-                .map(doc -> doc.toObject(Event.class))
-                .sorted(Comparator.comparing(Event::getDate)) // Sort in memory
-                .collect(Collectors.toList());
-    }
-
-    public List<Event> findByType(Event.EventType type) throws ExecutionException, InterruptedException {
-        Query query = firestore.collection(COLLECTION_NAME)
-                .whereEqualTo("active", true)
-                .whereEqualTo("type", type.name());
-
-        // Removed orderBy to avoid needing index
-
-        ApiFuture<QuerySnapshot> future = query.get();
-        List<QueryDocumentSnapshot> documents = future.get().getDocuments();
-
-        return documents.stream()
-                .map(doc -> doc.toObject(Event.class))
-                .sorted(Comparator.comparing(Event::getDate)) // Sort in memory
-                .collect(Collectors.toList());
-    }
-
-    public void update(String id, Event event) throws ExecutionException, InterruptedException {
-        event.setUpdatedAt(Timestamp.now());
-        DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(id);
-        ApiFuture<WriteResult> result = docRef.set(event, SetOptions.merge());
-        result.get();
-        log.info("Updated event with ID: {}", id);
-    }
+    boolean addImage(String id, String imageUrl) throws ExecutionException, InterruptedException;
 
-    public void delete(String id) throws ExecutionException, InterruptedException {
-        DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(id);
-        Map<String, Object> updates = new HashMap<>();
-        updates.put("active", false);
-        updates.put("updatedAt", Timestamp.now());
+    void delete(String id) throws ExecutionException, InterruptedException;
 
-        ApiFuture<WriteResult> result = docRef.update(updates);
-        result.get();
-        log.info("Soft deleted event with ID: {}", id);
+    static int adjustedRemainingCapacity(Integer capacity, Integer remainingCapacity, int delta) {
+        int remaining = (remainingCapacity != null ? remainingCapacity : capacity != null ? capacity : 0) + delta;
+        return Math.max(0, capacity != null ? Math.min(remaining, capacity) : remaining);
     }
-}
\ No newline at end of file
+}
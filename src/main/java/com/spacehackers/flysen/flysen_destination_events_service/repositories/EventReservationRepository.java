@@ -0,0 +1,61 @@
+package com.spacehackers.flysen.flysen_destination_events_service.repositories;
+
+import com.google.cloud.Timestamp;
+import com.spacehackers.flysen.flysen_destination_events_service.models.EventReservation;
+import com.spacehackers.flysen.flysen_destination_events_service.models.EventReservation.ReservationStatus;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+
+public interface EventReservationRepository {
+
+    String COLLECTION_NAME = "event_reservations";
+    String SEAT_SHARDS_COLLECTION_NAME = "event_seat_shards";
+
+    /**
+     * A reservation after a status change, and whether the change was applied.
+     */
+    record Transition(EventReservation reservation, boolean applied) {
+    }
+
+    String create(EventReservation reservation) throws ExecutionException, InterruptedException;
+
+    Optional<EventReservation> findById(String id) throws ExecutionException, InterruptedException;
+
+    /**
+     * Holds of any event that expire at or before {@code now}, whichever instance
+     * made them.
+     */
+    List<EventReservation> findExpiredHolds(Timestamp now, int limit) throws ExecutionException, InterruptedException;
+
+    /**
+     * Atomically moves a reservation of the event from one status to another, only
+     * while it is in {@code from} and, if {@code unexpired}, before it expires.
+     * Empty if the event has no such reservation.
+     */
+    Optional<Transition> transition(String eventId, String id, ReservationStatus from, ReservationStatus to,
+                                    boolean unexpired) throws ExecutionException, InterruptedException;
+
+    /**
+     * Atomically creates the event's seat shards with the given seats, one entry per
+     * shard, unless any of them exists. Returns whether it created them.
+     */
+    boolean createSeatShards(String eventId, int[] seats) throws ExecutionException, InterruptedException;
+
+    /**
+     * Atomically leases up to {@code wanted} of the shard's seats not yet leased and
+     * returns how many it got; none from a shard that was never created.
+     */
+    int leaseSeats(String eventId, int shard, int wanted) throws ExecutionException, InterruptedException;
+
+    /**
+     * Atomically gives back up to {@code seats} of the seats leased from the shard,
+     * never more than it has leased, and returns how many it gave back.
+     */
+    int returnSeats(String eventId, int shard, int seats) throws ExecutionException, InterruptedException;
+
+    static String seatShardId(String eventId, int shard) {
+        return eventId + "_" + shard;
+    }
+}
@@ -0,0 +1,26 @@
+package com.spacehackers.flysen.flysen_destination_events_service.repositories;
+
+import com.spacehackers.flysen.flysen_destination_events_service.models.EventStatShard;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+public interface EventStatShardRepository {
+
+    String COLLECTION_NAME = "event_stat_shards";
+
+    // Firestore allows 500 writes per batch
+    int MAX_INCREMENTS_PER_WRITE = 500;
+
+    /**
+     * Adds the counts of each given shard to the stored shard, creating it if needed.
+     * At most {@link #MAX_INCREMENTS_PER_WRITE} increments, applied all or none.
+     */
+    void incrementAll(List<EventStatShard> increments) throws ExecutionException, InterruptedException;
+
+    List<EventStatShard> findByEvent(String eventId) throws ExecutionException, InterruptedException;
+
+    static String documentId(String eventId, int shard) {
+        return eventId + "_" + shard;
+    }
+}
@@ -0,0 +1,63 @@
+package com.spacehackers.flysen.flysen_destination_events_service.repositories;
+
+import com.google.cloud.Timestamp;
+import com.spacehackers.flysen.flysen_destination_events_service.models.IngestionCheckpoint;
+import com.spacehackers.flysen.flysen_destination_events_service.models.TouristAttraction;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+
+public interface TouristAttractionRepository {
+
+    String COLLECTION_NAME = "tourist_attractions";
+    String CHECKPOINTS_COLLECTION_NAME = "ingestion_checkpoints";
+
+    Optional<TouristAttraction> findById(String id) throws ExecutionException, InterruptedException;
+
+    /**
+     * Looks up several attractions in one round trip; missing IDs are left out of the result.
+     */
+    Map<String, TouristAttraction> findAllById(Collection<String> ids) throws ExecutionException, InterruptedException;
+
+    List<TouristAttraction> findByDestination(String destinationId) throws ExecutionException, InterruptedException;
+
+    /**
+     * Writes the attractions as given, replacing existing documents with the same ID.
+     */
+    void saveAll(List<TouristAttraction> attractions) throws ExecutionException, InterruptedException;
+
+    Optional<IngestionCheckpoint> findCheckpoint(String pipeline) throws ExecutionException, InterruptedException;
+
+    /**
+     * Takes the pipeline's lease for the owner until the given time, atomically,
+     * if it is free, expired or already the owner's.
+     *
+     * @return false if another owner holds the lease
+     */
+    boolean acquireLease(String pipeline, String owner, Timestamp leaseUntil)
+            throws ExecutionException, InterruptedException;
+
+    /**
+     * Writes the checkpoint, lease fields included, if its lease owner may still
+     * hold the lease.
+     *
+     * @return false if another owner has taken the lease over
+     */
+    boolean saveCheckpoint(IngestionCheckpoint checkpoint) throws ExecutionException, InterruptedException;
+
+    /**
+     * Frees the pipeline's lease if the owner still holds it.
+     */
+    void releaseLease(String pipeline, String owner) throws ExecutionException, InterruptedException;
+
+    static boolean canLease(IngestionCheckpoint checkpoint, String owner, Timestamp now) {
+        return checkpoint == null
+                || checkpoint.getLeaseOwner() == null
+                || checkpoint.getLeaseOwner().equals(owner)
+                || checkpoint.getLeaseUntil() == null
+                || checkpoint.getLeaseUntil().compareTo(now) <= 0;
+    }
+}
@@ -0,0 +1,65 @@
+package com.spacehackers.flysen.flysen_destination_events_service.repositories.embedded;
+
+import com.google.cloud.Timestamp;
+import com.spacehackers.flysen.flysen_destination_events_service.models.Activity;
+import com.spacehackers.flysen.flysen_destination_events_service.repositories.ActivityRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+
+@Slf4j
+@Repository
+@ConditionalOnProperty(name = "app.storage.backend", havingValue = "embedded")
+public class EmbeddedActivityRepository implements ActivityRepository {
+
+    private final EmbeddedCollection<Activity> activities;
+
+    public EmbeddedActivityRepository(EmbeddedDocumentStore store) {
+        this.activities = store.collection(COLLECTION_NAME, Activity.class);
+    }
+
+    @Override
+    public String create(Activity activity) {
+        activity.setId(UUID.randomUUID().toString());
+        activity.setCreatedAt(Timestamp.now());
+        activity.setUpdatedAt(Timestamp.now());
+        activity.setActive(true);
+
+        activities.set(activity.getId(), activity);
+
+        log.info("Created activity with ID: {}", activity.getId());
+        return activity.getId();
+    }
+
+    @Override
+    public Optional<Activity> findById(String id) {
+        return activities.get(id);
+    }
+
+    @Override
+    public List<Activity> findByDestination(String destinationId) {
+        return activities.find(activity -> activity.isActive() && destinationId.equals(activity.getDestinationId()));
+    }
+
+    @Override
+    public void update(String id, Activity activity) {
+        activity.setUpdatedAt(Timestamp.now());
+        activities.merge(id, activity);
+        log.info("Updated activity with ID: {}", id);
+    }
+
+    @Override
+    public void delete(String id) throws ExecutionException {
+        activities.update(id, document -> {
+            document.put("active", false);
+            activities.touch(document);
+            return document;
+        });
+        log.info("Soft deleted activity with ID: {}", id);
+    }
+}
@@ -0,0 +1,172 @@
+package com.spacehackers.flysen.flysen_destination_events_service.repositories.embedded;
+
+import com.google.cloud.Timestamp;
+import com.spacehackers.flysen.flysen_destination_events_service.models.AirportService;
+import com.spacehackers.flysen.flysen_destination_events_service.models.TerminalGraph;
+import com.spacehackers.flysen.flysen_destination_events_service.repositories.AirportServiceRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Repository
+@ConditionalOnProperty(name = "app.storage.backend", havingValue = "embedded")
+public class EmbeddedAirportServiceRepository implements AirportServiceRepository {
+
+    private final EmbeddedCollection<AirportService> services;
+    private final EmbeddedCollection<TerminalGraph> terminalGraphs;
+
+    public EmbeddedAirportServiceRepository(EmbeddedDocumentStore store) {
+        this.services = store.collection(COLLECTION_NAME, AirportService.class);
+        this.terminalGraphs = store.collection(TERMINAL_GRAPHS_COLLECTION_NAME, TerminalGraph.class);
+    }
+
+    @Override
+    public String create(AirportService airportService) {
+        airportService.setId(UUID.randomUUID().toString());
+        airportService.setCreatedAt(Timestamp.now());
+        airportService.setUpdatedAt(Timestamp.now());
+        airportService.setActive(true);
+
+        services.set(airportService.getId(), airportService);
+
+        log.info("Created airport service with ID: {}", airportService.getId());
+        return airportService.getId();
+    }
+
+    @Override
+    public Optional<AirportService> findById(String id) {
+        return services.get(id);
+    }
+
+    @Override
+    public List<AirportService> findAll(int limit, String lastDocumentId) {
+        return services.find(AirportService::isActive, lastDocumentId, limit);
+    }
+
+    @Override
+    public List<AirportService> findByAirport(String airportId) {
+        return services.find(service -> service.isActive() && airportId.equals(service.getAirportId()));
+    }
+
+    @Override
+    public List<AirportService> findByAirportCode(String airportCode) {
+        return services.find(service -> service.isActive() && airportCode.equals(service.getAirportCode()));
+    }
+
+    @Override
+    public List<AirportService> findByTerminal(String airportId, String terminal) {
+        return services.find(service -> service.isActive()
+                && airportId.equals(service.getAirportId())
+                && terminal.equals(service.getTerminal()));
+    }
+
+    @Override
+    public List<AirportService> search(String airportId, String searchTerm) {
+        String searchTermLower = searchTerm.toLowerCase();
+
+        return findByAirport(airportId).stream()
+                .filter(service ->
+                    service.getName().toLowerCase().contains(searchTermLower) ||
+                    (service.getDescription() != null &&
+                     service.getDescription().toLowerCase().contains(searchTermLower)) ||
+                    service.getCategory().name().toLowerCase().contains(searchTermLower))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void update(String id, AirportService airportService) {
+        airportService.setUpdatedAt(Timestamp.now());
+        services.merge(id, airportService);
+        log.info("Updated airport service with ID: {}", id);
+    }
+
+    @Override
+    public void delete(String id) throws ExecutionException {
+        services.update(id, document -> {
+            document.put("active", false);
+            services.touch(document);
+            return document;
+        });
+        log.info("Soft deleted airport service with ID: {}", id);
+    }
+
+    // Product-specific methods
+    @Override
+    public Optional<AirportService> addProduct(String serviceId, AirportService.AirportServiceProduct product) {
+        return services.get(serviceId).map(service -> {
+            List<AirportService.AirportServiceProduct> products =
+                service.getProducts() != null ? new ArrayList<>(service.getProducts()) : new ArrayList<>();
+
+            product.setId(UUID.randomUUID().toString());
+            products.add(product);
+
+            service.setProducts(products);
+            service.setUpdatedAt(Timestamp.now());
+
+            services.merge(serviceId, service);
+            log.info("Added product to service ID: {}", serviceId);
+            return service;
+        });
+    }
+
+    @Override
+    public Optional<AirportService> updateProduct(String serviceId, String productId,
+                                                  AirportService.AirportServiceProduct updatedProduct) {
+        return services.get(serviceId)
+                .filter(service -> service.getProducts() != null)
+                .map(service -> {
+                    List<AirportService.AirportServiceProduct> products = new ArrayList<>(service.getProducts());
+
+                    for (int i = 0; i < products.size(); i++) {
+                        if (products.get(i).getId().equals(productId)) {
+                            updatedProduct.setId(productId);
+                            products.set(i, updatedProduct);
+                            break;
+                        }
+                    }
+
+                    service.setProducts(products);
+                    service.setUpdatedAt(Timestamp.now());
+
+                    services.merge(serviceId, service);
+                    log.info("Updated product {} in service ID: {}", productId, serviceId);
+                    return service;
+                });
+    }
+
+    @Override
+    public Optional<AirportService> removeProduct(String serviceId, String productId) {
+        return services.get(serviceId)
+                .filter(service -> service.getProducts() != null)
+                .map(service -> {
+                    List<AirportService.AirportServiceProduct> products =
+                        service.getProducts().stream()
+                            .filter(p -> !p.getId().equals(productId))
+                            .collect(Collectors.toList());
+
+                    service.setProducts(products);
+                    service.setUpdatedAt(Timestamp.now());
+
+                    services.merge(serviceId, service);
+                    log.info("Removed product {} from service ID: {}", productId, serviceId);
+                    return service;
+                });
+    }
+
+    @Override
+    public Optional<TerminalGraph> findTerminalGraph(String airportId) {
+        return terminalGraphs.get(airportId);
+    }
+
+    @Override
+    public void saveTerminalGraph(TerminalGraph graph) {
+        graph.setUpdatedAt(Timestamp.now());
+        terminalGraphs.set(graph.getAirportId(), graph);
+        log.info("Saved terminal graph of airport {}", graph.getAirportId());
+    }
+}
@@ -0,0 +1,194 @@
+package com.spacehackers.flysen.flysen_destination_events_service.repositories.embedded;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.cloud.Timestamp;
+import com.spacehackers.flysen.flysen_destination_events_service.diagnostics.RepositoryQueryEvent;
+import com.spacehackers.flysen.flysen_destination_events_service.metrics.Endpoints;
+import com.spacehackers.flysen.flysen_destination_events_service.metrics.QueryShape;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Typed view over one collection of the {@link EmbeddedDocumentStore}, offering
+ * the handful of Firestore operations the repositories rely on.
+ */
+class EmbeddedCollection<T> {
+
+    private final EmbeddedDocumentStore store;
+    private final String name;
+    private final Class<T> type;
+
+    EmbeddedCollection(EmbeddedDocumentStore store, String name, Class<T> type) {
+        this.store = store;
+        this.name = name;
+        this.type = type;
+    }
+
+    Optional<T> get(String id) {
+        return store.read(name, id).map(this::toObject);
+    }
+
+    /**
+     * Returns matching documents in document-ID order, starting after the given
+     * cursor, like an unordered Firestore query with {@code startAfter}.
+     */
+    List<T> find(Predicate<T> filter, String startAfterId, int limit) {
+        RepositoryQueryEvent event = new RepositoryQueryEvent();
+        event.begin();
+        long start = System.nanoTime();
+        List<T> results = new ArrayList<>();
+        Iterator<String> keys = store.iterateFrom(name, startAfterId);
+        while (keys.hasNext() && results.size() < limit) {
+            String key = keys.next();
+            if (key.equals(startAfterId)) {
+                continue;
+            }
+            store.read(name, key)
+                    .map(this::toObject)
+                    .filter(filter)
+                    .ifPresent(results::add);
+        }
+        long elapsed = System.nanoTime() - start;
+        event.end();
+
+        // Filters are opaque predicates here, so every query is a scan filtered in memory
+        QueryShape shape = new QueryShape(name, "", null,
+                limit != Integer.MAX_VALUE ? limit : null, "filter");
+        store.queryShapeAnalyzer().record(shape, elapsed, results.size());
+        if (event.shouldCommit()) {
+            event.collection = name;
+            event.filters = shape.toString();
+            event.documentsReturned = results.size();
+            event.endpoint = Endpoints.current();
+            event.commit();
+        }
+        return results;
+    }
+
+    List<T> find(Predicate<T> filter) {
+        return find(filter, null, Integer.MAX_VALUE);
+    }
+
+    void set(String id, T document) {
+        store.write(name, id, current -> toNode(document));
+    }
+
+    // Field-level merge of all properties of the document, like set(..., SetOptions.merge())
+    void merge(String id, T document) {
+        store.write(name, id, current -> {
+            ObjectNode merged = current != null ? current : store.objectMapper().createObjectNode();
+            merged.setAll(toNode(document));
+            return merged;
+        });
+    }
+
+    /**
+     * Updates fields of an existing document. Like Firestore's update, this fails
+     * when the document does not exist.
+     */
+    void update(String id, UnaryOperator<ObjectNode> updater) throws ExecutionException {
+        boolean written = store.write(name, id, current -> current != null ? updater.apply(current) : null);
+        if (!written) {
+            throw new ExecutionException("No document to update: " + name + "/" + id, null);
+        }
+    }
+
+    /**
+     * Updates an existing document only if it matches the condition, atomically
+     * like a Firestore transaction. Returns the document as it is afterwards, or
+     * empty if it does not exist.
+     */
+    Optional<T> updateIf(String id, Predicate<T> condition, UnaryOperator<ObjectNode> updater) {
+        return updateIf(id, condition, updater, true);
+    }
+
+    /**
+     * Same, leaving the collection version alone, for fields list ETags do not cover.
+     */
+    Optional<T> updateIfUnversioned(String id, Predicate<T> condition, UnaryOperator<ObjectNode> updater) {
+        return updateIf(id, condition, updater, false);
+    }
+
+    private Optional<T> updateIf(String id, Predicate<T> condition, UnaryOperator<ObjectNode> updater,
+                                 boolean versioned) {
+        AtomicReference<ObjectNode> result = new AtomicReference<>();
+        store.write(name, id, current -> {
+            if (current == null) {
+                return null;
+            }
+            ObjectNode updated = condition.test(toObject(current)) ? updater.apply(current) : null;
+            result.set(updated != null ? updated : current);
+            return updated;
+        }, versioned);
+        return Optional.ofNullable(result.get()).map(this::toObject);
+    }
+
+    /**
+     * Replaces the document, or creates it, only if the current one (null when
+     * missing) matches the condition, atomically like a Firestore transaction.
+     *
+     * @return whether the document was written
+     */
+    boolean setIf(String id, Predicate<T> condition, UnaryOperator<T> updater) {
+        return store.write(name, id, current -> {
+            T existing = current != null ? toObject(current) : null;
+            return condition.test(existing) ? toNode(updater.apply(existing)) : null;
+        });
+    }
+
+    /**
+     * Updates fields of a document, starting from an empty one when it does not
+     * exist, like Firestore's set with merge and field transforms.
+     */
+    void upsert(String id, UnaryOperator<ObjectNode> updater) {
+        store.write(name, id, current -> updater.apply(current != null ? current : store.objectMapper().createObjectNode()));
+    }
+
+    void increment(ObjectNode document, String field, long delta) {
+        document.put(field, document.path(field).asLong() + delta);
+    }
+
+    void increment(ObjectNode document, String field, double delta) {
+        document.put(field, document.path(field).asDouble() + delta);
+    }
+
+    void arrayUnion(ObjectNode document, String field, String value) {
+        ArrayNode array = document.has(field) && document.get(field).isArray()
+                ? (ArrayNode) document.get(field)
+                : document.putArray(field);
+        for (int i = 0; i < array.size(); i++) {
+            if (value.equals(array.get(i).asText())) {
+                return;
+            }
+        }
+        array.add(value);
+    }
+
+    void touch(ObjectNode document) {
+        document.set("updatedAt", store.objectMapper().valueToTree(Timestamp.now()));
+    }
+
+    private T toObject(ObjectNode node) {
+        try {
+            return store.objectMapper().treeToValue(node, type);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ObjectNode toNode(T document) {
+        ObjectMapper mapper = store.objectMapper();
+        return mapper.valueToTree(document);
+    }
+}
@@ -0,0 +1,19 @@
+package com.spacehackers.flysen.flysen_destination_events_service.repositories.embedded;
+
+import com.spacehackers.flysen.flysen_destination_events_service.repositories.CollectionVersionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.storage.backend", havingValue = "embedded")
+public class EmbeddedCollectionVersionRepository implements CollectionVersionRepository {
+
+    private final EmbeddedDocumentStore store;
+
+    @Override
+    public long getVersion(String collection) {
+        return store.getVersion(collection);
+    }
+}
@@ -0,0 +1,105 @@
+package com.spacehackers.flysen.flysen_destination_events_service.repositories.embedded;
+
+import com.google.cloud.Timestamp;
+import com.spacehackers.flysen.flysen_destination_events_service.models.Destination;
+import com.spacehackers.flysen.flysen_destination_events_service.repositories.DestinationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Repository
+@ConditionalOnProperty(name = "app.storage.backend", havingValue = "embedded")
+public class EmbeddedDestinationRepository implements DestinationRepository {
+
+    private final EmbeddedCollection<Destination> destinations;
+
+    public EmbeddedDestinationRepository(EmbeddedDocumentStore store) {
+        this.destinations = store.collection(COLLECTION_NAME, Destination.class);
+    }
+
+    @Override
+    public String create(Destination destination) {
+        destination.setId(UUID.randomUUID().toString());
+        destination.setCreatedAt(Timestamp.now());
+        destination.setUpdatedAt(Timestamp.now());
+        destination.setActive(true);
+
+        destinations.set(destination.getId(), destination);
+
+        log.info("Created destination with ID: {}", destination.getId());
+        return destination.getId();
+    }
+
+    @Override
+    public Optional<Destination> findById(String id) {
+        return destinations.get(id);
+    }
+
+    @Override
+    public List<Destination> findAll(int limit, String lastDocumentId) {
+        return destinations.find(Destination::isActive, lastDocumentId, limit);
+    }
+
+    @Override
+    public List<Destination> findByRegion(String region) {
+        return destinations.find(dest -> dest.isActive() && region.equals(dest.getRegion()));
+    }
+
+    @Override
+    public List<Destination> findPopular(int limit) {
+        // Firestore's orderBy excludes documents without the ordered field
+        return destinations.find(dest -> dest.isActive() && dest.getPopularityScore() != null).stream()
+                .sorted(Comparator.comparing(Destination::getPopularityScore).reversed())
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void update(String id, Destination destination) {
+        destination.setUpdatedAt(Timestamp.now());
+        destinations.merge(id, destination);
+        log.info("Updated destination with ID: {}", id);
+    }
+
+    @Override
+    public boolean addImage(String id, String imageUrl) throws ExecutionException {
+        if (destinations.get(id).isEmpty()) {
+            return false;
+        }
+
+        destinations.update(id, document -> {
+            destinations.arrayUnion(document, "images", imageUrl);
+            destinations.touch(document);
+            return document;
+        });
+        log.info("Added image to destination with ID: {}", id);
+        return true;
+    }
+
+    @Override
+    public void delete(String id) throws ExecutionException {
+        destinations.update(id, document -> {
+            document.put("active", false);
+            destinations.touch(document);
+            return document;
+        });
+        log.info("Soft deleted destination with ID: {}", id);
+    }
+
+    @Override
+    public List<Destination> search(String searchTerm) {
+        String searchTermLower = searchTerm.toLowerCase();
+
+        return destinations.find(dest -> dest.isActive() &&
+                (dest.getName().toLowerCase().contains(searchTermLower) ||
+                        (dest.getDescription() != null && dest.getDescription().toLowerCase().contains(searchTermLower))));
+    }
+}
@@ -0,0 +1,175 @@
+package com.spacehackers.flysen.flysen_destination_events_service.repositories.embedded;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.cloud.Timestamp;
+import com.spacehackers.flysen.flysen_destination_events_service.metrics.QueryShapeAnalyzer;
+import com.spacehackers.flysen.flysen_destination_events_service.metrics.StorageUsage;
+import com.spacehackers.flysen.flysen_destination_events_service.util.ModelMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+
+/**
+ * Persistent document store backed by an H2 MVStore file. Each collection is an
+ * ordered map of document ID to JSON, which gives the same document-ID ordering
+ * Firestore uses for unordered queries and cursor pagination.
+ * <p>
+ * Leaving {@code app.storage.embedded.path} empty keeps everything in memory.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.storage.backend", havingValue = "embedded")
+public class EmbeddedDocumentStore {
+
+    private final QueryShapeAnalyzer queryShapeAnalyzer;
+
+    @Value("${app.storage.embedded.path:}")
+    private String path;
+
+    private final ObjectMapper objectMapper = createObjectMapper();
+
+    private MVStore store;
+    private MVMap<String, Long> versions;
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (path == null || path.isBlank()) {
+            store = MVStore.open(null);
+            log.info("Embedded document store opened in memory");
+        } else {
+            Path file = Paths.get(path).toAbsolutePath();
+            Files.createDirectories(file.getParent());
+            store = new MVStore.Builder()
+                    .fileName(file.toString())
+                    .compress()
+                    .open();
+            log.info("Embedded document store opened at {}", file);
+        }
+        versions = store.openMap("collection_versions");
+    }
+
+    @PreDestroy
+    public void close() {
+        if (store != null && !store.isClosed()) {
+            store.close();
+        }
+    }
+
+    public <T> EmbeddedCollection<T> collection(String name, Class<T> type) {
+        return new EmbeddedCollection<>(this, name, type);
+    }
+
+    long getVersion(String collection) {
+        Long version = versions.get(collection);
+        StorageUsage.documentsRead(1);
+        return version != null ? version : 0L;
+    }
+
+    MVMap<String, String> map(String collection) {
+        return store.openMap("docs." + collection);
+    }
+
+    Optional<ObjectNode> read(String collection, String id) {
+        String json = map(collection).get(id);
+        StorageUsage.documentsRead(1);
+        return json != null ? Optional.of(parse(json)) : Optional.empty();
+    }
+
+    Iterator<String> iterateFrom(String collection, String fromKey) {
+        return map(collection).cursor(fromKey);
+    }
+
+    /**
+     * Applies a read-modify-write to a single document. The updater receives the
+     * current document (or null) and returns the new one, or null to leave it unchanged.
+     * Writes are serialized and committed together with the collection version.
+     *
+     * @return true if the document was written
+     */
+    boolean write(String collection, String id, UnaryOperator<ObjectNode> updater) {
+        return write(collection, id, updater, true);
+    }
+
+    /**
+     * Same, bumping the collection version only when {@code versioned}.
+     */
+    synchronized boolean write(String collection, String id, UnaryOperator<ObjectNode> updater, boolean versioned) {
+        MVMap<String, String> docs = map(collection);
+        String current = docs.get(id);
+        ObjectNode updated = updater.apply(current != null ? parse(current) : null);
+        if (updated == null) {
+            return false;
+        }
+
+        docs.put(id, updated.toString());
+        if (versioned) {
+            versions.merge(collection, 1L, Long::sum);
+        }
+        store.commit();
+        StorageUsage.documentsWritten(1);
+        return true;
+    }
+
+    ObjectMapper objectMapper() {
+        return objectMapper;
+    }
+
+    QueryShapeAnalyzer queryShapeAnalyzer() {
+        return queryShapeAnalyzer;
+    }
+
+    private ObjectNode parse(String json) {
+        try {
+            return (ObjectNode) objectMapper.readTree(json);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static ObjectMapper createObjectMapper() {
+        SimpleModule timestamps = new SimpleModule();
+        timestamps.addSerializer(Timestamp.class, new JsonSerializer<>() {
+            @Override
+            public void serialize(Timestamp value, JsonGenerator gen, SerializerProvider serializers)
+                    throws IOException {
+                gen.writeString(ModelMapper.timestampToString(value));
+            }
+        });
+        timestamps.addDeserializer(Timestamp.class, new JsonDeserializer<>() {
+            @Override
+            public Timestamp deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+                return ModelMapper.stringToTimestamp(parser.getValueAsString());
+            }
+        });
+
+        return new ObjectMapper()
+                .registerModule(timestamps)
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+}
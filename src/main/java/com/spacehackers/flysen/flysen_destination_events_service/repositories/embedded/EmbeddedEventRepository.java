@@ -0,0 +1,126 @@
+package com.spacehackers.flysen.flysen_destination_events_service.repositories.embedded;
+
+import com.google.cloud.Timestamp;
+import com.spacehackers.flysen.flysen_destination_events_service.models.Event;
+import com.spacehackers.flysen.flysen_destination_events_service.repositories.EventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Repository
+@ConditionalOnProperty(name = "app.storage.backend", havingValue = "embedded")
+public class EmbeddedEventRepository implements EventRepository {
+
+    private final EmbeddedCollection<Event> events;
+
+    public EmbeddedEventRepository(EmbeddedDocumentStore store) {
+        this.events = store.collection(COLLECTION_NAME, Event.class);
+    }
+
+    @Override
+    public String create(Event event) {
+        event.setId(UUID.randomUUID().toString());
+        event.setCreatedAt(Timestamp.now());
+        event.setUpdatedAt(Timestamp.now());
+        event.setActive(true);
+        event.setStatus(Event.EventStatus.SCHEDULED);
+
+        events.set(event.getId(), event);
+
+        log.info("Created event with ID: {}", event.getId());
+        return event.getId();
+    }
+
+    @Override
+    public Optional<Event> findById(String id) {
+        return events.get(id);
+    }
+
+    @Override
+    public List<Event> findAll(int limit, String lastDocumentId) {
+        return events.find(Event::isActive, lastDocumentId, limit);
+    }
+
+    @Override
+    public List<Event> findByDestination(String destinationId) {
+        return events.find(event -> event.isActive() && destinationId.equals(event.getDestinationId()));
+    }
+
+    @Override
+    public List<Event> findUpcoming(Timestamp startDate, Timestamp endDate, int limit) {
+        // Range filters order by the filtered field before the limit applies, as in Firestore
+        return events.find(event -> event.isActive() && event.getDate() != null
+                        && event.getDate().compareTo(startDate) >= 0
+                        && event.getDate().compareTo(endDate) <= 0).stream()
+                .sorted(Comparator.comparing(Event::getDate))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Event> findFeatured(int limit) {
+        return events.find(event -> event.isActive() && event.isFeatured(), null, limit).stream()
+                .sorted(Comparator.comparing(Event::getDate)) // Sort in memory
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Event> findByType(Event.EventType type) {
+        return events.find(event -> event.isActive() && event.getType() == type).stream()
+                .sorted(Comparator.comparing(Event::getDate)) // Sort in memory
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void update(String id, Event event) {
+        event.setUpdatedAt(Timestamp.now());
+        events.merge(id, event);
+        log.info("Updated event with ID: {}", id);
+    }
+
+    @Override
+    public void adjustRemainingCapacity(String id, int delta) {
+        // Written every reservation sweep, so it does not move the list ETags
+        events.updateIfUnversioned(id, event -> true, document -> {
+            document.put("remainingCapacity", EventRepository.adjustedRemainingCapacity(
+                    document.hasNonNull("capacity") ? document.get("capacity").asInt() : null,
+                    document.hasNonNull("remainingCapacity") ? document.get("remainingCapacity").asInt() : null,
+                    delta));
+            events.touch(document);
+            return document;
+        });
+    }
+
+    @Override
+    public boolean addImage(String id, String imageUrl) throws ExecutionException {
+        if (events.get(id).isEmpty()) {
+            return false;
+        }
+
+        events.update(id, document -> {
+            events.arrayUnion(document, "images", imageUrl);
+            events.touch(document);
+            return document;
+        });
+        log.info("Added image to event with ID: {}", id);
+        return true;
+    }
+
+    @Override
+    public void delete(String id) throws ExecutionException {
+        events.update(id, document -> {
+            document.put("active", false);
+            events.touch(document);
+            return document;
+        });
+        log.info("Soft deleted event with ID: {}", id);
+    }
+}
@@ -0,0 +1,117 @@
+package com.spacehackers.flysen.flysen_destination_events_service.repositories.embedded;
+
+import com.google.cloud.Timestamp;
+import com.spacehackers.flysen.flysen_destination_events_service.models.EventReservation;
+import com.spacehackers.flysen.flysen_destination_events_service.models.EventReservation.ReservationStatus;
+import com.spacehackers.flysen.flysen_destination_events_service.models.EventSeatShard;
+import com.spacehackers.flysen.flysen_destination_events_service.repositories.EventReservationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+@Repository
+@ConditionalOnProperty(name = "app.storage.backend", havingValue = "embedded")
+public class EmbeddedEventReservationRepository implements EventReservationRepository {
+
+    private final EmbeddedCollection<EventReservation> reservations;
+    private final EmbeddedCollection<EventSeatShard> seatShards;
+
+    public EmbeddedEventReservationRepository(EmbeddedDocumentStore store) {
+        this.reservations = store.collection(COLLECTION_NAME, EventReservation.class);
+        this.seatShards = store.collection(SEAT_SHARDS_COLLECTION_NAME, EventSeatShard.class);
+    }
+
+    @Override
+    public String create(EventReservation reservation) {
+        reservation.setId(UUID.randomUUID().toString());
+        reservation.setCreatedAt(Timestamp.now());
+        reservation.setUpdatedAt(Timestamp.now());
+
+        reservations.set(reservation.getId(), reservation);
+        return reservation.getId();
+    }
+
+    @Override
+    public Optional<EventReservation> findById(String id) {
+        return reservations.get(id);
+    }
+
+    @Override
+    public List<EventReservation> findExpiredHolds(Timestamp now, int limit) {
+        return reservations.find(reservation -> reservation.getStatus() == ReservationStatus.HELD
+                && reservation.getExpiresAt() != null
+                && reservation.getExpiresAt().compareTo(now) <= 0, null, limit);
+    }
+
+    @Override
+    public Optional<Transition> transition(String eventId, String id, ReservationStatus from, ReservationStatus to,
+                                           boolean unexpired) {
+        Timestamp now = Timestamp.now();
+        AtomicBoolean applied = new AtomicBoolean();
+        return reservations.updateIf(id,
+                        reservation -> eventId.equals(reservation.getEventId())
+                                && reservation.getStatus() == from
+                                && (!unexpired || reservation.getExpiresAt().compareTo(now) > 0),
+                        document -> {
+                            applied.set(true);
+                            document.put("status", to.name());
+                            reservations.touch(document);
+                            return document;
+                        })
+                .filter(reservation -> eventId.equals(reservation.getEventId()))
+                .map(reservation -> new Transition(reservation, applied.get()));
+    }
+
+    @Override
+    public boolean createSeatShards(String eventId, int[] seats) {
+        boolean created = false;
+        for (int shard = 0; shard < seats.length; shard++) {
+            EventSeatShard seatShard = EventSeatShard.builder()
+                    .eventId(eventId)
+                    .shard(shard)
+                    .seats(seats[shard])
+                    .updatedAt(Timestamp.now())
+                    .build();
+            created |= seatShards.setIf(EventReservationRepository.seatShardId(eventId, shard),
+                    current -> current == null, current -> seatShard);
+        }
+        return created;
+    }
+
+    @Override
+    public int leaseSeats(String eventId, int shard, int wanted) {
+        AtomicInteger taken = new AtomicInteger();
+        seatShards.updateIf(EventReservationRepository.seatShardId(eventId, shard),
+                seatShard -> seatShard.getSeats() > seatShard.getLeased(),
+                document -> {
+                    int leased = document.path("leased").asInt();
+                    taken.set(Math.max(0, Math.min(wanted, document.path("seats").asInt() - leased)));
+                    document.put("leased", leased + taken.get());
+                    seatShards.touch(document);
+                    return document;
+                });
+        return taken.get();
+    }
+
+    @Override
+    public int returnSeats(String eventId, int shard, int seats) {
+        AtomicInteger returned = new AtomicInteger();
+        seatShards.updateIf(EventReservationRepository.seatShardId(eventId, shard),
+                seatShard -> seatShard.getLeased() > 0,
+                document -> {
+                    int leased = document.path("leased").asInt();
+                    returned.set(Math.min(seats, leased));
+                    document.put("leased", leased - returned.get());
+                    seatShards.touch(document);
+                    return document;
+                });
+        return returned.get();
+    }
+}
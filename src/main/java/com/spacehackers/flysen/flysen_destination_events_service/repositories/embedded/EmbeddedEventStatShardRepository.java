@@ -0,0 +1,44 @@
+package com.spacehackers.flysen.flysen_destination_events_service.repositories.embedded;
+
+import com.spacehackers.flysen.flysen_destination_events_service.models.EventStatShard;
+import com.spacehackers.flysen.flysen_destination_events_service.repositories.EventStatShardRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Slf4j
+@Repository
+@ConditionalOnProperty(name = "app.storage.backend", havingValue = "embedded")
+public class EmbeddedEventStatShardRepository implements EventStatShardRepository {
+
+    private final EmbeddedCollection<EventStatShard> shards;
+
+    public EmbeddedEventStatShardRepository(EmbeddedDocumentStore store) {
+        this.shards = store.collection(COLLECTION_NAME, EventStatShard.class);
+    }
+
+    @Override
+    public void incrementAll(List<EventStatShard> increments) {
+        for (EventStatShard increment : increments) {
+            shards.upsert(EventStatShardRepository.documentId(increment.getEventId(), increment.getShard()),
+                    document -> {
+                        document.put("eventId", increment.getEventId());
+                        document.put("shard", increment.getShard());
+                        shards.increment(document, "views", increment.getViews());
+                        shards.increment(document, "bookings", increment.getBookings());
+                        shards.increment(document, "reviews", increment.getReviews());
+                        shards.increment(document, "ratingSum", increment.getRatingSum());
+                        shards.touch(document);
+                        return document;
+                    });
+        }
+        log.debug("Flushed {} event stat shard increments", increments.size());
+    }
+
+    @Override
+    public List<EventStatShard> findByEvent(String eventId) {
+        return shards.find(shard -> eventId.equals(shard.getEventId()));
+    }
+}
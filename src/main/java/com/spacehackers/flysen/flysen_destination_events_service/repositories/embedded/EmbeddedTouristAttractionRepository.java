@@ -0,0 +1,94 @@
+package com.spacehackers.flysen.flysen_destination_events_service.repositories.embedded;
+
+import com.google.cloud.Timestamp;
+import com.spacehackers.flysen.flysen_destination_events_service.models.IngestionCheckpoint;
+import com.spacehackers.flysen.flysen_destination_events_service.models.TouristAttraction;
+import com.spacehackers.flysen.flysen_destination_events_service.repositories.TouristAttractionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Slf4j
+@Repository
+@ConditionalOnProperty(name = "app.storage.backend", havingValue = "embedded")
+public class EmbeddedTouristAttractionRepository implements TouristAttractionRepository {
+
+    private final EmbeddedCollection<TouristAttraction> attractions;
+    private final EmbeddedCollection<IngestionCheckpoint> checkpoints;
+
+    public EmbeddedTouristAttractionRepository(EmbeddedDocumentStore store) {
+        this.attractions = store.collection(COLLECTION_NAME, TouristAttraction.class);
+        this.checkpoints = store.collection(CHECKPOINTS_COLLECTION_NAME, IngestionCheckpoint.class);
+    }
+
+    @Override
+    public Optional<TouristAttraction> findById(String id) {
+        return attractions.get(id);
+    }
+
+    @Override
+    public Map<String, TouristAttraction> findAllById(Collection<String> ids) {
+        Map<String, TouristAttraction> found = new HashMap<>();
+        for (String id : ids) {
+            attractions.get(id).ifPresent(attraction -> found.put(id, attraction));
+        }
+        return found;
+    }
+
+    @Override
+    public List<TouristAttraction> findByDestination(String destinationId) {
+        return attractions.find(attraction -> attraction.isActive()
+                && destinationId.equals(attraction.getDestinationId()));
+    }
+
+    @Override
+    public void saveAll(List<TouristAttraction> batch) {
+        for (TouristAttraction attraction : batch) {
+            attractions.set(attraction.getId(), attraction);
+        }
+        log.info("Saved {} tourist attractions", batch.size());
+    }
+
+    @Override
+    public Optional<IngestionCheckpoint> findCheckpoint(String pipeline) {
+        return checkpoints.get(pipeline);
+    }
+
+    @Override
+    public boolean acquireLease(String pipeline, String owner, Timestamp leaseUntil) {
+        return checkpoints.setIf(pipeline,
+                current -> TouristAttractionRepository.canLease(current, owner, Timestamp.now()),
+                current -> {
+                    IngestionCheckpoint leased = current != null
+                            ? current
+                            : IngestionCheckpoint.builder().pipeline(pipeline).build();
+                    leased.setLeaseOwner(owner);
+                    leased.setLeaseUntil(leaseUntil);
+                    return leased;
+                });
+    }
+
+    @Override
+    public boolean saveCheckpoint(IngestionCheckpoint checkpoint) {
+        return checkpoints.setIf(checkpoint.getPipeline(),
+                current -> TouristAttractionRepository.canLease(current, checkpoint.getLeaseOwner(), Timestamp.now()),
+                current -> checkpoint);
+    }
+
+    @Override
+    public void releaseLease(String pipeline, String owner) {
+        checkpoints.setIf(pipeline,
+                current -> current != null && owner.equals(current.getLeaseOwner()),
+                current -> {
+                    current.setLeaseOwner(null);
+                    current.setLeaseUntil(null);
+                    return current;
+                });
+    }
+}
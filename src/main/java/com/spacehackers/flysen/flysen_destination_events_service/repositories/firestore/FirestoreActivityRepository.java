@@ -0,0 +1,101 @@
+package com.spacehackers.flysen.flysen_destination_events_service.repositories.firestore;
+
+import com.google.api.core.ApiFuture;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.*;
+import com.spacehackers.flysen.flysen_destination_events_service.metrics.StorageUsage;
+import com.spacehackers.flysen.flysen_destination_events_service.models.Activity;
+import com.spacehackers.flysen.flysen_destination_events_service.repositories.ActivityRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.storage.backend", havingValue = "firestore", matchIfMissing = true)
+public class FirestoreActivityRepository implements ActivityRepository {
+
+    private final Firestore firestore;
+    private final FirestoreCollectionVersionRepository collectionVersionRepository;
+    private final FirestoreQueries firestoreQueries;
+
+    @Override
+    public String create(Activity activity) throws ExecutionException, InterruptedException {
+        activity.setId(UUID.randomUUID().toString());
+        activity.setCreatedAt(Timestamp.now());
+        activity.setUpdatedAt(Timestamp.now());
+        activity.setActive(true);
+
+        DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(activity.getId());
+        WriteBatch batch = firestore.batch();
+        batch.set(docRef, activity);
+        collectionVersionRepository.increment(batch, COLLECTION_NAME);
+        ApiFuture<List<WriteResult>> result = batch.commit();
+        result.get();
+        StorageUsage.documentsWritten(batch.getMutationsSize());
+
+        log.info("Created activity with ID: {}", activity.getId());
+        return activity.getId();
+    }
+
+    @Override
+    public Optional<Activity> findById(String id) throws ExecutionException, InterruptedException {
+        DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(id);
+        ApiFuture<DocumentSnapshot> future = docRef.get();
+        DocumentSnapshot document = future.get();
+        StorageUsage.documentsRead(1);
+
+        if (document.exists()) {
+            return Optional.of(document.toObject(Activity.class));
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public List<Activity> findByDestination(String destinationId) throws ExecutionException, InterruptedException {
+        Query query = firestore.collection(COLLECTION_NAME)
+                .whereEqualTo("active", true)
+                .whereEqualTo("destinationId", destinationId);
+
+        List<QueryDocumentSnapshot> documents = firestoreQueries.get(query);
+
+        return documents.stream()
+                .map(doc -> doc.toObject(Activity.class))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void update(String id, Activity activity) throws ExecutionException, InterruptedException {
+        activity.setUpdatedAt(Timestamp.now());
+        DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(id);
+        WriteBatch batch = firestore.batch();
+        batch.set(docRef, activity, SetOptions.merge());
+        collectionVersionRepository.increment(batch, COLLECTION_NAME);
+        ApiFuture<List<WriteResult>> result = batch.commit();
+        result.get();
+        StorageUsage.documentsWritten(batch.getMutationsSize());
+        log.info("Updated activity with ID: {}", id);
+    }
+
+    @Override
+    public void delete(String id) throws ExecutionException, InterruptedException {
+        DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(id);
+        Map<String, Object> updates = new HashMap<>();
+        updates.put("active", false);
+        updates.put("updatedAt", Timestamp.now());
+
+        WriteBatch batch = firestore.batch();
+        batch.update(docRef, updates);
+        collectionVersionRepository.increment(batch, COLLECTION_NAME);
+        ApiFuture<List<WriteResult>> result = batch.commit();
+        result.get();
+        StorageUsage.documentsWritten(batch.getMutationsSize());
+        log.info("Soft deleted activity with ID: {}", id);
+    }
+}
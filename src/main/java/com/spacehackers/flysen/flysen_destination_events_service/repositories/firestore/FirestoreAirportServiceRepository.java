@@ -0,0 +1,289 @@
+package com.spacehackers.flysen.flysen_destination_events_service.repositories.firestore;
+
+import com.google.api.core.ApiFuture;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.*;
+import com.spacehackers.flysen.flysen_destination_events_service.metrics.StorageUsage;
+import com.spacehackers.flysen.flysen_destination_events_service.models.AirportService;
+import com.spacehackers.flysen.flysen_destination_events_service.models.TerminalGraph;
+import com.spacehackers.flysen.flysen_destination_events_service.repositories.AirportServiceRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.storage.backend", havingValue = "firestore", matchIfMissing = true)
+public class FirestoreAirportServiceRepository implements AirportServiceRepository {
+
+    private final Firestore firestore;
+    private final FirestoreCollectionVersionRepository collectionVersionRepository;
+    private final FirestoreQueries firestoreQueries;
+
+    @Override
+    public String create(AirportService airportService) throws ExecutionException, InterruptedException {
+        airportService.setId(UUID.randomUUID().toString());
+        airportService.setCreatedAt(Timestamp.now());
+        airportService.setUpdatedAt(Timestamp.now());
+        airportService.setActive(true);
+
+        DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(airportService.getId());
+        WriteBatch batch = firestore.batch();
+        batch.set(docRef, airportService);
+        collectionVersionRepository.increment(batch, COLLECTION_NAME);
+        ApiFuture<List<WriteResult>> result = batch.commit();
+        result.get();
+        StorageUsage.documentsWritten(batch.getMutationsSize());
+
+        log.info("Created airport service with ID: {}", airportService.getId());
+        return airportService.getId();
+    }
+
+    @Override
+    public Optional<AirportService> findById(String id) throws ExecutionException, InterruptedException {
+        DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(id);
+        ApiFuture<DocumentSnapshot> future = docRef.get();
+        DocumentSnapshot document = future.get();
+        StorageUsage.documentsRead(1);
+
+        if (document.exists()) {
+            return Optional.of(document.toObject(AirportService.class));
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public List<AirportService> findAll(int limit, String lastDocumentId) throws ExecutionException, InterruptedException {
+        Query query = firestore.collection(COLLECTION_NAME)
+                .whereEqualTo("active", true)
+                .limit(limit);
+
+        if (lastDocumentId != null && !lastDocumentId.isEmpty()) {
+            DocumentSnapshot lastDoc = firestore.collection(COLLECTION_NAME)
+                    .document(lastDocumentId)
+                    .get()
+                    .get();
+            StorageUsage.documentsRead(1);
+            query = query.startAfter(lastDoc);
+        }
+
+        List<QueryDocumentSnapshot> documents = firestoreQueries.get(query);
+
+        return documents.stream()
+                .map(doc -> doc.toObject(AirportService.class))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<AirportService> findByAirport(String airportId) throws ExecutionException, InterruptedException {
+        Query query = firestore.collection(COLLECTION_NAME)
+                .whereEqualTo("active", true)
+                .whereEqualTo("airportId", airportId);
+
+        List<QueryDocumentSnapshot> documents = firestoreQueries.get(query);
+
+        return documents.stream()
+                .map(doc -> doc.toObject(AirportService.class))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<AirportService> findByAirportCode(String airportCode) throws ExecutionException, InterruptedException {
+        Query query = firestore.collection(COLLECTION_NAME)
+                .whereEqualTo("active", true)
+                .whereEqualTo("airportCode", airportCode);
+
+        List<QueryDocumentSnapshot> documents = firestoreQueries.get(query);
+
+        return documents.stream()
+                .map(doc -> doc.toObject(AirportService.class))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<AirportService> findByTerminal(String airportId, String terminal) 
+            throws ExecutionException, InterruptedException {
+        Query query = firestore.collection(COLLECTION_NAME)
+                .whereEqualTo("active", true)
+                .whereEqualTo("airportId", airportId)
+                .whereEqualTo("terminal", terminal);
+
+        List<QueryDocumentSnapshot> documents = firestoreQueries.get(query);
+
+        return documents.stream()
+                .map(doc -> doc.toObject(AirportService.class))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<AirportService> search(String airportId, String searchTerm) 
+            throws ExecutionException, InterruptedException {
+        Query query = firestore.collection(COLLECTION_NAME)
+                .whereEqualTo("active", true)
+                .whereEqualTo("airportId", airportId);
+
+        List<QueryDocumentSnapshot> documents = firestoreQueries.get(query, "filter by name, description or category");
+
+        String searchTermLower = searchTerm.toLowerCase();
+
+        return documents.stream()
+                .map(doc -> doc.toObject(AirportService.class))
+                .filter(service -> 
+                    service.getName().toLowerCase().contains(searchTermLower) ||
+                    (service.getDescription() != null && 
+                     service.getDescription().toLowerCase().contains(searchTermLower)) ||
+                    service.getCategory().name().toLowerCase().contains(searchTermLower))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void update(String id, AirportService airportService) throws ExecutionException, InterruptedException {
+        airportService.setUpdatedAt(Timestamp.now());
+        DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(id);
+        WriteBatch batch = firestore.batch();
+        batch.set(docRef, airportService, SetOptions.merge());
+        collectionVersionRepository.increment(batch, COLLECTION_NAME);
+        ApiFuture<List<WriteResult>> result = batch.commit();
+        result.get();
+        StorageUsage.documentsWritten(batch.getMutationsSize());
+        log.info("Updated airport service with ID: {}", id);
+    }
+
+    @Override
+    public void delete(String id) throws ExecutionException, InterruptedException {
+        DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(id);
+        Map<String, Object> updates = new HashMap<>();
+        updates.put("active", false);
+        updates.put("updatedAt", Timestamp.now());
+
+        WriteBatch batch = firestore.batch();
+        batch.update(docRef, updates);
+        collectionVersionRepository.increment(batch, COLLECTION_NAME);
+        ApiFuture<List<WriteResult>> result = batch.commit();
+        result.get();
+        StorageUsage.documentsWritten(batch.getMutationsSize());
+        log.info("Soft deleted airport service with ID: {}", id);
+    }
+
+    // Product-specific methods
+    @Override
+    public Optional<AirportService> addProduct(String serviceId, AirportService.AirportServiceProduct product) 
+            throws ExecutionException, InterruptedException {
+        DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(serviceId);
+        DocumentSnapshot doc = docRef.get().get();
+        StorageUsage.documentsRead(1);
+        
+        if (doc.exists()) {
+            AirportService service = doc.toObject(AirportService.class);
+            if (service != null) {
+                List<AirportService.AirportServiceProduct> products = 
+                    service.getProducts() != null ? new ArrayList<>(service.getProducts()) : new ArrayList<>();
+                
+                product.setId(UUID.randomUUID().toString());
+                products.add(product);
+                
+                service.setProducts(products);
+                service.setUpdatedAt(Timestamp.now());
+                
+                WriteBatch batch = firestore.batch();
+                batch.set(docRef, service, SetOptions.merge());
+                collectionVersionRepository.increment(batch, COLLECTION_NAME);
+                batch.commit().get();
+                StorageUsage.documentsWritten(batch.getMutationsSize());
+                log.info("Added product to service ID: {}", serviceId);
+                return Optional.of(service);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public Optional<AirportService> updateProduct(String serviceId, String productId, 
+                            AirportService.AirportServiceProduct updatedProduct) 
+            throws ExecutionException, InterruptedException {
+        DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(serviceId);
+        DocumentSnapshot doc = docRef.get().get();
+        StorageUsage.documentsRead(1);
+        
+        if (doc.exists()) {
+            AirportService service = doc.toObject(AirportService.class);
+            if (service != null && service.getProducts() != null) {
+                List<AirportService.AirportServiceProduct> products = new ArrayList<>(service.getProducts());
+                
+                for (int i = 0; i < products.size(); i++) {
+                    if (products.get(i).getId().equals(productId)) {
+                        updatedProduct.setId(productId);
+                        products.set(i, updatedProduct);
+                        break;
+                    }
+                }
+                
+                service.setProducts(products);
+                service.setUpdatedAt(Timestamp.now());
+                
+                WriteBatch batch = firestore.batch();
+                batch.set(docRef, service, SetOptions.merge());
+                collectionVersionRepository.increment(batch, COLLECTION_NAME);
+                batch.commit().get();
+                StorageUsage.documentsWritten(batch.getMutationsSize());
+                log.info("Updated product {} in service ID: {}", productId, serviceId);
+                return Optional.of(service);
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<AirportService> removeProduct(String serviceId, String productId) 
+            throws ExecutionException, InterruptedException {
+        DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(serviceId);
+        DocumentSnapshot doc = docRef.get().get();
+        StorageUsage.documentsRead(1);
+        
+        if (doc.exists()) {
+            AirportService service = doc.toObject(AirportService.class);
+            if (service != null && service.getProducts() != null) {
+                List<AirportService.AirportServiceProduct> products = 
+                    service.getProducts().stream()
+                        .filter(p -> !p.getId().equals(productId))
+                        .collect(Collectors.toList());
+                
+                service.setProducts(products);
+                service.setUpdatedAt(Timestamp.now());
+                
+                WriteBatch batch = firestore.batch();
+                batch.set(docRef, service, SetOptions.merge());
+                collectionVersionRepository.increment(batch, COLLECTION_NAME);
+                batch.commit().get();
+                StorageUsage.documentsWritten(batch.getMutationsSize());
+                log.info("Removed product {} from service ID: {}", productId, serviceId);
+                return Optional.of(service);
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<TerminalGraph> findTerminalGraph(String airportId) throws ExecutionException, InterruptedException {
+        DocumentSnapshot document = firestore.collection(TERMINAL_GRAPHS_COLLECTION_NAME).document(airportId).get().get();
+        StorageUsage.documentsRead(1);
+
+        if (document.exists()) {
+            return Optional.of(document.toObject(TerminalGraph.class));
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public void saveTerminalGraph(TerminalGraph graph) throws ExecutionException, InterruptedException {
+        graph.setUpdatedAt(Timestamp.now());
+        firestore.collection(TERMINAL_GRAPHS_COLLECTION_NAME).document(graph.getAirportId()).set(graph).get();
+        StorageUsage.documentsWritten(1);
+        log.info("Saved terminal graph of airport {}", graph.getAirportId());
+    }
+}
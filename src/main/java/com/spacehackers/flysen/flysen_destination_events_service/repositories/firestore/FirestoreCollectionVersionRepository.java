@@ -0,0 +1,90 @@
+package com.spacehackers.flysen.flysen_destination_events_service.repositories.firestore;
+
+import com.google.cloud.firestore.*;
+import com.spacehackers.flysen.flysen_destination_events_service.metrics.StorageUsage;
+import com.spacehackers.flysen.flysen_destination_events_service.repositories.CollectionVersionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stores collection versions in the "collection_versions" collection. Repositories
+ * call {@link #increment} on the batch that carries their write, so the version
+ * changes atomically with the data.
+ * <p>
+ * A version is the sum of several shard documents, each write incrementing one
+ * picked at random, so writes to a collection do not all contend on one document.
+ * Shards only grow, so the sum does too. Shard 0 is the document named after the
+ * collection, which keeps versions counted before sharding.
+ * <p>
+ * Versions read are kept in memory for {@code app.collection-versions.cache-ms},
+ * so polling a list for changes costs no Firestore read; a write shows up in
+ * ETags at most that much later.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.storage.backend", havingValue = "firestore", matchIfMissing = true)
+public class FirestoreCollectionVersionRepository implements CollectionVersionRepository {
+
+    private final Firestore firestore;
+    private static final String COLLECTION_NAME = "collection_versions";
+
+    private record CachedVersion(long version, long readAtNanos) {
+    }
+
+    private final Map<String, CachedVersion> cachedVersions = new ConcurrentHashMap<>();
+
+    @Value("${app.collection-versions.shards:8}")
+    private int shards;
+
+    @Value("${app.collection-versions.cache-ms:1000}")
+    private long cacheMs;
+
+    @Override
+    public long getVersion(String collection) throws ExecutionException, InterruptedException {
+        CachedVersion cached = cachedVersions.get(collection);
+        if (cached != null && System.nanoTime() - cached.readAtNanos() < TimeUnit.MILLISECONDS.toNanos(cacheMs)) {
+            return cached.version();
+        }
+        long version = readVersion(collection);
+        cachedVersions.put(collection, new CachedVersion(version, System.nanoTime()));
+        return version;
+    }
+
+    private long readVersion(String collection) throws ExecutionException, InterruptedException {
+        DocumentReference[] shardRefs = new DocumentReference[shards];
+        for (int shard = 0; shard < shards; shard++) {
+            shardRefs[shard] = shardRef(collection, shard);
+        }
+        List<DocumentSnapshot> documents = firestore.getAll(shardRefs).get();
+        StorageUsage.documentsRead(documents.size());
+
+        long version = 0;
+        for (DocumentSnapshot document : documents) {
+            Long shardVersion = document.exists() ? document.getLong("version") : null;
+            version += shardVersion != null ? shardVersion : 0L;
+        }
+        return version;
+    }
+
+    public void increment(UpdateBuilder<?> batch, String collection) {
+        DocumentReference docRef = shardRef(collection, ThreadLocalRandom.current().nextInt(shards));
+        batch.set(docRef, Map.of(
+                "version", FieldValue.increment(1),
+                "updatedAt", FieldValue.serverTimestamp()), SetOptions.merge());
+    }
+
+    private DocumentReference shardRef(String collection, int shard) {
+        return firestore.collection(COLLECTION_NAME).document(shard == 0 ? collection : collection + "-" + shard);
+    }
+}
@@ -0,0 +1,181 @@
+package com.spacehackers.flysen.flysen_destination_events_service.repositories.firestore;
+
+import com.google.api.core.ApiFuture;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.*;
+import com.spacehackers.flysen.flysen_destination_events_service.metrics.StorageUsage;
+import com.spacehackers.flysen.flysen_destination_events_service.models.Destination;
+import com.spacehackers.flysen.flysen_destination_events_service.repositories.DestinationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.storage.backend", havingValue = "firestore", matchIfMissing = true)
+public class FirestoreDestinationRepository implements DestinationRepository {
+
+    private final Firestore firestore;
+    private final FirestoreCollectionVersionRepository collectionVersionRepository;
+    private final FirestoreQueries firestoreQueries;
+
+    @Override
+    public String create(Destination destination) throws ExecutionException, InterruptedException {
+        destination.setId(UUID.randomUUID().toString());
+        destination.setCreatedAt(Timestamp.now());
+        destination.setUpdatedAt(Timestamp.now());
+        destination.setActive(true);
+
+        DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(destination.getId());
+        WriteBatch batch = firestore.batch();
+        batch.set(docRef, destination);
+        collectionVersionRepository.increment(batch, COLLECTION_NAME);
+        ApiFuture<List<WriteResult>> result = batch.commit();
+        result.get();
+        StorageUsage.documentsWritten(batch.getMutationsSize());
+
+        log.info("Created destination with ID: {}", destination.getId());
+        return destination.getId();
+    }
+
+    @Override
+    public Optional<Destination> findById(String id) throws ExecutionException, InterruptedException {
+        DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(id);
+        ApiFuture<DocumentSnapshot> future = docRef.get();
+        DocumentSnapshot document = future.get();
+        StorageUsage.documentsRead(1);
+
+        if (document.exists()) {
+            return Optional.of(document.toObject(Destination.class));
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public List<Destination> findAll(int limit, String lastDocumentId) throws ExecutionException, InterruptedException {
+        Query query = firestore.collection(COLLECTION_NAME)
+                .whereEqualTo("active", true)
+                .limit(limit);
+
+        // Removed orderBy to avoid needing composite index
+        // If you want ordering, create the index in Firebase Console
+
+        if (lastDocumentId != null && !lastDocumentId.isEmpty()) {
+            DocumentSnapshot lastDoc = firestore.collection(COLLECTION_NAME)
+                    .document(lastDocumentId)
+                    .get()
+                    .get();
+            StorageUsage.documentsRead(1);
+            query = query.startAfter(lastDoc);
+        }
+
+        List<QueryDocumentSnapshot> documents = firestoreQueries.get(query);
+
+        return documents.stream()
+                .map(doc -> doc.toObject(Destination.class))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Destination> findByRegion(String region) throws ExecutionException, InterruptedException {
+        Query query = firestore.collection(COLLECTION_NAME)
+                .whereEqualTo("active", true)
+                .whereEqualTo("region", region);
+
+        // Removed orderBy to avoid needing index
+
+        List<QueryDocumentSnapshot> documents = firestoreQueries.get(query);
+
+        return documents.stream()
+                .map(doc -> doc.toObject(Destination.class))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Destination> findPopular(int limit) throws ExecutionException, InterruptedException {
+        Query query = firestore.collection(COLLECTION_NAME)
+                .whereEqualTo("active", true)
+                .orderBy("popularityScore", Query.Direction.DESCENDING)
+                .limit(limit);
+
+        List<QueryDocumentSnapshot> documents = firestoreQueries.get(query);
+
+        return documents.stream()
+                .map(doc -> doc.toObject(Destination.class))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void update(String id, Destination destination) throws ExecutionException, InterruptedException {
+        destination.setUpdatedAt(Timestamp.now());
+        DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(id);
+        WriteBatch batch = firestore.batch();
+        batch.set(docRef, destination, SetOptions.merge());
+        collectionVersionRepository.increment(batch, COLLECTION_NAME);
+        ApiFuture<List<WriteResult>> result = batch.commit();
+        result.get();
+        StorageUsage.documentsWritten(batch.getMutationsSize());
+        log.info("Updated destination with ID: {}", id);
+    }
+
+    @Override
+    public boolean addImage(String id, String imageUrl) throws ExecutionException, InterruptedException {
+        DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(id);
+        StorageUsage.documentsRead(1);
+        if (!docRef.get().get().exists()) {
+            return false;
+        }
+
+        WriteBatch batch = firestore.batch();
+        batch.update(docRef,
+                "images", FieldValue.arrayUnion(imageUrl),
+                "updatedAt", Timestamp.now());
+        collectionVersionRepository.increment(batch, COLLECTION_NAME);
+        ApiFuture<List<WriteResult>> result = batch.commit();
+        result.get();
+        StorageUsage.documentsWritten(batch.getMutationsSize());
+        log.info("Added image to destination with ID: {}", id);
+        return true;
+    }
+
+    @Override
+    public void delete(String id) throws ExecutionException, InterruptedException {
+        DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(id);
+        Map<String, Object> updates = new HashMap<>();
+        updates.put("active", false);
+        updates.put("updatedAt", Timestamp.now());
+
+        WriteBatch batch = firestore.batch();
+        batch.update(docRef, updates);
+        collectionVersionRepository.increment(batch, COLLECTION_NAME);
+        ApiFuture<List<WriteResult>> result = batch.commit();
+        result.get();
+        StorageUsage.documentsWritten(batch.getMutationsSize());
+        log.info("Soft deleted destination with ID: {}", id);
+    }
+
+    @Override
+    public List<Destination> search(String searchTerm) throws ExecutionException, InterruptedException {
+        // Firestore doesn't support full-text search, so we'll implement a simple prefix search
+        String searchTermLower = searchTerm.toLowerCase();
+
+        Query query = firestore.collection(COLLECTION_NAME)
+                .whereEqualTo("active", true);
+
+        // Removed orderBy to avoid needing index
+
+        List<QueryDocumentSnapshot> documents = firestoreQueries.get(query, "filter by name or description");
+
+        return documents.stream()
+                .map(doc -> doc.toObject(Destination.class))
+                .filter(dest -> dest.getName().toLowerCase().contains(searchTermLower) ||
+                        (dest.getDescription() != null && dest.getDescription().toLowerCase().contains(searchTermLower)))
+                .collect(Collectors.toList());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,222 @@
+package com.spacehackers.flysen.flysen_destination_events_service.repositories.firestore;
+
+import com.google.api.core.ApiFuture;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.*;
+import com.spacehackers.flysen.flysen_destination_events_service.metrics.StorageUsage;
+import com.spacehackers.flysen.flysen_destination_events_service.models.Event;
+import com.spacehackers.flysen.flysen_destination_events_service.repositories.EventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.storage.backend", havingValue = "firestore", matchIfMissing = true)
+public class FirestoreEventRepository implements EventRepository {
+
+    private final Firestore firestore;
+    private final FirestoreCollectionVersionRepository collectionVersionRepository;
+    private final FirestoreQueries firestoreQueries;
+
+    @Override
+    public String create(Event event) throws ExecutionException, InterruptedException {
+        event.setId(UUID.randomUUID().toString());
+        event.setCreatedAt(Timestamp.now());
+        event.setUpdatedAt(Timestamp.now());
+        event.setActive(true);
+        event.setStatus(Event.EventStatus.SCHEDULED);
+
+        DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(event.getId());
+        WriteBatch batch = firestore.batch();
+        batch.set(docRef, event);
+        collectionVersionRepository.increment(batch, COLLECTION_NAME);
+        ApiFuture<List<WriteResult>> result = batch.commit();
+        result.get();
+        StorageUsage.documentsWritten(batch.getMutationsSize());
+
+        log.info("Created event with ID: {}", event.getId());
+        return event.getId();
+    }
+
+    @Override
+    public Optional<Event> findById(String id) throws ExecutionException, InterruptedException {
+        DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(id);
+        ApiFuture<DocumentSnapshot> future = docRef.get();
+        DocumentSnapshot document = future.get();
+        StorageUsage.documentsRead(1);
+
+        if (document.exists()) {
+            return Optional.of(document.toObject(Event.class));
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public List<Event> findAll(int limit, String lastDocumentId) throws ExecutionException, InterruptedException {
+        Query query = firestore.collection(COLLECTION_NAME)
+                .whereEqualTo("active", true)
+                .limit(limit);
+
+        // Removed orderBy to avoid needing index
+
+        if (lastDocumentId != null && !lastDocumentId.isEmpty()) {
+            DocumentSnapshot lastDoc = firestore.collection(COLLECTION_NAME)
+                    .document(lastDocumentId)
+                    .get()
+                    .get();
+            StorageUsage.documentsRead(1);
+            query = query.startAfter(lastDoc);
+        }
+
+        List<QueryDocumentSnapshot> documents = firestoreQueries.get(query);
+
+        return documents.stream()
+                .map(doc -> doc.toObject(Event.class))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Event> findByDestination(String destinationId) throws ExecutionException, InterruptedException {
+        Query query = firestore.collection(COLLECTION_NAME)
+                .whereEqualTo("active", true)
+                .whereEqualTo("destinationId", destinationId);
+
+        // Removed orderBy to avoid needing index
+
+        List<QueryDocumentSnapshot> documents = firestoreQueries.get(query);
+
+        return documents.stream()
+                .map(doc -> doc.toObject(Event.class))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Event> findUpcoming(Timestamp startDate, Timestamp endDate, int limit)
+            throws ExecutionException, InterruptedException {
+        Query query = firestore.collection(COLLECTION_NAME)
+                .whereEqualTo("active", true)
+                .whereGreaterThanOrEqualTo("date", startDate)
+                .whereLessThanOrEqualTo("date", endDate)
+                .limit(limit);
+
+        // Removed orderBy to avoid needing composite index
+
+        List<QueryDocumentSnapshot> documents = firestoreQueries.get(query, "sort by date");
+
+        return documents.stream()
+                .map(doc -> doc.toObject(Event.class))
+                .sorted(Comparator.comparing(Event::getDate)) // Sort in memory
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Event> findFeatured(int limit) throws ExecutionException, InterruptedException {
+        Query query = firestore.collection(COLLECTION_NAME)
+                .whereEqualTo("active", true)
+                .whereEqualTo("featured", true)
+                .limit(limit);
+
+        // Removed orderBy to avoid needing index
+
+        List<QueryDocumentSnapshot> documents = firestoreQueries.get(query, "sort by date");
+
+        return documents.stream()
+                .map(doc -> doc.toObject(Event.class))
+                .sorted(Comparator.comparing(Event::getDate)) // Sort in memory
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Event> findByType(Event.EventType type) throws ExecutionException, InterruptedException {
+        Query query = firestore.collection(COLLECTION_NAME)
+                .whereEqualTo("active", true)
+                .whereEqualTo("type", type.name());
+
+        // Removed orderBy to avoid needing index
+
+        List<QueryDocumentSnapshot> documents = firestoreQueries.get(query, "sort by date");
+
+        return documents.stream()
+                .map(doc -> doc.toObject(Event.class))
+                .sorted(Comparator.comparing(Event::getDate)) // Sort in memory
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void update(String id, Event event) throws ExecutionException, InterruptedException {
+        event.setUpdatedAt(Timestamp.now());
+        DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(id);
+        WriteBatch batch = firestore.batch();
+        batch.set(docRef, event, SetOptions.merge());
+        collectionVersionRepository.increment(batch, COLLECTION_NAME);
+        ApiFuture<List<WriteResult>> result = batch.commit();
+        result.get();
+        StorageUsage.documentsWritten(batch.getMutationsSize());
+        log.info("Updated event with ID: {}", id);
+    }
+
+    @Override
+    public void adjustRemainingCapacity(String id, int delta) throws ExecutionException, InterruptedException {
+        DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(id);
+        boolean written = firestore.runTransaction(transaction -> {
+            DocumentSnapshot document = transaction.get(docRef).get();
+            if (!document.exists()) {
+                return false;
+            }
+            Long capacity = document.getLong("capacity");
+            Long remainingCapacity = document.getLong("remainingCapacity");
+            transaction.update(docRef,
+                    "remainingCapacity", EventRepository.adjustedRemainingCapacity(
+                            capacity != null ? capacity.intValue() : null,
+                            remainingCapacity != null ? remainingCapacity.intValue() : null, delta),
+                    "updatedAt", Timestamp.now());
+            // Written every reservation sweep, so it does not move the list ETags
+            return true;
+        }).get();
+        StorageUsage.documentsRead(1);
+        StorageUsage.documentsWritten(written ? 1 : 0);
+    }
+
+    @Override
+    public boolean addImage(String id, String imageUrl) throws ExecutionException, InterruptedException {
+        DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(id);
+        StorageUsage.documentsRead(1);
+        if (!docRef.get().get().exists()) {
+            return false;
+        }
+
+        WriteBatch batch = firestore.batch();
+        batch.update(docRef,
+                "images", FieldValue.arrayUnion(imageUrl),
+                "updatedAt", Timestamp.now());
+        collectionVersionRepository.increment(batch, COLLECTION_NAME);
+        ApiFuture<List<WriteResult>> result = batch.commit();
+        result.get();
+        StorageUsage.documentsWritten(batch.getMutationsSize());
+        log.info("Added image to event with ID: {}", id);
+        return true;
+    }
+
+    @Override
+    public void delete(String id) throws ExecutionException, InterruptedException {
+        DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(id);
+        Map<String, Object> updates = new HashMap<>();
+        updates.put("active", false);
+        updates.put("updatedAt", Timestamp.now());
+
+        WriteBatch batch = firestore.batch();
+        batch.update(docRef, updates);
+        collectionVersionRepository.increment(batch, COLLECTION_NAME);
+        ApiFuture<List<WriteResult>> result = batch.commit();
+        result.get();
+        StorageUsage.documentsWritten(batch.getMutationsSize());
+        log.info("Soft deleted event with ID: {}", id);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,162 @@
+package com.spacehackers.flysen.flysen_destination_events_service.repositories.firestore;
+
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldValue;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.SetOptions;
+import com.spacehackers.flysen.flysen_destination_events_service.metrics.StorageUsage;
+import com.spacehackers.flysen.flysen_destination_events_service.models.EventReservation;
+import com.spacehackers.flysen.flysen_destination_events_service.models.EventReservation.ReservationStatus;
+import com.spacehackers.flysen.flysen_destination_events_service.repositories.EventReservationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.storage.backend", havingValue = "firestore", matchIfMissing = true)
+public class FirestoreEventReservationRepository implements EventReservationRepository {
+
+    private final Firestore firestore;
+    private final FirestoreQueries firestoreQueries;
+
+    @Override
+    public String create(EventReservation reservation) throws ExecutionException, InterruptedException {
+        reservation.setId(UUID.randomUUID().toString());
+        reservation.setCreatedAt(Timestamp.now());
+        reservation.setUpdatedAt(Timestamp.now());
+
+        // One document per reservation, so creating them does not contend
+        firestore.collection(COLLECTION_NAME).document(reservation.getId()).set(reservation).get();
+        StorageUsage.documentsWritten(1);
+        return reservation.getId();
+    }
+
+    @Override
+    public Optional<EventReservation> findById(String id) throws ExecutionException, InterruptedException {
+        DocumentSnapshot document = firestore.collection(COLLECTION_NAME).document(id).get().get();
+        StorageUsage.documentsRead(1);
+        return document.exists()
+                ? Optional.ofNullable(document.toObject(EventReservation.class))
+                : Optional.empty();
+    }
+
+    @Override
+    public List<EventReservation> findExpiredHolds(Timestamp now, int limit)
+            throws ExecutionException, InterruptedException {
+        // Needs a composite index on status and expiresAt
+        Query query = firestore.collection(COLLECTION_NAME)
+                .whereEqualTo("status", ReservationStatus.HELD.name())
+                .whereLessThanOrEqualTo("expiresAt", now)
+                .limit(limit);
+
+        List<QueryDocumentSnapshot> documents = firestoreQueries.get(query);
+
+        return documents.stream()
+                .map(doc -> doc.toObject(EventReservation.class))
+                .toList();
+    }
+
+    @Override
+    public Optional<Transition> transition(String eventId, String id, ReservationStatus from, ReservationStatus to,
+                                           boolean unexpired) throws ExecutionException, InterruptedException {
+        DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(id);
+        Optional<Transition> result = firestore.runTransaction(transaction -> {
+            DocumentSnapshot document = transaction.get(docRef).get();
+            EventReservation reservation = document.exists() ? document.toObject(EventReservation.class) : null;
+            if (reservation == null || !eventId.equals(reservation.getEventId())) {
+                return Optional.<Transition>empty();
+            }
+            if (reservation.getStatus() != from
+                    || unexpired && reservation.getExpiresAt().compareTo(Timestamp.now()) <= 0) {
+                return Optional.of(new Transition(reservation, false));
+            }
+            reservation.setStatus(to);
+            reservation.setUpdatedAt(Timestamp.now());
+            transaction.update(docRef, "status", to.name(), "updatedAt", reservation.getUpdatedAt());
+            return Optional.of(new Transition(reservation, true));
+        }).get();
+        StorageUsage.documentsRead(1);
+        StorageUsage.documentsWritten(result.filter(Transition::applied).isPresent() ? 1 : 0);
+        return result;
+    }
+
+    @Override
+    public boolean createSeatShards(String eventId, int[] seats) throws ExecutionException, InterruptedException {
+        DocumentReference[] refs = new DocumentReference[seats.length];
+        for (int shard = 0; shard < seats.length; shard++) {
+            refs[shard] = firestore.collection(SEAT_SHARDS_COLLECTION_NAME)
+                    .document(EventReservationRepository.seatShardId(eventId, shard));
+        }
+        boolean created = firestore.runTransaction(transaction -> {
+            for (DocumentSnapshot document : transaction.getAll(refs).get()) {
+                if (document.exists()) {
+                    return false;
+                }
+            }
+            for (int shard = 0; shard < seats.length; shard++) {
+                transaction.set(refs[shard], Map.of(
+                        "eventId", eventId,
+                        "shard", shard,
+                        "seats", seats[shard],
+                        "leased", 0,
+                        "updatedAt", FieldValue.serverTimestamp()));
+            }
+            return true;
+        }).get();
+        StorageUsage.documentsRead(seats.length);
+        StorageUsage.documentsWritten(created ? seats.length : 0);
+        return created;
+    }
+
+    @Override
+    public int leaseSeats(String eventId, int shard, int wanted) throws ExecutionException, InterruptedException {
+        DocumentReference docRef = firestore.collection(SEAT_SHARDS_COLLECTION_NAME)
+                .document(EventReservationRepository.seatShardId(eventId, shard));
+        int taken = firestore.runTransaction(transaction -> {
+            DocumentSnapshot document = transaction.get(docRef).get();
+            Long seats = document.exists() ? document.getLong("seats") : null;
+            Long leased = document.exists() ? document.getLong("leased") : null;
+            int current = leased != null ? leased.intValue() : 0;
+            int take = Math.max(0, Math.min(wanted, (seats != null ? seats.intValue() : 0) - current));
+            if (take > 0) {
+                transaction.update(docRef, "leased", current + take, "updatedAt", FieldValue.serverTimestamp());
+            }
+            return take;
+        }).get();
+        StorageUsage.documentsRead(1);
+        StorageUsage.documentsWritten(taken > 0 ? 1 : 0);
+        return taken;
+    }
+
+    @Override
+    public int returnSeats(String eventId, int shard, int seats) throws ExecutionException, InterruptedException {
+        DocumentReference docRef = firestore.collection(SEAT_SHARDS_COLLECTION_NAME)
+                .document(EventReservationRepository.seatShardId(eventId, shard));
+        int returned = firestore.runTransaction(transaction -> {
+            DocumentSnapshot document = transaction.get(docRef).get();
+            Long leased = document.exists() ? document.getLong("leased") : null;
+            int current = leased != null ? leased.intValue() : 0;
+            int give = Math.max(0, Math.min(seats, current));
+            if (give > 0) {
+                transaction.update(docRef, "leased", current - give, "updatedAt", FieldValue.serverTimestamp());
+            }
+            return give;
+        }).get();
+        StorageUsage.documentsRead(1);
+        StorageUsage.documentsWritten(returned > 0 ? 1 : 0);
+        return returned;
+    }
+}
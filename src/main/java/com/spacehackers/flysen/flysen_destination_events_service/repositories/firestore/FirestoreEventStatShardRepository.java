@@ -0,0 +1,61 @@
+package com.spacehackers.flysen.flysen_destination_events_service.repositories.firestore;
+
+import com.google.cloud.firestore.FieldValue;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.SetOptions;
+import com.google.cloud.firestore.WriteBatch;
+import com.spacehackers.flysen.flysen_destination_events_service.metrics.StorageUsage;
+import com.spacehackers.flysen.flysen_destination_events_service.models.EventStatShard;
+import com.spacehackers.flysen.flysen_destination_events_service.repositories.EventStatShardRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.storage.backend", havingValue = "firestore", matchIfMissing = true)
+public class FirestoreEventStatShardRepository implements EventStatShardRepository {
+
+    private final Firestore firestore;
+    private final FirestoreQueries firestoreQueries;
+
+    @Override
+    public void incrementAll(List<EventStatShard> increments) throws ExecutionException, InterruptedException {
+        WriteBatch batch = firestore.batch();
+        for (EventStatShard increment : increments) {
+            Map<String, Object> fields = new HashMap<>();
+            fields.put("eventId", increment.getEventId());
+            fields.put("shard", increment.getShard());
+            fields.put("views", FieldValue.increment(increment.getViews()));
+            fields.put("bookings", FieldValue.increment(increment.getBookings()));
+            fields.put("reviews", FieldValue.increment(increment.getReviews()));
+            fields.put("ratingSum", FieldValue.increment(increment.getRatingSum()));
+            fields.put("updatedAt", FieldValue.serverTimestamp());
+            batch.set(firestore.collection(COLLECTION_NAME)
+                            .document(EventStatShardRepository.documentId(increment.getEventId(), increment.getShard())),
+                    fields, SetOptions.merge());
+        }
+        batch.commit().get();
+        StorageUsage.documentsWritten(batch.getMutationsSize());
+        log.debug("Flushed {} event stat shard increments", increments.size());
+    }
+
+    @Override
+    public List<EventStatShard> findByEvent(String eventId) throws ExecutionException, InterruptedException {
+        Query query = firestore.collection(COLLECTION_NAME)
+                .whereEqualTo("eventId", eventId);
+
+        return firestoreQueries.get(query).stream()
+                .map(doc -> doc.toObject(EventStatShard.class))
+                .collect(Collectors.toList());
+    }
+}
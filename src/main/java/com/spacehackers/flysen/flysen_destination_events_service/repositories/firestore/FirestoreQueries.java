@@ -0,0 +1,95 @@
+package com.spacehackers.flysen.flysen_destination_events_service.repositories.firestore;
+
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.firestore.v1.StructuredQuery;
+import com.spacehackers.flysen.flysen_destination_events_service.diagnostics.RepositoryQueryEvent;
+import com.spacehackers.flysen.flysen_destination_events_service.metrics.Endpoints;
+import com.spacehackers.flysen.flysen_destination_events_service.metrics.QueryShape;
+import com.spacehackers.flysen.flysen_destination_events_service.metrics.QueryShapeAnalyzer;
+import com.spacehackers.flysen.flysen_destination_events_service.metrics.StorageUsage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * Runs queries on behalf of the Firestore repositories. Each query is timed and
+ * recorded under its {@link QueryShape}, reported as documents read, and emitted
+ * as a {@link RepositoryQueryEvent} when JFR is recording.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.storage.backend", havingValue = "firestore", matchIfMissing = true)
+class FirestoreQueries {
+
+    private final QueryShapeAnalyzer queryShapeAnalyzer;
+
+    List<QueryDocumentSnapshot> get(Query query) throws ExecutionException, InterruptedException {
+        return get(query, null);
+    }
+
+    /**
+     * @param inMemory the sorting or filtering the caller applies to the results,
+     *                 e.g. "sort by date", so the shape can be flagged when it scans
+     */
+    List<QueryDocumentSnapshot> get(Query query, String inMemory) throws ExecutionException, InterruptedException {
+        RepositoryQueryEvent event = new RepositoryQueryEvent();
+        event.begin();
+        long start = System.nanoTime();
+        List<QueryDocumentSnapshot> documents = query.get().get().getDocuments();
+        long elapsed = System.nanoTime() - start;
+        event.end();
+
+        QueryShape shape = shapeOf(query.toProto().getStructuredQuery()).withInMemory(inMemory);
+        StorageUsage.queryRead(documents.size());
+        queryShapeAnalyzer.record(shape, elapsed, documents.size());
+        if (event.shouldCommit()) {
+            event.collection = shape.collection();
+            event.filters = shape.toString();
+            event.documentsReturned = documents.size();
+            event.endpoint = Endpoints.current();
+            event.commit();
+        }
+        return documents;
+    }
+
+    static QueryShape shapeOf(StructuredQuery query) {
+        String filters = query.hasWhere() ? describe(query.getWhere()) : "";
+        String order = query.getOrderByCount() > 0
+                ? query.getOrderByList().stream()
+                        .map(field -> field.getField().getFieldPath() + " " + field.getDirection().name())
+                        .collect(Collectors.joining(", "))
+                : null;
+        Integer limit = query.hasLimit() ? query.getLimit().getValue() : null;
+        return new QueryShape(query.getFrom(0).getCollectionId(), filters, order, limit, null);
+    }
+
+    private static String describe(StructuredQuery.Filter filter) {
+        return switch (filter.getFilterTypeCase()) {
+            case COMPOSITE_FILTER -> filter.getCompositeFilter().getFiltersList().stream()
+                    .map(FirestoreQueries::describe)
+                    .collect(Collectors.joining(", "));
+            case FIELD_FILTER -> filter.getFieldFilter().getField().getFieldPath() + " "
+                    + operator(filter.getFieldFilter().getOp());
+            case UNARY_FILTER -> filter.getUnaryFilter().getField().getFieldPath() + " "
+                    + filter.getUnaryFilter().getOp().name();
+            default -> "";
+        };
+    }
+
+    private static String operator(StructuredQuery.FieldFilter.Operator op) {
+        return switch (op) {
+            case EQUAL -> "==";
+            case NOT_EQUAL -> "!=";
+            case LESS_THAN -> "<";
+            case LESS_THAN_OR_EQUAL -> "<=";
+            case GREATER_THAN -> ">";
+            case GREATER_THAN_OR_EQUAL -> ">=";
+            default -> op.name();
+        };
+    }
+}
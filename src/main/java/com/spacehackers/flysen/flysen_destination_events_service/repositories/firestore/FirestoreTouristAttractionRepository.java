@@ -0,0 +1,155 @@
+package com.spacehackers.flysen.flysen_destination_events_service.repositories.firestore;
+
+import com.google.api.core.ApiFuture;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.*;
+import com.spacehackers.flysen.flysen_destination_events_service.metrics.StorageUsage;
+import com.spacehackers.flysen.flysen_destination_events_service.models.IngestionCheckpoint;
+import com.spacehackers.flysen.flysen_destination_events_service.models.TouristAttraction;
+import com.spacehackers.flysen.flysen_destination_events_service.repositories.TouristAttractionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.storage.backend", havingValue = "firestore", matchIfMissing = true)
+public class FirestoreTouristAttractionRepository implements TouristAttractionRepository {
+
+    // Firestore allows 500 writes per batch; one is reserved for the collection version
+    private static final int MAX_BATCH_DOCUMENTS = 499;
+
+    private final Firestore firestore;
+    private final FirestoreCollectionVersionRepository collectionVersionRepository;
+    private final FirestoreQueries firestoreQueries;
+
+    @Override
+    public Optional<TouristAttraction> findById(String id) throws ExecutionException, InterruptedException {
+        DocumentSnapshot document = firestore.collection(COLLECTION_NAME).document(id).get().get();
+        StorageUsage.documentsRead(1);
+
+        if (document.exists()) {
+            return Optional.of(document.toObject(TouristAttraction.class));
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public Map<String, TouristAttraction> findAllById(Collection<String> ids)
+            throws ExecutionException, InterruptedException {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+
+        DocumentReference[] refs = ids.stream()
+                .map(id -> firestore.collection(COLLECTION_NAME).document(id))
+                .toArray(DocumentReference[]::new);
+        List<DocumentSnapshot> documents = firestore.getAll(refs).get();
+        StorageUsage.documentsRead(documents.size());
+
+        return documents.stream()
+                .filter(DocumentSnapshot::exists)
+                .collect(Collectors.toMap(DocumentSnapshot::getId, doc -> doc.toObject(TouristAttraction.class)));
+    }
+
+    @Override
+    public List<TouristAttraction> findByDestination(String destinationId)
+            throws ExecutionException, InterruptedException {
+        Query query = firestore.collection(COLLECTION_NAME)
+                .whereEqualTo("active", true)
+                .whereEqualTo("destinationId", destinationId);
+
+        return firestoreQueries.get(query).stream()
+                .map(doc -> doc.toObject(TouristAttraction.class))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void saveAll(List<TouristAttraction> attractions) throws ExecutionException, InterruptedException {
+        for (int start = 0; start < attractions.size(); start += MAX_BATCH_DOCUMENTS) {
+            List<TouristAttraction> chunk =
+                    attractions.subList(start, Math.min(start + MAX_BATCH_DOCUMENTS, attractions.size()));
+
+            WriteBatch batch = firestore.batch();
+            for (TouristAttraction attraction : chunk) {
+                batch.set(firestore.collection(COLLECTION_NAME).document(attraction.getId()), attraction);
+            }
+            collectionVersionRepository.increment(batch, COLLECTION_NAME);
+            ApiFuture<List<WriteResult>> result = batch.commit();
+            result.get();
+            StorageUsage.documentsWritten(batch.getMutationsSize());
+        }
+        log.info("Saved {} tourist attractions", attractions.size());
+    }
+
+    @Override
+    public Optional<IngestionCheckpoint> findCheckpoint(String pipeline)
+            throws ExecutionException, InterruptedException {
+        DocumentSnapshot document = firestore.collection(CHECKPOINTS_COLLECTION_NAME).document(pipeline).get().get();
+        StorageUsage.documentsRead(1);
+
+        if (document.exists()) {
+            return Optional.of(document.toObject(IngestionCheckpoint.class));
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public boolean acquireLease(String pipeline, String owner, Timestamp leaseUntil)
+            throws ExecutionException, InterruptedException {
+        DocumentReference docRef = firestore.collection(CHECKPOINTS_COLLECTION_NAME).document(pipeline);
+        boolean acquired = firestore.runTransaction(transaction -> {
+            DocumentSnapshot document = transaction.get(docRef).get();
+            IngestionCheckpoint current = document.exists() ? document.toObject(IngestionCheckpoint.class) : null;
+            if (!TouristAttractionRepository.canLease(current, owner, Timestamp.now())) {
+                return false;
+            }
+            transaction.set(docRef, Map.of(
+                    "pipeline", pipeline,
+                    "leaseOwner", owner,
+                    "leaseUntil", leaseUntil), SetOptions.merge());
+            return true;
+        }).get();
+        StorageUsage.documentsRead(1);
+        StorageUsage.documentsWritten(acquired ? 1 : 0);
+        return acquired;
+    }
+
+    @Override
+    public boolean saveCheckpoint(IngestionCheckpoint checkpoint) throws ExecutionException, InterruptedException {
+        DocumentReference docRef = firestore.collection(CHECKPOINTS_COLLECTION_NAME).document(checkpoint.getPipeline());
+        boolean saved = firestore.runTransaction(transaction -> {
+            DocumentSnapshot document = transaction.get(docRef).get();
+            IngestionCheckpoint current = document.exists() ? document.toObject(IngestionCheckpoint.class) : null;
+            if (!TouristAttractionRepository.canLease(current, checkpoint.getLeaseOwner(), Timestamp.now())) {
+                return false;
+            }
+            transaction.set(docRef, checkpoint);
+            return true;
+        }).get();
+        StorageUsage.documentsRead(1);
+        StorageUsage.documentsWritten(saved ? 1 : 0);
+        return saved;
+    }
+
+    @Override
+    public void releaseLease(String pipeline, String owner) throws ExecutionException, InterruptedException {
+        DocumentReference docRef = firestore.collection(CHECKPOINTS_COLLECTION_NAME).document(pipeline);
+        boolean released = firestore.runTransaction(transaction -> {
+            DocumentSnapshot document = transaction.get(docRef).get();
+            if (!document.exists() || !owner.equals(document.getString("leaseOwner"))) {
+                return false;
+            }
+            transaction.update(docRef, "leaseOwner", FieldValue.delete(), "leaseUntil", FieldValue.delete());
+            return true;
+        }).get();
+        StorageUsage.documentsRead(1);
+        StorageUsage.documentsWritten(released ? 1 : 0);
+    }
+}
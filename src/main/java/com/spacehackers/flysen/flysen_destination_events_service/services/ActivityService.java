@@ -0,0 +1,165 @@
+package com.spacehackers.flysen.flysen_destination_events_service.services;
+
+import com.spacehackers.flysen.flysen_destination_events_service.index.ActivityAvailabilityIndex;
+import com.spacehackers.flysen.flysen_destination_events_service.index.IndexCache;
+import com.spacehackers.flysen.flysen_destination_events_service.models.Activity;
+import com.spacehackers.flysen.flysen_destination_events_service.repositories.ActivityRepository;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ActivityService {
+
+    private final ActivityRepository activityRepository;
+    private final SnapshotStore snapshotStore;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.activities.availability.index-ttl-seconds:300}")
+    private long indexTtlSeconds;
+
+    @Value("${app.activities.availability.max-indexes:1000}")
+    private int maxIndexes;
+
+    // Availability indexes per destination
+    private IndexCache<ActivityAvailabilityIndex> availabilityIndexes;
+
+    @PostConstruct
+    void createIndexCache() {
+        availabilityIndexes = new IndexCache<>("activity-availability", indexTtlSeconds, maxIndexes, meterRegistry);
+    }
+
+    @CircuitBreaker(name = "firestore", fallbackMethod = "createActivityFallback")
+    public String createActivity(Activity activity) {
+        try {
+            if (activity.getRating() == null) {
+                activity.setRating(0.0);
+            }
+            if (activity.getReviewsCount() == null) {
+                activity.setReviewsCount(0);
+            }
+
+            String id = activityRepository.create(activity);
+            availabilityIndexes.invalidate(activity.getDestinationId());
+            return id;
+        } catch (ExecutionException | InterruptedException e) {
+            log.error("Error creating activity: {}", e.getMessage());
+            throw new RuntimeException("Failed to create activity", e);
+        }
+    }
+
+    @CircuitBreaker(name = "firestore", fallbackMethod = "getActivityFallback")
+    public Optional<Activity> getActivityById(String id) {
+        try {
+            return snapshotStore.save(SnapshotStore.key("getActivityById", id),
+                    activityRepository.findById(id));
+        } catch (ExecutionException | InterruptedException e) {
+            log.error("Error fetching activity: {}", e.getMessage());
+            throw new RuntimeException("Failed to fetch activity", e);
+        }
+    }
+
+    @CircuitBreaker(name = "firestore", fallbackMethod = "getActivitiesByDestinationFallback")
+    public List<Activity> getActivitiesByDestination(String destinationId) {
+        try {
+            return snapshotStore.save(SnapshotStore.key("getActivitiesByDestination", destinationId),
+                    activityRepository.findByDestination(destinationId));
+        } catch (ExecutionException | InterruptedException e) {
+            log.error("Error fetching activities by destination: {}", e.getMessage());
+            throw new RuntimeException("Failed to fetch activities by destination", e);
+        }
+    }
+
+    /**
+     * Activities of a destination that fit the requested date, time window, budget
+     * and group, cheapest first.
+     */
+    @CircuitBreaker(name = "firestore", fallbackMethod = "findAvailableFallback")
+    public ActivityAvailabilityIndex.Result findAvailable(String destinationId, ActivityAvailabilityIndex.Query query) {
+        return availabilityIndexes.query(destinationId, () -> buildIndex(destinationId), index -> index.query(query));
+    }
+
+    @CircuitBreaker(name = "firestore", fallbackMethod = "updateActivityFallback")
+    public void updateActivity(String id, Activity activity) {
+        try {
+            activityRepository.update(id, activity);
+            // The activity may have moved between destinations
+            availabilityIndexes.invalidateAll();
+        } catch (ExecutionException | InterruptedException e) {
+            log.error("Error updating activity: {}", e.getMessage());
+            throw new RuntimeException("Failed to update activity", e);
+        }
+    }
+
+    @CircuitBreaker(name = "firestore", fallbackMethod = "deleteActivityFallback")
+    public void deleteActivity(String id) {
+        try {
+            activityRepository.delete(id);
+            availabilityIndexes.invalidateAll();
+        } catch (ExecutionException | InterruptedException e) {
+            log.error("Error deleting activity: {}", e.getMessage());
+            throw new RuntimeException("Failed to delete activity", e);
+        }
+    }
+
+    private ActivityAvailabilityIndex buildIndex(String destinationId) {
+        try {
+            ActivityAvailabilityIndex index = new ActivityAvailabilityIndex(
+                    activityRepository.findByDestination(destinationId));
+            log.debug("Indexed availability of {} activities of destination {}", index.size(), destinationId);
+            return index;
+        } catch (ExecutionException | InterruptedException e) {
+            log.error("Error indexing activities: {}", e.getMessage());
+            throw new RuntimeException("Failed to index activities", e);
+        }
+    }
+
+    // Fallback methods
+    private String createActivityFallback(Activity activity, Exception e) {
+        log.error("Circuit breaker fallback: Failed to create activity", e);
+        throw new RuntimeException("Service temporarily unavailable. Please try again later.");
+    }
+
+    Optional<Activity> getActivityFallback(String id, Exception e) {
+        log.error("Circuit breaker fallback: Failed to get activity", e);
+        return snapshotStore.<Optional<Activity>>serveStale(SnapshotStore.key("getActivityById", id))
+                .orElse(Optional.empty());
+    }
+
+    List<Activity> getActivitiesByDestinationFallback(String destinationId, Exception e) {
+        log.error("Circuit breaker fallback: Failed to get activities by destination", e);
+        return snapshotStore.<List<Activity>>serveStale(SnapshotStore.key("getActivitiesByDestination", destinationId))
+                .orElse(List.of());
+    }
+
+    ActivityAvailabilityIndex.Result findAvailableFallback(String destinationId,
+            ActivityAvailabilityIndex.Query query, Exception e) {
+        log.error("Circuit breaker fallback: Failed to find available activities", e);
+        return availabilityIndexes.lastBuilt(destinationId)
+                .map(built -> {
+                    snapshotStore.markStale(built.builtAt());
+                    return built.index().query(query);
+                })
+                .orElse(new ActivityAvailabilityIndex.Result(0, List.of()));
+    }
+
+    private void updateActivityFallback(String id, Activity activity, Exception e) {
+        log.error("Circuit breaker fallback: Failed to update activity", e);
+        throw new RuntimeException("Service temporarily unavailable. Please try again later.");
+    }
+
+    private void deleteActivityFallback(String id, Exception e) {
+        log.error("Circuit breaker fallback: Failed to delete activity", e);
+        throw new RuntimeException("Service temporarily unavailable. Please try again later.");
+    }
+}
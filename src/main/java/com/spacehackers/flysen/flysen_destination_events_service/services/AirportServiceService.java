@@ -1,14 +1,29 @@
 package com.spacehackers.flysen.flysen_destination_events_service.services;
 
+import com.spacehackers.flysen.flysen_destination_events_service.index.AirportServiceIndex;
+import com.spacehackers.flysen.flysen_destination_events_service.index.IndexCache;
+import com.spacehackers.flysen.flysen_destination_events_service.index.ProductIndex;
+import com.spacehackers.flysen.flysen_destination_events_service.index.ServiceLeaderboards;
+import com.spacehackers.flysen.flysen_destination_events_service.index.WalkingDistances;
 import com.spacehackers.flysen.flysen_destination_events_service.models.AirportService;
+import com.spacehackers.flysen.flysen_destination_events_service.models.TerminalGraph;
 import com.spacehackers.flysen.flysen_destination_events_service.repositories.AirportServiceRepository;
+import com.spacehackers.flysen.flysen_destination_events_service.repositories.CollectionVersionRepository;
+import com.spacehackers.flysen.flysen_destination_events_service.util.CurrencyRates;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 
 @Slf4j
@@ -16,7 +31,61 @@ import java.util.concurrent.ExecutionException;
 @RequiredArgsConstructor
 public class AirportServiceService {
 
+    private static final int MAX_WALKWAY_SECONDS = 86_400;
+
     private final AirportServiceRepository airportServiceRepository;
+    private final CollectionVersionRepository collectionVersionRepository;
+    private final SnapshotStore snapshotStore;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.airport-services.index.ttl-seconds:300}")
+    private long indexTtlSeconds;
+
+    @Value("${app.airport-services.index.max-indexes:500}")
+    private int maxIndexes;
+
+    // For services whose timeZone is not set
+    @Value("${app.airport-services.default-time-zone:UTC}")
+    private String defaultTimeZone;
+
+    // Walking distances are quadratic in the nodes, so large graphs are refused
+    @Value("${app.airport-services.terminal-graph.max-nodes:1000}")
+    private int maxGraphNodes;
+
+    // Product prices are compared after conversion into this currency
+    @Value("${app.airport-services.products.base-currency:EUR}")
+    private String baseCurrency;
+
+    // CODE:rate entries, each the base-currency value of one unit of CODE
+    @Value("${app.airport-services.products.exchange-rates:}")
+    private List<String> exchangeRates;
+
+    private CurrencyRates currencyRates;
+
+    // Per-airport indexes of parsed opening hours, category and terminal
+    private IndexCache<AirportServiceIndex> airportIndexes;
+
+    // Per-airport walking distances between gates and terminals
+    private IndexCache<WalkingDistances> walkingDistances;
+
+    // Per-airport product search indexes, updated in place by product writes
+    private IndexCache<ProductIndex> productIndexes;
+
+    // Per-airport rankings by rating and by score within each category, updated in place
+    private IndexCache<ServiceLeaderboards> leaderboards;
+
+    @PostConstruct
+    void createIndexCache() {
+        currencyRates = new CurrencyRates(baseCurrency, exchangeRates);
+        airportIndexes = new IndexCache<>("airport-services", indexTtlSeconds, maxIndexes, meterRegistry);
+        walkingDistances = new IndexCache<>("terminal-graphs", indexTtlSeconds, maxIndexes, meterRegistry);
+        productIndexes = new IndexCache<>("airport-products", indexTtlSeconds, maxIndexes, meterRegistry);
+        leaderboards = new IndexCache<>("airport-leaderboards", indexTtlSeconds, maxIndexes, meterRegistry);
+    }
+
+    public CurrencyRates getCurrencyRates() {
+        return currencyRates;
+    }
 
     @CircuitBreaker(name = "firestore", fallbackMethod = "createAirportServiceFallback")
     public String createAirportService(AirportService airportService) {
@@ -32,7 +101,11 @@ public class AirportServiceService {
                 airportService.setScore(0.0);
             }
 
-            return airportServiceRepository.create(airportService);
+            String id = airportServiceRepository.create(airportService);
+            airportIndexes.invalidate(airportService.getAirportId());
+            productIndexes.update(airportService.getAirportId(), index -> index.putService(airportService));
+            leaderboards.update(airportService.getAirportId(), boards -> boards.put(airportService));
+            return id;
         } catch (ExecutionException | InterruptedException e) {
             log.error("Error creating airport service: {}", e.getMessage());
             throw new RuntimeException("Failed to create airport service", e);
@@ -42,7 +115,8 @@ public class AirportServiceService {
     @CircuitBreaker(name = "firestore", fallbackMethod = "getAirportServiceFallback")
     public Optional<AirportService> getAirportServiceById(String id) {
         try {
-            return airportServiceRepository.findById(id);
+            return snapshotStore.save(SnapshotStore.key("getAirportServiceById", id),
+                    airportServiceRepository.findById(id));
         } catch (ExecutionException | InterruptedException e) {
             log.error("Error fetching airport service: {}", e.getMessage());
             throw new RuntimeException("Failed to fetch airport service", e);
@@ -52,7 +126,8 @@ public class AirportServiceService {
     @CircuitBreaker(name = "firestore", fallbackMethod = "getAllAirportServicesFallback")
     public List<AirportService> getAllAirportServices(int limit, String lastDocumentId) {
         try {
-            return airportServiceRepository.findAll(limit, lastDocumentId);
+            return snapshotStore.save(SnapshotStore.key("getAllAirportServices", limit, lastDocumentId),
+                    airportServiceRepository.findAll(limit, lastDocumentId));
         } catch (ExecutionException | InterruptedException e) {
             log.error("Error fetching airport services: {}", e.getMessage());
             throw new RuntimeException("Failed to fetch airport services", e);
@@ -62,7 +137,8 @@ public class AirportServiceService {
     @CircuitBreaker(name = "firestore", fallbackMethod = "getServicesByAirportFallback")
     public List<AirportService> getServicesByAirport(String airportId) {
         try {
-            return airportServiceRepository.findByAirport(airportId);
+            return snapshotStore.save(SnapshotStore.key("getServicesByAirport", airportId),
+                    airportServiceRepository.findByAirport(airportId));
         } catch (ExecutionException | InterruptedException e) {
             log.error("Error fetching services by airport: {}", e.getMessage());
             throw new RuntimeException("Failed to fetch services by airport", e);
@@ -72,37 +148,37 @@ public class AirportServiceService {
     @CircuitBreaker(name = "firestore", fallbackMethod = "getServicesByAirportCodeFallback")
     public List<AirportService> getServicesByAirportCode(String airportCode) {
         try {
-            return airportServiceRepository.findByAirportCode(airportCode);
+            return snapshotStore.save(SnapshotStore.key("getServicesByAirportCode", airportCode),
+                    airportServiceRepository.findByAirportCode(airportCode));
         } catch (ExecutionException | InterruptedException e) {
             log.error("Error fetching services by airport code: {}", e.getMessage());
             throw new RuntimeException("Failed to fetch services by airport code", e);
         }
     }
 
+    /**
+     * Services of a category, highest score first, from the airport's leaderboards.
+     */
     @CircuitBreaker(name = "firestore", fallbackMethod = "getServicesByCategoryFallback")
     public List<AirportService> getServicesByCategory(String airportId, AirportService.ServiceCategory category) {
-        try {
-            return airportServiceRepository.findByCategory(airportId, category);
-        } catch (ExecutionException | InterruptedException e) {
-            log.error("Error fetching services by category: {}", e.getMessage());
-            throw new RuntimeException("Failed to fetch services by category", e);
-        }
+        return leaderboards.query(airportId, servicesVersion(), () -> buildLeaderboards(airportId),
+                boards -> boards.topInCategory(category, Integer.MAX_VALUE));
     }
 
+    /**
+     * The best rated services of an airport, from its leaderboards.
+     */
     @CircuitBreaker(name = "firestore", fallbackMethod = "getTopRatedServicesFallback")
     public List<AirportService> getTopRatedServices(String airportId, int limit) {
-        try {
-            return airportServiceRepository.findTopRated(airportId, limit);
-        } catch (ExecutionException | InterruptedException e) {
-            log.error("Error fetching top rated services: {}", e.getMessage());
-            throw new RuntimeException("Failed to fetch top rated services", e);
-        }
+        return leaderboards.query(airportId, servicesVersion(), () -> buildLeaderboards(airportId),
+                boards -> boards.topRated(limit));
     }
 
     @CircuitBreaker(name = "firestore", fallbackMethod = "getServicesByTerminalFallback")
     public List<AirportService> getServicesByTerminal(String airportId, String terminal) {
         try {
-            return airportServiceRepository.findByTerminal(airportId, terminal);
+            return snapshotStore.save(SnapshotStore.key("getServicesByTerminal", airportId, terminal),
+                    airportServiceRepository.findByTerminal(airportId, terminal));
         } catch (ExecutionException | InterruptedException e) {
             log.error("Error fetching services by terminal: {}", e.getMessage());
             throw new RuntimeException("Failed to fetch services by terminal", e);
@@ -112,17 +188,113 @@ public class AirportServiceService {
     @CircuitBreaker(name = "firestore", fallbackMethod = "searchServicesFallback")
     public List<AirportService> searchServices(String airportId, String searchTerm) {
         try {
-            return airportServiceRepository.search(airportId, searchTerm);
+            return snapshotStore.save(SnapshotStore.key("searchServices", airportId, searchTerm),
+                    airportServiceRepository.search(airportId, searchTerm));
         } catch (ExecutionException | InterruptedException e) {
             log.error("Error searching services: {}", e.getMessage());
             throw new RuntimeException("Failed to search services", e);
         }
     }
 
+    /**
+     * Services of an airport open at the given instant, optionally narrowed to a
+     * category or terminal, highest score first. Answered from the airport's index.
+     */
+    @CircuitBreaker(name = "firestore", fallbackMethod = "getServicesOpenAtFallback")
+    public List<AirportService> getServicesOpenAt(String airportId, Instant openAt,
+                                                  AirportService.ServiceCategory category, String terminal) {
+        return airportIndexes.query(airportId, servicesVersion(), () -> buildIndex(airportId),
+                index -> index.list(index.select(openAt, category, terminal)));
+    }
+
+    /**
+     * Open services of an airport nearest to a gate or terminal by walking time,
+     * optionally of one category. Empty when the airport's graph has no such node.
+     */
+    @CircuitBreaker(name = "firestore", fallbackMethod = "getNearestOpenServicesFallback")
+    public Optional<List<WalkingDistances.Nearby>> getNearestOpenServices(String airportId, String from,
+            Instant openAt, AirportService.ServiceCategory category, int limit) {
+        WalkingDistances distances = walkingDistances.query(airportId, () -> buildWalkingDistances(airportId),
+                built -> built);
+        if (!distances.hasNode(from)) {
+            return Optional.empty();
+        }
+        return Optional.of(airportIndexes.query(airportId, servicesVersion(), () -> buildIndex(airportId),
+                index -> distances.nearest(from, index, index.select(openAt, category, null), limit)));
+    }
+
+    /**
+     * Searches the products of every service of an airport. Prices in the query
+     * and the hits are in the base currency.
+     */
+    @CircuitBreaker(name = "firestore", fallbackMethod = "searchProductsFallback")
+    public ProductIndex.Result searchProducts(String airportId, ProductIndex.Query query) {
+        return productIndexes.query(airportId, () -> buildProductIndex(airportId), index -> index.query(query));
+    }
+
+    @CircuitBreaker(name = "firestore", fallbackMethod = "getTerminalGraphFallback")
+    public Optional<TerminalGraph> getTerminalGraph(String airportId) {
+        try {
+            return snapshotStore.save(SnapshotStore.key("getTerminalGraph", airportId),
+                    airportServiceRepository.findTerminalGraph(airportId));
+        } catch (ExecutionException | InterruptedException e) {
+            log.error("Error fetching terminal graph: {}", e.getMessage());
+            throw new RuntimeException("Failed to fetch terminal graph", e);
+        }
+    }
+
+    /**
+     * Rejects graphs that cannot be turned into walking distances. Call before
+     * {@link #saveTerminalGraph}, whose fallback would hide the reason.
+     */
+    public void validateTerminalGraph(TerminalGraph graph) {
+        if (graph.getWalkways() == null || graph.getWalkways().isEmpty()) {
+            throw new IllegalArgumentException("A terminal graph needs at least one walkway");
+        }
+        Set<String> nodes = new HashSet<>();
+        for (TerminalGraph.Walkway walkway : graph.getWalkways()) {
+            if (walkway.getFrom() == null || walkway.getFrom().isBlank()
+                    || walkway.getTo() == null || walkway.getTo().isBlank()) {
+                throw new IllegalArgumentException("Every walkway needs a from and a to node");
+            }
+            if (walkway.getSeconds() == null || walkway.getSeconds() < 0 || walkway.getSeconds() > MAX_WALKWAY_SECONDS) {
+                throw new IllegalArgumentException("Walkway seconds must be between 0 and " + MAX_WALKWAY_SECONDS);
+            }
+            nodes.add(walkway.getFrom());
+            nodes.add(walkway.getTo());
+        }
+        if (nodes.size() > maxGraphNodes) {
+            throw new IllegalArgumentException("A terminal graph may have at most " + maxGraphNodes + " nodes");
+        }
+    }
+
+    @CircuitBreaker(name = "firestore", fallbackMethod = "saveTerminalGraphFallback")
+    public void saveTerminalGraph(String airportId, TerminalGraph graph) {
+        try {
+            graph.setAirportId(airportId);
+            airportServiceRepository.saveTerminalGraph(graph);
+            walkingDistances.invalidate(airportId);
+        } catch (ExecutionException | InterruptedException e) {
+            log.error("Error saving terminal graph: {}", e.getMessage());
+            throw new RuntimeException("Failed to save terminal graph", e);
+        }
+    }
+
     @CircuitBreaker(name = "firestore", fallbackMethod = "updateAirportServiceFallback")
     public void updateAirportService(String id, AirportService airportService) {
         try {
             airportServiceRepository.update(id, airportService);
+            airportIndexes.invalidateAll();
+            productIndexes.invalidateAll();
+            // The merge writes every field, so the written object is the new document
+            airportService.setId(id);
+            leaderboards.updateAll((airportId, boards) -> {
+                if (airportId.equals(airportService.getAirportId())) {
+                    boards.put(airportService);
+                } else {
+                    boards.remove(id);
+                }
+            });
         } catch (ExecutionException | InterruptedException e) {
             log.error("Error updating airport service: {}", e.getMessage());
             throw new RuntimeException("Failed to update airport service", e);
@@ -133,6 +305,9 @@ public class AirportServiceService {
     public void deleteAirportService(String id) {
         try {
             airportServiceRepository.delete(id);
+            airportIndexes.invalidateAll();
+            productIndexes.invalidateAll();
+            leaderboards.updateAll((airportId, boards) -> boards.remove(id));
         } catch (ExecutionException | InterruptedException e) {
             log.error("Error deleting airport service: {}", e.getMessage());
             throw new RuntimeException("Failed to delete airport service", e);
@@ -143,7 +318,7 @@ public class AirportServiceService {
     @CircuitBreaker(name = "firestore", fallbackMethod = "addProductFallback")
     public void addProduct(String serviceId, AirportService.AirportServiceProduct product) {
         try {
-            airportServiceRepository.addProduct(serviceId, product);
+            airportServiceRepository.addProduct(serviceId, product).ifPresent(this::productsWritten);
         } catch (ExecutionException | InterruptedException e) {
             log.error("Error adding product: {}", e.getMessage());
             throw new RuntimeException("Failed to add product", e);
@@ -154,7 +329,7 @@ public class AirportServiceService {
     public void updateProduct(String serviceId, String productId, 
                             AirportService.AirportServiceProduct product) {
         try {
-            airportServiceRepository.updateProduct(serviceId, productId, product);
+            airportServiceRepository.updateProduct(serviceId, productId, product).ifPresent(this::productsWritten);
         } catch (ExecutionException | InterruptedException e) {
             log.error("Error updating product: {}", e.getMessage());
             throw new RuntimeException("Failed to update product", e);
@@ -164,58 +339,187 @@ public class AirportServiceService {
     @CircuitBreaker(name = "firestore", fallbackMethod = "removeProductFallback")
     public void removeProduct(String serviceId, String productId) {
         try {
-            airportServiceRepository.removeProduct(serviceId, productId);
+            airportServiceRepository.removeProduct(serviceId, productId).ifPresent(this::productsWritten);
         } catch (ExecutionException | InterruptedException e) {
             log.error("Error removing product: {}", e.getMessage());
             throw new RuntimeException("Failed to remove product", e);
         }
     }
 
+    private AirportServiceIndex buildIndex(String airportId) {
+        try {
+            AirportServiceIndex index = new AirportServiceIndex(airportServiceRepository.findByAirport(airportId),
+                    ZoneId.of(defaultTimeZone));
+            log.debug("Indexed {} services of airport {}", index.size(), airportId);
+            return index;
+        } catch (ExecutionException | InterruptedException e) {
+            log.error("Error indexing airport services: {}", e.getMessage());
+            throw new RuntimeException("Failed to index airport services", e);
+        }
+    }
+
+    // The product list of the service changed: reindex just that service
+    private void productsWritten(AirportService service) {
+        airportIndexes.invalidate(service.getAirportId());
+        productIndexes.update(service.getAirportId(), index -> index.putService(service));
+        leaderboards.update(service.getAirportId(), boards -> boards.put(service));
+    }
+
+    // The version list ETags are built from, so an index is never older than the ETag it is served under
+    private long servicesVersion() {
+        try {
+            return collectionVersionRepository.getVersion(AirportServiceRepository.COLLECTION_NAME);
+        } catch (ExecutionException | InterruptedException e) {
+            log.error("Error reading airport services version: {}", e.getMessage());
+            throw new RuntimeException("Failed to read airport services version", e);
+        }
+    }
+
+    private ServiceLeaderboards buildLeaderboards(String airportId) {
+        try {
+            ServiceLeaderboards boards = new ServiceLeaderboards(airportServiceRepository.findByAirport(airportId));
+            log.debug("Ranked {} services of airport {}", boards.size(), airportId);
+            return boards;
+        } catch (ExecutionException | InterruptedException e) {
+            log.error("Error ranking airport services: {}", e.getMessage());
+            throw new RuntimeException("Failed to rank airport services", e);
+        }
+    }
+
+    private ProductIndex buildProductIndex(String airportId) {
+        try {
+            ProductIndex index = new ProductIndex(airportServiceRepository.findByAirport(airportId), currencyRates);
+            log.debug("Indexed {} products of airport {}", index.size(), airportId);
+            return index;
+        } catch (ExecutionException | InterruptedException e) {
+            log.error("Error indexing airport products: {}", e.getMessage());
+            throw new RuntimeException("Failed to index airport products", e);
+        }
+    }
+
+    private WalkingDistances buildWalkingDistances(String airportId) {
+        try {
+            WalkingDistances distances = airportServiceRepository.findTerminalGraph(airportId)
+                    .map(graph -> new WalkingDistances(graph.getWalkways()))
+                    .orElse(WalkingDistances.EMPTY);
+            log.debug("Computed walking distances between {} nodes of airport {}", distances.nodeCount(), airportId);
+            return distances;
+        } catch (ExecutionException | InterruptedException e) {
+            log.error("Error loading terminal graph: {}", e.getMessage());
+            throw new RuntimeException("Failed to load terminal graph", e);
+        }
+    }
+
     // Fallback methods
     private String createAirportServiceFallback(AirportService airportService, Exception e) {
         log.error("Circuit breaker fallback: Failed to create airport service", e);
         throw new RuntimeException("Service temporarily unavailable. Please try again later.");
     }
 
-    private Optional<AirportService> getAirportServiceFallback(String id, Exception e) {
+    Optional<AirportService> getAirportServiceFallback(String id, Exception e) {
         log.error("Circuit breaker fallback: Failed to get airport service", e);
-        return Optional.empty();
+        return snapshotStore.<Optional<AirportService>>serveStale(SnapshotStore.key("getAirportServiceById", id))
+                .orElse(Optional.empty());
     }
 
-    private List<AirportService> getAllAirportServicesFallback(int limit, String lastDocumentId, Exception e) {
+    List<AirportService> getAllAirportServicesFallback(int limit, String lastDocumentId, Exception e) {
         log.error("Circuit breaker fallback: Failed to get all airport services", e);
-        return List.of();
+        return snapshotStore.<List<AirportService>>serveStale(SnapshotStore.key("getAllAirportServices", limit, lastDocumentId))
+                .orElse(List.of());
     }
 
-    private List<AirportService> getServicesByAirportFallback(String airportId, Exception e) {
+    List<AirportService> getServicesByAirportFallback(String airportId, Exception e) {
         log.error("Circuit breaker fallback: Failed to get services by airport", e);
-        return List.of();
+        return snapshotStore.<List<AirportService>>serveStale(SnapshotStore.key("getServicesByAirport", airportId))
+                .orElse(List.of());
     }
 
-    private List<AirportService> getServicesByAirportCodeFallback(String airportCode, Exception e) {
+    List<AirportService> getServicesByAirportCodeFallback(String airportCode, Exception e) {
         log.error("Circuit breaker fallback: Failed to get services by airport code", e);
-        return List.of();
+        return snapshotStore.<List<AirportService>>serveStale(SnapshotStore.key("getServicesByAirportCode", airportCode))
+                .orElse(List.of());
     }
 
-    private List<AirportService> getServicesByCategoryFallback(String airportId, 
+    List<AirportService> getServicesByCategoryFallback(String airportId,
             AirportService.ServiceCategory category, Exception e) {
         log.error("Circuit breaker fallback: Failed to get services by category", e);
-        return List.of();
+        return leaderboards.lastBuilt(airportId)
+                .map(built -> {
+                    snapshotStore.markStale(built.builtAt());
+                    return built.index().topInCategory(category, Integer.MAX_VALUE);
+                })
+                .orElse(List.of());
     }
 
-    private List<AirportService> getTopRatedServicesFallback(String airportId, int limit, Exception e) {
+    List<AirportService> getTopRatedServicesFallback(String airportId, int limit, Exception e) {
         log.error("Circuit breaker fallback: Failed to get top rated services", e);
-        return List.of();
+        return leaderboards.lastBuilt(airportId)
+                .map(built -> {
+                    snapshotStore.markStale(built.builtAt());
+                    return built.index().topRated(limit);
+                })
+                .orElse(List.of());
     }
 
-    private List<AirportService> getServicesByTerminalFallback(String airportId, String terminal, Exception e) {
+    List<AirportService> getServicesByTerminalFallback(String airportId, String terminal, Exception e) {
         log.error("Circuit breaker fallback: Failed to get services by terminal", e);
-        return List.of();
+        return snapshotStore.<List<AirportService>>serveStale(SnapshotStore.key("getServicesByTerminal", airportId, terminal))
+                .orElse(List.of());
     }
 
-    private List<AirportService> searchServicesFallback(String airportId, String searchTerm, Exception e) {
+    List<AirportService> searchServicesFallback(String airportId, String searchTerm, Exception e) {
         log.error("Circuit breaker fallback: Failed to search services", e);
-        return List.of();
+        return snapshotStore.<List<AirportService>>serveStale(SnapshotStore.key("searchServices", airportId, searchTerm))
+                .orElse(List.of());
+    }
+
+    List<AirportService> getServicesOpenAtFallback(String airportId, Instant openAt,
+            AirportService.ServiceCategory category, String terminal, Exception e) {
+        log.error("Circuit breaker fallback: Failed to get open services", e);
+        return airportIndexes.lastBuilt(airportId)
+                .map(built -> {
+                    snapshotStore.markStale(built.builtAt());
+                    return built.index().list(built.index().select(openAt, category, terminal));
+                })
+                .orElse(List.of());
+    }
+
+    Optional<List<WalkingDistances.Nearby>> getNearestOpenServicesFallback(String airportId, String from,
+            Instant openAt, AirportService.ServiceCategory category, int limit, Exception e) {
+        log.error("Circuit breaker fallback: Failed to get nearest open services", e);
+        Optional<IndexCache.Built<WalkingDistances>> distances = walkingDistances.lastBuilt(airportId);
+        Optional<IndexCache.Built<AirportServiceIndex>> services = airportIndexes.lastBuilt(airportId);
+        if (distances.isEmpty() || services.isEmpty()) {
+            return Optional.of(List.of());
+        }
+        if (!distances.get().index().hasNode(from)) {
+            return Optional.empty();
+        }
+        AirportServiceIndex index = services.get().index();
+        snapshotStore.markStale(services.get().builtAt().isBefore(distances.get().builtAt())
+                ? services.get().builtAt() : distances.get().builtAt());
+        return Optional.of(distances.get().index().nearest(from, index, index.select(openAt, category, null), limit));
+    }
+
+    ProductIndex.Result searchProductsFallback(String airportId, ProductIndex.Query query, Exception e) {
+        log.error("Circuit breaker fallback: Failed to search products", e);
+        return productIndexes.lastBuilt(airportId)
+                .map(built -> {
+                    snapshotStore.markStale(built.builtAt());
+                    return built.index().query(query);
+                })
+                .orElse(new ProductIndex.Result(0, List.of()));
+    }
+
+    Optional<TerminalGraph> getTerminalGraphFallback(String airportId, Exception e) {
+        log.error("Circuit breaker fallback: Failed to get terminal graph", e);
+        return snapshotStore.<Optional<TerminalGraph>>serveStale(SnapshotStore.key("getTerminalGraph", airportId))
+                .orElse(Optional.empty());
+    }
+
+    private void saveTerminalGraphFallback(String airportId, TerminalGraph graph, Exception e) {
+        log.error("Circuit breaker fallback: Failed to save terminal graph", e);
+        throw new RuntimeException("Service temporarily unavailable. Please try again later.");
     }
 
     private void updateAirportServiceFallback(String id, AirportService airportService, Exception e) {
@@ -0,0 +1,352 @@
+package com.spacehackers.flysen.flysen_destination_events_service.services;
+
+import com.google.cloud.Timestamp;
+import com.google.maps.model.PlacesSearchResult;
+import com.spacehackers.flysen.flysen_destination_events_service.dtos.IngestionRunDTO;
+import com.spacehackers.flysen.flysen_destination_events_service.limits.PriorityRequestQueue.Priority;
+import com.spacehackers.flysen.flysen_destination_events_service.models.Destination;
+import com.spacehackers.flysen.flysen_destination_events_service.models.IngestionCheckpoint;
+import com.spacehackers.flysen.flysen_destination_events_service.models.TouristAttraction;
+import com.spacehackers.flysen.flysen_destination_events_service.repositories.DestinationRepository;
+import com.spacehackers.flysen.flysen_destination_events_service.repositories.TouristAttractionRepository;
+import com.spacehackers.flysen.flysen_destination_events_service.util.ModelMapper;
+import com.spacehackers.flysen.flysen_destination_events_service.util.PlaceAttractionMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Discovers tourist attractions around every destination through Google Places
+ * and stores them in the {@code tourist_attractions} collection.
+ * <p>
+ * Destinations are walked in document-ID order, a page at a time, with a bounded
+ * number processed concurrently. Results are deduplicated by place ID and by
+ * proximity, and only new or changed places are written: attractions are stored
+ * under their place ID together with a fingerprint of the Places data they were
+ * built from. After each page the cursor is checkpointed, so a failed run can be
+ * resumed without repeating finished destinations. A page with a failed Places
+ * lookup fails the run without moving the checkpoint.
+ * <p>
+ * Only one instance runs the pipeline at a time: a run takes the lease on the
+ * checkpoint document, renews it with every checkpoint, and gives up if another
+ * instance took it over after it expired.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AttractionIngestionService {
+
+    public static final String PIPELINE = "places-attractions";
+
+    // Storage is used directly: the circuit breaker fallbacks would turn an outage into empty pages
+    private final DestinationRepository destinationRepository;
+    private final TouristAttractionRepository touristAttractionRepository;
+    private final PlacesRequestScheduler placesRequestScheduler;
+    private final AttractionSearchService attractionSearchService;
+
+    @Value("${app.attractions.ingestion.place-types:tourist_attraction,museum,park}")
+    private List<String> placeTypes;
+
+    @Value("${app.attractions.ingestion.radius-meters:5000}")
+    private int radiusMeters;
+
+    @Value("${app.attractions.ingestion.max-concurrency:4}")
+    private int maxConcurrency;
+
+    @Value("${app.attractions.ingestion.page-size:50}")
+    private int pageSize;
+
+    @Value("${app.attractions.ingestion.dedup-distance-meters:75}")
+    private double dedupDistanceMeters;
+
+    // Must outlast a page, as the lease is renewed once per page
+    @Value("${app.attractions.ingestion.lease-seconds:600}")
+    private long leaseSeconds;
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final Object lock = new Object();
+    private Run currentRun;
+
+    /**
+     * Starts a run in the background unless one is already in progress.
+     *
+     * @param resume continue after the checkpoint of an unfinished run instead of starting over
+     * @return the new run, or empty if one is already running here or on another instance
+     */
+    public Optional<IngestionRunDTO> start(boolean resume) {
+        Run run;
+        synchronized (lock) {
+            if (currentRun != null && currentRun.state == State.RUNNING) {
+                return Optional.empty();
+            }
+            try {
+                if (!touristAttractionRepository.acquireLease(PIPELINE, instanceId, leaseUntil())) {
+                    return Optional.empty();
+                }
+            } catch (ExecutionException | InterruptedException e) {
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                log.error("Error acquiring the ingestion lease: {}", e.getMessage());
+                throw new RuntimeException("Failed to start attraction ingestion", e);
+            }
+            run = new Run();
+            currentRun = run;
+        }
+
+        Thread thread = new Thread(() -> execute(run, resume), "attraction-ingestion");
+        thread.setDaemon(true);
+        thread.start();
+        return Optional.of(run.toDTO());
+    }
+
+    public Optional<IngestionRunDTO> getStatus() {
+        synchronized (lock) {
+            return Optional.ofNullable(currentRun).map(Run::toDTO);
+        }
+    }
+
+    @Scheduled(cron = "${app.attractions.ingestion.cron:-}")
+    public void scheduledRun() {
+        if (start(true).isEmpty()) {
+            log.info("Skipping scheduled attraction ingestion, a run is already in progress here or elsewhere");
+        }
+    }
+
+    private void execute(Run run, boolean resume) {
+        ExecutorService workers = Executors.newFixedThreadPool(maxConcurrency);
+        try {
+            IngestionCheckpoint checkpoint = resume
+                    ? touristAttractionRepository.findCheckpoint(PIPELINE)
+                            .filter(previous -> previous.getCompletedAt() == null)
+                            .orElse(null)
+                    : null;
+            String cursor = checkpoint != null ? checkpoint.getCursor() : null;
+            // Taking the lease creates the document, without a start time, if there was none
+            Timestamp startedAt = checkpoint != null && checkpoint.getStartedAt() != null
+                    ? checkpoint.getStartedAt()
+                    : run.startedAt;
+            run.resumedAfter = cursor;
+            log.info("Attraction ingestion started{}", cursor != null ? " after destination " + cursor : "");
+
+            while (true) {
+                List<Destination> page = destinationRepository.findAll(pageSize, cursor);
+                if (page.isEmpty()) {
+                    break;
+                }
+
+                List<Future<?>> tasks = new ArrayList<>();
+                for (Destination destination : page) {
+                    tasks.add(workers.submit(() -> {
+                        ingestDestination(destination, run);
+                        return null;
+                    }));
+                }
+                Exception failure = null;
+                for (Future<?> task : tasks) {
+                    try {
+                        task.get();
+                    } catch (ExecutionException e) {
+                        run.destinationsFailed.incrementAndGet();
+                        failure = failure != null ? failure : e;
+                    }
+                }
+                if (failure != null) {
+                    // The checkpoint stays before this page; its finished destinations are
+                    // cheap to repeat because unchanged places are not written again
+                    throw failure;
+                }
+
+                cursor = page.get(page.size() - 1).getId();
+                saveCheckpoint(IngestionCheckpoint.builder()
+                        .pipeline(PIPELINE)
+                        .cursor(cursor)
+                        .startedAt(startedAt)
+                        .updatedAt(Timestamp.now())
+                        .build());
+                if (page.size() < pageSize) {
+                    break;
+                }
+            }
+
+            saveCheckpoint(IngestionCheckpoint.builder()
+                    .pipeline(PIPELINE)
+                    .startedAt(startedAt)
+                    .updatedAt(Timestamp.now())
+                    .completedAt(Timestamp.now())
+                    .build());
+            run.finish(State.COMPLETED, null);
+            log.info("Attraction ingestion completed: {}", run.toDTO());
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+            run.finish(State.FAILED, cause.getMessage());
+            log.error("Attraction ingestion failed, resume to continue from the last checkpoint", cause);
+        } finally {
+            workers.shutdownNow();
+            releaseLease();
+        }
+    }
+
+    // Renews the lease along with the checkpoint
+    private void saveCheckpoint(IngestionCheckpoint checkpoint) throws ExecutionException, InterruptedException {
+        checkpoint.setLeaseOwner(instanceId);
+        checkpoint.setLeaseUntil(leaseUntil());
+        if (!touristAttractionRepository.saveCheckpoint(checkpoint)) {
+            throw new IllegalStateException("Another instance took over the ingestion lease");
+        }
+    }
+
+    // An unreleased lease only delays the next run until it expires
+    private void releaseLease() {
+        try {
+            touristAttractionRepository.releaseLease(PIPELINE, instanceId);
+        } catch (ExecutionException | InterruptedException | RuntimeException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.warn("Failed to release the ingestion lease: {}", e.getMessage());
+        }
+    }
+
+    private Timestamp leaseUntil() {
+        return Timestamp.ofTimeSecondsAndNanos(Timestamp.now().getSeconds() + leaseSeconds, 0);
+    }
+
+    private void ingestDestination(Destination destination, Run run) throws Exception {
+        if (destination.getLatitude() == null || destination.getLongitude() == null) {
+            run.destinationsSkipped.incrementAndGet();
+            return;
+        }
+
+        List<CompletableFuture<List<PlacesSearchResult>>> searches = placeTypes.stream()
+                .map(type -> placesRequestScheduler.searchNearbyPlaces(destination.getLatitude(),
+                        destination.getLongitude(), radiusMeters, type, Priority.BACKGROUND))
+                .toList();
+        Map<String, PlacesSearchResult> byPlaceId = new LinkedHashMap<>();
+        for (CompletableFuture<List<PlacesSearchResult>> search : searches) {
+            for (PlacesSearchResult place : search.join()) {
+                if (place.placeId != null) {
+                    byPlaceId.putIfAbsent(place.placeId, place);
+                }
+            }
+        }
+        run.placesFound.addAndGet(byPlaceId.size());
+
+        List<PlacesSearchResult> places = dedupeByProximity(byPlaceId.values(), run);
+        Map<String, TouristAttraction> existing = touristAttractionRepository.findAllById(
+                places.stream().map(place -> place.placeId).toList());
+
+        List<TouristAttraction> writes = new ArrayList<>();
+        for (PlacesSearchResult place : places) {
+            TouristAttraction current = existing.get(place.placeId);
+            if (current == null) {
+                TouristAttraction created = TouristAttraction.builder()
+                        .id(place.placeId)
+                        .destinationId(destination.getId())
+                        .createdAt(Timestamp.now())
+                        .build();
+                writes.add(PlaceAttractionMapper.applyPlace(created, place));
+                run.created.incrementAndGet();
+            } else if (!destination.getId().equals(current.getDestinationId())) {
+                // Within reach of a neighbouring destination that claimed it first
+                run.duplicates.incrementAndGet();
+            } else if (PlaceAttractionMapper.fingerprint(place).equals(current.getSourceFingerprint())) {
+                run.unchanged.incrementAndGet();
+            } else {
+                writes.add(PlaceAttractionMapper.applyPlace(current, place));
+                run.updated.incrementAndGet();
+            }
+        }
+
+        if (!writes.isEmpty()) {
+            touristAttractionRepository.saveAll(writes);
+            attractionSearchService.invalidate(destination.getId());
+        }
+        run.destinationsProcessed.incrementAndGet();
+    }
+
+    /**
+     * Drops places that are the same attraction as a better-reviewed place nearby,
+     * e.g. a museum listed both under its own name and as "Museum entrance".
+     */
+    private List<PlacesSearchResult> dedupeByProximity(Iterable<PlacesSearchResult> candidates, Run run) {
+        List<PlacesSearchResult> byReviews = new ArrayList<>();
+        candidates.forEach(byReviews::add);
+        byReviews.sort(Comparator.comparingInt((PlacesSearchResult place) -> place.userRatingsTotal).reversed());
+
+        List<PlacesSearchResult> kept = new ArrayList<>();
+        for (PlacesSearchResult place : byReviews) {
+            boolean duplicate = kept.stream()
+                    .anyMatch(other -> PlaceAttractionMapper.isSamePlace(place, other, dedupDistanceMeters));
+            if (duplicate) {
+                run.duplicates.incrementAndGet();
+            } else {
+                kept.add(place);
+            }
+        }
+        return kept;
+    }
+
+    private enum State { RUNNING, COMPLETED, FAILED }
+
+    private static class Run {
+        private final Timestamp startedAt = Timestamp.now();
+        private volatile State state = State.RUNNING;
+        private volatile String resumedAfter;
+        private volatile Timestamp finishedAt;
+        private volatile String error;
+        private final AtomicInteger destinationsProcessed = new AtomicInteger();
+        private final AtomicInteger destinationsSkipped = new AtomicInteger();
+        private final AtomicInteger destinationsFailed = new AtomicInteger();
+        private final AtomicInteger placesFound = new AtomicInteger();
+        private final AtomicInteger duplicates = new AtomicInteger();
+        private final AtomicInteger created = new AtomicInteger();
+        private final AtomicInteger updated = new AtomicInteger();
+        private final AtomicInteger unchanged = new AtomicInteger();
+
+        void finish(State finalState, String failure) {
+            error = failure;
+            finishedAt = Timestamp.now();
+            state = finalState;
+        }
+
+        IngestionRunDTO toDTO() {
+            return IngestionRunDTO.builder()
+                    .pipeline(PIPELINE)
+                    .state(state.name())
+                    .resumedAfter(resumedAfter)
+                    .startedAt(ModelMapper.timestampToString(startedAt))
+                    .finishedAt(ModelMapper.timestampToString(finishedAt))
+                    .destinationsProcessed(destinationsProcessed.get())
+                    .destinationsSkipped(destinationsSkipped.get())
+                    .destinationsFailed(destinationsFailed.get())
+                    .placesFound(placesFound.get())
+                    .duplicates(duplicates.get())
+                    .created(created.get())
+                    .updated(updated.get())
+                    .unchanged(unchanged.get())
+                    .error(error)
+                    .build();
+        }
+    }
+}
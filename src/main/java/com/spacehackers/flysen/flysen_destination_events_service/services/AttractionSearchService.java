@@ -0,0 +1,82 @@
+package com.spacehackers.flysen.flysen_destination_events_service.services;
+
+import com.spacehackers.flysen.flysen_destination_events_service.index.AttractionFacetIndex;
+import com.spacehackers.flysen.flysen_destination_events_service.index.IndexCache;
+import com.spacehackers.flysen.flysen_destination_events_service.repositories.TouristAttractionRepository;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Faceted attraction search around a destination, served from per-destination
+ * {@link AttractionFacetIndex}es built on first use.
+ * <p>
+ * Writes made by other instances show up within
+ * {@code app.attractions.search.index-ttl-seconds}. While Firestore is
+ * unavailable, expired indexes keep being served as stale.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AttractionSearchService {
+
+    private final TouristAttractionRepository touristAttractionRepository;
+    private final SnapshotStore snapshotStore;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.attractions.search.index-ttl-seconds:300}")
+    private long indexTtlSeconds;
+
+    @Value("${app.attractions.search.max-indexes:1000}")
+    private int maxIndexes;
+
+    private IndexCache<AttractionFacetIndex> indexes;
+
+    @PostConstruct
+    void createIndexCache() {
+        indexes = new IndexCache<>("attractions", indexTtlSeconds, maxIndexes, meterRegistry);
+    }
+
+    @CircuitBreaker(name = "firestore", fallbackMethod = "searchFallback")
+    public AttractionFacetIndex.Result search(String destinationId, AttractionFacetIndex.Query query) {
+        return indexes.query(destinationId, () -> buildIndex(destinationId), index -> index.query(query));
+    }
+
+    /**
+     * Drops the index of a destination whose attractions were just written.
+     */
+    public void invalidate(String destinationId) {
+        indexes.invalidate(destinationId);
+    }
+
+    private AttractionFacetIndex buildIndex(String destinationId) {
+        try {
+            AttractionFacetIndex index = new AttractionFacetIndex(
+                    touristAttractionRepository.findByDestination(destinationId));
+            log.debug("Indexed {} tourist attractions of destination {}", index.size(), destinationId);
+            return index;
+        } catch (ExecutionException | InterruptedException e) {
+            log.error("Error indexing tourist attractions: {}", e.getMessage());
+            throw new RuntimeException("Failed to index tourist attractions", e);
+        }
+    }
+
+    // Fallback method
+    AttractionFacetIndex.Result searchFallback(String destinationId, AttractionFacetIndex.Query query, Exception e) {
+        log.error("Circuit breaker fallback: Failed to search tourist attractions", e);
+        return indexes.lastBuilt(destinationId)
+                .map(built -> {
+                    snapshotStore.markStale(built.builtAt());
+                    return built.index().query(query);
+                })
+                .orElse(new AttractionFacetIndex.Result(0, List.of(), Map.of()));
+    }
+}
@@ -0,0 +1,33 @@
+package com.spacehackers.flysen.flysen_destination_events_service.services;
+
+import com.spacehackers.flysen.flysen_destination_events_service.repositories.CollectionVersionRepository;
+import com.spacehackers.flysen.flysen_destination_events_service.util.ETags;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CollectionVersionService {
+
+    private final CollectionVersionRepository collectionVersionRepository;
+
+    /**
+     * Builds the ETag of a list endpoint from the current collection version and the
+     * negotiated representation.
+     * Returns empty when the version cannot be read, in which case the request
+     * is served unconditionally.
+     */
+    public Optional<String> listETag(String collection, String representation, Object... params) {
+        try {
+            long version = collectionVersionRepository.getVersion(collection);
+            return Optional.of(ETags.forCollection(collection, version, representation, params));
+        } catch (Exception e) {
+            log.warn("Failed to read version of collection {}: {}", collection, e.getMessage());
+            return Optional.empty();
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.spacehackers.flysen.flysen_destination_events_service.services;
 
 //import com.sembene.destinations.model.Destination;
 //import com.sembene.destinations.repository.DestinationRepository;
+import com.google.maps.model.PlacesSearchResult;
+import com.spacehackers.flysen.flysen_destination_events_service.limits.PriorityRequestQueue.Priority;
 import com.spacehackers.flysen.flysen_destination_events_service.models.Destination;
 import com.spacehackers.flysen.flysen_destination_events_service.repositories.DestinationRepository;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
@@ -19,26 +21,31 @@ import java.util.concurrent.ExecutionException;
 public class DestinationService {
 
     private final DestinationRepository destinationRepository;
+    private final SnapshotStore snapshotStore;
+    private final ResponseCacheService responseCacheService;
     private final WeatherService weatherService;
-    private final PlacesService placesService;
+    private final PlacesRequestScheduler placesRequestScheduler;
 
     @CircuitBreaker(name = "firestore", fallbackMethod = "createDestinationFallback")
     public String createDestination(Destination destination) {
         try {
-            // Enrich with weather data if coordinates are provided
+            // Enrich with weather data if coordinates are provided. The wait is bounded by
+            // the weather-api time limiter, which falls back to "Unavailable" weather.
             if (destination.getLatitude() != null && destination.getLongitude() != null) {
                 try {
                     Destination.WeatherInfo weather = weatherService.getWeatherInfo(
                             destination.getLatitude(), 
                             destination.getLongitude()
-                    );
+                    ).join();
                     destination.setCurrentWeather(weather);
                 } catch (Exception e) {
                     log.warn("Failed to fetch weather for destination: {}", e.getMessage());
                 }
             }
 
-            return destinationRepository.create(destination);
+            String id = destinationRepository.create(destination);
+            responseCacheService.invalidate(DestinationRepository.COLLECTION_NAME);
+            return id;
         } catch (ExecutionException | InterruptedException e) {
             log.error("Error creating destination: {}", e.getMessage());
             throw new RuntimeException("Failed to create destination", e);
@@ -48,34 +55,56 @@ public class DestinationService {
     @CircuitBreaker(name = "firestore", fallbackMethod = "getDestinationFallback")
     public Optional<Destination> getDestinationById(String id) {
         try {
-            Optional<Destination> destination = destinationRepository.findById(id);
-            
-            // Update weather if destination exists
-            destination.ifPresent(dest -> {
-                if (dest.getLatitude() != null && dest.getLongitude() != null) {
-                    try {
-                        Destination.WeatherInfo weather = weatherService.getWeatherInfo(
-                                dest.getLatitude(), 
-                                dest.getLongitude()
-                        );
-                        dest.setCurrentWeather(weather);
-                    } catch (Exception e) {
-                        log.warn("Failed to update weather for destination: {}", e.getMessage());
-                    }
-                }
-            });
-            
-            return destination;
+            return snapshotStore.save(SnapshotStore.key("getDestinationById", id),
+                    destinationRepository.findById(id));
         } catch (ExecutionException | InterruptedException e) {
             log.error("Error fetching destination: {}", e.getMessage());
             throw new RuntimeException("Failed to fetch destination", e);
         }
     }
 
+    /**
+     * Sets the destination's current weather. Kept apart from {@link #getDestinationById}
+     * so a conditional request can be answered before waiting on the weather API.
+     */
+    public Destination withCurrentWeather(Destination destination) {
+        if (destination.getLatitude() != null && destination.getLongitude() != null) {
+            try {
+                Destination.WeatherInfo weather = weatherService.getWeatherInfo(
+                        destination.getLatitude(),
+                        destination.getLongitude()
+                ).join();
+                destination.setCurrentWeather(weather);
+            } catch (Exception e) {
+                log.warn("Failed to update weather for destination: {}", e.getMessage());
+            }
+        }
+        return destination;
+    }
+
+    /**
+     * Places of the given type around the destination, looked up ahead of any
+     * background Places traffic. Empty if the destination has no coordinates or
+     * the lookup fails.
+     */
+    public List<PlacesSearchResult> getNearbyPlaces(Destination destination, String type, int radius) {
+        if (destination.getLatitude() == null || destination.getLongitude() == null) {
+            return List.of();
+        }
+        try {
+            return placesRequestScheduler.searchNearbyPlaces(destination.getLatitude(), destination.getLongitude(),
+                    radius, type, Priority.INTERACTIVE).join();
+        } catch (Exception e) {
+            log.warn("Failed to fetch places near destination: {}", e.getMessage());
+            return List.of();
+        }
+    }
+
     @CircuitBreaker(name = "firestore", fallbackMethod = "getAllDestinationsFallback")
     public List<Destination> getAllDestinations(int limit, String lastDocumentId) {
         try {
-            return destinationRepository.findAll(limit, lastDocumentId);
+            return snapshotStore.save(SnapshotStore.key("getAllDestinations", limit, lastDocumentId),
+                    destinationRepository.findAll(limit, lastDocumentId));
         } catch (ExecutionException | InterruptedException e) {
             log.error("Error fetching destinations: {}", e.getMessage());
             throw new RuntimeException("Failed to fetch destinations", e);
@@ -85,7 +114,8 @@ public class DestinationService {
     @CircuitBreaker(name = "firestore", fallbackMethod = "getDestinationsByRegionFallback")
     public List<Destination> getDestinationsByRegion(String region) {
         try {
-            return destinationRepository.findByRegion(region);
+            return snapshotStore.save(SnapshotStore.key("getDestinationsByRegion", region),
+                    destinationRepository.findByRegion(region));
         } catch (ExecutionException | InterruptedException e) {
             log.error("Error fetching destinations by region: {}", e.getMessage());
             throw new RuntimeException("Failed to fetch destinations by region", e);
@@ -95,7 +125,8 @@ public class DestinationService {
     @CircuitBreaker(name = "firestore", fallbackMethod = "getPopularDestinationsFallback")
     public List<Destination> getPopularDestinations(int limit) {
         try {
-            return destinationRepository.findPopular(limit);
+            return snapshotStore.save(SnapshotStore.key("getPopularDestinations", limit),
+                    destinationRepository.findPopular(limit));
         } catch (ExecutionException | InterruptedException e) {
             log.error("Error fetching popular destinations: {}", e.getMessage());
             throw new RuntimeException("Failed to fetch popular destinations", e);
@@ -105,7 +136,8 @@ public class DestinationService {
     @CircuitBreaker(name = "firestore", fallbackMethod = "searchDestinationsFallback")
     public List<Destination> searchDestinations(String searchTerm) {
         try {
-            return destinationRepository.search(searchTerm);
+            return snapshotStore.save(SnapshotStore.key("searchDestinations", searchTerm),
+                    destinationRepository.search(searchTerm));
         } catch (ExecutionException | InterruptedException e) {
             log.error("Error searching destinations: {}", e.getMessage());
             throw new RuntimeException("Failed to search destinations", e);
@@ -116,16 +148,30 @@ public class DestinationService {
     public void updateDestination(String id, Destination destination) {
         try {
             destinationRepository.update(id, destination);
+            responseCacheService.invalidate(DestinationRepository.COLLECTION_NAME);
         } catch (ExecutionException | InterruptedException e) {
             log.error("Error updating destination: {}", e.getMessage());
             throw new RuntimeException("Failed to update destination", e);
         }
     }
 
+    @CircuitBreaker(name = "firestore", fallbackMethod = "addDestinationImageFallback")
+    public boolean addDestinationImage(String id, String imageUrl) {
+        try {
+            boolean added = destinationRepository.addImage(id, imageUrl);
+            responseCacheService.invalidate(DestinationRepository.COLLECTION_NAME);
+            return added;
+        } catch (ExecutionException | InterruptedException e) {
+            log.error("Error adding destination image: {}", e.getMessage());
+            throw new RuntimeException("Failed to add destination image", e);
+        }
+    }
+
     @CircuitBreaker(name = "firestore", fallbackMethod = "deleteDestinationFallback")
     public void deleteDestination(String id) {
         try {
             destinationRepository.delete(id);
+            responseCacheService.invalidate(DestinationRepository.COLLECTION_NAME);
         } catch (ExecutionException | InterruptedException e) {
             log.error("Error deleting destination: {}", e.getMessage());
             throw new RuntimeException("Failed to delete destination", e);
@@ -138,29 +184,34 @@ public class DestinationService {
         throw new RuntimeException("Service temporarily unavailable. Please try again later.");
     }
 
-    private Optional<Destination> getDestinationFallback(String id, Exception e) {
+    Optional<Destination> getDestinationFallback(String id, Exception e) {
         log.error("Circuit breaker fallback: Failed to get destination", e);
-        return Optional.empty();
+        return snapshotStore.<Optional<Destination>>serveStale(SnapshotStore.key("getDestinationById", id))
+                .orElse(Optional.empty());
     }
 
-    private List<Destination> getAllDestinationsFallback(int limit, String lastDocumentId, Exception e) {
+    List<Destination> getAllDestinationsFallback(int limit, String lastDocumentId, Exception e) {
         log.error("Circuit breaker fallback: Failed to get all destinations", e);
-        return List.of();
+        return snapshotStore.<List<Destination>>serveStale(SnapshotStore.key("getAllDestinations", limit, lastDocumentId))
+                .orElse(List.of());
     }
 
-    private List<Destination> getDestinationsByRegionFallback(String region, Exception e) {
+    List<Destination> getDestinationsByRegionFallback(String region, Exception e) {
         log.error("Circuit breaker fallback: Failed to get destinations by region", e);
-        return List.of();
+        return snapshotStore.<List<Destination>>serveStale(SnapshotStore.key("getDestinationsByRegion", region))
+                .orElse(List.of());
     }
 
-    private List<Destination> getPopularDestinationsFallback(int limit, Exception e) {
+    List<Destination> getPopularDestinationsFallback(int limit, Exception e) {
         log.error("Circuit breaker fallback: Failed to get popular destinations", e);
-        return List.of();
+        return snapshotStore.<List<Destination>>serveStale(SnapshotStore.key("getPopularDestinations", limit))
+                .orElse(List.of());
     }
 
-    private List<Destination> searchDestinationsFallback(String searchTerm, Exception e) {
+    List<Destination> searchDestinationsFallback(String searchTerm, Exception e) {
         log.error("Circuit breaker fallback: Failed to search destinations", e);
-        return List.of();
+        return snapshotStore.<List<Destination>>serveStale(SnapshotStore.key("searchDestinations", searchTerm))
+                .orElse(List.of());
     }
 
     private void updateDestinationFallback(String id, Destination destination, Exception e) {
@@ -168,6 +219,11 @@ public class DestinationService {
         throw new RuntimeException("Service temporarily unavailable. Please try again later.");
     }
 
+    private boolean addDestinationImageFallback(String id, String imageUrl, Exception e) {
+        log.error("Circuit breaker fallback: Failed to add destination image", e);
+        throw new RuntimeException("Service temporarily unavailable. Please try again later.");
+    }
+
     private void deleteDestinationFallback(String id, Exception e) {
         log.error("Circuit breaker fallback: Failed to delete destination", e);
         throw new RuntimeException("Service temporarily unavailable. Please try again later.");
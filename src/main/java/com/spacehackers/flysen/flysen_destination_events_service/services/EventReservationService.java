@@ -0,0 +1,358 @@
+package com.spacehackers.flysen.flysen_destination_events_service.services;
+
+import com.google.cloud.Timestamp;
+import com.spacehackers.flysen.flysen_destination_events_service.models.Event;
+import com.spacehackers.flysen.flysen_destination_events_service.models.EventReservation;
+import com.spacehackers.flysen.flysen_destination_events_service.models.EventReservation.ReservationStatus;
+import com.spacehackers.flysen.flysen_destination_events_service.repositories.EventRepository;
+import com.spacehackers.flysen.flysen_destination_events_service.repositories.EventReservationRepository;
+import com.spacehackers.flysen.flysen_destination_events_service.repositories.EventReservationRepository.Transition;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Seat reservations for events. The seats an event has left when it is first
+ * reserved are split over shard documents, created together so seats sold
+ * before are never counted again; each instance leases seats from them in
+ * blocks, one transaction per block, and hands them out from an in-memory
+ * counter with compare-and-set, so holding seats takes no lock and no shared
+ * write. A seat is leased by at most
+ * one instance, so seats are never sold twice.
+ * <p>
+ * Each reservation is its own document, and status changes are transactions on
+ * it. Every instance sweeps the reservations for expired holds, so holds expire
+ * even when the instance that made them is gone. Whichever instance releases or
+ * expires a hold returns its seats to the shards. Free seats of events not
+ * reserved for a while are returned to the shards, as are all on shutdown; seats
+ * of an instance that dies are lost until an operator resets the shards.
+ * <p>
+ * Changes to the events' remaining capacity are added up in memory and written
+ * behind by the sweep, one write per event.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EventReservationService {
+
+    private static final class SeatPool {
+        // Leased by this instance and not held
+        final AtomicInteger free = new AtomicInteger();
+        // The event's shards are known to exist
+        volatile boolean seeded;
+        volatile boolean soldOut;
+        volatile long soldOutAtNanos;
+        volatile long lastUsedNanos = System.nanoTime();
+
+        boolean take(int seats) {
+            lastUsedNanos = System.nanoTime();
+            int current;
+            do {
+                current = free.get();
+                if (current < seats) {
+                    return false;
+                }
+            } while (!free.compareAndSet(current, current - seats));
+            return true;
+        }
+    }
+
+    private final EventReservationRepository reservationRepository;
+    private final EventRepository eventRepository;
+    private final EventStatsService eventStatsService;
+    private final SnapshotStore snapshotStore;
+
+    private final Map<String, SeatPool> pools = new ConcurrentHashMap<>();
+    // Remaining capacity changes not written yet, by event ID
+    private final Map<String, AtomicInteger> capacityChanges = new ConcurrentHashMap<>();
+
+    @Value("${app.event.reservations.hold-seconds:600}")
+    private long holdSeconds;
+
+    @Value("${app.event.reservations.max-seats:10}")
+    private int maxSeats;
+
+    @Value("${app.event.reservations.seat-shards:16}")
+    private int seatShards;
+
+    @Value("${app.event.reservations.lease-block:25}")
+    private int leaseBlock;
+
+    // How long an event whose shards ran out is answered from memory alone
+    @Value("${app.event.reservations.sold-out-recheck-ms:1000}")
+    private long soldOutRecheckMs;
+
+    @Value("${app.event.reservations.lease-idle-seconds:60}")
+    private long leaseIdleSeconds;
+
+    // Expired holds read per sweep
+    @Value("${app.event.reservations.sweep-batch:500}")
+    private int sweepBatch;
+
+    /**
+     * Rejects seat counts out of range; called before {@link #hold} so the error is
+     * not taken for a storage failure.
+     */
+    public void validateSeats(int seats) {
+        if (seats < 1 || seats > maxSeats) {
+            throw new IllegalArgumentException("Seats must be between 1 and " + maxSeats);
+        }
+    }
+
+    /**
+     * Holds seats of the event, or returns empty if not enough are left.
+     */
+    @CircuitBreaker(name = "firestore", fallbackMethod = "holdFallback")
+    public Optional<EventReservation> hold(Event event, int seats) {
+        SeatPool pool = pools.computeIfAbsent(event.getId(), id -> new SeatPool());
+        if (!pool.take(seats) && !leaseAndTake(pool, event, seats)) {
+            return Optional.empty();
+        }
+
+        EventReservation reservation = EventReservation.builder()
+                .eventId(event.getId())
+                .seats(seats)
+                .status(ReservationStatus.HELD)
+                .expiresAt(Timestamp.ofTimeSecondsAndNanos(Timestamp.now().getSeconds() + holdSeconds, 0))
+                .build();
+        boolean created = false;
+        try {
+            reservationRepository.create(reservation);
+            created = true;
+        } catch (ExecutionException | InterruptedException e) {
+            log.error("Error creating reservation: {}", e.getMessage());
+            throw new RuntimeException("Failed to hold seats", e);
+        } finally {
+            if (!created) {
+                pool.free.addAndGet(seats);
+            }
+        }
+        changeCapacity(event.getId(), -seats);
+        return Optional.of(reservation);
+    }
+
+    @CircuitBreaker(name = "firestore", fallbackMethod = "getReservationFallback")
+    public Optional<EventReservation> getReservation(String eventId, String id) {
+        try {
+            return snapshotStore.save(SnapshotStore.key("getReservation", eventId, id),
+                    reservationRepository.findById(id)
+                            .filter(reservation -> eventId.equals(reservation.getEventId())));
+        } catch (ExecutionException | InterruptedException e) {
+            log.error("Error fetching reservation: {}", e.getMessage());
+            throw new RuntimeException("Failed to fetch reservation", e);
+        }
+    }
+
+    /**
+     * Confirms a hold that has not expired and counts its seats as booked. Not
+     * applied if the reservation is no longer held, including when it is already
+     * confirmed.
+     */
+    @CircuitBreaker(name = "firestore", fallbackMethod = "confirmFallback")
+    public Optional<Transition> confirm(String eventId, String id) {
+        try {
+            Optional<Transition> transition = reservationRepository.transition(
+                    eventId, id, ReservationStatus.HELD, ReservationStatus.CONFIRMED, true);
+            transition.filter(Transition::applied).ifPresent(confirmed ->
+                    eventStatsService.recordBookings(eventId, confirmed.reservation().getSeats()));
+            return transition;
+        } catch (ExecutionException | InterruptedException e) {
+            log.error("Error confirming reservation: {}", e.getMessage());
+            throw new RuntimeException("Failed to confirm reservation", e);
+        }
+    }
+
+    /**
+     * Gives back the seats of a hold. Not applied if the reservation is no longer
+     * held.
+     */
+    @CircuitBreaker(name = "firestore", fallbackMethod = "releaseFallback")
+    public Optional<Transition> release(String eventId, String id) {
+        try {
+            Optional<Transition> transition = reservationRepository.transition(
+                    eventId, id, ReservationStatus.HELD, ReservationStatus.RELEASED, false);
+            transition.filter(Transition::applied).ifPresent(released -> giveBack(released.reservation()));
+            return transition;
+        } catch (ExecutionException | InterruptedException e) {
+            log.error("Error releasing reservation: {}", e.getMessage());
+            throw new RuntimeException("Failed to release reservation", e);
+        }
+    }
+
+    /**
+     * Expires holds past their time, whichever instance made them, writes the
+     * remaining capacity changes and returns free seats of events no longer being
+     * reserved.
+     */
+    @Scheduled(fixedDelayString = "${app.event.reservations.sweep-interval-ms:1000}")
+    public void sweep() {
+        try {
+            for (EventReservation hold : reservationRepository.findExpiredHolds(Timestamp.now(), sweepBatch)) {
+                try {
+                    // Only the instance whose transition applies gives the seats back
+                    reservationRepository.transition(hold.getEventId(), hold.getId(),
+                                    ReservationStatus.HELD, ReservationStatus.EXPIRED, false)
+                            .filter(Transition::applied)
+                            .ifPresent(expired -> giveBack(expired.reservation()));
+                } catch (ExecutionException | InterruptedException | RuntimeException e) {
+                    log.warn("Failed to expire reservation {}, retrying later: {}", hold.getId(), e.getMessage());
+                }
+            }
+        } catch (ExecutionException | InterruptedException | RuntimeException e) {
+            log.warn("Failed to find expired reservations, retrying later: {}", e.getMessage());
+        }
+
+        writeCapacityChanges();
+
+        long idleSince = System.nanoTime() - TimeUnit.SECONDS.toNanos(leaseIdleSeconds);
+        pools.forEach((eventId, pool) -> {
+            if (pool.lastUsedNanos - idleSince < 0) {
+                returnFreeSeats(eventId, pool);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void returnLeases() {
+        pools.forEach(this::returnFreeSeats);
+        writeCapacityChanges();
+    }
+
+    // Leases seats until the pool has enough or the shards run out
+    private boolean leaseAndTake(SeatPool pool, Event event, int seats) {
+        synchronized (pool) {
+            while (!pool.take(seats)) {
+                if (pool.soldOut && System.nanoTime() - pool.soldOutAtNanos
+                        < TimeUnit.MILLISECONDS.toNanos(soldOutRecheckMs)) {
+                    return false;
+                }
+                int wanted = Math.max(seats, leaseBlock);
+                int got = 0;
+                try {
+                    if (!pool.seeded) {
+                        reservationRepository.createSeatShards(event.getId(), shardSeats(seatsLeft(event)));
+                        pool.seeded = true;
+                    }
+                    // Starting from a random shard spreads the instances' transactions
+                    int start = ThreadLocalRandom.current().nextInt(seatShards);
+                    for (int i = 0; i < seatShards && got < wanted; i++) {
+                        int shard = (start + i) % seatShards;
+                        got += reservationRepository.leaseSeats(event.getId(), shard, wanted - got);
+                    }
+                } catch (ExecutionException | InterruptedException e) {
+                    log.error("Error leasing seats: {}", e.getMessage());
+                    throw new RuntimeException("Failed to lease seats", e);
+                } finally {
+                    pool.free.addAndGet(got);
+                }
+                if (got == 0) {
+                    pool.soldOutAtNanos = System.nanoTime();
+                    pool.soldOut = true;
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    // What the shards start from: seats sold before the event's first hold are not for sale again
+    private static int seatsLeft(Event event) {
+        int capacity = event.getCapacity() != null ? event.getCapacity() : 0;
+        return event.getRemainingCapacity() != null
+                ? Math.max(0, Math.min(capacity, event.getRemainingCapacity()))
+                : capacity;
+    }
+
+    // The seats split over the shards; the first shards take the remainder
+    private int[] shardSeats(int seats) {
+        int[] shards = new int[seatShards];
+        for (int shard = 0; shard < seatShards; shard++) {
+            shards[shard] = seats / seatShards + (shard < seats % seatShards ? 1 : 0);
+        }
+        return shards;
+    }
+
+    // Returns the seats of a hold that ended to the shards; any the shards do not
+    // take back stay leased to this instance
+    private void giveBack(EventReservation hold) {
+        changeCapacity(hold.getEventId(), hold.getSeats());
+        int left = returnToShards(hold.getEventId(), hold.getSeats());
+        SeatPool pool = pools.computeIfAbsent(hold.getEventId(), id -> new SeatPool());
+        pool.free.addAndGet(left);
+        pool.soldOut = false;
+    }
+
+    private void returnFreeSeats(String eventId, SeatPool pool) {
+        synchronized (pool) {
+            pool.free.addAndGet(returnToShards(eventId, pool.free.getAndSet(0)));
+        }
+    }
+
+    // Gives back seats to whichever shards have them leased and returns how many
+    // could not be given back
+    private int returnToShards(String eventId, int seats) {
+        int start = ThreadLocalRandom.current().nextInt(seatShards);
+        try {
+            for (int i = 0; i < seatShards && seats > 0; i++) {
+                seats -= reservationRepository.returnSeats(eventId, (start + i) % seatShards, seats);
+            }
+        } catch (ExecutionException | InterruptedException | RuntimeException e) {
+            log.warn("Failed to return seats of event {}, retrying later: {}", eventId, e.getMessage());
+        }
+        return seats;
+    }
+
+    private void changeCapacity(String eventId, int delta) {
+        capacityChanges.computeIfAbsent(eventId, id -> new AtomicInteger()).addAndGet(delta);
+    }
+
+    private void writeCapacityChanges() {
+        capacityChanges.forEach((eventId, change) -> {
+            int delta = change.getAndSet(0);
+            if (delta == 0) {
+                return;
+            }
+            try {
+                eventRepository.adjustRemainingCapacity(eventId, delta);
+            } catch (ExecutionException | InterruptedException | RuntimeException e) {
+                change.addAndGet(delta);
+                log.warn("Failed to update remaining capacity of event {}, retrying later: {}",
+                        eventId, e.getMessage());
+            }
+        });
+    }
+
+    // Fallback methods
+    private Optional<EventReservation> holdFallback(Event event, int seats, Exception e) {
+        log.error("Circuit breaker fallback: Failed to hold seats", e);
+        throw new RuntimeException("Service temporarily unavailable. Please try again later.");
+    }
+
+    Optional<EventReservation> getReservationFallback(String eventId, String id, Exception e) {
+        log.error("Circuit breaker fallback: Failed to get reservation", e);
+        return snapshotStore.<Optional<EventReservation>>serveStale(SnapshotStore.key("getReservation", eventId, id))
+                .orElse(Optional.empty());
+    }
+
+    private Optional<Transition> confirmFallback(String eventId, String id, Exception e) {
+        log.error("Circuit breaker fallback: Failed to confirm reservation", e);
+        throw new RuntimeException("Service temporarily unavailable. Please try again later.");
+    }
+
+    private Optional<Transition> releaseFallback(String eventId, String id, Exception e) {
+        log.error("Circuit breaker fallback: Failed to release reservation", e);
+        throw new RuntimeException("Service temporarily unavailable. Please try again later.");
+    }
+}
@@ -19,6 +19,8 @@ import java.util.concurrent.TimeUnit;
 public class EventService {
 
     private final EventRepository eventRepository;
+    private final SnapshotStore snapshotStore;
+    private final ResponseCacheService responseCacheService;
 
     @CircuitBreaker(name = "firestore", fallbackMethod = "createEventFallback")
     public String createEvent(Event event) {
@@ -34,7 +36,9 @@ public class EventService {
                         .build());
             }
 
-            return eventRepository.create(event);
+            String id = eventRepository.create(event);
+            responseCacheService.invalidate(EventRepository.COLLECTION_NAME);
+            return id;
         } catch (ExecutionException | InterruptedException e) {
             log.error("Error creating event: {}", e.getMessage());
             throw new RuntimeException("Failed to create event", e);
@@ -44,7 +48,7 @@ public class EventService {
     @CircuitBreaker(name = "firestore", fallbackMethod = "getEventFallback")
     public Optional<Event> getEventById(String id) {
         try {
-            return eventRepository.findById(id);
+            return snapshotStore.save(SnapshotStore.key("getEventById", id), eventRepository.findById(id));
         } catch (ExecutionException | InterruptedException e) {
             log.error("Error fetching event: {}", e.getMessage());
             throw new RuntimeException("Failed to fetch event", e);
@@ -54,7 +58,8 @@ public class EventService {
     @CircuitBreaker(name = "firestore", fallbackMethod = "getAllEventsFallback")
     public List<Event> getAllEvents(int limit, String lastDocumentId) {
         try {
-            return eventRepository.findAll(limit, lastDocumentId);
+            return snapshotStore.save(SnapshotStore.key("getAllEvents", limit, lastDocumentId),
+                    eventRepository.findAll(limit, lastDocumentId));
         } catch (ExecutionException | InterruptedException e) {
             log.error("Error fetching events: {}", e.getMessage());
             throw new RuntimeException("Failed to fetch events", e);
@@ -64,7 +69,8 @@ public class EventService {
     @CircuitBreaker(name = "firestore", fallbackMethod = "getEventsByDestinationFallback")
     public List<Event> getEventsByDestination(String destinationId) {
         try {
-            return eventRepository.findByDestination(destinationId);
+            return snapshotStore.save(SnapshotStore.key("getEventsByDestination", destinationId),
+                    eventRepository.findByDestination(destinationId));
         } catch (ExecutionException | InterruptedException e) {
             log.error("Error fetching events by destination: {}", e.getMessage());
             throw new RuntimeException("Failed to fetch events by destination", e);
@@ -81,7 +87,8 @@ public class EventService {
                     startDate.getSeconds() + secondsToAdd,
                     startDate.getNanos()
             );
-            return eventRepository.findUpcoming(startDate, endDate, limit);
+            return snapshotStore.save(SnapshotStore.key("getUpcomingEvents", days, limit),
+                    eventRepository.findUpcoming(startDate, endDate, limit));
         } catch (ExecutionException | InterruptedException e) {
             log.error("Error fetching upcoming events: {}", e.getMessage());
             throw new RuntimeException("Failed to fetch upcoming events", e);
@@ -91,7 +98,8 @@ public class EventService {
     @CircuitBreaker(name = "firestore", fallbackMethod = "getFeaturedEventsFallback")
     public List<Event> getFeaturedEvents(int limit) {
         try {
-            return eventRepository.findFeatured(limit);
+            return snapshotStore.save(SnapshotStore.key("getFeaturedEvents", limit),
+                    eventRepository.findFeatured(limit));
         } catch (ExecutionException | InterruptedException e) {
             log.error("Error fetching featured events: {}", e.getMessage());
             throw new RuntimeException("Failed to fetch featured events", e);
@@ -101,7 +109,8 @@ public class EventService {
     @CircuitBreaker(name = "firestore", fallbackMethod = "getEventsByTypeFallback")
     public List<Event> getEventsByType(Event.EventType type) {
         try {
-            return eventRepository.findByType(type);
+            return snapshotStore.save(SnapshotStore.key("getEventsByType", type),
+                    eventRepository.findByType(type));
         } catch (ExecutionException | InterruptedException e) {
             log.error("Error fetching events by type: {}", e.getMessage());
             throw new RuntimeException("Failed to fetch events by type", e);
@@ -111,17 +120,45 @@ public class EventService {
     @CircuitBreaker(name = "firestore", fallbackMethod = "updateEventFallback")
     public void updateEvent(String id, Event event) {
         try {
+            // Counted stats are the baseline of EventStatsService, so a client writing
+            // back the aggregated stats it read must not change them
+            Optional<Event.EventStats> stored = eventRepository.findById(id).map(Event::getStats);
+            if (stored.isPresent() && event.getStats() == null) {
+                // The merge would otherwise write stats: null and lose them
+                event.setStats(stored.get());
+            } else if (stored.isPresent()) {
+                event.getStats().setTotalViews(stored.get().getTotalViews());
+                event.getStats().setTotalBookings(stored.get().getTotalBookings());
+                event.getStats().setTotalReviews(stored.get().getTotalReviews());
+                event.getStats().setAverageRating(stored.get().getAverageRating());
+            }
+            // The merge writes every field, including the ID
+            event.setId(id);
             eventRepository.update(id, event);
+            responseCacheService.invalidate(EventRepository.COLLECTION_NAME);
         } catch (ExecutionException | InterruptedException e) {
             log.error("Error updating event: {}", e.getMessage());
             throw new RuntimeException("Failed to update event", e);
         }
     }
 
+    @CircuitBreaker(name = "firestore", fallbackMethod = "addEventImageFallback")
+    public boolean addEventImage(String id, String imageUrl) {
+        try {
+            boolean added = eventRepository.addImage(id, imageUrl);
+            responseCacheService.invalidate(EventRepository.COLLECTION_NAME);
+            return added;
+        } catch (ExecutionException | InterruptedException e) {
+            log.error("Error adding event image: {}", e.getMessage());
+            throw new RuntimeException("Failed to add event image", e);
+        }
+    }
+
     @CircuitBreaker(name = "firestore", fallbackMethod = "deleteEventFallback")
     public void deleteEvent(String id) {
         try {
             eventRepository.delete(id);
+            responseCacheService.invalidate(EventRepository.COLLECTION_NAME);
         } catch (ExecutionException | InterruptedException e) {
             log.error("Error deleting event: {}", e.getMessage());
             throw new RuntimeException("Failed to delete event", e);
@@ -134,34 +171,40 @@ public class EventService {
         throw new RuntimeException("Service temporarily unavailable. Please try again later.");
     }
 
-    private Optional<Event> getEventFallback(String id, Exception e) {
+    Optional<Event> getEventFallback(String id, Exception e) {
         log.error("Circuit breaker fallback: Failed to get event", e);
-        return Optional.empty();
+        return snapshotStore.<Optional<Event>>serveStale(SnapshotStore.key("getEventById", id))
+                .orElse(Optional.empty());
     }
 
-    private List<Event> getAllEventsFallback(int limit, String lastDocumentId, Exception e) {
+    List<Event> getAllEventsFallback(int limit, String lastDocumentId, Exception e) {
         log.error("Circuit breaker fallback: Failed to get all events", e);
-        return List.of();
+        return snapshotStore.<List<Event>>serveStale(SnapshotStore.key("getAllEvents", limit, lastDocumentId))
+                .orElse(List.of());
     }
 
-    private List<Event> getEventsByDestinationFallback(String destinationId, Exception e) {
+    List<Event> getEventsByDestinationFallback(String destinationId, Exception e) {
         log.error("Circuit breaker fallback: Failed to get events by destination", e);
-        return List.of();
+        return snapshotStore.<List<Event>>serveStale(SnapshotStore.key("getEventsByDestination", destinationId))
+                .orElse(List.of());
     }
 
-    private List<Event> getUpcomingEventsFallback(int days, int limit, Exception e) {
+    List<Event> getUpcomingEventsFallback(int days, int limit, Exception e) {
         log.error("Circuit breaker fallback: Failed to get upcoming events", e);
-        return List.of();
+        return snapshotStore.<List<Event>>serveStale(SnapshotStore.key("getUpcomingEvents", days, limit))
+                .orElse(List.of());
     }
 
-    private List<Event> getFeaturedEventsFallback(int limit, Exception e) {
+    List<Event> getFeaturedEventsFallback(int limit, Exception e) {
         log.error("Circuit breaker fallback: Failed to get featured events", e);
-        return List.of();
+        return snapshotStore.<List<Event>>serveStale(SnapshotStore.key("getFeaturedEvents", limit))
+                .orElse(List.of());
     }
 
-    private List<Event> getEventsByTypeFallback(Event.EventType type, Exception e) {
+    List<Event> getEventsByTypeFallback(Event.EventType type, Exception e) {
         log.error("Circuit breaker fallback: Failed to get events by type", e);
-        return List.of();
+        return snapshotStore.<List<Event>>serveStale(SnapshotStore.key("getEventsByType", type))
+                .orElse(List.of());
     }
 
     private void updateEventFallback(String id, Event event, Exception e) {
@@ -169,6 +212,11 @@ public class EventService {
         throw new RuntimeException("Service temporarily unavailable. Please try again later.");
     }
 
+    private boolean addEventImageFallback(String id, String imageUrl, Exception e) {
+        log.error("Circuit breaker fallback: Failed to add event image", e);
+        throw new RuntimeException("Service temporarily unavailable. Please try again later.");
+    }
+
     private void deleteEventFallback(String id, Exception e) {
         log.error("Circuit breaker fallback: Failed to delete event", e);
         throw new RuntimeException("Service temporarily unavailable. Please try again later.");
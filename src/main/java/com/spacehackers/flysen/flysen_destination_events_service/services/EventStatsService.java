@@ -0,0 +1,271 @@
+package com.spacehackers.flysen.flysen_destination_events_service.services;
+
+import com.spacehackers.flysen.flysen_destination_events_service.models.Event;
+import com.spacehackers.flysen.flysen_destination_events_service.models.EventStatShard;
+import com.spacehackers.flysen.flysen_destination_events_service.repositories.EventStatShardRepository;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * View, booking and review counters of events. Increments are added up in memory
+ * and flushed periodically, each event's into one of several shard documents
+ * picked at random, so a popular event costs a few writes per flush spread over
+ * the shards instead of a write of the event document per increment.
+ * <p>
+ * The stats stored on the event document are the baseline the shards add to.
+ * Reads add up the baseline, the shards, and the increments not yet written or
+ * still being written. No lock is held across Firestore calls: a flush swaps the
+ * pending increments out under a short lock, and a read that overlaps a write of
+ * the event's increments reads the shards again rather than count them twice or
+ * not at all.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EventStatsService {
+
+    private static final int MAX_KNOWN_EVENTS = 10_000;
+
+    // Reads racing writes give up after this many, and may then count one write twice or not at all
+    private static final int MAX_READ_ATTEMPTS = 5;
+
+    private final EventStatShardRepository shardRepository;
+    private final SnapshotStore snapshotStore;
+
+    // Guards pending, flushing, writing and writesCompleted; held for in-memory work only
+    private final Object lock = new Object();
+    // Increments not yet flushed, per event
+    private Map<String, EventStatShard> pending = new HashMap<>();
+    // Increments of the running flush whose write has not completed yet
+    private final Map<String, EventStatShard> flushing = new HashMap<>();
+    // Events whose increments are being written right now, and may or may not be in a read
+    private final Set<String> writing = new HashSet<>();
+    // Writes completed, so a read can tell whether one landed while it ran
+    private long writesCompleted;
+    // Serializes flushes; requests never wait on it
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    // Events seen to exist recently, with when that stops counting, so a view needs no read of the event
+    private final Map<String, Long> knownEvents = new ConcurrentHashMap<>();
+
+    @Value("${app.event.stats.shards:8}")
+    private int shards;
+
+    @Value("${app.event.stats.known-event-ttl-seconds:600}")
+    private long knownEventTtlSeconds;
+
+    public void recordView(String eventId) {
+        add(eventId, EventStatShard.builder().views(1).build());
+    }
+
+    public void recordBookings(String eventId, int bookings) {
+        add(eventId, EventStatShard.builder().bookings(bookings).build());
+    }
+
+    /**
+     * Whether this instance saw the event exist within the last
+     * {@code known-event-ttl-seconds}.
+     */
+    public boolean isKnownEvent(String eventId) {
+        Long until = knownEvents.get(eventId);
+        return until != null && until - System.nanoTime() > 0;
+    }
+
+    public void markKnownEvent(String eventId) {
+        if (knownEvents.size() >= MAX_KNOWN_EVENTS) {
+            long now = System.nanoTime();
+            knownEvents.values().removeIf(until -> until - now <= 0);
+            if (knownEvents.size() >= MAX_KNOWN_EVENTS) {
+                knownEvents.clear();
+            }
+        }
+        knownEvents.put(eventId, System.nanoTime() + knownEventTtlSeconds * 1_000_000_000L);
+    }
+
+    /**
+     * Counts a review with a rating from 1 to 5.
+     */
+    public void recordReview(String eventId, int rating) {
+        if (rating < 1 || rating > 5) {
+            throw new IllegalArgumentException("Rating must be between 1 and 5");
+        }
+        add(eventId, EventStatShard.builder().reviews(1).ratingSum(rating).build());
+    }
+
+    /**
+     * A copy of the event with its stats brought up to date with every recorded increment.
+     */
+    @CircuitBreaker(name = "firestore", fallbackMethod = "withCurrentStatsFallback")
+    public Event withCurrentStats(Event event) {
+        markKnownEvent(event.getId());
+        try {
+            for (int attempt = 1; ; attempt++) {
+                long completed = writesCompleted();
+                List<EventStatShard> stored = shardRepository.findByEvent(event.getId());
+                List<EventStatShard> unflushed;
+                synchronized (lock) {
+                    // A write that completed meanwhile, or is under way, may or may not be in what was read
+                    boolean ambiguous = writesCompleted != completed || writing.contains(event.getId());
+                    if (ambiguous && attempt < MAX_READ_ATTEMPTS) {
+                        continue;
+                    }
+                    unflushed = unflushed(event.getId());
+                }
+                snapshotStore.save(SnapshotStore.key("eventStatShards", event.getId()), stored);
+                return withStats(event, stored, unflushed);
+            }
+        } catch (ExecutionException | InterruptedException e) {
+            log.error("Error fetching event stats: {}", e.getMessage());
+            throw new RuntimeException("Failed to fetch event stats", e);
+        }
+    }
+
+    /**
+     * Writes the pending increments to the shards. Increments that fail to write are
+     * kept for the next flush.
+     */
+    @Scheduled(fixedDelayString = "${app.event.stats.flush-interval-ms:2000}")
+    @PreDestroy
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<EventStatShard> increments = new ArrayList<>();
+            synchronized (lock) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                pending.forEach((eventId, increment) -> {
+                    increment.setEventId(eventId);
+                    increment.setShard(ThreadLocalRandom.current().nextInt(shards));
+                    increments.add(increment);
+                });
+                flushing.putAll(pending);
+                pending = new HashMap<>();
+            }
+            for (int from = 0; from < increments.size(); from += EventStatShardRepository.MAX_INCREMENTS_PER_WRITE) {
+                List<EventStatShard> batch = increments.subList(from,
+                        Math.min(from + EventStatShardRepository.MAX_INCREMENTS_PER_WRITE, increments.size()));
+                synchronized (lock) {
+                    batch.forEach(increment -> writing.add(increment.getEventId()));
+                }
+                boolean written = false;
+                try {
+                    shardRepository.incrementAll(batch);
+                    written = true;
+                } catch (ExecutionException | InterruptedException | RuntimeException e) {
+                    log.warn("Failed to flush {} event stat increments, retrying later: {}",
+                            batch.size(), e.getMessage());
+                }
+                synchronized (lock) {
+                    for (EventStatShard increment : batch) {
+                        writing.remove(increment.getEventId());
+                        flushing.remove(increment.getEventId());
+                        if (!written) {
+                            addLocked(increment.getEventId(), increment);
+                        }
+                    }
+                    writesCompleted++;
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // Serves the last shards read, or failing that the stored stats and what is pending
+    Event withCurrentStatsFallback(Event event, Exception e) {
+        log.error("Circuit breaker fallback: Failed to get event stats", e);
+        List<EventStatShard> stored = snapshotStore.<List<EventStatShard>>serveStale(
+                SnapshotStore.key("eventStatShards", event.getId())).orElse(List.of());
+        List<EventStatShard> unflushed;
+        synchronized (lock) {
+            unflushed = unflushed(event.getId());
+        }
+        return withStats(event, stored, unflushed);
+    }
+
+    private long writesCompleted() {
+        synchronized (lock) {
+            return writesCompleted;
+        }
+    }
+
+    // Pending and being written; call holding the lock
+    private List<EventStatShard> unflushed(String eventId) {
+        List<EventStatShard> unflushed = new ArrayList<>(2);
+        if (pending.containsKey(eventId)) {
+            unflushed.add(pending.get(eventId));
+        }
+        if (flushing.containsKey(eventId)) {
+            unflushed.add(flushing.get(eventId));
+        }
+        return unflushed;
+    }
+
+    private void add(String eventId, EventStatShard increment) {
+        synchronized (lock) {
+            addLocked(eventId, increment);
+        }
+    }
+
+    private void addLocked(String eventId, EventStatShard increment) {
+        pending.merge(eventId, increment, (current, added) -> EventStatShard.builder()
+                .views(current.getViews() + added.getViews())
+                .bookings(current.getBookings() + added.getBookings())
+                .reviews(current.getReviews() + added.getReviews())
+                .ratingSum(current.getRatingSum() + added.getRatingSum())
+                .build());
+    }
+
+    private static Event withStats(Event event, List<EventStatShard> stored, List<EventStatShard> unflushed) {
+        Event.EventStats base = event.getStats() != null ? event.getStats() : new Event.EventStats();
+        long views = valueOf(base.getTotalViews());
+        long bookings = valueOf(base.getTotalBookings());
+        long baseReviews = valueOf(base.getTotalReviews());
+        long reviews = baseReviews;
+        double ratingSum = base.getAverageRating() != null ? base.getAverageRating() * baseReviews : 0;
+        List<EventStatShard> counted = new ArrayList<>(stored);
+        counted.addAll(unflushed);
+        for (EventStatShard shard : counted) {
+            views += shard.getViews();
+            bookings += shard.getBookings();
+            reviews += shard.getReviews();
+            ratingSum += shard.getRatingSum();
+        }
+
+        // A copy, as the event may be a snapshot kept for fallbacks
+        return event.toBuilder()
+                .stats(Event.EventStats.builder()
+                        .totalViews(toInt(views))
+                        .totalBookings(toInt(bookings))
+                        .totalReviews(toInt(reviews))
+                        .averageRating(reviews > 0 ? Double.valueOf(ratingSum / reviews) : base.getAverageRating())
+                        .expressOffersCount(base.getExpressOffersCount())
+                        .build())
+                .build();
+    }
+
+    private static long valueOf(Integer count) {
+        return count != null ? count : 0;
+    }
+
+    private static int toInt(long count) {
+        return (int) Math.min(count, Integer.MAX_VALUE);
+    }
+}
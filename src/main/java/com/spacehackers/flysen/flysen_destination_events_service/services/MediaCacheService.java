@@ -0,0 +1,331 @@
+package com.spacehackers.flysen.flysen_destination_events_service.services;
+
+import com.google.cloud.storage.Blob;
+import com.google.cloud.storage.BlobId;
+import com.google.cloud.storage.Storage;
+import com.google.cloud.storage.StorageException;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Disk-backed LRU cache of Cloud Storage objects used by the media proxy.
+ * Entries are evicted by recency once the configured size budget is exceeded.
+ * Concurrent misses for the same object share a single download, and entries
+ * older than the revalidation interval are checked against the object's
+ * generation before being served.
+ * <p>
+ * Every download gets its own file, and files of evicted entries are deleted only
+ * after a grace period, as the servlet container may still be about to send them.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MediaCacheService {
+
+    private final Storage storage;
+
+    @Value("${firebase.storage-bucket}")
+    private String bucketName;
+
+    @Value("${app.media.cache.dir:${java.io.tmpdir}/flysen-media-cache}")
+    private String cacheDir;
+
+    @Value("${app.media.cache.max-size-bytes:536870912}")
+    private long maxSizeBytes;
+
+    @Value("${app.media.cache.revalidate-seconds:60}")
+    private long revalidateSeconds;
+
+    @Value("${app.media.cache.retired-grace-seconds:60}")
+    private long retiredGraceSeconds;
+
+    // Access-ordered, guarded by "this"
+    private final LinkedHashMap<String, CachedMedia> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    // Files of entries no longer cached, oldest first, guarded by "this"
+    private final Deque<RetiredFile> retired = new ArrayDeque<>();
+
+    private final Map<String, CompletableFuture<Optional<CachedMedia>>> inFlight = new ConcurrentHashMap<>();
+
+    private Path cacheRoot;
+
+    public record CachedMedia(Path file, long size, String contentType, String etag,
+                              long generation, long validatedAtNanos) {
+
+        CachedMedia validatedNow() {
+            return new CachedMedia(file, size, contentType, etag, generation, System.nanoTime());
+        }
+    }
+
+    private record RetiredFile(Path file, long retiredAtNanos) {
+    }
+
+    /**
+     * An open handle on a cached file. Holding the channel keeps the bytes readable
+     * even if the entry is evicted while the response is being written.
+     */
+    public record MediaHandle(FileChannel channel, CachedMedia media) implements Closeable {
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    @PostConstruct
+    public void initialize() throws IOException {
+        cacheRoot = Paths.get(cacheDir);
+        Files.createDirectories(cacheRoot);
+
+        // Entry metadata lives in memory only, so files left by a previous run are unusable
+        try (Stream<Path> files = Files.list(cacheRoot)) {
+            files.forEach(file -> {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    log.warn("Failed to remove stale media cache file {}: {}", file, e.getMessage());
+                }
+            });
+        }
+        log.info("Media cache initialized at {} with a budget of {} bytes", cacheRoot, maxSizeBytes);
+    }
+
+    /**
+     * Opens the cached copy of an object, downloading it from Cloud Storage on a miss
+     * or when the object changed since it was cached.
+     *
+     * @return the open handle, or empty if the object does not exist in the bucket
+     */
+    public Optional<MediaHandle> open(String objectName) throws IOException {
+        for (int attempt = 0; attempt < 2; attempt++) {
+            Optional<CachedMedia> media = lookup(objectName);
+            if (media.isPresent() && System.nanoTime() - media.get().validatedAtNanos()
+                    > TimeUnit.SECONDS.toNanos(revalidateSeconds)) {
+                media = revalidate(objectName, media.get());
+            }
+            if (media.isEmpty()) {
+                media = fetch(objectName);
+                if (media.isEmpty()) {
+                    return Optional.empty();
+                }
+            }
+
+            synchronized (this) {
+                try {
+                    FileChannel channel = FileChannel.open(media.get().file(), StandardOpenOption.READ);
+                    return Optional.of(new MediaHandle(channel, media.get()));
+                } catch (NoSuchFileException e) {
+                    // Evicted between lookup and open, retry with a fresh download
+                    remove(objectName);
+                }
+            }
+        }
+        throw new IOException("Media cache entry vanished repeatedly: " + objectName);
+    }
+
+    public synchronized void evict(String objectName) {
+        remove(objectName);
+    }
+
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    /**
+     * Deletes the files of evicted entries once their grace period is over.
+     */
+    @Scheduled(fixedDelayString = "${app.media.cache.purge-interval-ms:10000}")
+    public void purgeRetired() {
+        long graceNanos = TimeUnit.SECONDS.toNanos(retiredGraceSeconds);
+        while (true) {
+            Path file;
+            synchronized (this) {
+                RetiredFile oldest = retired.peekFirst();
+                if (oldest == null || System.nanoTime() - oldest.retiredAtNanos() < graceNanos) {
+                    return;
+                }
+                file = retired.removeFirst().file();
+            }
+            deleteQuietly(file);
+        }
+    }
+
+    private synchronized Optional<CachedMedia> lookup(String objectName) {
+        return Optional.ofNullable(entries.get(objectName));
+    }
+
+    /**
+     * Compares the cached generation with the object's current one.
+     *
+     * @return the entry if still current, or empty once removed because the object
+     * changed or was deleted
+     */
+    private Optional<CachedMedia> revalidate(String objectName, CachedMedia media) {
+        Blob blob;
+        try {
+            blob = storage.get(BlobId.of(bucketName, objectName),
+                    Storage.BlobGetOption.fields(Storage.BlobField.GENERATION));
+        } catch (StorageException e) {
+            // The copy is still the best answer while storage is unreachable
+            log.warn("Failed to revalidate media object {}, serving cached copy: {}", objectName, e.getMessage());
+            return Optional.of(media);
+        }
+
+        synchronized (this) {
+            if (entries.get(objectName) != media) {
+                // Replaced or evicted meanwhile
+                return lookup(objectName);
+            }
+            if (blob != null && blob.getGeneration() != null && blob.getGeneration() == media.generation()) {
+                CachedMedia validated = media.validatedNow();
+                entries.put(objectName, validated);
+                return Optional.of(validated);
+            }
+            log.debug("Media object {} changed since it was cached", objectName);
+            remove(objectName);
+            return Optional.empty();
+        }
+    }
+
+    private Optional<CachedMedia> fetch(String objectName) throws IOException {
+        CompletableFuture<Optional<CachedMedia>> future = new CompletableFuture<>();
+        CompletableFuture<Optional<CachedMedia>> existing = inFlight.putIfAbsent(objectName, future);
+        if (existing != null) {
+            return await(existing);
+        }
+
+        try {
+            Optional<CachedMedia> media = download(objectName);
+            media.ifPresent(cached -> admit(objectName, cached));
+            future.complete(media);
+            return media;
+        } catch (IOException | RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(objectName, future);
+        }
+    }
+
+    private Optional<CachedMedia> download(String objectName) throws IOException {
+        Blob blob = storage.get(BlobId.of(bucketName, objectName));
+        if (blob == null) {
+            return Optional.empty();
+        }
+
+        // A file of its own, so a copy being sent is never overwritten by a newer one
+        Path target = Files.createTempFile(cacheRoot, fileNameFor(objectName) + "-", ".media");
+        boolean downloaded = false;
+        try {
+            blob.downloadTo(target);
+            downloaded = true;
+        } finally {
+            if (!downloaded) {
+                Files.deleteIfExists(target);
+            }
+        }
+
+        String contentType = blob.getContentType() != null ? blob.getContentType() : "application/octet-stream";
+        String etag = "\"" + (blob.getMd5ToHexString() != null ? blob.getMd5ToHexString() : blob.getGeneration()) + "\"";
+        long generation = blob.getGeneration() != null ? blob.getGeneration() : 0;
+
+        log.debug("Cached media object {} ({} bytes)", objectName, Files.size(target));
+        return Optional.of(new CachedMedia(target, Files.size(target), contentType, etag, generation, System.nanoTime()));
+    }
+
+    private synchronized void admit(String objectName, CachedMedia media) {
+        CachedMedia previous = entries.put(objectName, media);
+        if (previous != null) {
+            totalBytes -= previous.size();
+            retire(previous.file());
+        }
+        totalBytes += media.size();
+
+        Iterator<Map.Entry<String, CachedMedia>> eldest = entries.entrySet().iterator();
+        while (totalBytes > maxSizeBytes && entries.size() > 1 && eldest.hasNext()) {
+            Map.Entry<String, CachedMedia> entry = eldest.next();
+            if (entry.getKey().equals(objectName)) {
+                continue;
+            }
+            eldest.remove();
+            totalBytes -= entry.getValue().size();
+            retire(entry.getValue().file());
+            log.debug("Evicted media object {} from cache", entry.getKey());
+        }
+    }
+
+    private void remove(String objectName) {
+        CachedMedia removed = entries.remove(objectName);
+        if (removed != null) {
+            totalBytes -= removed.size();
+            retire(removed.file());
+        }
+    }
+
+    private void retire(Path file) {
+        retired.addLast(new RetiredFile(file, System.nanoTime()));
+    }
+
+    private static Optional<CachedMedia> await(CompletableFuture<Optional<CachedMedia>> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for media download", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Media download failed", e.getCause());
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete media cache file {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static String fileNameFor(String objectName) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectName.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
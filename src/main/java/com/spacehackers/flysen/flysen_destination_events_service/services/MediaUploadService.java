@@ -0,0 +1,187 @@
+package com.spacehackers.flysen.flysen_destination_events_service.services;
+
+import com.google.cloud.storage.Blob;
+import com.google.cloud.storage.BlobId;
+import com.google.cloud.storage.BlobInfo;
+import com.google.cloud.storage.HttpMethod;
+import com.google.cloud.storage.Storage;
+import com.spacehackers.flysen.flysen_destination_events_service.dtos.SignedUploadDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Issues V4 signed URLs so clients can PUT images straight into Cloud Storage,
+ * and registers the uploaded objects once the client reports completion.
+ * Only metadata goes through the service; image bytes never touch the JVM.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MediaUploadService {
+
+    public static final String DESTINATIONS_FOLDER = "destinations";
+    public static final String EVENTS_FOLDER = "events";
+
+    private static final Pattern OWNER_ID_PATTERN = Pattern.compile("[A-Za-z0-9_-]{1,128}");
+    private static final Pattern OBJECT_NAME_PATTERN = Pattern.compile(
+            "(" + DESTINATIONS_FOLDER + "|" + EVENTS_FOLDER + ")/([A-Za-z0-9_-]{1,128})/[A-Za-z0-9_-]+\\.[A-Za-z0-9]{1,10}");
+    private static final Pattern EXTENSION_PATTERN = Pattern.compile("\\.[A-Za-z0-9]{1,10}");
+
+    private final Storage storage;
+    private final DestinationService destinationService;
+    private final EventService eventService;
+
+    @Value("${firebase.storage-bucket}")
+    private String bucketName;
+
+    @Value("${app.media.signed-url-expiry-minutes:15}")
+    private long signedUrlExpiryMinutes;
+
+    @Value("${app.media.max-upload-bytes:10485760}")
+    private long maxUploadBytes;
+
+    @Value("${server.servlet.context-path:}")
+    private String contextPath;
+
+    public SignedUploadDTO createSignedUpload(String folder, String ownerId, String contentType, String fileName) {
+        if (ownerId == null || !OWNER_ID_PATTERN.matcher(ownerId).matches()) {
+            throw new IllegalArgumentException("Invalid owner ID");
+        }
+        if (contentType == null || !contentType.startsWith("image/")) {
+            throw new IllegalArgumentException("File must be an image");
+        }
+
+        String extension = fileName != null && fileName.contains(".")
+                ? fileName.substring(fileName.lastIndexOf("."))
+                : ".jpg";
+        if (!EXTENSION_PATTERN.matcher(extension).matches()) {
+            extension = ".jpg";
+        }
+
+        String objectName = folder + "/" + ownerId + "/" + UUID.randomUUID() + extension;
+        BlobInfo blobInfo = BlobInfo.newBuilder(BlobId.of(bucketName, objectName))
+                .setContentType(contentType)
+                .build();
+
+        // Both headers are part of the signature, so the client cannot change
+        // the declared type or exceed the size limit when uploading
+        Map<String, String> requiredHeaders = Map.of(
+                "Content-Type", contentType,
+                "x-goog-content-length-range", "0," + maxUploadBytes);
+
+        URL url = storage.signUrl(blobInfo, signedUrlExpiryMinutes, TimeUnit.MINUTES,
+                Storage.SignUrlOption.httpMethod(HttpMethod.PUT),
+                Storage.SignUrlOption.withExtHeaders(requiredHeaders),
+                Storage.SignUrlOption.withV4Signature());
+
+        log.info("Issued signed upload URL for object: {}", objectName);
+        return SignedUploadDTO.builder()
+                .objectName(objectName)
+                .uploadUrl(url.toString())
+                .httpMethod(HttpMethod.PUT.name())
+                .requiredHeaders(requiredHeaders)
+                .maxSizeBytes(maxUploadBytes)
+                .expiresAt(Instant.now().plusSeconds(TimeUnit.MINUTES.toSeconds(signedUrlExpiryMinutes)).toString())
+                .build();
+    }
+
+    /**
+     * Validates an object uploaded through a signed URL and appends it to the
+     * owning destination or event. Invalid objects are deleted from the bucket.
+     *
+     * @return the image URL, or empty if the owner no longer exists
+     */
+    public Optional<String> completeUpload(String objectName) {
+        Matcher matcher = objectName != null ? OBJECT_NAME_PATTERN.matcher(objectName) : null;
+        if (matcher == null || !matcher.matches()) {
+            throw new IllegalArgumentException("Invalid object name");
+        }
+
+        Blob blob = storage.get(BlobId.of(bucketName, objectName));
+        if (blob == null) {
+            throw new IllegalArgumentException("Object has not been uploaded");
+        }
+
+        String contentType = blob.getContentType();
+        Long size = blob.getSize();
+        if (contentType == null || !contentType.startsWith("image/")) {
+            storage.delete(blob.getBlobId());
+            throw new IllegalArgumentException("File must be an image");
+        }
+        if (size == null || size == 0 || size > maxUploadBytes) {
+            storage.delete(blob.getBlobId());
+            throw new IllegalArgumentException("File size must be between 1 and " + maxUploadBytes + " bytes");
+        }
+
+        String folder = matcher.group(1);
+        String ownerId = matcher.group(2);
+        String imageUrl = publicUrl(objectName);
+
+        boolean registered = DESTINATIONS_FOLDER.equals(folder)
+                ? destinationService.addDestinationImage(ownerId, imageUrl)
+                : eventService.addEventImage(ownerId, imageUrl);
+
+        if (!registered) {
+            log.warn("Owner {} of uploaded object {} not found, deleting object", ownerId, objectName);
+            storage.delete(blob.getBlobId());
+            return Optional.empty();
+        }
+
+        log.info("Registered uploaded object: {}", objectName);
+        return Optional.of(imageUrl);
+    }
+
+    /**
+     * Whether the name has the layout of an image uploaded for a destination or an
+     * event; these are the only objects the media proxy serves.
+     */
+    public static boolean isUploadedImage(String objectName) {
+        return objectName != null && OBJECT_NAME_PATTERN.matcher(objectName).matches();
+    }
+
+    /**
+     * URL stored for an uploaded object: a path on the media proxy, so clients
+     * fetch images through its disk cache, or the storage URL for objects the proxy
+     * does not serve.
+     */
+    public String publicUrl(String blobName) {
+        if (isUploadedImage(blobName)) {
+            return mediaPath() + blobName;
+        }
+        String encodedPath = URLEncoder.encode(blobName, StandardCharsets.UTF_8);
+        return String.format(
+                "https://firebasestorage.googleapis.com/v0/b/%s/o/%s?alt=media",
+                bucketName,
+                encodedPath
+        );
+    }
+
+    /**
+     * The object name of an image URL returned by {@link #publicUrl} for the media
+     * proxy, or null for other URLs.
+     */
+    public String proxiedObjectName(String imageUrl) {
+        if (imageUrl == null || !imageUrl.startsWith(mediaPath())) {
+            return null;
+        }
+        String objectName = imageUrl.substring(mediaPath().length());
+        return isUploadedImage(objectName) ? objectName : null;
+    }
+
+    private String mediaPath() {
+        return contextPath + "/media/";
+    }
+}
@@ -0,0 +1,246 @@
+package com.spacehackers.flysen.flysen_destination_events_service.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Two-tier cache of Google Places responses. A small in-memory LRU sits in front
+ * of an MVStore file that survives restarts, so a new pod starts warm instead of
+ * paying for a burst of Places calls. Every entry carries its own expiry.
+ * <p>
+ * Nearby searches are cached per coordinate tile rather than per exact point;
+ * callers should search from {@link #tileCenter} so the cached answer is valid
+ * for the whole tile. Leaving {@code google.places.cache.path} empty, or a path
+ * that cannot be opened, keeps the cache in memory only.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PlacesCache {
+
+    // Only Places models and the JDK types they are built from are ever deserialized
+    private static final ObjectInputFilter ALLOWED_CLASSES =
+            ObjectInputFilter.Config.createFilter("java.**;com.google.maps.model.**;!*");
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${google.places.cache.path:}")
+    private String path;
+
+    @Value("${google.places.cache.memory-max-entries:2000}")
+    private int memoryMaxEntries;
+
+    @Value("${google.places.cache.tile-degrees:0.01}")
+    private double tileDegrees;
+
+    private MVStore store;
+    private MVMap<String, byte[]> entries;
+
+    private record Entry(Object value, long expiresAtMillis) {
+
+        boolean isExpired(long now) {
+            return now >= expiresAtMillis;
+        }
+    }
+
+    // Access-ordered, guarded by itself
+    private final Map<String, Entry> memory = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > memoryMaxEntries;
+        }
+    };
+
+    private Counter memoryHits;
+    private Counter diskHits;
+    private Counter misses;
+
+    @PostConstruct
+    public void open() {
+        store = openStore();
+        entries = store.openMap("places");
+        purgeExpired();
+
+        memoryHits = gets("memory");
+        diskHits = gets("disk");
+        misses = gets("miss");
+        Gauge.builder("places.cache.size", memory, map -> {
+                    synchronized (map) {
+                        return map.size();
+                    }
+                })
+                .tag("tier", "memory")
+                .register(meterRegistry);
+        Gauge.builder("places.cache.size", this, cache -> cache.entries.size())
+                .tag("tier", "disk")
+                .register(meterRegistry);
+    }
+
+    // A cache that cannot be written to disk still saves Places calls from memory
+    private MVStore openStore() {
+        if (path == null || path.isBlank()) {
+            log.info("Places cache opened in memory");
+            return MVStore.open(null);
+        }
+        Path file = Paths.get(path).toAbsolutePath();
+        try {
+            Files.createDirectories(file.getParent());
+            MVStore opened = new MVStore.Builder()
+                    .fileName(file.toString())
+                    .compress()
+                    .open();
+            log.info("Places cache opened at {}", file);
+            return opened;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to open Places cache at {}, caching in memory only: {}", file, e.getMessage());
+            return MVStore.open(null);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (store != null && !store.isClosed()) {
+            store.close();
+        }
+    }
+
+    public String nearbyKey(double latitude, double longitude, int radius, String type) {
+        return "nearby:" + tile(latitude) + ":" + tile(longitude) + ":" + radius + ":" + type;
+    }
+
+    public String detailsKey(String placeId) {
+        return "details:" + placeId;
+    }
+
+    /**
+     * Snaps a coordinate to the center of its cache tile.
+     */
+    public double tileCenter(double coordinate) {
+        return (tile(coordinate) + 0.5) * tileDegrees;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> Optional<T> get(String key) {
+        long now = System.currentTimeMillis();
+        synchronized (memory) {
+            Entry entry = memory.get(key);
+            if (entry != null && !entry.isExpired(now)) {
+                memoryHits.increment();
+                return Optional.of((T) entry.value());
+            }
+        }
+
+        byte[] stored = entries.get(key);
+        Entry entry = stored != null ? decode(key, stored) : null;
+        if (entry == null || entry.isExpired(now)) {
+            misses.increment();
+            return Optional.empty();
+        }
+        synchronized (memory) {
+            memory.put(key, entry);
+        }
+        diskHits.increment();
+        return Optional.of((T) entry.value());
+    }
+
+    public <T extends Serializable> void put(String key, T value, Duration ttl) {
+        Entry entry = new Entry(value, System.currentTimeMillis() + ttl.toMillis());
+        synchronized (memory) {
+            memory.put(key, entry);
+        }
+        entries.put(key, encode(entry));
+        store.commit();
+    }
+
+    @Scheduled(fixedDelayString = "${google.places.cache.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        int removed = 0;
+        for (Map.Entry<String, byte[]> stored : entries.entrySet()) {
+            if (expiresAt(stored.getValue()) <= now && entries.remove(stored.getKey(), stored.getValue())) {
+                removed++;
+            }
+        }
+        synchronized (memory) {
+            memory.values().removeIf(entry -> entry.isExpired(now));
+        }
+        if (removed > 0) {
+            store.commit();
+            log.debug("Purged {} expired Places cache entries", removed);
+        }
+    }
+
+    private long tile(double coordinate) {
+        return (long) Math.floor(coordinate / tileDegrees);
+    }
+
+    private Counter gets(String result) {
+        return Counter.builder("places.cache.gets")
+                .description("Places cache lookups by the tier that answered")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    // Layout: expiry millis, then the Java-serialized value
+    private static byte[] encode(Entry entry) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (DataOutputStream data = new DataOutputStream(buffer)) {
+            data.writeLong(entry.expiresAtMillis());
+            try (ObjectOutputStream out = new ObjectOutputStream(data)) {
+                out.writeObject(entry.value());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to serialize Places cache entry", e);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static long expiresAt(byte[] stored) {
+        try (DataInputStream data = new DataInputStream(new ByteArrayInputStream(stored))) {
+            return data.readLong();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static Entry decode(String key, byte[] stored) {
+        try (DataInputStream data = new DataInputStream(new ByteArrayInputStream(stored))) {
+            long expiresAt = data.readLong();
+            try (ObjectInputStream in = new ObjectInputStream(data)) {
+                in.setObjectInputFilter(ALLOWED_CLASSES);
+                return new Entry(in.readObject(), expiresAt);
+            }
+        } catch (IOException | ClassNotFoundException e) {
+            // Unreadable, e.g. written by an incompatible client version; treat as a miss
+            log.warn("Ignoring unreadable Places cache entry {}: {}", key, e.getMessage());
+            return null;
+        }
+    }
+}
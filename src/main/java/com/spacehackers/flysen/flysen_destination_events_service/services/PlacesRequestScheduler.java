@@ -0,0 +1,84 @@
+package com.spacehackers.flysen.flysen_destination_events_service.services;
+
+import com.google.maps.model.PlaceDetails;
+import com.google.maps.model.PlacesSearchResult;
+import com.spacehackers.flysen.flysen_destination_events_service.config.RequestContextPropagator;
+import com.spacehackers.flysen.flysen_destination_events_service.limits.PriorityRequestQueue;
+import com.spacehackers.flysen.flysen_destination_events_service.limits.PriorityRequestQueue.Priority;
+import io.github.resilience4j.core.ContextPropagator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Entry point for Google Places lookups. Answers come from {@link PlacesCache}
+ * when possible; misses are paced through a priority queue at the Places rate
+ * limit, so user-facing lookups ({@link Priority#INTERACTIVE}) overtake batch
+ * enrichment ({@link Priority#BACKGROUND}) instead of queueing behind it inside
+ * the Maps client. Identical waiting lookups share one call. Failed lookups
+ * complete exceptionally and are not cached.
+ */
+@Service
+@RequiredArgsConstructor
+public class PlacesRequestScheduler {
+
+    private final PlacesService placesService;
+    private final PriorityRequestQueue placesRequestQueue;
+    private final PlacesCache placesCache;
+
+    @Value("${google.places.cache.nearby-ttl-hours:24}")
+    private long nearbyTtlHours;
+
+    @Value("${google.places.cache.details-ttl-hours:168}")
+    private long detailsTtlHours;
+
+    public CompletableFuture<List<PlacesSearchResult>> searchNearbyPlaces(
+            Double latitude, Double longitude, int radius, String type, Priority priority) {
+        String key = placesCache.nearbyKey(latitude, longitude, radius, type);
+        Optional<List<PlacesSearchResult>> cached = placesCache.get(key);
+        if (cached.isPresent()) {
+            return CompletableFuture.completedFuture(cached.get());
+        }
+
+        // Search from the tile center so the cached answer serves the whole tile
+        double tileLatitude = placesCache.tileCenter(latitude);
+        double tileLongitude = placesCache.tileCenter(longitude);
+        return placesRequestQueue.submit(key, priority,
+                        withRequestContext(() -> placesService.searchNearbyPlaces(
+                                tileLatitude, tileLongitude, radius, type)))
+                .thenApply(results -> {
+                    // Failures never get here, so an empty answer is a real one
+                    placesCache.put(key, new ArrayList<>(results), Duration.ofHours(nearbyTtlHours));
+                    return results;
+                });
+    }
+
+    public CompletableFuture<PlaceDetails> getPlaceDetails(String placeId, Priority priority) {
+        String key = placesCache.detailsKey(placeId);
+        Optional<PlaceDetails> cached = placesCache.get(key);
+        if (cached.isPresent()) {
+            return CompletableFuture.completedFuture(cached.get());
+        }
+
+        return placesRequestQueue.submit(key, priority,
+                        withRequestContext(() -> placesService.getPlaceDetails(placeId)))
+                .thenApply(details -> {
+                    if (details != null) {
+                        placesCache.put(key, details, Duration.ofHours(detailsTtlHours));
+                    }
+                    return details;
+                });
+    }
+
+    // Calls start on the queue's dispatcher thread; keep them attributed to the caller's endpoint
+    private static <T> Supplier<T> withRequestContext(Supplier<T> call) {
+        return ContextPropagator.decorateSupplier(new RequestContextPropagator(), call);
+    }
+}
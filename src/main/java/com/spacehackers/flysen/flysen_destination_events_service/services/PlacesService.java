@@ -5,15 +5,26 @@ import com.google.maps.PlacesApi;
 import com.google.maps.model.PlaceDetails;
 import com.google.maps.model.PlacesSearchResponse;
 import com.google.maps.model.PlacesSearchResult;
+import com.spacehackers.flysen.flysen_destination_events_service.diagnostics.ExternalApiCallEvent;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * Google Places calls run on the {@code places-api} bulkhead pool and are bounded
+ * by its time limiter, so a slow Places API cannot hold request threads. Errors,
+ * including an open circuit, reach the caller as failed futures: ingestion must
+ * not mistake an outage for a place with nothing around it, and interactive
+ * callers decide for themselves how to degrade.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -21,40 +32,50 @@ public class PlacesService {
 
     private final GeoApiContext geoApiContext;
 
-    @CircuitBreaker(name = "places-api", fallbackMethod = "searchNearbyPlacesFallback")
-    public List<PlacesSearchResult> searchNearbyPlaces(Double latitude, Double longitude, int radius, String type) {
+    @CircuitBreaker(name = "places-api")
+    @TimeLimiter(name = "places-api")
+    @Bulkhead(name = "places-api", type = Bulkhead.Type.THREADPOOL)
+    public CompletableFuture<List<PlacesSearchResult>> searchNearbyPlaces(Double latitude, Double longitude, int radius, String type) {
+        ExternalApiCallEvent event = ExternalApiCallEvent.start("places", "nearby-search");
+        boolean success = false;
         try {
             com.google.maps.model.LatLng location = new com.google.maps.model.LatLng(latitude, longitude);
             PlacesSearchResponse response = PlacesApi.nearbySearchQuery(geoApiContext, location)
                     .radius(radius)
-                    .type(com.google.maps.model.PlaceType.valueOf(type.toUpperCase()))
+                    .type(com.google.maps.model.PlaceType.valueOf(type.toUpperCase(Locale.ROOT)))
                     .await();
 
-            return Arrays.asList(response.results);
+            success = true;
+            return CompletableFuture.completedFuture(Arrays.asList(response.results));
         } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
             log.error("Error searching nearby places: {}", e.getMessage());
-            return List.of();
+            throw new RuntimeException("Failed to search nearby places", e);
+        } finally {
+            event.finish(success);
         }
     }
 
-    @CircuitBreaker(name = "places-api", fallbackMethod = "getPlaceDetailsFallback")
-    public PlaceDetails getPlaceDetails(String placeId) {
+    @CircuitBreaker(name = "places-api")
+    @TimeLimiter(name = "places-api")
+    @Bulkhead(name = "places-api", type = Bulkhead.Type.THREADPOOL)
+    public CompletableFuture<PlaceDetails> getPlaceDetails(String placeId) {
+        ExternalApiCallEvent event = ExternalApiCallEvent.start("places", "place-details");
+        boolean success = false;
         try {
-            return PlacesApi.placeDetails(geoApiContext, placeId).await();
+            PlaceDetails details = PlacesApi.placeDetails(geoApiContext, placeId).await();
+            success = true;
+            return CompletableFuture.completedFuture(details);
         } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
             log.error("Error fetching place details: {}", e.getMessage());
-            return null;
+            throw new RuntimeException("Failed to fetch place details", e);
+        } finally {
+            event.finish(success);
         }
     }
-
-    private List<PlacesSearchResult> searchNearbyPlacesFallback(
-            Double latitude, Double longitude, int radius, String type, Exception e) {
-        log.warn("Places API fallback triggered for nearby search: {}", e.getMessage());
-        return List.of();
-    }
-
-    private PlaceDetails getPlaceDetailsFallback(String placeId, Exception e) {
-        log.warn("Places API fallback triggered for place details: {}", e.getMessage());
-        return null;
-    }
-}
\ No newline at end of file
+}
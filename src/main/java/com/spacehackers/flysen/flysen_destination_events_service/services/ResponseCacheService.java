@@ -0,0 +1,114 @@
+package com.spacehackers.flysen.flysen_destination_events_service.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Holds fully serialized, gzip-compressed response bodies for hot list endpoints.
+ * Entries expire after a short TTL and are dropped as soon as the collection they
+ * were built from is written on this instance.
+ * <p>
+ * Each invalidation also bumps the collection's version. A miss reads the version
+ * before building its response and stores it only if the version is unchanged
+ * afterwards, so a response built from data read before a write is never cached
+ * after that write's invalidation.
+ */
+@Slf4j
+@Service
+public class ResponseCacheService {
+
+    @Value("${app.response-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Value("${app.response-cache.max-entries:256}")
+    private int maxEntries;
+
+    private final Map<String, CachedResponse> entries = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    public record CachedResponse(String collection, byte[] gzippedBody, int length,
+                                 String contentType, String etag, long expiresAtNanos) {
+
+        public boolean isExpired() {
+            return System.nanoTime() - expiresAtNanos > 0;
+        }
+    }
+
+    public Optional<CachedResponse> get(String key) {
+        CachedResponse cached = entries.get(key);
+        if (cached == null) {
+            return Optional.empty();
+        }
+        if (cached.isExpired()) {
+            entries.remove(key, cached);
+            return Optional.empty();
+        }
+        return Optional.of(cached);
+    }
+
+    /**
+     * The collection's invalidation count, to be read before building a response
+     * that is passed to {@link #put}.
+     */
+    public long version(String collection) {
+        return versionOf(collection).get();
+    }
+
+    /**
+     * Caches the response unless the collection was invalidated since {@code version}
+     * was read. The returned entry is for writing this response either way.
+     */
+    public CachedResponse put(String key, String collection, long version, byte[] body,
+                              String contentType, String etag) {
+        CachedResponse cached = new CachedResponse(collection, gzip(body), body.length, contentType, etag,
+                System.nanoTime() + ttlSeconds * 1_000_000_000L);
+        AtomicLong current = versionOf(collection);
+        if (current.get() != version) {
+            return cached;
+        }
+
+        if (entries.size() >= maxEntries) {
+            entries.values().removeIf(CachedResponse::isExpired);
+        }
+        if (entries.size() < maxEntries || entries.containsKey(key)) {
+            entries.put(key, cached);
+            // An invalidation between the check and the put may have missed the entry
+            if (current.get() != version) {
+                entries.remove(key, cached);
+            }
+        }
+        return cached;
+    }
+
+    public void invalidate(String collection) {
+        // Bumped first, so a concurrent put either sees it or is removed below
+        versionOf(collection).incrementAndGet();
+        if (entries.values().removeIf(cached -> cached.collection().equals(collection))) {
+            log.debug("Invalidated cached responses for collection: {}", collection);
+        }
+    }
+
+    private AtomicLong versionOf(String collection) {
+        return versions.computeIfAbsent(collection, name -> new AtomicLong());
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+}
@@ -0,0 +1,99 @@
+package com.spacehackers.flysen.flysen_destination_events_service.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the last successful result of each read so circuit-breaker fallbacks can
+ * serve it instead of an empty response while Firestore is unavailable.
+ * <p>
+ * Serving a snapshot marks the current request as stale; the response then
+ * carries {@code stale: true} and the snapshot's age, and is not cached.
+ * <p>
+ * Resilience4j invokes fallback methods on the Spring proxy, where injected
+ * fields such as this store are unset in private methods, so fallbacks that
+ * call it are package-private.
+ */
+@Slf4j
+@Service
+public class SnapshotStore {
+
+    public static final String STALE_SINCE_ATTRIBUTE = SnapshotStore.class.getName() + ".STALE_SINCE";
+
+    @Value("${app.snapshots.max-entries:5000}")
+    private int maxEntries;
+
+    @Value("${app.snapshots.max-age-hours:24}")
+    private long maxAgeHours;
+
+    private record Snapshot(Object value, Instant capturedAt) {
+    }
+
+    // Least recently written entries are evicted first
+    private final Map<String, Snapshot> snapshots = new LinkedHashMap<>(256, 0.75f, false) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Snapshot> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    public static String key(String operation, Object... params) {
+        return operation + Arrays.stream(params)
+                .map(String::valueOf)
+                .collect(Collectors.joining("|", "(", ")"));
+    }
+
+    /**
+     * Records a successful result and returns it unchanged.
+     */
+    public <T> T save(String key, T value) {
+        synchronized (snapshots) {
+            // Re-insert so the entry moves to the end of the eviction order
+            snapshots.remove(key);
+            snapshots.put(key, new Snapshot(value, Instant.now()));
+        }
+        return value;
+    }
+
+    /**
+     * Returns the last known good result for the key, marking the current request
+     * as stale, or empty if there is none younger than the maximum age.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Optional<T> serveStale(String key) {
+        Snapshot snapshot;
+        synchronized (snapshots) {
+            snapshot = snapshots.get(key);
+        }
+        Instant oldest = Instant.now().minus(Duration.ofHours(maxAgeHours));
+        if (snapshot == null || snapshot.capturedAt().isBefore(oldest)) {
+            return Optional.empty();
+        }
+
+        log.warn("Serving stale snapshot for {} captured at {}", key, snapshot.capturedAt());
+        markStale(snapshot.capturedAt());
+        return Optional.of((T) snapshot.value());
+    }
+
+    /**
+     * Marks the current request as served from data captured at the given time,
+     * for fallbacks that keep their own last known good state.
+     */
+    public void markStale(Instant capturedAt) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(STALE_SINCE_ATTRIBUTE, capturedAt, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.spacehackers.flysen.flysen_destination_events_service.services;
+
+import com.spacehackers.flysen.flysen_destination_events_service.models.TouristAttraction;
+import com.spacehackers.flysen.flysen_destination_events_service.repositories.TouristAttractionRepository;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TouristAttractionService {
+
+    private final TouristAttractionRepository touristAttractionRepository;
+    private final SnapshotStore snapshotStore;
+
+    @CircuitBreaker(name = "firestore", fallbackMethod = "getAttractionFallback")
+    public Optional<TouristAttraction> getAttractionById(String id) {
+        try {
+            return snapshotStore.save(SnapshotStore.key("getAttractionById", id),
+                    touristAttractionRepository.findById(id));
+        } catch (ExecutionException | InterruptedException e) {
+            log.error("Error fetching tourist attraction: {}", e.getMessage());
+            throw new RuntimeException("Failed to fetch tourist attraction", e);
+        }
+    }
+
+    @CircuitBreaker(name = "firestore", fallbackMethod = "getAttractionsByDestinationFallback")
+    public List<TouristAttraction> getAttractionsByDestination(String destinationId) {
+        try {
+            return snapshotStore.save(SnapshotStore.key("getAttractionsByDestination", destinationId),
+                    touristAttractionRepository.findByDestination(destinationId));
+        } catch (ExecutionException | InterruptedException e) {
+            log.error("Error fetching tourist attractions by destination: {}", e.getMessage());
+            throw new RuntimeException("Failed to fetch tourist attractions by destination", e);
+        }
+    }
+
+    // Fallback methods
+    Optional<TouristAttraction> getAttractionFallback(String id, Exception e) {
+        log.error("Circuit breaker fallback: Failed to get tourist attraction", e);
+        return snapshotStore.<Optional<TouristAttraction>>serveStale(SnapshotStore.key("getAttractionById", id))
+                .orElse(Optional.empty());
+    }
+
+    List<TouristAttraction> getAttractionsByDestinationFallback(String destinationId, Exception e) {
+        log.error("Circuit breaker fallback: Failed to get tourist attractions by destination", e);
+        return snapshotStore.<List<TouristAttraction>>serveStale(
+                        SnapshotStore.key("getAttractionsByDestination", destinationId))
+                .orElse(List.of());
+    }
+}
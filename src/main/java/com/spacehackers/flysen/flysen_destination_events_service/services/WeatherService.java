@@ -2,20 +2,29 @@ package com.spacehackers.flysen.flysen_destination_events_service.services;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.google.cloud.Timestamp;
+import com.spacehackers.flysen.flysen_destination_events_service.config.RequestContextPropagator;
+import com.spacehackers.flysen.flysen_destination_events_service.diagnostics.ExternalApiCallEvent;
+import com.spacehackers.flysen.flysen_destination_events_service.limits.RequestHedger;
 import com.spacehackers.flysen.flysen_destination_events_service.models.Destination;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.github.resilience4j.core.ContextPropagator;
+import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.concurrent.CompletableFuture;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class WeatherService {
 
     private final RestTemplate restTemplate;
+    private final RequestHedger weatherRequestHedger;
 
     @Value("${weather.api.url}")
     private String weatherApiUrl;
@@ -23,15 +32,31 @@ public class WeatherService {
     @Value("${weather.api.key}")
     private String weatherApiKey;
 
+    /**
+     * Fetches current weather on the {@code weather-api} bulkhead pool. Callers wait
+     * at most the time limiter's timeout; after that, or when the pool and its queue
+     * are full, the fallback's "Unavailable" weather is returned instead. Slow calls
+     * are hedged with a second request, within the hedging budget.
+     */
     @CircuitBreaker(name = "weather-api", fallbackMethod = "getWeatherInfoFallback")
-    public Destination.WeatherInfo getWeatherInfo(Double latitude, Double longitude) {
-        try {
-            String url = String.format("%s/weather?lat=%f&lon=%f&appid=%s&units=metric",
-                    weatherApiUrl, latitude, longitude, weatherApiKey);
+    @TimeLimiter(name = "weather-api")
+    @Bulkhead(name = "weather-api", type = Bulkhead.Type.THREADPOOL)
+    public CompletableFuture<Destination.WeatherInfo> getWeatherInfo(Double latitude, Double longitude) {
+        return CompletableFuture.completedFuture(weatherRequestHedger.execute(ContextPropagator.decorateSupplier(
+                new RequestContextPropagator(), () -> fetchWeatherInfo(latitude, longitude))));
+    }
 
-            JsonNode response = restTemplate.getForObject(url, JsonNode.class);
+    private Destination.WeatherInfo fetchWeatherInfo(Double latitude, Double longitude) {
+        ExternalApiCallEvent event = ExternalApiCallEvent.start("weather", "current");
+        boolean success = false;
+        try {
+            // Expanded from a template so client metrics are tagged without coordinates or the key
+            JsonNode response = restTemplate.getForObject(
+                    weatherApiUrl + "/weather?lat={lat}&lon={lon}&appid={key}&units=metric",
+                    JsonNode.class, latitude, longitude, weatherApiKey);
 
             if (response != null) {
+                success = true;
                 return Destination.WeatherInfo.builder()
                         .temperature(response.path("main").path("temp").asDouble())
                         .humidity(response.path("main").path("humidity").asInt())
@@ -41,20 +66,25 @@ public class WeatherService {
                         .build();
             }
         } catch (Exception e) {
+            // Rethrown so the circuit breaker counts it; the fallback supplies the weather
             log.error("Error fetching weather data: {}", e.getMessage());
+            throw e;
+        } finally {
+            event.finish(success);
         }
 
         return null;
     }
 
-    private Destination.WeatherInfo getWeatherInfoFallback(Double latitude, Double longitude, Exception e) {
-        log.warn("Weather API fallback triggered: {}", e.getMessage());
-        return Destination.WeatherInfo.builder()
+    private CompletableFuture<Destination.WeatherInfo> getWeatherInfoFallback(Double latitude, Double longitude,
+                                                                              Exception e) {
+        log.warn("Weather API fallback triggered: {}", e.toString());
+        return CompletableFuture.completedFuture(Destination.WeatherInfo.builder()
                 .temperature(null)
                 .humidity(null)
                 .condition("Unavailable")
                 .description("Weather information temporarily unavailable")
                 .lastUpdated(Timestamp.now())  // Changed from LocalDateTime
-                .build();
+                .build());
     }
 }
\ No newline at end of file
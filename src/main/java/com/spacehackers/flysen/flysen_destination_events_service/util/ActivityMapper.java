@@ -0,0 +1,81 @@
+package com.spacehackers.flysen.flysen_destination_events_service.util;
+
+import com.spacehackers.flysen.flysen_destination_events_service.dtos.ActivityAvailabilityDTO;
+import com.spacehackers.flysen.flysen_destination_events_service.dtos.ActivityDTO;
+import com.spacehackers.flysen.flysen_destination_events_service.index.ActivityAvailabilityIndex;
+import com.spacehackers.flysen.flysen_destination_events_service.models.Activity;
+
+public class ActivityMapper {
+
+    public static ActivityDTO toDTO(Activity activity) {
+        if (activity == null) return null;
+
+        return ActivityDTO.builder()
+                .id(activity.getId())
+                .name(activity.getName())
+                .destinationId(activity.getDestinationId())
+                .type(activity.getType() != null ? activity.getType().name() : null)
+                .description(activity.getDescription())
+                .duration(activity.getDuration())
+                .price(activity.getPrice())
+                .images(activity.getImages())
+                .bookingRequired(activity.isBookingRequired())
+                .latitude(activity.getLatitude())
+                .longitude(activity.getLongitude())
+                .meetingPoint(activity.getMeetingPoint())
+                .difficulty(activity.getDifficulty())
+                .minAge(activity.getMinAge())
+                .maxGroupSize(activity.getMaxGroupSize())
+                .requiredEquipment(activity.getRequiredEquipment())
+                .includedItems(activity.getIncludedItems())
+                .availableDays(activity.getAvailableDays())
+                .startTime(activity.getStartTime())
+                .endTime(activity.getEndTime())
+                .rating(activity.getRating())
+                .reviewsCount(activity.getReviewsCount())
+                .createdAt(ModelMapper.timestampToString(activity.getCreatedAt()))
+                .updatedAt(ModelMapper.timestampToString(activity.getUpdatedAt()))
+                .active(activity.isActive())
+                .build();
+    }
+
+    public static Activity toModel(ActivityDTO dto) {
+        if (dto == null) return null;
+
+        return Activity.builder()
+                .id(dto.getId())
+                .name(dto.getName())
+                .destinationId(dto.getDestinationId())
+                .type(dto.getType() != null ? Activity.ActivityType.valueOf(dto.getType()) : null)
+                .description(dto.getDescription())
+                .duration(dto.getDuration())
+                .price(dto.getPrice())
+                .images(dto.getImages())
+                .bookingRequired(dto.isBookingRequired())
+                .latitude(dto.getLatitude())
+                .longitude(dto.getLongitude())
+                .meetingPoint(dto.getMeetingPoint())
+                .difficulty(dto.getDifficulty())
+                .minAge(dto.getMinAge())
+                .maxGroupSize(dto.getMaxGroupSize())
+                .requiredEquipment(dto.getRequiredEquipment())
+                .includedItems(dto.getIncludedItems())
+                .availableDays(dto.getAvailableDays())
+                .startTime(dto.getStartTime())
+                .endTime(dto.getEndTime())
+                .rating(dto.getRating())
+                .reviewsCount(dto.getReviewsCount())
+                .createdAt(ModelMapper.stringToTimestamp(dto.getCreatedAt()))
+                .updatedAt(ModelMapper.stringToTimestamp(dto.getUpdatedAt()))
+                .active(dto.isActive())
+                .build();
+    }
+
+    public static ActivityAvailabilityDTO.AvailableActivityDTO toAvailableDTO(ActivityAvailabilityIndex.Match match) {
+        return ActivityAvailabilityDTO.AvailableActivityDTO.builder()
+                .activity(toDTO(match.activity()))
+                .earliestStart(match.earliestStart().toString())
+                .latestStart(match.latestStart().toString())
+                .build();
+    }
+}
@@ -2,7 +2,13 @@ package com.spacehackers.flysen.flysen_destination_events_service.util;
 
 import com.google.cloud.Timestamp;
 import com.spacehackers.flysen.flysen_destination_events_service.dtos.AirportServiceDTO;
+import com.spacehackers.flysen.flysen_destination_events_service.dtos.NearbyAirportServiceDTO;
+import com.spacehackers.flysen.flysen_destination_events_service.dtos.ProductSearchDTO;
+import com.spacehackers.flysen.flysen_destination_events_service.dtos.TerminalGraphDTO;
+import com.spacehackers.flysen.flysen_destination_events_service.index.ProductIndex;
+import com.spacehackers.flysen.flysen_destination_events_service.index.WalkingDistances;
 import com.spacehackers.flysen.flysen_destination_events_service.models.AirportService;
+import com.spacehackers.flysen.flysen_destination_events_service.models.TerminalGraph;
 
 import java.time.Instant;
 import java.util.HashMap;
@@ -42,6 +48,7 @@ public class AirportServiceMapper {
                 .description(service.getDescription())
                 .locationMap(service.getLocationMap())
                 .openingHours(toOpeningHoursDTO(service.getOpeningHours()))
+                .timeZone(service.getTimeZone())
                 .contactInfo(toContactInfoDTO(service.getContactInfo()))
                 .images(service.getImages())
                 .logo(service.getLogo())
@@ -78,6 +85,7 @@ public class AirportServiceMapper {
                 .description(dto.getDescription())
                 .locationMap(dto.getLocationMap())
                 .openingHours(toOpeningHoursModel(dto.getOpeningHours()))
+                .timeZone(dto.getTimeZone())
                 .contactInfo(toContactInfoModel(dto.getContactInfo()))
                 .images(dto.getImages())
                 .logo(dto.getLogo())
@@ -138,6 +146,59 @@ public class AirportServiceMapper {
                 .build();
     }
 
+    public static NearbyAirportServiceDTO toNearbyDTO(WalkingDistances.Nearby nearby) {
+        return NearbyAirportServiceDTO.builder()
+                .service(toDTO(nearby.service()))
+                .walkingSeconds(nearby.walkingSeconds())
+                .build();
+    }
+
+    public static ProductSearchDTO.ProductHitDTO toProductHitDTO(ProductIndex.Hit hit, CurrencyRates rates,
+                                                                 String currency) {
+        return ProductSearchDTO.ProductHitDTO.builder()
+                .serviceId(hit.service().getId())
+                .serviceName(hit.service().getName())
+                .terminal(hit.service().getTerminal())
+                .gate(hit.service().getGate())
+                .product(toProductDTO(hit.product()))
+                .convertedPrice(hit.basePrice() != null ? rates.fromBase(hit.basePrice(), currency) : null)
+                .build();
+    }
+
+    // Terminal graph conversions
+    public static TerminalGraphDTO toTerminalGraphDTO(TerminalGraph graph) {
+        if (graph == null) return null;
+
+        return TerminalGraphDTO.builder()
+                .airportId(graph.getAirportId())
+                .walkways(graph.getWalkways() == null ? null : graph.getWalkways().stream()
+                        .map(walkway -> TerminalGraphDTO.WalkwayDTO.builder()
+                                .from(walkway.getFrom())
+                                .to(walkway.getTo())
+                                .seconds(walkway.getSeconds())
+                                .oneWay(walkway.isOneWay())
+                                .build())
+                        .collect(Collectors.toList()))
+                .updatedAt(timestampToString(graph.getUpdatedAt()))
+                .build();
+    }
+
+    public static TerminalGraph toTerminalGraphModel(TerminalGraphDTO dto) {
+        if (dto == null) return null;
+
+        return TerminalGraph.builder()
+                .airportId(dto.getAirportId())
+                .walkways(dto.getWalkways() == null ? null : dto.getWalkways().stream()
+                        .map(walkway -> TerminalGraph.Walkway.builder()
+                                .from(walkway.getFrom())
+                                .to(walkway.getTo())
+                                .seconds(walkway.getSeconds())
+                                .oneWay(walkway.isOneWay())
+                                .build())
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
     private static List<AirportServiceDTO.AirportServiceProductDTO> toProductDTOList(
             List<AirportService.AirportServiceProduct> products) {
         if (products == null) return null;
@@ -0,0 +1,62 @@
+package com.spacehackers.flysen.flysen_destination_events_service.util;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.OptionalDouble;
+
+/**
+ * Fixed exchange rates into one base currency, used to compare prices set in
+ * different currencies. Rates come from configuration as {@code CODE:rate}
+ * entries, where the rate is the base-currency value of one unit of CODE.
+ */
+public class CurrencyRates {
+
+    private final String baseCurrency;
+    private final Map<String, Double> rates = new HashMap<>();
+
+    public CurrencyRates(String baseCurrency, List<String> rates) {
+        this.baseCurrency = normalize(baseCurrency);
+        this.rates.put(this.baseCurrency, 1.0);
+        for (String entry : rates) {
+            String[] parts = entry.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Exchange rates must be CODE:rate, got " + entry);
+            }
+            double rate = Double.parseDouble(parts[1].trim());
+            if (!(rate > 0)) {
+                throw new IllegalArgumentException("Exchange rate of " + parts[0] + " must be positive");
+            }
+            this.rates.put(normalize(parts[0]), rate);
+        }
+    }
+
+    public String getBaseCurrency() {
+        return baseCurrency;
+    }
+
+    public boolean supports(String currency) {
+        return rates.containsKey(normalize(currency));
+    }
+
+    /**
+     * The amount in the base currency; empty for unknown currencies. A missing
+     * currency is taken as the base currency.
+     */
+    public OptionalDouble toBase(double amount, String currency) {
+        Double rate = currency == null || currency.isBlank() ? Double.valueOf(1.0) : rates.get(normalize(currency));
+        return rate != null ? OptionalDouble.of(amount * rate) : OptionalDouble.empty();
+    }
+
+    /**
+     * Converts a base-currency amount into a supported currency.
+     */
+    public double fromBase(double amount, String currency) {
+        return amount / rates.get(normalize(currency));
+    }
+
+    private static String normalize(String currency) {
+        return currency == null ? null : currency.trim().toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,100 @@
+package com.spacehackers.flysen.flysen_destination_events_service.util;
+
+import com.google.cloud.Timestamp;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+public class ETags {
+
+    // Formats the API serializes to, in the order the converters are tried
+    private static final List<MediaType> FORMATS = List.of(
+            MediaType.APPLICATION_JSON,
+            MediaType.APPLICATION_CBOR,
+            MediaType.parseMediaType("application/x-jackson-smile"));
+
+    // Strong ETag for a single document, derived from its ID and last update time
+    public static String forDocument(String id, Timestamp updatedAt, Object... extra) {
+        StringBuilder key = new StringBuilder("doc:").append(id);
+        if (updatedAt != null) {
+            key.append(':').append(updatedAt.getSeconds()).append('.').append(updatedAt.getNanos());
+        }
+        for (Object part : extra) {
+            key.append(':').append(part);
+        }
+        return quote(key.toString());
+    }
+
+    // Strong ETag for a list endpoint, derived from the collection version, the representation
+    // and request parameters
+    public static String forCollection(String collection, long version, String representation, Object... params) {
+        StringBuilder key = new StringBuilder("col:").append(collection).append(':').append(version)
+                .append(':').append(representation);
+        for (Object param : params) {
+            key.append(':').append(param);
+        }
+        return quote(key.toString());
+    }
+
+    /**
+     * The format the request negotiates, to be folded into its ETag so a JSON body
+     * never confirms a CBOR or Smile one. Marks the response as varying by Accept.
+     */
+    public static String representation(WebRequest request) {
+        if (request instanceof ServletWebRequest servletRequest && servletRequest.getResponse() != null
+                && !servletRequest.getResponse().containsHeader(HttpHeaders.VARY)) {
+            servletRequest.getResponse().addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+        return negotiatedFormat(request.getHeader(HttpHeaders.ACCEPT)).map(MediaType::toString).orElse("none");
+    }
+
+    /**
+     * The format an Accept header selects: the first supported format included by
+     * the most specific, highest-quality accepted type; JSON without a header, and
+     * empty if no format is acceptable or the header cannot be parsed.
+     */
+    public static Optional<MediaType> negotiatedFormat(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return Optional.of(MediaType.APPLICATION_JSON);
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            return Optional.empty();
+        }
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType type : accepted) {
+            if (type.getQualityValue() <= 0) {
+                continue;
+            }
+            for (MediaType format : FORMATS) {
+                if (type.includes(format)) {
+                    return Optional.of(format);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static String quote(String key) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(key.getBytes(StandardCharsets.UTF_8));
+            return "\"" + HexFormat.of().formatHex(hash, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
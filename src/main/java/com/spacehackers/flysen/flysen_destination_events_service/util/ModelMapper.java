@@ -1,13 +1,20 @@
 package com.spacehackers.flysen.flysen_destination_events_service.util;
 
 import com.google.cloud.Timestamp;
+import com.spacehackers.flysen.flysen_destination_events_service.diagnostics.ModelMappingEvent;
 import com.spacehackers.flysen.flysen_destination_events_service.dtos.DestinationDTO;
 import com.spacehackers.flysen.flysen_destination_events_service.dtos.EventDTO;
+import com.spacehackers.flysen.flysen_destination_events_service.dtos.EventReservationDTO;
+import com.spacehackers.flysen.flysen_destination_events_service.metrics.Endpoints;
 import com.spacehackers.flysen.flysen_destination_events_service.models.Destination;
 import com.spacehackers.flysen.flysen_destination_events_service.models.Event;
+import com.spacehackers.flysen.flysen_destination_events_service.models.EventReservation;
 
 import java.time.Instant;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 public class ModelMapper {
     
@@ -31,6 +38,27 @@ public class ModelMapper {
         }
     }
     
+    /**
+     * Converts a list of models with the given mapper, recording the batch as a
+     * {@link ModelMappingEvent} when JFR is recording.
+     */
+    public static <S, D> List<D> toDTOs(List<S> models, Function<S, D> mapper) {
+        ModelMappingEvent event = new ModelMappingEvent();
+        event.begin();
+        List<D> dtos = models.stream()
+                .map(mapper)
+                .collect(Collectors.toList());
+        event.end();
+
+        if (event.shouldCommit()) {
+            event.sourceType = models.isEmpty() ? "" : models.get(0).getClass().getSimpleName();
+            event.count = models.size();
+            event.endpoint = Endpoints.current();
+            event.commit();
+        }
+        return dtos;
+    }
+
     // Destination conversions
     public static DestinationDTO toDTO(Destination destination) {
         if (destination == null) return null;
@@ -223,6 +251,18 @@ public class ModelMapper {
                 .build();
     }
     
+    public static EventReservationDTO toDTO(EventReservation reservation) {
+        return EventReservationDTO.builder()
+                .id(reservation.getId())
+                .eventId(reservation.getEventId())
+                .seats(reservation.getSeats())
+                .status(reservation.getStatus() != null ? reservation.getStatus().name() : null)
+                .expiresAt(timestampToString(reservation.getExpiresAt()))
+                .createdAt(timestampToString(reservation.getCreatedAt()))
+                .updatedAt(timestampToString(reservation.getUpdatedAt()))
+                .build();
+    }
+    
     private static EventDTO.EventStatsDTO toEventStatsDTO(Event.EventStats stats) {
         if (stats == null) return null;
         return EventDTO.EventStatsDTO.builder()
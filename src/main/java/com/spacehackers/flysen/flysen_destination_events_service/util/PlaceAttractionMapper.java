@@ -0,0 +1,152 @@
+package com.spacehackers.flysen.flysen_destination_events_service.util;
+
+import com.google.cloud.Timestamp;
+import com.google.maps.model.PlacesSearchResult;
+import com.spacehackers.flysen.flysen_destination_events_service.models.TouristAttraction;
+import com.spacehackers.flysen.flysen_destination_events_service.models.TouristAttraction.AttractionType;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Builds {@link TouristAttraction}s from Google Places search results.
+ */
+public class PlaceAttractionMapper {
+
+    // The first of a place's types (most specific first) found here decides the attraction type
+    private static final Map<String, AttractionType> TYPES = Map.ofEntries(
+            Map.entry("museum", AttractionType.MUSEUM),
+            Map.entry("art_gallery", AttractionType.CULTURAL_CENTER),
+            Map.entry("library", AttractionType.CULTURAL_CENTER),
+            Map.entry("park", AttractionType.PARK),
+            Map.entry("zoo", AttractionType.WILDLIFE),
+            Map.entry("aquarium", AttractionType.WILDLIFE),
+            Map.entry("natural_feature", AttractionType.NATURE),
+            Map.entry("campground", AttractionType.NATURE),
+            Map.entry("church", AttractionType.RELIGIOUS_SITE),
+            Map.entry("mosque", AttractionType.RELIGIOUS_SITE),
+            Map.entry("synagogue", AttractionType.RELIGIOUS_SITE),
+            Map.entry("hindu_temple", AttractionType.RELIGIOUS_SITE),
+            Map.entry("place_of_worship", AttractionType.RELIGIOUS_SITE),
+            Map.entry("amusement_park", AttractionType.ENTERTAINMENT),
+            Map.entry("casino", AttractionType.ENTERTAINMENT),
+            Map.entry("stadium", AttractionType.ENTERTAINMENT),
+            Map.entry("movie_theater", AttractionType.ENTERTAINMENT),
+            Map.entry("night_club", AttractionType.ENTERTAINMENT),
+            Map.entry("shopping_mall", AttractionType.SHOPPING),
+            Map.entry("city_hall", AttractionType.ARCHITECTURE));
+
+    // Present on nearly every result, so they say nothing about the place
+    private static final Set<String> GENERIC_TYPES = Set.of("point_of_interest", "establishment");
+
+    private static final double EARTH_RADIUS_METERS = 6_371_000;
+
+    /**
+     * Copies the Places-derived fields onto the attraction, leaving curated fields
+     * (description, images, fees, opening hours...) untouched.
+     */
+    public static TouristAttraction applyPlace(TouristAttraction attraction, PlacesSearchResult place) {
+        attraction.setPlaceId(place.placeId);
+        attraction.setName(place.name);
+        attraction.setType(toType(place));
+        attraction.setAddress(place.vicinity != null ? place.vicinity : place.formattedAddress);
+        if (place.geometry != null && place.geometry.location != null) {
+            attraction.setLatitude(place.geometry.location.lat);
+            attraction.setLongitude(place.geometry.location.lng);
+        }
+        attraction.setRating(place.rating > 0 ? (double) place.rating : null);
+        attraction.setReviewsCount(place.userRatingsTotal);
+        attraction.setTags(toTags(place));
+        attraction.setActive(!place.permanentlyClosed && !"CLOSED_PERMANENTLY".equals(place.businessStatus));
+        attraction.setSourceFingerprint(fingerprint(place));
+        attraction.setLastSyncedAt(Timestamp.now());
+        attraction.setUpdatedAt(Timestamp.now());
+        return attraction;
+    }
+
+    /**
+     * Hash of every field {@link #applyPlace} reads, so an unchanged place can be
+     * recognised without comparing documents field by field.
+     */
+    public static String fingerprint(PlacesSearchResult place) {
+        String source = String.join("|",
+                place.placeId,
+                String.valueOf(place.name),
+                String.valueOf(place.vicinity),
+                String.valueOf(place.formattedAddress),
+                place.geometry != null ? String.valueOf(place.geometry.location) : "",
+                String.valueOf(place.rating),
+                String.valueOf(place.userRatingsTotal),
+                place.types != null ? String.join(",", place.types) : "",
+                String.valueOf(place.permanentlyClosed),
+                String.valueOf(place.businessStatus));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(source.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * True if both results most likely describe the same attraction under two place
+     * IDs: they are within {@code maxDistanceMeters} and one name contains the other.
+     */
+    public static boolean isSamePlace(PlacesSearchResult a, PlacesSearchResult b, double maxDistanceMeters) {
+        if (a.geometry == null || b.geometry == null || a.name == null || b.name == null) {
+            return false;
+        }
+        double distance = distanceMeters(a.geometry.location.lat, a.geometry.location.lng,
+                b.geometry.location.lat, b.geometry.location.lng);
+        if (distance > maxDistanceMeters) {
+            return false;
+        }
+        String nameA = normalize(a.name);
+        String nameB = normalize(b.name);
+        return !nameA.isEmpty() && !nameB.isEmpty() && (nameA.contains(nameB) || nameB.contains(nameA));
+    }
+
+    public static double distanceMeters(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double h = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.sqrt(h));
+    }
+
+    private static AttractionType toType(PlacesSearchResult place) {
+        if (place.types != null) {
+            for (String type : place.types) {
+                AttractionType mapped = TYPES.get(type);
+                if (mapped != null) {
+                    return mapped;
+                }
+            }
+        }
+        if (place.name != null && normalize(place.name).contains("beach")) {
+            return AttractionType.BEACH;
+        }
+        return AttractionType.OTHER;
+    }
+
+    private static List<String> toTags(PlacesSearchResult place) {
+        if (place.types == null) {
+            return List.of();
+        }
+        return new ArrayList<>(Arrays.stream(place.types)
+                .filter(type -> !GENERIC_TYPES.contains(type))
+                .toList());
+    }
+
+    private static String normalize(String name) {
+        return name.toLowerCase().replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+    }
+}
@@ -0,0 +1,55 @@
+package com.spacehackers.flysen.flysen_destination_events_service.util;
+
+import com.spacehackers.flysen.flysen_destination_events_service.dtos.TouristAttractionDTO;
+import com.spacehackers.flysen.flysen_destination_events_service.models.TouristAttraction;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class TouristAttractionMapper {
+
+    public static TouristAttractionDTO toDTO(TouristAttraction attraction) {
+        if (attraction == null) return null;
+
+        return TouristAttractionDTO.builder()
+                .id(attraction.getId())
+                .destinationId(attraction.getDestinationId())
+                .name(attraction.getName())
+                .type(attraction.getType() != null ? attraction.getType().name() : null)
+                .description(attraction.getDescription())
+                .images(attraction.getImages())
+                .entranceFee(attraction.getEntranceFee())
+                .openingHours(toOpeningHoursDTO(attraction.getOpeningHours()))
+                .latitude(attraction.getLatitude())
+                .longitude(attraction.getLongitude())
+                .address(attraction.getAddress())
+                .rating(attraction.getRating())
+                .reviewsCount(attraction.getReviewsCount())
+                .amenities(attraction.getAmenities())
+                .website(attraction.getWebsite())
+                .phoneNumber(attraction.getPhoneNumber())
+                .estimatedDuration(attraction.getEstimatedDuration())
+                .accessibilityInfo(attraction.getAccessibilityInfo())
+                .tags(attraction.getTags())
+                .wheelchairAccessible(attraction.isWheelchairAccessible())
+                .childFriendly(attraction.isChildFriendly())
+                .placeId(attraction.getPlaceId())
+                .lastSyncedAt(ModelMapper.timestampToString(attraction.getLastSyncedAt()))
+                .createdAt(ModelMapper.timestampToString(attraction.getCreatedAt()))
+                .updatedAt(ModelMapper.timestampToString(attraction.getUpdatedAt()))
+                .active(attraction.isActive())
+                .build();
+    }
+
+    private static Map<String, TouristAttractionDTO.OpeningHoursDTO> toOpeningHoursDTO(
+            Map<String, TouristAttraction.OpeningHours> openingHours) {
+        if (openingHours == null) return null;
+
+        return openingHours.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> TouristAttractionDTO.OpeningHoursDTO.builder()
+                        .openTime(entry.getValue().getOpenTime())
+                        .closeTime(entry.getValue().getCloseTime())
+                        .closed(entry.getValue().isClosed())
+                        .build()));
+    }
+}
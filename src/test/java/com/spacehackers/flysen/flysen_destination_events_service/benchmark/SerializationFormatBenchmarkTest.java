@@ -0,0 +1,107 @@
+package com.spacehackers.flysen.flysen_destination_events_service.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.spacehackers.flysen.flysen_destination_events_service.dtos.ApiResponse;
+import com.spacehackers.flysen.flysen_destination_events_service.dtos.EventDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares payload size and encode time of JSON against the negotiated binary
+ * formats for a typical ApiResponse<List<EventDTO>> page. Timing-dependent, so it
+ * runs only with {@code mvn test -Pbenchmark}; the results are logged.
+ */
+@Slf4j
+@Tag("benchmark")
+class SerializationFormatBenchmarkTest {
+
+    private static final int EVENTS_PER_PAGE = 50;
+    private static final int WARMUP_ITERATIONS = 2_000;
+    private static final int MEASURED_ITERATIONS = 2_000;
+
+    @Test
+    void compareEncodedSizeAndTime() throws Exception {
+        ApiResponse<List<EventDTO>> page = ApiResponse.success(sampleEvents(), "Events retrieved successfully");
+
+        Map<String, ObjectMapper> mappers = new LinkedHashMap<>();
+        mappers.put("json", Jackson2ObjectMapperBuilder.json().build());
+        mappers.put("cbor", Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build());
+        mappers.put("smile", Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build());
+
+        Map<String, Integer> sizes = new LinkedHashMap<>();
+        for (Map.Entry<String, ObjectMapper> entry : mappers.entrySet()) {
+            ObjectMapper mapper = entry.getValue();
+            for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+                mapper.writeValueAsBytes(page);
+            }
+
+            int size = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+                size = mapper.writeValueAsBytes(page).length;
+            }
+            long averageMicros = (System.nanoTime() - start) / MEASURED_ITERATIONS / 1_000;
+
+            sizes.put(entry.getKey(), size);
+            log.info("{}: {} bytes, {} us/encode", entry.getKey(), size, averageMicros);
+        }
+
+        assertTrue(sizes.get("cbor") < sizes.get("json"));
+        assertTrue(sizes.get("smile") < sizes.get("json"));
+    }
+
+    private static List<EventDTO> sampleEvents() {
+        List<EventDTO> events = new ArrayList<>();
+        for (int i = 0; i < EVENTS_PER_PAGE; i++) {
+            events.add(EventDTO.builder()
+                    .id("b7d3c1f2-5e4a-4c1d-9a8e-" + String.format("%012d", i))
+                    .name("Dakar Jazz Festival " + i)
+                    .type("FESTIVAL")
+                    .destinationId("c0a8012e-7d4f-4b6a-8e2d-0000000000" + (i % 10))
+                    .destinationName("Dakar")
+                    .date("2026-12-0" + (i % 9 + 1) + "T19:00:00Z")
+                    .endDate("2026-12-0" + (i % 9 + 1) + "T23:30:00Z")
+                    .venue("Place du Souvenir Africain")
+                    .description("Three nights of live jazz on the corniche with local and international artists.")
+                    .images(List.of(
+                            "https://firebasestorage.googleapis.com/v0/b/bucket/o/events%2F" + i + "%2Fcover.jpg?alt=media"))
+                    .ticketPrice(15000.0 + i)
+                    .capacity(2000)
+                    .remainingCapacity(2000 - i * 7)
+                    .featured(i % 5 == 0)
+                    .latitude(14.7167)
+                    .longitude(-17.4677)
+                    .address("Corniche Ouest, Dakar")
+                    .organizer(EventDTO.OrganizerInfoDTO.builder()
+                            .name("Dakar Events")
+                            .email("contact@dakarevents.sn")
+                            .phone("+221 33 000 00 00")
+                            .website("https://dakarevents.sn")
+                            .build())
+                    .stats(EventDTO.EventStatsDTO.builder()
+                            .totalBookings(120 + i)
+                            .totalViews(5400 + i)
+                            .averageRating(4.6)
+                            .totalReviews(87)
+                            .expressOffersCount(3)
+                            .build())
+                    .createdAt("2026-01-15T10:30:00Z")
+                    .updatedAt("2026-02-01T08:00:00Z")
+                    .active(true)
+                    .status("SCHEDULED")
+                    .build());
+        }
+        return events;
+    }
+}
@@ -0,0 +1,99 @@
+package com.spacehackers.flysen.flysen_destination_events_service.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spacehackers.flysen.flysen_destination_events_service.dtos.DestinationDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Request and response bodies in the binary formats go through the converters
+ * registered by {@link ContentNegotiationConfig} and decode to what was sent.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ContentNegotiationConfigTest {
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MappingJackson2CborHttpMessageConverter cborConverter;
+
+    @Autowired
+    private MappingJackson2SmileHttpMessageConverter smileConverter;
+
+    @Test
+    void cborRoundTrips() throws Exception {
+        assertRoundTrips(MediaType.APPLICATION_CBOR, cborConverter.getObjectMapper());
+    }
+
+    @Test
+    void smileRoundTrips() throws Exception {
+        assertRoundTrips(SMILE, smileConverter.getObjectMapper());
+    }
+
+    @Test
+    void jsonStaysTheDefault() throws Exception {
+        mockMvc.perform(get("/destinations"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    private void assertRoundTrips(MediaType format, ObjectMapper mapper) throws Exception {
+        DestinationDTO sent = DestinationDTO.builder()
+                .name("Saly " + format.getSubtype())
+                .region("Petite Côte")
+                .description("Beaches and golf south of Dakar")
+                .highlights(List.of("Beach", "Golf", "Fishing village"))
+                .averageStayDuration(4)
+                .popularityScore(8.5)
+                .active(true)
+                .build();
+
+        MvcResult created = mockMvc.perform(post("/destinations")
+                        .contentType(format)
+                        .accept(format)
+                        .content(mapper.writeValueAsBytes(sent)))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentTypeCompatibleWith(format))
+                .andReturn();
+        JsonNode createdBody = mapper.readTree(created.getResponse().getContentAsByteArray());
+        assertTrue(createdBody.get("success").asBoolean());
+        String id = createdBody.at("/data/id").asText();
+
+        MvcResult fetched = mockMvc.perform(get("/destinations/{id}", id).accept(format))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(format))
+                .andReturn();
+        DestinationDTO received = mapper.treeToValue(
+                mapper.readTree(fetched.getResponse().getContentAsByteArray()).get("data"), DestinationDTO.class);
+
+        assertEquals(id, received.getId());
+        assertEquals(sent.getName(), received.getName());
+        assertEquals(sent.getRegion(), received.getRegion());
+        assertEquals(sent.getDescription(), received.getDescription());
+        assertEquals(sent.getHighlights(), received.getHighlights());
+        assertEquals(sent.getAverageStayDuration(), received.getAverageStayDuration());
+        assertEquals(sent.getPopularityScore(), received.getPopularityScore());
+        assertTrue(received.isActive());
+    }
+}
@@ -0,0 +1,279 @@
+package com.spacehackers.flysen.flysen_destination_events_service.index;
+
+import com.spacehackers.flysen.flysen_destination_events_service.index.ActivityAvailabilityIndex.Match;
+import com.spacehackers.flysen.flysen_destination_events_service.index.ActivityAvailabilityIndex.Query;
+import com.spacehackers.flysen.flysen_destination_events_service.index.ActivityAvailabilityIndex.Result;
+import com.spacehackers.flysen.flysen_destination_events_service.models.Activity;
+import com.spacehackers.flysen.flysen_destination_events_service.models.Activity.ActivityType;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Sessions past midnight, windows at the ends of the day and the filters, then
+ * the index against a scan of every activity on random data.
+ */
+class ActivityAvailabilityIndexTest {
+
+    // A Monday
+    private static final LocalDate MONDAY = LocalDate.of(2026, 10, 19);
+    private static final String[] DAY_NAMES = {"monday", "Tue", "WEDNESDAY", "thu", "Friday", "sat", "SUNDAY"};
+
+    private final Random random = new Random(44);
+
+    @Test
+    void sessionPastMidnightCountsTowardsTheNextDay() {
+        ActivityAvailabilityIndex index = new ActivityAvailabilityIndex(List.of(
+                activity("night-market", List.of("friday"), "20:00", "02:00", 60)));
+        LocalDate friday = MONDAY.plusDays(4);
+
+        assertEquals(List.of("night-market 00:00-01:00"),
+                describe(index.query(window(friday.plusDays(1), LocalTime.MIDNIGHT, LocalTime.of(3, 0))).matches()));
+        assertEquals(List.of(), index.query(window(friday, LocalTime.MIDNIGHT, LocalTime.NOON)).matches());
+        assertEquals(List.of("night-market 21:00-23:00"),
+                describe(index.query(window(friday, LocalTime.of(21, 0), null)).matches()));
+    }
+
+    @Test
+    void sundayNightRunsIntoMonday() {
+        ActivityAvailabilityIndex index = new ActivityAvailabilityIndex(List.of(
+                activity("late-cruise", List.of("SUNDAY"), "22:00", "01:00", 30)));
+
+        assertEquals(List.of("late-cruise 00:00-00:30"),
+                describe(index.query(window(MONDAY, LocalTime.MIDNIGHT, LocalTime.of(6, 0))).matches()));
+        assertEquals(0, index.query(window(MONDAY.plusDays(1), LocalTime.MIDNIGHT, LocalTime.of(6, 0))).total());
+    }
+
+    @Test
+    void endingAt2400RunsToMidnight() {
+        ActivityAvailabilityIndex index = new ActivityAvailabilityIndex(List.of(
+                activity("rooftop", null, "08:00", "24:00", 120)));
+
+        assertEquals(List.of("rooftop 21:00-22:00"),
+                describe(index.query(window(MONDAY, LocalTime.of(21, 0), null)).matches()));
+        assertEquals(0, index.query(window(MONDAY, LocalTime.of(23, 0), null)).total());
+        // Nothing spills into the next morning
+        assertEquals(0, index.query(window(MONDAY, LocalTime.MIDNIGHT, LocalTime.of(8, 0))).total());
+    }
+
+    @Test
+    void windowEndingBeforeItStartsRunsToMidnight() {
+        ActivityAvailabilityIndex index = new ActivityAvailabilityIndex(List.of(
+                activity("rooftop", null, "08:00", "24:00", 60)));
+
+        assertEquals(List.of("rooftop 22:00-23:00"),
+                describe(index.query(window(MONDAY, LocalTime.of(22, 0), LocalTime.of(6, 0))).matches()));
+    }
+
+    @Test
+    void sessionShorterThanTheDurationNeverFits() {
+        ActivityAvailabilityIndex index = new ActivityAvailabilityIndex(List.of(
+                activity("short-slot", null, "09:00", "10:00", 90)));
+
+        assertEquals(0, index.query(window(MONDAY, null, null)).total());
+    }
+
+    @Test
+    void filtersKeepPriceOrder() {
+        List<Activity> activities = new ArrayList<>();
+        activities.add(priced("free", null, null, true));
+        activities.add(priced("small-group", 10.0, 4, true));
+        activities.add(priced("mid", 20.0, 0, true));
+        activities.add(priced("closed", 15.0, null, false));
+        activities.add(priced("expensive", 30.0, null, true));
+        ActivityAvailabilityIndex index = new ActivityAvailabilityIndex(activities);
+
+        Result result = index.query(new Query(MONDAY, null, null, 25.0, 6, null, 10));
+        assertEquals(2, result.total());
+        assertEquals(List.of("free", "mid"), result.matches().stream().map(match -> match.activity().getId()).toList());
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void agreesWithScanningEveryActivity() {
+        List<Activity> activities = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            activities.add(randomActivity(i));
+        }
+        ActivityAvailabilityIndex index = new ActivityAvailabilityIndex(activities);
+
+        for (int i = 0; i < 2000; i++) {
+            Query query = randomQuery();
+            Result actual = index.query(query);
+            List<Match> expected = scan(activities, query);
+
+            assertEquals(expected.size(), actual.total(), () -> "total of " + query);
+            List<Match> firstPage = expected.subList(0, Math.min(query.limit(), expected.size()));
+            assertEquals(describe(firstPage), describe(actual.matches()), () -> "matches of " + query);
+        }
+    }
+
+    private static Query window(LocalDate date, LocalTime from, LocalTime to) {
+        return new Query(date, from, to, null, null, null, 10);
+    }
+
+    private static Activity activity(String id, List<String> days, String start, String end, int duration) {
+        return Activity.builder()
+                .id(id)
+                .availableDays(days)
+                .startTime(start)
+                .endTime(end)
+                .duration(duration)
+                .active(true)
+                .build();
+    }
+
+    private static Activity priced(String id, Double price, Integer maxGroupSize, boolean active) {
+        return Activity.builder()
+                .id(id)
+                .price(price)
+                .maxGroupSize(maxGroupSize)
+                .startTime("09:00")
+                .endTime("17:00")
+                .duration(60)
+                .active(active)
+                .build();
+    }
+
+    private static List<Match> scan(List<Activity> activities, Query query) {
+        int from = query.from() != null ? minuteOfDay(query.from()) : 0;
+        int to = query.to() != null ? minuteOfDay(query.to()) : WeeklyHours.MINUTES_PER_DAY;
+        if (to <= from) {
+            to = WeeklyHours.MINUTES_PER_DAY;
+        }
+        DayOfWeek day = query.date().getDayOfWeek();
+
+        List<Match> matches = new ArrayList<>();
+        for (Activity activity : activities.stream().filter(Activity::isActive).sorted(priceOrder()).toList()) {
+            double price = activity.getPrice() != null ? activity.getPrice() : 0.0;
+            int maxGroup = activity.getMaxGroupSize() != null && activity.getMaxGroupSize() > 0
+                    ? activity.getMaxGroupSize() : Integer.MAX_VALUE;
+            if (query.maxPrice() != null && price > query.maxPrice()
+                    || query.groupSize() != null && maxGroup < query.groupSize()
+                    || query.types() != null && !query.types().isEmpty() && !query.types().contains(activity.getType())) {
+                continue;
+            }
+
+            int start = WeeklyHours.parseMinuteOfDay(activity.getStartTime()).orElse(0);
+            int end = WeeklyHours.parseMinuteOfDay(activity.getEndTime()).orElse(WeeklyHours.MINUTES_PER_DAY);
+            int sessionEnd = end > start ? end : end + WeeklyHours.MINUTES_PER_DAY;
+            int duration = activity.getDuration() != null ? Math.max(0, activity.getDuration()) : 0;
+            Set<DayOfWeek> days = days(activity);
+
+            Match match = null;
+            if (days.contains(day)) {
+                match = fit(activity, start, Math.min(sessionEnd, WeeklyHours.MINUTES_PER_DAY), duration, from, to);
+            }
+            if (match == null && days.contains(day.minus(1)) && sessionEnd > WeeklyHours.MINUTES_PER_DAY) {
+                match = fit(activity, 0, sessionEnd - WeeklyHours.MINUTES_PER_DAY, duration, from, to);
+            }
+            if (match != null) {
+                matches.add(match);
+            }
+        }
+        return matches;
+    }
+
+    private static Match fit(Activity activity, int sessionStart, int sessionEnd, int duration, int from, int to) {
+        int earliest = Math.max(sessionStart, from);
+        int end = Math.min(sessionEnd, to);
+        if (end - earliest < Math.max(duration, 1)) {
+            return null;
+        }
+        return new Match(activity, toTime(earliest), toTime(end - duration));
+    }
+
+    private static Set<DayOfWeek> days(Activity activity) {
+        if (activity.getAvailableDays() == null || activity.getAvailableDays().isEmpty()) {
+            return EnumSet.allOf(DayOfWeek.class);
+        }
+        Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        for (String name : activity.getAvailableDays()) {
+            WeeklyHours.parseDay(name).ifPresent(days::add);
+        }
+        return days;
+    }
+
+    private static Comparator<Activity> priceOrder() {
+        return Comparator
+                .comparing((Activity activity) -> activity.getPrice() != null ? activity.getPrice() : 0.0)
+                .thenComparing(activity -> activity.getRating() != null ? -activity.getRating() : 0.0)
+                .thenComparing(Activity::getId);
+    }
+
+    private static List<String> describe(List<Match> matches) {
+        return matches.stream()
+                .map(match -> match.activity().getId() + " " + match.earliestStart() + "-" + match.latestStart())
+                .toList();
+    }
+
+    private Activity randomActivity(int i) {
+        List<String> days = null;
+        if (random.nextInt(4) > 0) {
+            days = new ArrayList<>();
+            for (String name : DAY_NAMES) {
+                if (random.nextInt(3) == 0) {
+                    days.add(name);
+                }
+            }
+        }
+        ActivityType[] types = ActivityType.values();
+        return Activity.builder()
+                .id(String.format("activity-%03d", i))
+                .type(random.nextInt(10) == 0 ? null : types[random.nextInt(types.length)])
+                .price(random.nextInt(10) == 0 ? null : (double) random.nextInt(20) * 5)
+                .rating(random.nextInt(5) == 0 ? null : random.nextInt(11) / 2.0)
+                .duration(random.nextInt(10) == 0 ? null : random.nextInt(13) * 30)
+                .maxGroupSize(random.nextInt(6) == 0 ? null : random.nextInt(60))
+                .availableDays(days)
+                .startTime(randomTime())
+                .endTime(randomTime())
+                .active(random.nextInt(10) > 0)
+                .build();
+    }
+
+    // Mostly valid HH:mm, with the edge cases the stored strings can hold
+    private String randomTime() {
+        return switch (random.nextInt(20)) {
+            case 0 -> null;
+            case 1 -> "24:00";
+            case 2 -> "not a time";
+            default -> String.format("%02d:%02d", random.nextInt(24), random.nextInt(12) * 5);
+        };
+    }
+
+    private Query randomQuery() {
+        LocalDate date = LocalDate.of(2026, 1, 1).plusDays(random.nextInt(365));
+        LocalTime from = random.nextInt(5) == 0 ? null : LocalTime.of(random.nextInt(24), random.nextInt(60));
+        LocalTime to = random.nextInt(5) == 0 ? null : LocalTime.of(random.nextInt(24), random.nextInt(60));
+        Double maxPrice = random.nextInt(3) == 0 ? null : (double) random.nextInt(110);
+        Integer groupSize = random.nextInt(3) == 0 ? null : 1 + random.nextInt(120);
+        Set<ActivityType> types = null;
+        if (random.nextBoolean()) {
+            types = EnumSet.noneOf(ActivityType.class);
+            for (int i = random.nextInt(4); i > 0; i--) {
+                types.add(ActivityType.values()[random.nextInt(ActivityType.values().length)]);
+            }
+        }
+        return new Query(date, from, to, maxPrice, groupSize, types, 1 + random.nextInt(50));
+    }
+
+    private static int minuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    private static LocalTime toTime(int minuteOfDay) {
+        return minuteOfDay >= WeeklyHours.MINUTES_PER_DAY ? LocalTime.of(23, 59)
+                : LocalTime.of(minuteOfDay / 60, minuteOfDay % 60);
+    }
+}
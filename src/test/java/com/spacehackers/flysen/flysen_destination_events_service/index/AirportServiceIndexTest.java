@@ -0,0 +1,85 @@
+package com.spacehackers.flysen.flysen_destination_events_service.index;
+
+import com.spacehackers.flysen.flysen_destination_events_service.models.AirportService;
+import com.spacehackers.flysen.flysen_destination_events_service.models.AirportService.OpeningHours;
+import com.spacehackers.flysen.flysen_destination_events_service.models.AirportService.ServiceCategory;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Filters, score order and open-at across the time zones of the services.
+ */
+class AirportServiceIndexTest {
+
+    private static final ZoneId DAKAR = ZoneId.of("Africa/Dakar");
+    private static final Map<String, OpeningHours> MONDAY_OFFICE_HOURS = Map.of(
+            "monday", OpeningHours.builder().openTime("09:00").closeTime("17:00").build());
+
+    @Test
+    void openAtUsesTheZoneOfEachService() {
+        AirportServiceIndex index = new AirportServiceIndex(List.of(
+                service("madrid").timeZone("Europe/Madrid").openingHours(MONDAY_OFFICE_HOURS).build(),
+                service("new-york").timeZone("America/New_York").openingHours(MONDAY_OFFICE_HOURS).build(),
+                service("dakar").openingHours(MONDAY_OFFICE_HOURS).build(),
+                service("misconfigured").timeZone("Mars/Olympus").openingHours(MONDAY_OFFICE_HOURS).build()),
+                DAKAR);
+
+        // Monday 10:30 in Madrid, 08:30 in Dakar, 04:30 in New York
+        assertEquals(List.of("madrid"), openAt(index, "2026-10-19T08:30:00Z"));
+        // 16:00, 14:00, 10:00
+        assertEquals(List.of("dakar", "madrid", "misconfigured", "new-york"), openAt(index, "2026-10-19T14:00:00Z"));
+        // 19:00, 17:00, 13:00
+        assertEquals(List.of("new-york"), openAt(index, "2026-10-19T17:00:00Z"));
+    }
+
+    @Test
+    void filtersKeepScoreOrder() {
+        AirportServiceIndex index = new AirportServiceIndex(List.of(
+                service("unscored").category(ServiceCategory.CAFE).terminal("T1").build(),
+                service("best").category(ServiceCategory.CAFE).terminal("T2").score(9.0).build(),
+                service("good").category(ServiceCategory.CAFE).terminal("T1").score(7.0).build(),
+                service("lounge").category(ServiceCategory.LOUNGE).terminal("T1").score(8.0).build(),
+                service("closed").category(ServiceCategory.CAFE).terminal("T1").score(10.0).active(false).build()),
+                DAKAR);
+
+        assertEquals(4, index.size());
+        assertEquals(List.of("best", "good", "unscored"),
+                ids(index.list(index.select(null, ServiceCategory.CAFE, null))));
+        assertEquals(List.of("good", "unscored"), ids(index.list(index.select(null, ServiceCategory.CAFE, "T1"))));
+        assertEquals(List.of(), ids(index.list(index.select(null, ServiceCategory.PHARMACY, null))));
+        assertEquals(List.of(), ids(index.list(index.select(null, null, "T9"))));
+        assertEquals("lounge", index.get(index.ordinalOf("lounge")).getId());
+        assertNull(index.ordinalOf("closed"));
+    }
+
+    @Test
+    void unknownHoursOnlyFilterWithOpenAt() {
+        AirportServiceIndex index = new AirportServiceIndex(List.of(
+                service("always").openingHours(Map.of(
+                        "monday", OpeningHours.builder().open24Hours(true).build())).build(),
+                service("no-hours").build()), DAKAR);
+
+        assertEquals(List.of("always", "no-hours"), ids(index.list(index.select(null, null, null))));
+        assertEquals(List.of("always"), openAt(index, "2026-10-19T23:59:00Z"));
+        assertEquals(List.of(), openAt(index, "2026-10-20T00:00:00Z"));
+    }
+
+    private static AirportService.AirportServiceBuilder service(String id) {
+        return AirportService.builder().id(id).active(true);
+    }
+
+    private static List<String> openAt(AirportServiceIndex index, String instant) {
+        return ids(index.list(index.select(Instant.parse(instant), null, null))).stream().sorted().toList();
+    }
+
+    private static List<String> ids(List<AirportService> services) {
+        return services.stream().map(AirportService::getId).toList();
+    }
+}
@@ -0,0 +1,169 @@
+package com.spacehackers.flysen.flysen_destination_events_service.index;
+
+import com.spacehackers.flysen.flysen_destination_events_service.index.AttractionFacetIndex.Query;
+import com.spacehackers.flysen.flysen_destination_events_service.index.AttractionFacetIndex.Result;
+import com.spacehackers.flysen.flysen_destination_events_service.models.TouristAttraction;
+import com.spacehackers.flysen.flysen_destination_events_service.models.TouristAttraction.AttractionType;
+import com.spacehackers.flysen.flysen_destination_events_service.models.TouristAttraction.OpeningHours;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Ranking, paging and each facet of the attraction index on small hand-made sets.
+ */
+class AttractionFacetIndexTest {
+
+    // A Saturday
+    private static final LocalDateTime SATURDAY = LocalDateTime.of(2026, 10, 24, 0, 0);
+
+    @Test
+    void ranksByRatingThenReviewsAndPages() {
+        AttractionFacetIndex index = new AttractionFacetIndex(List.of(
+                attraction("unrated").build(),
+                attraction("popular").rating(4.5).reviewsCount(900).build(),
+                attraction("niche").rating(4.5).reviewsCount(12).build(),
+                attraction("top").rating(5.0).build(),
+                attraction("b-tied").rating(3.0).build(),
+                attraction("a-tied").rating(3.0).build(),
+                attraction("closed-down").rating(5.0).active(false).build()));
+
+        assertEquals(6, index.size());
+        Result all = index.query(query().build());
+        assertEquals(List.of("top", "popular", "niche", "a-tied", "b-tied", "unrated"), ids(all));
+        Result secondPage = index.query(query().offset(2).limit(2).build());
+        assertEquals(6, secondPage.total());
+        assertEquals(List.of("niche", "a-tied"), ids(secondPage));
+        assertEquals(List.of(), ids(index.query(query().offset(10).build())));
+    }
+
+    @Test
+    void typeCountsIgnoreTheTypeFilter() {
+        AttractionFacetIndex index = new AttractionFacetIndex(List.of(
+                attraction("museum-1").type(AttractionType.MUSEUM).tags(List.of("art")).build(),
+                attraction("museum-2").type(AttractionType.MUSEUM).tags(List.of("history")).build(),
+                attraction("beach").type(AttractionType.BEACH).tags(List.of("swimming")).build(),
+                attraction("untyped").tags(List.of("art")).build()));
+
+        Result result = index.query(query().types(Set.of(AttractionType.MUSEUM)).build());
+        assertEquals(2, result.total());
+        assertEquals(Map.of("MUSEUM", 2, "BEACH", 1), result.facets().get(AttractionFacetIndex.FACET_TYPE));
+        // Tag counts stay within the result
+        assertEquals(Map.of("art", 1, "history", 1), result.facets().get(AttractionFacetIndex.FACET_TAG));
+    }
+
+    @Test
+    void tagsMatchWhateverTheirCaseAndMustAllBePresent() {
+        AttractionFacetIndex index = new AttractionFacetIndex(List.of(
+                attraction("food-and-art").tags(List.of(" Food ", "ART")).build(),
+                attraction("food").tags(List.of("food", " ")).build()));
+
+        assertEquals(List.of("food", "food-and-art"), ids(index.query(query().tags(Set.of("FOOD")).build())));
+        assertEquals(List.of("food-and-art"), ids(index.query(query().tags(Set.of("food", "Art")).build())));
+        Result unknown = index.query(query().tags(Set.of("food", "nightlife")).build());
+        assertEquals(0, unknown.total());
+        assertEquals(Map.of(), unknown.facets().get(AttractionFacetIndex.FACET_TYPE));
+    }
+
+    @Test
+    void booleanFiltersWorkBothWays() {
+        AttractionFacetIndex index = new AttractionFacetIndex(List.of(
+                attraction("ramped").wheelchairAccessible(true).childFriendly(true).build(),
+                attraction("stairs").childFriendly(true).build(),
+                attraction("adults-only").wheelchairAccessible(true).build()));
+
+        assertEquals(List.of("adults-only", "ramped"),
+                ids(index.query(query().wheelchairAccessible(true).build())));
+        assertEquals(List.of("stairs"), ids(index.query(query().wheelchairAccessible(false).build())));
+        Result forChildren = index.query(query().childFriendly(true).build());
+        assertEquals(Map.of("true", 1), forChildren.facets().get(AttractionFacetIndex.FACET_WHEELCHAIR_ACCESSIBLE));
+        assertEquals(Map.of("true", 2), forChildren.facets().get(AttractionFacetIndex.FACET_CHILD_FRIENDLY));
+    }
+
+    @Test
+    void openAtFollowsHoursPastMidnight() {
+        AttractionFacetIndex index = new AttractionFacetIndex(List.of(
+                attraction("club").openingHours(Map.of("friday", hours("22:00", "02:00"))).build(),
+                attraction("gallery").openingHours(Map.of(
+                        "saturday", hours("10:00", "18:00"),
+                        "sunday", OpeningHours.builder().closed(true).build())).build(),
+                attraction("no-hours").build()));
+
+        assertEquals(List.of("club"), ids(index.query(query().openAt(SATURDAY.withHour(1)).build())));
+        assertEquals(List.of(), ids(index.query(query().openAt(SATURDAY.withHour(2)).build())));
+        assertEquals(List.of("gallery"), ids(index.query(query().openAt(SATURDAY.withHour(10)).build())));
+        assertEquals(List.of(), ids(index.query(query().openAt(SATURDAY.plusDays(1).withHour(12)).build())));
+        // Unknown hours never match a time, but do not filter without one
+        assertEquals(3, index.query(query().build()).total());
+    }
+
+    private static TouristAttraction.TouristAttractionBuilder attraction(String id) {
+        return TouristAttraction.builder().id(id).active(true);
+    }
+
+    private static OpeningHours hours(String open, String close) {
+        return OpeningHours.builder().openTime(open).closeTime(close).build();
+    }
+
+    private static QueryBuilder query() {
+        return new QueryBuilder();
+    }
+
+    private static List<String> ids(Result result) {
+        return result.attractions().stream().map(TouristAttraction::getId).toList();
+    }
+
+    private static class QueryBuilder {
+        private Set<AttractionType> types;
+        private Set<String> tags;
+        private Boolean wheelchairAccessible;
+        private Boolean childFriendly;
+        private LocalDateTime openAt;
+        private int offset;
+        private int limit = 20;
+
+        QueryBuilder types(Set<AttractionType> types) {
+            this.types = types;
+            return this;
+        }
+
+        QueryBuilder tags(Set<String> tags) {
+            this.tags = tags;
+            return this;
+        }
+
+        QueryBuilder wheelchairAccessible(Boolean wheelchairAccessible) {
+            this.wheelchairAccessible = wheelchairAccessible;
+            return this;
+        }
+
+        QueryBuilder childFriendly(Boolean childFriendly) {
+            this.childFriendly = childFriendly;
+            return this;
+        }
+
+        QueryBuilder openAt(LocalDateTime openAt) {
+            this.openAt = openAt;
+            return this;
+        }
+
+        QueryBuilder offset(int offset) {
+            this.offset = offset;
+            return this;
+        }
+
+        QueryBuilder limit(int limit) {
+            this.limit = limit;
+            return this;
+        }
+
+        Query build() {
+            return new Query(types, tags, wheelchairAccessible, childFriendly, openAt, offset, limit);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.spacehackers.flysen.flysen_destination_events_service.index;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * When an index is reused and when it is rebuilt.
+ */
+class IndexCacheTest {
+
+    private final IndexCache<Integer> cache = new IndexCache<>("test", 300, 10, new SimpleMeterRegistry());
+    private final AtomicInteger builds = new AtomicInteger();
+
+    @Test
+    void rebuildsWhenTheVersionMoves() {
+        assertEquals(1, cache.query("airport", 7, builds::incrementAndGet, Function.identity()));
+        assertEquals(1, cache.query("airport", 7, builds::incrementAndGet, Function.identity()));
+        // A write on another instance
+        assertEquals(2, cache.query("airport", 8, builds::incrementAndGet, Function.identity()));
+        assertEquals(8, cache.lastBuilt("airport").orElseThrow().version());
+        // Unversioned queries take whatever was built
+        assertEquals(2, cache.query("airport", builds::incrementAndGet, Function.identity()));
+    }
+
+    @Test
+    void rebuildsWhenInvalidatedOrExpired() {
+        cache.query("airport", builds::incrementAndGet, Function.identity());
+        cache.invalidate("airport");
+        assertEquals(2, cache.query("airport", builds::incrementAndGet, Function.identity()));
+
+        IndexCache<Integer> expiring = new IndexCache<>("expiring", 0, 10, new SimpleMeterRegistry());
+        expiring.query("airport", builds::incrementAndGet, Function.identity());
+        assertEquals(4, expiring.query("airport", builds::incrementAndGet, Function.identity()));
+        // Expired indexes stay around for fallbacks
+        assertEquals(4, expiring.lastBuilt("airport").orElseThrow().index());
+    }
+}
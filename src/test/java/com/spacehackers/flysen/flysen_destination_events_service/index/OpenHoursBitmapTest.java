@@ -0,0 +1,88 @@
+package com.spacehackers.flysen.flysen_destination_events_service.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Opening hours at the edges: inside and across slots, past midnight, around
+ * the end of the week and at 24:00.
+ */
+class OpenHoursBitmapTest {
+
+    private static final int SUNDAY = 6 * WeeklyHours.MINUTES_PER_DAY;
+
+    @Test
+    void intervalsAreHalfOpenInsideAndAcrossSlots() {
+        OpenHoursBitmap bitmap = new OpenHoursBitmap(List.of(
+                List.of(new int[]{600, 607}),
+                List.of(new int[]{900, 960})));
+
+        assertFalse(bitmap.openAt(599).get(0));
+        assertTrue(bitmap.openAt(600).get(0));
+        assertTrue(bitmap.openAt(606).get(0));
+        assertFalse(bitmap.openAt(607).get(0));
+        assertTrue(bitmap.openAt(959).get(1));
+        assertFalse(bitmap.openAt(960).get(1));
+    }
+
+    @Test
+    void sundayNightWrapsToMondayMorning() {
+        OpenHoursBitmap bitmap = bitmap(Map.of("sunday", day("23:00", "01:00")));
+
+        assertTrue(bitmap.openAt(SUNDAY + 23 * 60 + 30).get(0));
+        assertTrue(bitmap.openAt(30).get(0));
+        assertFalse(bitmap.openAt(60).get(0));
+        assertFalse(bitmap.openAt(SUNDAY + 22 * 60 + 59).get(0));
+        // Minutes outside the week wrap around it
+        assertTrue(bitmap.openAt(-30).get(0));
+        assertTrue(bitmap.openAt(WeeklyHours.MINUTES_PER_WEEK + 30).get(0));
+    }
+
+    @Test
+    void closingAt2400EndsAtMidnight() {
+        OpenHoursBitmap bitmap = bitmap(Map.of("mon", day("20:00", "24:00")));
+
+        assertTrue(bitmap.openAt(WeeklyHours.MINUTES_PER_DAY - 1).get(0));
+        assertFalse(bitmap.openAt(WeeklyHours.MINUTES_PER_DAY).get(0));
+    }
+
+    @Test
+    void openAllDayAndClosedDays() {
+        OpenHoursBitmap bitmap = bitmap(Map.of(
+                "TUESDAY", new WeeklyHours.Day(null, null, false, true),
+                "wednesday", new WeeklyHours.Day("09:00", "17:00", true, false)));
+
+        assertTrue(bitmap.openAt(WeeklyHours.MINUTES_PER_DAY).get(0));
+        assertTrue(bitmap.openAt(2 * WeeklyHours.MINUTES_PER_DAY - 1).get(0));
+        assertFalse(bitmap.openAt(2 * WeeklyHours.MINUTES_PER_DAY + 12 * 60).get(0));
+    }
+
+    @Test
+    void unknownHoursNeverMatch() {
+        List<List<int[]>> hours = Arrays.asList(null, List.of(), List.of(new int[]{0, WeeklyHours.MINUTES_PER_WEEK}));
+        OpenHoursBitmap bitmap = new OpenHoursBitmap(hours);
+
+        BitSet known = new BitSet();
+        known.set(1, 3);
+        assertEquals(known, bitmap.known());
+        for (int minute = 0; minute < WeeklyHours.MINUTES_PER_WEEK; minute += 7) {
+            assertEquals(BitSet.valueOf(new long[]{0b100}), bitmap.openAt(minute));
+        }
+    }
+
+    private static OpenHoursBitmap bitmap(Map<String, WeeklyHours.Day> hours) {
+        return new OpenHoursBitmap(List.of(WeeklyHours.intervals(hours, day -> day).orElseThrow()));
+    }
+
+    private static WeeklyHours.Day day(String open, String close) {
+        return new WeeklyHours.Day(open, close, false, false);
+    }
+}
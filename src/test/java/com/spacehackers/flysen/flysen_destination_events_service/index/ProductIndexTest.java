@@ -0,0 +1,124 @@
+package com.spacehackers.flysen.flysen_destination_events_service.index;
+
+import com.spacehackers.flysen.flysen_destination_events_service.index.ProductIndex.Hit;
+import com.spacehackers.flysen.flysen_destination_events_service.index.ProductIndex.Query;
+import com.spacehackers.flysen.flysen_destination_events_service.index.ProductIndex.Result;
+import com.spacehackers.flysen.flysen_destination_events_service.index.ProductIndex.Sort;
+import com.spacehackers.flysen.flysen_destination_events_service.models.AirportService;
+import com.spacehackers.flysen.flysen_destination_events_service.models.AirportService.AirportServiceProduct;
+import com.spacehackers.flysen.flysen_destination_events_service.util.CurrencyRates;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Word prefixes, prices across currencies, both sort orders, paging and updates
+ * of the product index.
+ */
+class ProductIndexTest {
+
+    private static final CurrencyRates RATES = new CurrencyRates("XOF", List.of("EUR:655.957", "USD:600"));
+
+    private final ProductIndex index = new ProductIndex(List.of(
+            service("cafe",
+                    product("latte", "Café con leche", 3000.0, "XOF", true, "coffee"),
+                    product("croissant", "Croissant au beurre", 5.0, "EUR", true, "pastry"),
+                    product("cake", "Carrot cake", 6.0, "usd", false, "pastry")),
+            service("duty-free",
+                    product("whisky", "Single malt whisky", 40.0, "GBP", true),
+                    product("water", "Still water", null, "EUR", true),
+                    product("perfume", "Eau de parfum", 60.0, null, true))),
+            RATES);
+
+    @Test
+    void wordsMatchAsPrefixesWithoutAccents() {
+        assertEquals(List.of("cafe/latte"), keys(index.query(words("CAFE"))));
+        assertEquals(List.of("cafe/latte"), keys(index.query(words("caf le"))));
+        assertEquals(List.of("cafe/croissant", "cafe/cake"), keys(index.query(words("pastry"))));
+        assertEquals(List.of(), keys(index.query(words("pastry coffee"))));
+        assertEquals(List.of(), keys(index.query(words("tea"))));
+    }
+
+    @Test
+    void pricesCompareInTheBaseCurrency() {
+        // 60 XOF, 3000 XOF, 5 EUR = 3279.785 XOF, 6 USD = 3600 XOF, then GBP and no price last
+        List<String> ascending = List.of("duty-free/perfume", "cafe/latte", "cafe/croissant", "cafe/cake",
+                "duty-free/water", "duty-free/whisky");
+        assertEquals(ascending, keys(index.query(all(Sort.PRICE_ASC))));
+        assertEquals(List.of("cafe/cake", "cafe/croissant", "cafe/latte", "duty-free/perfume",
+                "duty-free/water", "duty-free/whisky"), keys(index.query(all(Sort.PRICE_DESC))));
+        // The word path sorts the same way
+        assertEquals(List.of("cafe/croissant", "cafe/cake"),
+                keys(index.query(new Query("pastry", null, null, null, Sort.PRICE_ASC, 0, 10))));
+        assertEquals(List.of("cafe/cake", "cafe/croissant"),
+                keys(index.query(new Query("pastry", null, null, null, Sort.PRICE_DESC, 0, 10))));
+    }
+
+    @Test
+    void priceRangesAreInclusiveAndSkipUnconvertiblePrices() {
+        assertEquals(List.of("cafe/latte", "cafe/croissant", "cafe/cake"),
+                keys(index.query(new Query(null, 3000.0, 3600.0, null, Sort.PRICE_ASC, 0, 10))));
+        assertEquals(List.of("cafe/cake"),
+                keys(index.query(new Query("pastry", 3300.0, null, null, Sort.PRICE_ASC, 0, 10))));
+        assertEquals(List.of("duty-free/perfume"),
+                keys(index.query(new Query(null, null, 100.0, null, Sort.PRICE_ASC, 0, 10))));
+        Result inverted = index.query(new Query(null, 3600.0, 3000.0, null, Sort.PRICE_ASC, 0, 10));
+        assertEquals(0, inverted.total());
+        assertEquals(0, index.query(new Query("cafe", 3600.0, 3000.0, null, Sort.PRICE_ASC, 0, 10)).total());
+    }
+
+    @Test
+    void filtersStockAndPages() {
+        Result inStock = index.query(new Query(null, null, null, true, Sort.PRICE_ASC, 1, 2));
+        assertEquals(5, inStock.total());
+        assertEquals(List.of("cafe/latte", "cafe/croissant"), keys(inStock));
+        assertEquals(List.of("cafe/cake"), keys(index.query(new Query(null, null, null, false, Sort.PRICE_ASC, 0, 10))));
+        assertEquals(List.of(), keys(index.query(new Query(null, null, null, null, Sort.PRICE_ASC, 10, 10))));
+    }
+
+    @Test
+    void replacesAndRemovesWholeServices() {
+        index.putService(service("cafe", product("latte", "Iced latte", 2500.0, "XOF", true)));
+        assertEquals(4, index.size());
+        assertEquals(List.of(), keys(index.query(words("pastry"))));
+        assertEquals(List.of("cafe/latte"), keys(index.query(words("iced"))));
+
+        AirportService closed = service("duty-free");
+        closed.setActive(false);
+        index.putService(closed);
+        assertEquals(1, index.size());
+        index.removeService("cafe");
+        assertEquals(0, index.size());
+        assertEquals(0, index.query(all(Sort.PRICE_ASC)).total());
+    }
+
+    private static Query words(String text) {
+        return new Query(text, null, null, null, Sort.PRICE_ASC, 0, 10);
+    }
+
+    private static Query all(Sort sort) {
+        return new Query(null, null, null, null, sort, 0, 10);
+    }
+
+    private static AirportService service(String id, AirportServiceProduct... products) {
+        return AirportService.builder().id(id).active(true).products(List.of(products)).build();
+    }
+
+    private static AirportServiceProduct product(String id, String name, Double price, String currency,
+                                                 boolean inStock, String... tags) {
+        return AirportServiceProduct.builder()
+                .id(id)
+                .name(name)
+                .price(price)
+                .currency(currency)
+                .inStock(inStock)
+                .tags(List.of(tags))
+                .build();
+    }
+
+    private static List<String> keys(Result result) {
+        return result.hits().stream().map(Hit::key).toList();
+    }
+}
@@ -0,0 +1,76 @@
+package com.spacehackers.flysen.flysen_destination_events_service.index;
+
+import com.spacehackers.flysen.flysen_destination_events_service.models.AirportService;
+import com.spacehackers.flysen.flysen_destination_events_service.models.AirportService.ServiceCategory;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Ranks, ties and unrated services, and services that move, change category or
+ * leave between reads.
+ */
+class ServiceLeaderboardsTest {
+
+    private final ServiceLeaderboards leaderboards = new ServiceLeaderboards(List.of(
+            service("b-cafe", ServiceCategory.CAFE, 4.0, 7.0),
+            service("a-cafe", ServiceCategory.CAFE, 4.0, 7.0),
+            service("new-cafe", ServiceCategory.CAFE, null, null),
+            service("lounge", ServiceCategory.LOUNGE, 4.8, 9.0),
+            service("uncategorized", null, 5.0, 10.0)));
+
+    @Test
+    void ranksHighestFirstWithTiesInIdOrder() {
+        assertEquals(5, leaderboards.size());
+        // Unrated services are never top rated
+        assertEquals(List.of("uncategorized", "lounge", "a-cafe", "b-cafe"), ids(leaderboards.topRated(10)));
+        assertEquals(List.of("uncategorized", "lounge"), ids(leaderboards.topRated(2)));
+        assertEquals(List.of(), ids(leaderboards.topRated(0)));
+        // Unscored services come last in their category
+        assertEquals(List.of("a-cafe", "b-cafe", "new-cafe"), ids(leaderboards.topInCategory(ServiceCategory.CAFE, 10)));
+        assertEquals(List.of(), ids(leaderboards.topInCategory(ServiceCategory.PHARMACY, 10)));
+    }
+
+    @Test
+    void movedServicesLeaveTheirOldRanks() {
+        leaderboards.put(service("b-cafe", ServiceCategory.LOUNGE, 4.9, 9.5));
+        leaderboards.put(service("new-cafe", ServiceCategory.CAFE, 3.0, 8.0));
+
+        assertEquals(List.of("uncategorized", "b-cafe", "lounge", "a-cafe", "new-cafe"),
+                ids(leaderboards.topRated(10)));
+        assertEquals(List.of("new-cafe", "a-cafe"), ids(leaderboards.topInCategory(ServiceCategory.CAFE, 10)));
+        assertEquals(List.of("b-cafe", "lounge"), ids(leaderboards.topInCategory(ServiceCategory.LOUNGE, 10)));
+        assertEquals(5, leaderboards.size());
+    }
+
+    @Test
+    void deactivatedAndRemovedServicesDropOut() {
+        AirportService closed = service("lounge", ServiceCategory.LOUNGE, 4.8, 9.0);
+        closed.setActive(false);
+        leaderboards.put(closed);
+        leaderboards.remove("uncategorized");
+        leaderboards.remove("never-added");
+
+        assertEquals(3, leaderboards.size());
+        assertEquals(List.of("a-cafe", "b-cafe"), ids(leaderboards.topRated(10)));
+        assertEquals(List.of(), ids(leaderboards.topInCategory(ServiceCategory.LOUNGE, 10)));
+        // Inactive services are not ranked in the first place
+        assertEquals(0, new ServiceLeaderboards(List.of(closed)).size());
+    }
+
+    private static AirportService service(String id, ServiceCategory category, Double rating, Double score) {
+        return AirportService.builder()
+                .id(id)
+                .category(category)
+                .rating(rating)
+                .score(score)
+                .active(true)
+                .build();
+    }
+
+    private static List<String> ids(List<AirportService> services) {
+        return services.stream().map(AirportService::getId).toList();
+    }
+}
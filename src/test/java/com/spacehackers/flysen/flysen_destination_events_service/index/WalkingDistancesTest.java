@@ -0,0 +1,113 @@
+package com.spacehackers.flysen.flysen_destination_events_service.index;
+
+import com.spacehackers.flysen.flysen_destination_events_service.index.WalkingDistances.Nearby;
+import com.spacehackers.flysen.flysen_destination_events_service.models.AirportService;
+import com.spacehackers.flysen.flysen_destination_events_service.models.TerminalGraph.Walkway;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneOffset;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Shortest paths, one-way walkways, unreachable nodes and where each service is
+ * placed on a small terminal graph.
+ */
+class WalkingDistancesTest {
+
+    // Landside check-in, through one-way security to an airside hub with two gates;
+    // the remote stand has no walkway to anything else
+    private static final WalkingDistances TERMINAL = new WalkingDistances(List.of(
+            walkway("check-in", "security", 120, false),
+            walkway("security", "hub", 60, true),
+            walkway("hub", "A1", 300, false),
+            walkway("hub", "A2", 90, false),
+            walkway("A2", "A1", 90, false),
+            walkway("remote-stand", "bus-gate", 30, false)));
+
+    @Test
+    void takesTheShortestPathOverADirectWalkway() {
+        AirportServiceIndex index = index(service("at-a1").gate("A1").build());
+
+        assertEquals(List.of("at-a1 180"), describe(TERMINAL.nearest("hub", index, all(index), 10)));
+        assertEquals(List.of("at-a1 360"), describe(TERMINAL.nearest("check-in", index, all(index), 10)));
+    }
+
+    @Test
+    void oneWayWalkwaysCannotBeWalkedBack() {
+        AirportServiceIndex index = index(
+                service("landside-cafe").gate("check-in").build(),
+                service("airside-cafe").gate("hub").build());
+
+        assertEquals(List.of("landside-cafe 0", "airside-cafe 180"),
+                describe(TERMINAL.nearest("check-in", index, all(index), 10)));
+        assertEquals(List.of("airside-cafe 90"), describe(TERMINAL.nearest("A2", index, all(index), 10)));
+    }
+
+    @Test
+    void unreachableAndUnknownNodesReportNothing() {
+        AirportServiceIndex index = index(
+                service("bus-kiosk").gate("bus-gate").build(),
+                service("hub-shop").gate("hub").build());
+
+        assertEquals(List.of("hub-shop 90"), describe(TERMINAL.nearest("A2", index, all(index), 10)));
+        assertEquals(List.of("bus-kiosk 30"), describe(TERMINAL.nearest("remote-stand", index, all(index), 10)));
+        assertEquals(List.of(), TERMINAL.nearest("Z99", index, all(index), 10));
+        assertEquals(List.of(), TERMINAL.nearest("hub", index, all(index), 0));
+        assertEquals(List.of(), WalkingDistances.EMPTY.nearest("hub", index, all(index), 10));
+    }
+
+    @Test
+    void placesServicesAtTheirGateThenTheirTerminal() {
+        WalkingDistances distances = new WalkingDistances(List.of(
+                walkway("T1", "G1", 100, false),
+                walkway("T1", "G2", 50, false)));
+        AirportServiceIndex index = index(
+                service("at-gate").terminal("T1").gate("G1").build(),
+                service("unmapped-gate").terminal("T1").gate("G9").build(),
+                service("nowhere").terminal("T5").gate("G9").build(),
+                service("no-location").build());
+
+        assertEquals(List.of("unmapped-gate 50", "at-gate 150"), describe(distances.nearest("G2", index, all(index), 10)));
+        assertEquals(3, distances.nodeCount());
+        assertTrue(distances.hasNode("G2"));
+        assertFalse(distances.hasNode("G9"));
+    }
+
+    @Test
+    void equalWalksKeepScoreOrderAndHonourTheSelection() {
+        AirportServiceIndex index = index(
+                service("second").gate("A1").score(5.0).build(),
+                service("first").gate("A1").score(8.0).build(),
+                service("third").gate("A1").build());
+
+        assertEquals(List.of("first 180", "second 180"), describe(TERMINAL.nearest("hub", index, all(index), 2)));
+        BitSet withoutFirst = all(index);
+        withoutFirst.clear(index.ordinalOf("first"));
+        assertEquals(List.of("second 180", "third 180"), describe(TERMINAL.nearest("hub", index, withoutFirst, 10)));
+    }
+
+    private static Walkway walkway(String from, String to, int seconds, boolean oneWay) {
+        return Walkway.builder().from(from).to(to).seconds(seconds).oneWay(oneWay).build();
+    }
+
+    private static AirportService.AirportServiceBuilder service(String id) {
+        return AirportService.builder().id(id).active(true);
+    }
+
+    private static AirportServiceIndex index(AirportService... services) {
+        return new AirportServiceIndex(List.of(services), ZoneOffset.UTC);
+    }
+
+    private static BitSet all(AirportServiceIndex index) {
+        return index.select(null, null, null);
+    }
+
+    private static List<String> describe(List<Nearby> nearby) {
+        return nearby.stream().map(near -> near.service().getId() + " " + near.walkingSeconds()).toList();
+    }
+}
@@ -0,0 +1,126 @@
+package com.spacehackers.flysen.flysen_destination_events_service.limits;
+
+import com.spacehackers.flysen.flysen_destination_events_service.limits.PriorityRequestQueue.Priority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Background work, however much is queued, cannot starve interactive requests.
+ */
+class PriorityRequestQueueTest {
+
+    private static final Map<Priority, Duration> DEADLINES = Map.of(
+            Priority.INTERACTIVE, Duration.ofSeconds(5),
+            Priority.BACKGROUND, Duration.ofMinutes(1));
+
+    private final ConcurrentLinkedQueue<String> dispatched = new ConcurrentLinkedQueue<>();
+
+    @Test
+    void interactiveOvertakesQueuedBackground() throws Exception {
+        try (PriorityRequestQueue queue = new PriorityRequestQueue("test", 20, 500, DEADLINES,
+                new SimpleMeterRegistry())) {
+            for (int i = 0; i < 100; i++) {
+                queue.submit("background-" + i, Priority.BACKGROUND, call("background-" + i));
+            }
+            String interactive = queue.submit("interactive", Priority.INTERACTIVE, call("interactive"))
+                    .get(1, TimeUnit.SECONDS);
+
+            assertEquals("interactive", interactive);
+            // At most the background request taken before the interactive one arrived went first
+            List<String> order = new ArrayList<>(dispatched);
+            assertTrue(order.indexOf("interactive") <= 1, "dispatch order: " + order);
+        }
+    }
+
+    @Test
+    void interactiveDisplacesBackgroundFromFullQueue() throws Exception {
+        int maxQueued = 5;
+        try (PriorityRequestQueue queue = new PriorityRequestQueue("test", 2, maxQueued, DEADLINES,
+                new SimpleMeterRegistry())) {
+            List<CompletableFuture<String>> background = new ArrayList<>();
+            background.add(queue.submit("background-0", Priority.BACKGROUND, call("background-0")));
+            background.get(0).get(1, TimeUnit.SECONDS);
+            // The dispatcher now waits out its slot while the queue fills up
+            for (int i = 1; i <= maxQueued; i++) {
+                background.add(queue.submit("background-" + i, Priority.BACKGROUND, call("background-" + i)));
+            }
+            assertEquals(maxQueued, queue.depth(Priority.BACKGROUND));
+            CompletableFuture<String> overflow = queue.submit("background-overflow", Priority.BACKGROUND,
+                    call("background-overflow"));
+            assertRejected(overflow);
+
+            CompletableFuture<String> interactive = queue.submit("interactive", Priority.INTERACTIVE,
+                    call("interactive"));
+            assertEquals("interactive", interactive.get(1, TimeUnit.SECONDS));
+            // The background request that would have gone last gave up its place
+            assertRejected(background.get(maxQueued));
+        }
+    }
+
+    @Test
+    void interactiveJoiningBackgroundIsServedAsInteractive() throws Exception {
+        try (PriorityRequestQueue queue = new PriorityRequestQueue("test", 20, 500, DEADLINES,
+                new SimpleMeterRegistry())) {
+            for (int i = 0; i < 100; i++) {
+                queue.submit("background-" + i, Priority.BACKGROUND, call("background-" + i));
+            }
+            String joined = queue.submit("background-99", Priority.INTERACTIVE, call("background-99"))
+                    .get(1, TimeUnit.SECONDS);
+
+            assertEquals("background-99", joined);
+            List<String> order = new ArrayList<>(dispatched);
+            assertTrue(order.indexOf("background-99") <= 1, "dispatch order: " + order);
+        }
+    }
+
+    @Test
+    void joiningCallerStopsWaitingAtItsOwnDeadline() throws Exception {
+        Map<Priority, Duration> deadlines = Map.of(
+                Priority.INTERACTIVE, Duration.ofMillis(100),
+                Priority.BACKGROUND, Duration.ofMinutes(1));
+        try (PriorityRequestQueue queue = new PriorityRequestQueue("test", 2, 500, deadlines,
+                new SimpleMeterRegistry())) {
+            queue.submit("background-0", Priority.BACKGROUND, call("background-0")).get(1, TimeUnit.SECONDS);
+            // The next slot is further away than the interactive deadline
+            CompletableFuture<String> background = queue.submit("background-1", Priority.BACKGROUND,
+                    call("background-1"));
+            CompletableFuture<String> interactive = queue.submit("background-1", Priority.INTERACTIVE,
+                    call("background-1"));
+
+            ExecutionException e = assertThrows(ExecutionException.class,
+                    () -> interactive.get(300, TimeUnit.MILLISECONDS));
+            assertInstanceOf(RejectedExecutionException.class, e.getCause());
+            // The background caller still gets its answer
+            assertEquals("background-1", background.get(2, TimeUnit.SECONDS));
+        }
+    }
+
+    private Supplier<CompletableFuture<String>> call(String label) {
+        return () -> {
+            dispatched.add(label);
+            return CompletableFuture.completedFuture(label);
+        };
+    }
+
+    private static void assertRejected(CompletableFuture<?> future) {
+        CompletionException e = assertThrows(CompletionException.class, () -> future.getNow(null));
+        assertInstanceOf(RejectedExecutionException.class, e.getCause());
+    }
+}
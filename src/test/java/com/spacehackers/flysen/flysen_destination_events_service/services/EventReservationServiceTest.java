@@ -0,0 +1,202 @@
+package com.spacehackers.flysen.flysen_destination_events_service.services;
+
+import com.google.cloud.Timestamp;
+import com.spacehackers.flysen.flysen_destination_events_service.models.Event;
+import com.spacehackers.flysen.flysen_destination_events_service.models.EventReservation;
+import com.spacehackers.flysen.flysen_destination_events_service.models.EventReservation.ReservationStatus;
+import com.spacehackers.flysen.flysen_destination_events_service.repositories.CollectionVersionRepository;
+import com.spacehackers.flysen.flysen_destination_events_service.repositories.EventRepository;
+import com.spacehackers.flysen.flysen_destination_events_service.repositories.EventReservationRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Holds, confirms, releases and expiries racing on one event against the
+ * embedded store, with small lease blocks so seats move between the shards and
+ * the pool often. Sweeps are run by the tests rather than the scheduler.
+ */
+@SpringBootTest(properties = {
+        "app.event.reservations.seat-shards=4",
+        "app.event.reservations.lease-block=3",
+        "app.event.reservations.sold-out-recheck-ms=0",
+        "app.event.reservations.sweep-interval-ms=3600000"})
+class EventReservationServiceTest {
+
+    private static final int CAPACITY = 150;
+
+    @Autowired
+    private EventReservationService reservationService;
+
+    @Autowired
+    private EventReservationRepository reservationRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private CollectionVersionRepository collectionVersionRepository;
+
+    @Test
+    void concurrentReservationsNeverOversell() throws Exception {
+        Event event = createEvent();
+        List<EventReservation> reservations = Collections.synchronizedList(new ArrayList<>());
+
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int worker = 0; worker < 16; worker++) {
+            workers.add(executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 150; i++) {
+                    Optional<EventReservation> hold = reservationService.hold(event, 1 + random.nextInt(3));
+                    if (hold.isEmpty()) {
+                        continue;
+                    }
+                    reservations.add(hold.get());
+                    // Often a hold another worker is confirming or releasing too
+                    EventReservation target = reservations.get(random.nextInt(reservations.size()));
+                    switch (random.nextInt(4)) {
+                        case 0 -> reservationService.confirm(event.getId(), target.getId());
+                        case 1 -> reservationService.release(event.getId(), target.getId());
+                        case 2 -> reservationService.sweep();
+                        default -> {
+                            // Kept
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        int confirmed = 0;
+        int held = 0;
+        for (EventReservation reservation : reservations) {
+            EventReservation stored = reservationRepository.findById(reservation.getId()).orElseThrow();
+            if (stored.getStatus() == ReservationStatus.CONFIRMED) {
+                confirmed += stored.getSeats();
+            } else if (stored.getStatus() == ReservationStatus.HELD) {
+                held += stored.getSeats();
+                reservationService.release(event.getId(), stored.getId());
+            }
+        }
+        int booked = confirmed;
+        int stillHeld = held;
+        assertTrue(booked + stillHeld <= CAPACITY, () -> "oversold: " + booked + " + " + stillHeld);
+        assertTrue(booked > 0);
+
+        // With every hold released, exactly the unconfirmed seats can be held again
+        reservationService.returnLeases();
+        assertEquals(CAPACITY - booked,
+                eventRepository.findById(event.getId()).orElseThrow().getRemainingCapacity());
+        assertEquals(CAPACITY - booked, holdEverySeat(event));
+    }
+
+    @Test
+    void expiresHoldsOfAnInstanceThatIsGone() throws Exception {
+        Event event = createEvent();
+        // Leased and held by an instance that stopped before expiring them
+        assertTrue(reservationRepository.createSeatShards(event.getId(), new int[]{38, 38, 37, 37}));
+        int leased = 0;
+        List<String> ids = new ArrayList<>();
+        for (int shard = 0; shard < 4; shard++) {
+            leased += reservationRepository.leaseSeats(event.getId(), shard, 20);
+            for (int i = 0; i < 10; i++) {
+                ids.add(reservationRepository.create(EventReservation.builder()
+                        .eventId(event.getId())
+                        .seats(2)
+                        .status(ReservationStatus.HELD)
+                        .expiresAt(Timestamp.ofTimeSecondsAndNanos(Timestamp.now().getSeconds() - 1, 0))
+                        .build()));
+            }
+        }
+        assertEquals(80, leased);
+        assertEquals(CAPACITY - 80, holdEverySeat(event));
+
+        // Several instances sweeping at once give each hold's seats back once
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> sweeps = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            sweeps.add(executor.submit(reservationService::sweep));
+        }
+        for (Future<?> sweep : sweeps) {
+            sweep.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        for (String id : ids) {
+            assertEquals(ReservationStatus.EXPIRED, reservationRepository.findById(id).orElseThrow().getStatus());
+        }
+        assertEquals(80, holdEverySeat(event));
+    }
+
+    @Test
+    void releasedSeatsCanBeHeldAgain() throws Exception {
+        Event event = createEvent();
+        List<EventReservation> holds = new ArrayList<>();
+        for (Optional<EventReservation> hold = reservationService.hold(event, 10); hold.isPresent();
+             hold = reservationService.hold(event, 10)) {
+            holds.add(hold.get());
+        }
+        assertEquals(CAPACITY / 10, holds.size());
+
+        assertTrue(reservationService.release(event.getId(), holds.get(0).getId()).orElseThrow().applied());
+        assertFalse(reservationService.release(event.getId(), holds.get(0).getId()).orElseThrow().applied());
+        assertTrue(reservationService.confirm(event.getId(), holds.get(1).getId()).orElseThrow().applied());
+        assertTrue(reservationService.hold(event, 10).isPresent());
+        assertTrue(reservationService.hold(event, 1).isEmpty());
+    }
+
+    @Test
+    void sellsOnlyTheSeatsAPartlySoldEventHasLeft() throws Exception {
+        Event event = createEvent(100);
+        assertEquals(100, holdEverySeat(event));
+
+        // Shards are created once, and writing the remaining capacity leaves list ETags alone
+        assertFalse(reservationRepository.createSeatShards(event.getId(), new int[]{1, 1, 1, 1}));
+        long version = collectionVersionRepository.getVersion(EventRepository.COLLECTION_NAME);
+        reservationService.sweep();
+        assertEquals(0, eventRepository.findById(event.getId()).orElseThrow().getRemainingCapacity());
+        assertEquals(version, collectionVersionRepository.getVersion(EventRepository.COLLECTION_NAME));
+    }
+
+    private Event createEvent() throws Exception {
+        return createEvent(CAPACITY);
+    }
+
+    private Event createEvent(int remainingCapacity) throws Exception {
+        Event event = Event.builder()
+                .name("Ticket drop")
+                .capacity(CAPACITY)
+                .remainingCapacity(remainingCapacity)
+                .build();
+        eventRepository.create(event);
+        return event;
+    }
+
+    // Holds single seats until none are left and returns how many it got
+    private int holdEverySeat(Event event) {
+        int seats = 0;
+        while (reservationService.hold(event, 1).isPresent()) {
+            seats++;
+        }
+        return seats;
+    }
+}
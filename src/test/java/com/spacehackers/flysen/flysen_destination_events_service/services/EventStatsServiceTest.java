@@ -0,0 +1,119 @@
+package com.spacehackers.flysen.flysen_destination_events_service.services;
+
+import com.spacehackers.flysen.flysen_destination_events_service.models.Event;
+import com.spacehackers.flysen.flysen_destination_events_service.repositories.EventRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Reads racing flushes against the embedded store, and the stored baseline
+ * surviving event updates. Flushes are run by the tests rather than the scheduler.
+ */
+@SpringBootTest(properties = {
+        "app.event.stats.shards=4",
+        "app.event.stats.flush-interval-ms=3600000"})
+class EventStatsServiceTest {
+
+    private static final int WORKERS = 4;
+
+    @Autowired
+    private EventStatsService statsService;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Test
+    void readsCountEveryViewOnceWhileFlushing() throws Exception {
+        Event event = createEvent(Event.EventStats.builder().totalViews(100).build());
+        AtomicInteger recorded = new AtomicInteger();
+        AtomicBoolean recording = new AtomicBoolean(true);
+
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int worker = 0; worker < WORKERS; worker++) {
+            workers.add(executor.submit(() -> {
+                for (int i = 0; i < 2000; i++) {
+                    statsService.recordView(event.getId());
+                    recorded.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        Future<?> flusher = executor.submit(() -> {
+            while (recording.get()) {
+                statsService.flush();
+            }
+            return null;
+        });
+        Future<?> reader = executor.submit(() -> {
+            while (recording.get()) {
+                int before = recorded.get();
+                int views = statsService.withCurrentStats(event).getStats().getTotalViews() - 100;
+                // Each worker may have recorded a view it has not counted yet
+                int after = recorded.get() + WORKERS;
+                assertTrue(views >= before && views <= after, () -> views + " views, recorded " + before + "-" + after);
+            }
+            return null;
+        });
+        for (Future<?> worker : workers) {
+            worker.get(60, TimeUnit.SECONDS);
+        }
+        recording.set(false);
+        flusher.get(60, TimeUnit.SECONDS);
+        reader.get(60, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        assertEquals(8100, statsService.withCurrentStats(event).getStats().getTotalViews());
+        statsService.flush();
+        assertEquals(8100, statsService.withCurrentStats(event).getStats().getTotalViews());
+    }
+
+    @Test
+    void updatesWithoutStatsKeepTheStoredCounts() throws Exception {
+        Event event = createEvent(Event.EventStats.builder().totalViews(40).totalReviews(2).averageRating(4.5).build());
+
+        Event renamed = Event.builder().name("Renamed").capacity(10).build();
+        eventService.updateEvent(event.getId(), renamed);
+
+        Event.EventStats stats = eventRepository.findById(event.getId()).orElseThrow().getStats();
+        assertEquals(40, stats.getTotalViews());
+        assertEquals(2, stats.getTotalReviews());
+        assertEquals(4.5, stats.getAverageRating());
+    }
+
+    @Test
+    void viewsOfAnEventSeenRecentlySkipTheLookup() throws Exception {
+        Event event = createEvent(null);
+
+        assertFalse(statsService.isKnownEvent(event.getId()));
+        statsService.withCurrentStats(event);
+        assertTrue(statsService.isKnownEvent(event.getId()));
+    }
+
+    private Event createEvent(Event.EventStats stats) throws Exception {
+        Event event = Event.builder()
+                .name("Concert")
+                .capacity(10)
+                .stats(stats)
+                .build();
+        eventRepository.create(event);
+        return event;
+    }
+}
@@ -0,0 +1,50 @@
+package com.spacehackers.flysen.flysen_destination_events_service.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.OptionalDouble;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Configured rates, including none at all, and prices without a currency.
+ */
+class CurrencyRatesTest {
+
+    @Test
+    void withoutRatesOnlyTheBaseCurrencyConverts() {
+        CurrencyRates rates = new CurrencyRates(" xof ", List.of());
+
+        assertEquals("XOF", rates.getBaseCurrency());
+        assertTrue(rates.supports("Xof"));
+        assertFalse(rates.supports("EUR"));
+        assertFalse(rates.supports(null));
+        assertEquals(OptionalDouble.of(10.0), rates.toBase(10.0, "XOF"));
+        assertEquals(OptionalDouble.empty(), rates.toBase(10.0, "EUR"));
+        // No currency on a price means the base currency
+        assertEquals(OptionalDouble.of(10.0), rates.toBase(10.0, null));
+        assertEquals(OptionalDouble.of(10.0), rates.toBase(10.0, " "));
+    }
+
+    @Test
+    void convertsBothWays() {
+        CurrencyRates rates = new CurrencyRates("XOF", List.of(" eur : 655.957", "USD:600"));
+
+        assertEquals(OptionalDouble.of(1311.914), rates.toBase(2.0, "EUR"));
+        assertEquals(2.0, rates.fromBase(1311.914, "eur"), 1e-9);
+        assertEquals(3600.0, rates.toBase(6.0, "usd").orElseThrow());
+    }
+
+    @Test
+    void rejectsMalformedRates() {
+        assertThrows(IllegalArgumentException.class, () -> new CurrencyRates("XOF", List.of("EUR")));
+        assertThrows(IllegalArgumentException.class, () -> new CurrencyRates("XOF", List.of("EUR:1:2")));
+        assertThrows(IllegalArgumentException.class, () -> new CurrencyRates("XOF", List.of("EUR:0")));
+        assertThrows(IllegalArgumentException.class, () -> new CurrencyRates("XOF", List.of("EUR:-3")));
+        assertThrows(IllegalArgumentException.class, () -> new CurrencyRates("XOF", List.of("EUR:abc")));
+    }
+}